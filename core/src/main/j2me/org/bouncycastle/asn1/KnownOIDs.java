@@ -0,0 +1,13 @@
+package org.bouncycastle.asn1;
+
+/**
+ * The OIDs registered with {@link OIDTable} ahead of time - none here, as the constants can't be
+ * found without reflection.
+ */
+class KnownOIDs
+{
+    static ASN1ObjectIdentifier[] getAll()
+    {
+        return new ASN1ObjectIdentifier[0];
+    }
+}
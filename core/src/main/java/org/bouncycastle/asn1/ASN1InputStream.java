@@ -1,6 +1,5 @@
 package org.bouncycastle.asn1;
 
-import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.FilterInputStream;
 import java.io.IOException;
@@ -23,6 +22,9 @@
 
     private final byte[][] tmpBuffers;
 
+    // set when reading from an array, whose contents can then be referenced rather than copied
+    private final ByteArraySliceInputStream slice;
+
     public ASN1InputStream(
         InputStream is)
     {
@@ -38,13 +40,18 @@ public ASN1InputStream(
     public ASN1InputStream(
         byte[] input)
     {
-        this(new ByteArrayInputStream(input), input.length);
+        this(new ByteArraySliceInputStream(input, 0, input.length), input.length);
     }
 
     /**
      * Create an ASN1InputStream based on the input byte array. The length of DER objects in
      * the stream is automatically limited to the length of the input array.
      *
+     * <p>
+     * Lazily evaluated sequences refer to the input array until they are parsed, rather than
+     * holding a copy of their contents, so the array should not be changed while they are in use.
+     * </p>
+     *
      * @param input array containing ASN.1 encoded data.
      * @param lazyEvaluate true if parsing inside constructed objects can be delayed.
      */
@@ -52,7 +59,31 @@ public ASN1InputStream(
         byte[] input,
         boolean lazyEvaluate)
     {
-        this(new ByteArrayInputStream(input), input.length, lazyEvaluate);
+        this(new ByteArraySliceInputStream(input, 0, input.length), input.length, lazyEvaluate);
+    }
+
+    /**
+     * Create an ASN1InputStream based on part of the input byte array, for example the backing
+     * array of a ByteBuffer. The length of DER objects in the stream is automatically limited to
+     * the length given.
+     * <p>
+     * Constructed objects are decoded by reference to the array rather than copied out of it; with
+     * lazyEvaluate true sequences keep referring to it until they are parsed, so the array should
+     * not be changed while they are in use.
+     * </p>
+     *
+     * @param input array containing ASN.1 encoded data.
+     * @param off offset of the encoded data in the array.
+     * @param len length of the encoded data.
+     * @param lazyEvaluate true if parsing inside constructed objects can be delayed.
+     */
+    public ASN1InputStream(
+        byte[] input,
+        int off,
+        int len,
+        boolean lazyEvaluate)
+    {
+        this(new ByteArraySliceInputStream(input, off, len), len, lazyEvaluate);
     }
     
     /**
@@ -94,11 +125,21 @@ public ASN1InputStream(
         InputStream input,
         int         limit,
         boolean     lazyEvaluate)
+    {
+        this(input, limit, lazyEvaluate, new byte[11][]);
+    }
+
+    private ASN1InputStream(
+        InputStream input,
+        int         limit,
+        boolean     lazyEvaluate,
+        byte[][]    tmpBuffers)
     {
         super(input);
         this.limit = limit;
         this.lazyEvaluate = lazyEvaluate;
-        this.tmpBuffers = new byte[11][];
+        this.tmpBuffers = tmpBuffers;
+        this.slice = (input instanceof ByteArraySliceInputStream) ? (ByteArraySliceInputStream)input : null;
     }
 
     int getLimit()
@@ -166,6 +207,10 @@ protected ASN1Primitive buildObject(
                 case SEQUENCE:
                     if (lazyEvaluate)
                     {
+                        if (slice != null)
+                        {
+                            return new LazyEncodedSequence(slice.getBuffer(), slice.takeSlice(length), length);
+                        }
                         return new LazyEncodedSequence(defIn.toByteArray());
                     }
                     else
@@ -201,6 +246,19 @@ ASN1EncodableVector buildEncodableVector()
     ASN1EncodableVector buildDEREncodableVector(
         DefiniteLengthInputStream dIn) throws IOException
     {
+        if (slice != null)
+        {
+            /*
+             * Read the contents straight from the array, rather than through the stream for every
+             * enclosing level.
+             */
+            int length = dIn.getRemaining();
+            ByteArraySliceInputStream contents = new ByteArraySliceInputStream(slice.getBuffer(),
+                slice.takeSlice(length), length);
+
+            return new ASN1InputStream(contents, length, false, tmpBuffers).buildEncodableVector();
+        }
+
         return new ASN1InputStream(dIn).buildEncodableVector();
     }
 
@@ -1,7 +1,7 @@
 package org.bouncycastle.asn1;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 
 public abstract class ASN1Object
     implements ASN1Encodable
@@ -15,10 +15,11 @@
     public byte[] getEncoded()
         throws IOException
     {
-        ByteArrayOutputStream bOut = new ByteArrayOutputStream();
-        ASN1OutputStream      aOut = new ASN1OutputStream(bOut);
+        ASN1Primitive    primitive = this.toASN1Primitive();
+        EncodingBuffer   bOut = new EncodingBuffer(primitive.encodedLength());
+        ASN1OutputStream aOut = new ASN1OutputStream(bOut);
 
-        aOut.writeObject(this);
+        aOut.writeObject(primitive);
 
         return bOut.toByteArray();
     }
@@ -36,19 +37,15 @@ public byte[] getEncoded(
     {
         if (encoding.equals(ASN1Encoding.DER))
         {
-            ByteArrayOutputStream   bOut = new ByteArrayOutputStream();
-            DEROutputStream         dOut = new DEROutputStream(bOut);
-
-            dOut.writeObject(this);
-
-            return bOut.toByteArray();
+            return EncodingBuffer.encodeDER(this.toASN1Primitive().toDERObject());
         }
         else if (encoding.equals(ASN1Encoding.DL))
         {
-            ByteArrayOutputStream   bOut = new ByteArrayOutputStream();
-            DLOutputStream          dOut = new DLOutputStream(bOut);
+            ASN1Primitive   primitive = this.toASN1Primitive().toDLObject();
+            EncodingBuffer  bOut = new EncodingBuffer(primitive.encodedLength());
+            DLOutputStream  dOut = new DLOutputStream(bOut);
 
-            dOut.writeObject(this);
+            dOut.writeObject(primitive);
 
             return bOut.toByteArray();
         }
@@ -56,6 +53,48 @@ else if (encoding.equals(ASN1Encoding.DL))
         return this.getEncoded();
     }
 
+    /**
+     * Write the default BER or DER encoding for this object to a stream. Nothing is buffered on
+     * the way: the lengths of constructed objects are worked out first and the encoding is then
+     * written in a single pass.
+     *
+     * @param output the stream to write to.
+     * @throws IOException on encoding error.
+     */
+    public void encodeTo(
+        OutputStream output)
+        throws IOException
+    {
+        new ASN1OutputStream(output).writeObject(this);
+    }
+
+    /**
+     * Write either the default for "BER" or a DER encoding if "DER" is specified to a stream,
+     * as for {@link #encodeTo(OutputStream)}.
+     *
+     * @param output the stream to write to.
+     * @param encoding name of encoding to use.
+     * @throws IOException on encoding error.
+     */
+    public void encodeTo(
+        OutputStream output,
+        String       encoding)
+        throws IOException
+    {
+        if (encoding.equals(ASN1Encoding.DER))
+        {
+            new DEROutputStream(output).writeObject(this);
+        }
+        else if (encoding.equals(ASN1Encoding.DL))
+        {
+            new DLOutputStream(output).writeObject(this);
+        }
+        else
+        {
+            encodeTo(output);
+        }
+    }
+
     public int hashCode()
     {
         return this.toASN1Primitive().hashCode();
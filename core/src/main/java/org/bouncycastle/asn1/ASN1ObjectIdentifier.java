@@ -39,4 +39,16 @@ public boolean on(ASN1ObjectIdentifier stem)
         String id = getId(), stemId = stem.getId();
         return id.length() > stemId.length() && id.charAt(stemId.length()) == '.' && id.startsWith(stemId);
     }
+
+    /**
+     * Return the canonical instance of this OID - the one returned when it is decoded. The
+     * well known OIDs are always canonical; others become so the first time they are seen, and
+     * stay so while they remain in the bounded table of recently seen OIDs.
+     *
+     * @return an OID equal to this one, usually shared.
+     */
+    public ASN1ObjectIdentifier intern()
+    {
+        return OIDTable.intern(this);
+    }
 }
@@ -71,6 +71,30 @@ void writeEncoded(
         write(bytes);
     }
 
+    void writeEncoded(
+        int     tag,
+        byte[]  bytes,
+        int     off,
+        int     len)
+        throws IOException
+    {
+        write(tag);
+        writeLength(len);
+        write(bytes, off, len);
+    }
+
+    /*
+     * Write a complete encoding kept by a constructed object whose contents don't change, so
+     * it doesn't have to be worked out again. The tag goes on its own, so an implicit tag can
+     * replace it.
+     */
+    void writeEncoding(byte[] encoding)
+        throws IOException
+    {
+        write(encoding[0]);
+        write(encoding, 1, encoding.length - 1);
+    }
+
     void writeTag(int flags, int tagNo)
         throws IOException
     {
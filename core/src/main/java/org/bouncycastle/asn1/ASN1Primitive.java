@@ -47,6 +47,11 @@ public ASN1Primitive toASN1Primitive()
         return this;
     }
 
+    /*
+     * Return this object in DER (or, for toDLObject(), definite length) form. Constructed
+     * types already in the required form return themselves rather than a copy, so the lengths
+     * they have calculated for their contents are kept for the encoding that follows.
+     */
     ASN1Primitive toDERObject()
     {
         return this;
@@ -0,0 +1,399 @@
+package org.bouncycastle.asn1;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A pull parser for BER/DER encodings, reporting each element as an event rather than building
+ * objects, so structures far larger than memory - a CRL with millions of entries, say - can be
+ * worked through a piece at a time. Only the elements passed to {@link #readObject()} are ever
+ * built.
+ * <pre>
+ *     ASN1PullParser parser = new ASN1PullParser(in);
+ *
+ *     while (parser.next() != ASN1PullParser.END_OF_INPUT)
+ *     {
+ *         if (parser.getEventType() == ASN1PullParser.START_CONSTRUCTED &amp;&amp; !wanted(parser))
+ *         {
+ *             parser.skip();
+ *         }
+ *         ...
+ *     }
+ * </pre>
+ */
+public class ASN1PullParser
+{
+    /**
+     * The start of a constructed element; its contents are reported next, followed by an
+     * {@link #END_CONSTRUCTED} event.
+     */
+    public static final int START_CONSTRUCTED = 1;
+
+    /**
+     * A primitive element, whose contents can be read from {@link #getContentStream()}.
+     */
+    public static final int PRIMITIVE = 2;
+
+    /**
+     * The end of the contents of the constructed element most recently started.
+     */
+    public static final int END_CONSTRUCTED = 3;
+
+    /**
+     * The end of the input.
+     */
+    public static final int END_OF_INPUT = 4;
+
+    private final InputStream _in;
+    private final int         _limit;
+    private final byte[][]    tmpBuffers = new byte[11][];
+
+    private InputStream[] open = new InputStream[8];
+    private int           depth = 0;
+
+    private int         event = 0;
+    private int         tag;
+    private int         tagNo;
+    private int         length;
+    private InputStream content;
+
+    private byte[] skipBuf;
+
+    public ASN1PullParser(
+        InputStream in)
+    {
+        this(in, StreamUtil.findLimit(in));
+    }
+
+    public ASN1PullParser(
+        InputStream in,
+        int         limit)
+    {
+        this._in = in;
+        this._limit = limit;
+    }
+
+    public ASN1PullParser(
+        byte[] encoding)
+    {
+        this(new ByteArrayInputStream(encoding), encoding.length);
+    }
+
+    /**
+     * Move to the next event. Whatever is left of the current element's contents is passed over,
+     * unless it is a constructed element, in which case its contents are reported next.
+     *
+     * @return the type of the event moved to.
+     * @throws IOException if the input can't be read or is badly encoded.
+     */
+    public int next()
+        throws IOException
+    {
+        if (event == PRIMITIVE)
+        {
+            drain(content);
+        }
+        else if (event == START_CONSTRUCTED)
+        {
+            if (depth == open.length)
+            {
+                InputStream[] tmp = new InputStream[depth * 2];
+                System.arraycopy(open, 0, tmp, 0, depth);
+                open = tmp;
+            }
+            open[depth++] = content;
+        }
+
+        content = null;
+
+        InputStream in = (depth == 0) ? _in : open[depth - 1];
+        int limit = (depth == 0) ? _limit : StreamUtil.findLimit(in);
+
+        int b = in.read();
+        if (b < 0)
+        {
+            if (depth == 0)
+            {
+                return event = END_OF_INPUT;
+            }
+
+            open[--depth] = null;
+
+            return event = END_CONSTRUCTED;
+        }
+
+        if (b == 0)
+        {
+            throw new IOException("unexpected end-of-contents marker");
+        }
+
+        //
+        // turn off looking for "00" while we resolve the tag
+        //
+        if (in instanceof IndefiniteLengthInputStream)
+        {
+            ((IndefiniteLengthInputStream)in).setEofOn00(false);
+        }
+
+        tag = b;
+        tagNo = ASN1InputStream.readTagNumber(in, b);
+        length = ASN1InputStream.readLength(in, limit);
+
+        boolean isConstructed = (b & BERTags.CONSTRUCTED) != 0;
+
+        if (length < 0) // indefinite length method
+        {
+            if (!isConstructed)
+            {
+                throw new IOException("indefinite length primitive encoding encountered");
+            }
+
+            content = new IndefiniteLengthInputStream(in, limit);
+        }
+        else
+        {
+            content = new DefiniteLengthInputStream(in, length);
+        }
+
+        return event = isConstructed ? START_CONSTRUCTED : PRIMITIVE;
+    }
+
+    /**
+     * Return the type of the current event, or 0 if there isn't one, either because
+     * {@link #next()} hasn't been called yet, or because the element reported by the last event
+     * has been skipped or read.
+     *
+     * @return the current event type.
+     */
+    public int getEventType()
+    {
+        return event;
+    }
+
+    /**
+     * Return the number of constructed elements the current event is inside of. Top level
+     * elements have a depth of zero.
+     *
+     * @return the current depth.
+     */
+    public int getDepth()
+    {
+        return depth;
+    }
+
+    /**
+     * Return the tag number of the current element.
+     *
+     * @return the tag number.
+     */
+    public int getTagNo()
+    {
+        checkElement();
+
+        return tagNo;
+    }
+
+    /**
+     * Return the class bits of the current element's tag - zero for universal tags, otherwise
+     * some combination of {@link BERTags#APPLICATION} and {@link BERTags#TAGGED}.
+     *
+     * @return the tag class.
+     */
+    public int getTagClass()
+    {
+        checkElement();
+
+        return tag & (BERTags.APPLICATION | BERTags.TAGGED);
+    }
+
+    /**
+     * @return true if the current element is constructed, false otherwise.
+     */
+    public boolean isConstructed()
+    {
+        checkElement();
+
+        return event == START_CONSTRUCTED;
+    }
+
+    /**
+     * Return the length of the current element's contents.
+     *
+     * @return the length, or -1 if the indefinite length form is used.
+     */
+    public int getLength()
+    {
+        checkElement();
+
+        return length;
+    }
+
+    /**
+     * Return a stream over the contents of the current primitive element. The stream ends with
+     * the contents, and anything not read from it is passed over by the next call to
+     * {@link #next()}.
+     *
+     * @return the contents of the current element.
+     */
+    public InputStream getContentStream()
+    {
+        checkPrimitive();
+
+        return content;
+    }
+
+    /**
+     * Return what is left of the contents of the current primitive element.
+     *
+     * @return the element's contents.
+     * @throws IOException if the input can't be read.
+     */
+    public byte[] getContents()
+        throws IOException
+    {
+        checkPrimitive();
+
+        return ((DefiniteLengthInputStream)content).toByteArray();
+    }
+
+    /**
+     * Pass over the current element, including, if it is constructed, all of its contents.
+     * No events are reported for anything skipped, and the next call to {@link #next()} reports
+     * whatever follows the element.
+     *
+     * @throws IOException if the input can't be read or is badly encoded.
+     */
+    public void skip()
+        throws IOException
+    {
+        checkElement();
+
+        if (content instanceof DefiniteLengthInputStream)
+        {
+            // nothing inside needs looking at - the contents can simply be passed over
+            drain(content);
+
+            content = null;
+            event = 0;
+        }
+        else
+        {
+            // the end of indefinite length contents can only be found by parsing them
+            int startDepth = depth;
+
+            while (next() != END_CONSTRUCTED || depth != startDepth)
+            {
+                if (event == START_CONSTRUCTED)
+                {
+                    skip();
+                }
+                else if (event == END_OF_INPUT)
+                {
+                    throw new EOFException("EOF found inside indefinite length element");
+                }
+            }
+
+            event = 0;
+        }
+    }
+
+    /**
+     * Build an object for the current element, along with all of its contents. The next call
+     * to {@link #next()} reports whatever follows the element.
+     *
+     * @return the object for the current element.
+     * @throws IOException if the input can't be read or is badly encoded.
+     */
+    public ASN1Primitive readObject()
+        throws IOException
+    {
+        checkElement();
+
+        InputStream in = content;
+
+        content = null;
+        event = 0;
+
+        if (length < 0)
+        {
+            ASN1StreamParser sp = new ASN1StreamParser(in, _limit);
+
+            if ((tag & BERTags.APPLICATION) != 0)
+            {
+                return new BERApplicationSpecificParser(tagNo, sp).getLoadedObject();
+            }
+
+            if ((tag & BERTags.TAGGED) != 0)
+            {
+                return new BERTaggedObjectParser(true, tagNo, sp).getLoadedObject();
+            }
+
+            switch (tagNo)
+            {
+                case BERTags.OCTET_STRING:
+                    return new BEROctetStringParser(sp).getLoadedObject();
+                case BERTags.SEQUENCE:
+                    return new BERSequenceParser(sp).getLoadedObject();
+                case BERTags.SET:
+                    return new BERSetParser(sp).getLoadedObject();
+                case BERTags.EXTERNAL:
+                    return new DERExternalParser(sp).getLoadedObject();
+                default:
+                    throw new IOException("unknown BER object encountered");
+            }
+        }
+
+        if ((tag & (BERTags.CONSTRUCTED | BERTags.APPLICATION | BERTags.TAGGED)) == 0)
+        {
+            try
+            {
+                return ASN1InputStream.createPrimitiveDERObject(tagNo, (DefiniteLengthInputStream)in, tmpBuffers);
+            }
+            catch (IllegalArgumentException e)
+            {
+                throw new ASN1Exception("corrupted stream detected", e);
+            }
+        }
+
+        try
+        {
+            return new ASN1InputStream(in, length).buildObject(tag, tagNo, length);
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new ASN1Exception("corrupted stream detected", e);
+        }
+    }
+
+    private void checkElement()
+    {
+        if (event != START_CONSTRUCTED && event != PRIMITIVE)
+        {
+            throw new IllegalStateException("no current element");
+        }
+    }
+
+    private void checkPrimitive()
+    {
+        if (event != PRIMITIVE)
+        {
+            throw new IllegalStateException("current element not primitive");
+        }
+    }
+
+    private void drain(InputStream in)
+        throws IOException
+    {
+        if (skipBuf == null)
+        {
+            skipBuf = new byte[4096];
+        }
+
+        while (in.read(skipBuf, 0, skipBuf.length) >= 0)
+        {
+            // ignore
+        }
+    }
+}
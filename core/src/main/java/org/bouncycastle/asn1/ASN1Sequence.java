@@ -9,6 +9,9 @@
 {
     protected Vector seq = new Vector();
 
+    private int hashCodeValue;
+    private volatile ASN1Primitive derObject;
+
     /**
      * return an ASN1Sequence from the given object.
      *
@@ -232,15 +235,23 @@ public int size()
 
     public int hashCode()
     {
-        Enumeration             e = this.getObjects();
-        int                     hashCode = size();
+        int hashCode = hashCodeValue;
 
-        while (e.hasMoreElements())
+        if (hashCode == 0)
         {
-            Object o = getNext(e);
-            hashCode *= 17;
+            Enumeration             e = this.getObjects();
+
+            hashCode = size();
+
+            while (e.hasMoreElements())
+            {
+                Object o = getNext(e);
+                hashCode *= 17;
+
+                hashCode ^= o.hashCode();
+            }
 
-            hashCode ^= o.hashCode();
+            hashCodeValue = hashCode;
         }
 
         return hashCode;
@@ -292,9 +303,17 @@ private ASN1Encodable getNext(Enumeration e)
 
     ASN1Primitive toDERObject()
     {
-        ASN1Sequence derSeq = new DERSequence();
+        ASN1Primitive derSeq = derObject;
+
+        // kept, so its lengths and encoding are only worked out once
+        if (derSeq == null)
+        {
+            ASN1Sequence tmp = new DERSequence();
 
-        derSeq.seq = this.seq;
+            tmp.seq = this.seq;
+
+            derSeq = derObject = tmp;
+        }
 
         return derSeq;
     }
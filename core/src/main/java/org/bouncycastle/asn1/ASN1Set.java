@@ -1,6 +1,5 @@
 package org.bouncycastle.asn1;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.Enumeration;
 import java.util.Vector;
@@ -9,7 +8,10 @@
     extends ASN1Primitive
 {
     private Vector set = new Vector();
-    private boolean isSorted = false;
+    boolean isSorted = false;
+
+    private int hashCodeValue;
+    private volatile ASN1Primitive derObject;
 
     /**
      * return an ASN1Set from the given object.
@@ -261,15 +263,23 @@ public ASN1Primitive toASN1Primitive()
 
     public int hashCode()
     {
-        Enumeration             e = this.getObjects();
-        int                     hashCode = size();
+        int hashCode = hashCodeValue;
 
-        while (e.hasMoreElements())
+        if (hashCode == 0)
         {
-            Object o = getNext(e);
-            hashCode *= 17;
+            Enumeration             e = this.getObjects();
+
+            hashCode = size();
+
+            while (e.hasMoreElements())
+            {
+                Object o = getNext(e);
+                hashCode *= 17;
+
+                hashCode ^= o.hashCode();
+            }
 
-            hashCode ^= o.hashCode();
+            hashCodeValue = hashCode;
         }
 
         return hashCode;
@@ -277,31 +287,35 @@ public int hashCode()
 
     ASN1Primitive toDERObject()
     {
-        if (isSorted)
-        {
-            ASN1Set derSet = new DERSet();
-
-            derSet.set = this.set;
+        ASN1Primitive derSet = derObject;
 
-            return derSet;
-        }
-        else
+        // kept, so the set is only sorted, and its encoding worked out, once
+        if (derSet == null)
         {
-            Vector v = new Vector();
+            ASN1Set tmp = new DERSet();
 
-            for (int i = 0; i != set.size(); i++)
+            if (isSorted)
             {
-                v.addElement(set.elementAt(i));
+                tmp.set = this.set;
             }
+            else
+            {
+                Vector v = new Vector();
 
-            ASN1Set derSet = new DERSet();
+                for (int i = 0; i != set.size(); i++)
+                {
+                    v.addElement(set.elementAt(i));
+                }
 
-            derSet.set = v;
+                tmp.set = v;
 
-            derSet.sort();
+                tmp.sort();
+            }
 
-            return derSet;
+            derSet = derObject = tmp;
         }
+
+        return derSet;
     }
 
     ASN1Primitive toDLObject()
@@ -384,19 +398,20 @@ private boolean lessThanOrEqual(
     private byte[] getEncoded(
         ASN1Encodable obj)
     {
-        ByteArrayOutputStream   bOut = new ByteArrayOutputStream();
-        ASN1OutputStream        aOut = new ASN1OutputStream(bOut);
-
         try
         {
-            aOut.writeObject(obj);
+            ASN1Primitive    primitive = obj.toASN1Primitive();
+            EncodingBuffer   bOut = new EncodingBuffer(primitive.encodedLength());
+            ASN1OutputStream aOut = new ASN1OutputStream(bOut);
+
+            aOut.writeObject(primitive);
+
+            return bOut.toByteArray();
         }
         catch (IOException e)
         {
             throw new IllegalArgumentException("cannot encode object added to SET");
         }
-
-        return bOut.toByteArray();
     }
 
     protected void sort()
@@ -406,41 +421,68 @@ protected void sort()
             isSorted = true;
             if (set.size() > 1)
             {
-                boolean    swapped = true;
-                int        lastSwap = set.size() - 1;
+                int      count = set.size();
+                Object[] items = new Object[count];
+                byte[][] keys = new byte[count][];
 
-                while (swapped)
+                // encode each element once, rather than on every comparison
+                for (int i = 0; i != count; i++)
                 {
-                    int    index = 0;
-                    int    swapIndex = 0;
-                    byte[] a = getEncoded((ASN1Encodable)set.elementAt(0));
+                    items[i] = set.elementAt(i);
+                    keys[i] = getEncoded((ASN1Encodable)items[i]);
+                }
 
-                    swapped = false;
+                mergeSort(keys, items, new byte[count][], new Object[count], 0, count);
 
-                    while (index != lastSwap)
-                    {
-                        byte[] b = getEncoded((ASN1Encodable)set.elementAt(index + 1));
+                for (int i = 0; i != count; i++)
+                {
+                    set.setElementAt(items[i], i);
+                }
+            }
+        }
+    }
 
-                        if (lessThanOrEqual(a, b))
-                        {
-                            a = b;
-                        }
-                        else
-                        {
-                            Object  o = set.elementAt(index);
+    /*
+     * A stable sort of keys[from..to), moving items in step, so equal encodings keep their order.
+     */
+    private void mergeSort(
+        byte[][] keys,
+        Object[] items,
+        byte[][] tmpKeys,
+        Object[] tmpItems,
+        int      from,
+        int      to)
+    {
+        if (to - from < 2)
+        {
+            return;
+        }
 
-                            set.setElementAt(set.elementAt(index + 1), index);
-                            set.setElementAt(o, index + 1);
+        int mid = (from + to) >>> 1;
 
-                            swapped = true;
-                            swapIndex = index;
-                        }
+        mergeSort(keys, items, tmpKeys, tmpItems, from, mid);
+        mergeSort(keys, items, tmpKeys, tmpItems, mid, to);
 
-                        index++;
-                    }
+        if (lessThanOrEqual(keys[mid - 1], keys[mid]))
+        {
+            return;
+        }
 
-                    lastSwap = swapIndex;
-                }
+        System.arraycopy(keys, from, tmpKeys, from, to - from);
+        System.arraycopy(items, from, tmpItems, from, to - from);
+
+        int i = from, j = mid;
+        for (int k = from; k != to; k++)
+        {
+            if (j == to || (i != mid && lessThanOrEqual(tmpKeys[i], tmpKeys[j])))
+            {
+                keys[k] = tmpKeys[i];
+                items[k] = tmpItems[i++];
+            }
+            else
+            {
+                keys[k] = tmpKeys[j];
+                items[k] = tmpItems[j++];
             }
         }
     }
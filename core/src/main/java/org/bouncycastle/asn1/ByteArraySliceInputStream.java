@@ -0,0 +1,39 @@
+package org.bouncycastle.asn1;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+
+/**
+ * A ByteArrayInputStream over part of an array, which lets the decoder take the contents of a
+ * constructed object by reference to the array rather than copying them out.
+ */
+class ByteArraySliceInputStream
+    extends ByteArrayInputStream
+{
+    ByteArraySliceInputStream(byte[] buf, int offset, int length)
+    {
+        super(buf, offset, length);
+    }
+
+    byte[] getBuffer()
+    {
+        return buf;
+    }
+
+    /**
+     * Skip over the next length bytes, returning where in the array they start.
+     */
+    int takeSlice(int length)
+        throws EOFException
+    {
+        int available = count - pos;
+        if (length > available)
+        {
+            throw new EOFException("DEF length " + length + " object truncated by " + (length - available));
+        }
+
+        int offset = pos;
+        pos += length;
+        return offset;
+    }
+}
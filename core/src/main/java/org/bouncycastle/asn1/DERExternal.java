@@ -1,6 +1,5 @@
 package org.bouncycastle.asn1;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 /**
@@ -120,10 +119,32 @@ boolean isConstructed()
         return true;
     }
 
+    private int getBodyLength()
+        throws IOException
+    {
+        int length = 0;
+        if (directReference != null)
+        {
+            length += directReference.toDERObject().encodedLength();
+        }
+        if (indirectReference != null)
+        {
+            length += indirectReference.toDERObject().encodedLength();
+        }
+        if (dataValueDescriptor != null)
+        {
+            length += dataValueDescriptor.toDERObject().encodedLength();
+        }
+        length += new DERTaggedObject(true, encoding, externalContent).encodedLength();
+        return length;
+    }
+
     int encodedLength()
         throws IOException
     {
-        return this.getEncoded().length;
+        int length = getBodyLength();
+
+        return 1 + StreamUtil.calculateBodyLength(length) + length;
     }
 
     /* (non-Javadoc)
@@ -132,22 +153,24 @@ int encodedLength()
     void encode(ASN1OutputStream out)
         throws IOException
     {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        ASN1OutputStream dOut = out.getDERSubStream();
+
+        out.writeTag(BERTags.CONSTRUCTED, BERTags.EXTERNAL);
+        out.writeLength(getBodyLength());
+
         if (directReference != null)
         {
-            baos.write(directReference.getEncoded(ASN1Encoding.DER));
+            dOut.writeObject(directReference);
         }
         if (indirectReference != null)
         {
-            baos.write(indirectReference.getEncoded(ASN1Encoding.DER));
+            dOut.writeObject(indirectReference);
         }
         if (dataValueDescriptor != null)
         {
-            baos.write(dataValueDescriptor.getEncoded(ASN1Encoding.DER));
+            dOut.writeObject(dataValueDescriptor);
         }
-        DERTaggedObject obj = new DERTaggedObject(true, encoding, externalContent);
-        baos.write(obj.getEncoded(ASN1Encoding.DER));
-        out.writeEncoded(BERTags.CONSTRUCTED, BERTags.EXTERNAL, baos.toByteArray());
+        dOut.writeObject(new DERTaggedObject(true, encoding, externalContent));
     }
 
     /* (non-Javadoc)
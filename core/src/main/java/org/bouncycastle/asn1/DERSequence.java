@@ -3,10 +3,13 @@
 import java.io.IOException;
 import java.util.Enumeration;
 
+import org.bouncycastle.util.Arrays;
+
 public class DERSequence
     extends ASN1Sequence
 {
     private int bodyLength = -1;
+    private volatile byte[] derEncoding;
 
     /**
      * create an empty sequence
@@ -62,14 +65,55 @@ private int getBodyLength()
         return bodyLength;
     }
 
+    private byte[] getDEREncoding()
+        throws IOException
+    {
+        byte[] enc = derEncoding;
+        if (enc == null)
+        {
+            enc = derEncoding = EncodingBuffer.encodeDER(this);
+        }
+
+        return enc;
+    }
+
+    public byte[] getEncoded()
+        throws IOException
+    {
+        return Arrays.clone(getDEREncoding());
+    }
+
+    public byte[] getEncoded(
+        String encoding)
+        throws IOException
+    {
+        if (encoding.equals(ASN1Encoding.DL))
+        {
+            return super.getEncoded(encoding);
+        }
+
+        return Arrays.clone(getDEREncoding());
+    }
+
     int encodedLength()
         throws IOException
     {
+        byte[] enc = derEncoding;
+        if (enc != null)
+        {
+            return enc.length;
+        }
+
         int length = getBodyLength();
 
         return 1 + StreamUtil.calculateBodyLength(length) + length;
     }
 
+    ASN1Primitive toDERObject()
+    {
+        return this;
+    }
+
     /*
      * A note on the implementation:
      * <p>
@@ -82,6 +126,13 @@ void encode(
         ASN1OutputStream out)
         throws IOException
     {
+        byte[] enc = derEncoding;
+        if (enc != null)
+        {
+            out.writeEncoding(enc);
+            return;
+        }
+
         ASN1OutputStream        dOut = out.getDERSubStream();
         int                     length = getBodyLength();
 
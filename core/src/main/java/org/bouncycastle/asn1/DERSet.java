@@ -3,6 +3,8 @@
 import java.io.IOException;
 import java.util.Enumeration;
 
+import org.bouncycastle.util.Arrays;
+
 /**
  * A DER encoded set object
  */
@@ -10,6 +12,7 @@
     extends ASN1Set
 {
     private int bodyLength = -1;
+    private volatile byte[] derEncoding;
 
     /**
      * create an empty set
@@ -72,14 +75,66 @@ private int getBodyLength()
         return bodyLength;
     }
 
+    private byte[] getDEREncoding()
+        throws IOException
+    {
+        byte[] enc = derEncoding;
+        if (enc == null)
+        {
+            enc = derEncoding = EncodingBuffer.encodeDER(this);
+        }
+
+        return enc;
+    }
+
+    public byte[] getEncoded()
+        throws IOException
+    {
+        if (!isSorted)
+        {
+            // parsed, and written in the order it was read unless DER is asked for
+            return super.getEncoded();
+        }
+
+        return Arrays.clone(getDEREncoding());
+    }
+
+    public byte[] getEncoded(
+        String encoding)
+        throws IOException
+    {
+        if (!isSorted || encoding.equals(ASN1Encoding.DL))
+        {
+            return super.getEncoded(encoding);
+        }
+
+        return Arrays.clone(getDEREncoding());
+    }
+
     int encodedLength()
         throws IOException
     {
+        byte[] enc = derEncoding;
+        if (enc != null)
+        {
+            return enc.length;
+        }
+
         int length = getBodyLength();
 
         return 1 + StreamUtil.calculateBodyLength(length) + length;
     }
 
+    ASN1Primitive toDERObject()
+    {
+        if (isSorted)
+        {
+            return this;
+        }
+
+        return super.toDERObject();
+    }
+
     /*
      * A note on the implementation:
      * <p>
@@ -92,6 +147,13 @@ void encode(
         ASN1OutputStream out)
         throws IOException
     {
+        byte[] enc = derEncoding;
+        if (enc != null)
+        {
+            out.writeEncoding(enc);
+            return;
+        }
+
         ASN1OutputStream        dOut = out.getDERSubStream();
         int                     length = getBodyLength();
 
@@ -77,6 +77,11 @@ int encodedLength()
         }
     }
 
+    ASN1Primitive toDERObject()
+    {
+        return this;
+    }
+
     void encode(
         ASN1OutputStream out)
         throws IOException
@@ -73,6 +73,11 @@ int encodedLength()
         return 1 + StreamUtil.calculateBodyLength(length) + length;
     }
 
+    ASN1Primitive toDLObject()
+    {
+        return this;
+    }
+
     /**
      * A note on the implementation:
      * <p>
@@ -71,6 +71,11 @@ int encodedLength()
         }
     }
 
+    ASN1Primitive toDLObject()
+    {
+        return this;
+    }
+
     void encode(
         ASN1OutputStream out)
         throws IOException
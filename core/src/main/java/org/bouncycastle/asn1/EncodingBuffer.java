@@ -0,0 +1,73 @@
+package org.bouncycastle.asn1;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An output stream collecting an encoding whose length has been worked out in advance, so the
+ * array written to can be handed back as is. Should the estimate be off the array is grown or
+ * trimmed, so the result is always what was written.
+ */
+class EncodingBuffer
+    extends OutputStream
+{
+    private byte[] buf;
+    private int count;
+
+    /**
+     * Return the DER encoding of obj, in an array of exactly the right size.
+     */
+    static byte[] encodeDER(ASN1Primitive obj)
+        throws IOException
+    {
+        EncodingBuffer  bOut = new EncodingBuffer(obj.encodedLength());
+        DEROutputStream dOut = new DEROutputStream(bOut);
+
+        dOut.writeObject(obj);
+
+        return bOut.toByteArray();
+    }
+
+    EncodingBuffer(int expectedLength)
+    {
+        buf = new byte[Math.max(expectedLength, 0)];
+    }
+
+    public void write(int b)
+    {
+        if (count == buf.length)
+        {
+            grow(1);
+        }
+        buf[count++] = (byte)b;
+    }
+
+    public void write(byte[] b, int off, int len)
+    {
+        if (count + len > buf.length)
+        {
+            grow(len);
+        }
+        System.arraycopy(b, off, buf, count, len);
+        count += len;
+    }
+
+    private void grow(int len)
+    {
+        byte[] tmp = new byte[Math.max(buf.length * 2, count + len)];
+        System.arraycopy(buf, 0, tmp, 0, count);
+        buf = tmp;
+    }
+
+    byte[] toByteArray()
+    {
+        if (count == buf.length)
+        {
+            return buf;
+        }
+
+        byte[] tmp = new byte[count];
+        System.arraycopy(buf, 0, tmp, 0, count);
+        return tmp;
+    }
+}
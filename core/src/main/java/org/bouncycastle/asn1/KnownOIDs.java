@@ -0,0 +1,57 @@
+package org.bouncycastle.asn1;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Vector;
+
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.asn1.x500.style.BCStyle;
+import org.bouncycastle.asn1.x509.X509ObjectIdentifiers;
+
+/**
+ * The OIDs registered with {@link OIDTable} ahead of time, so decoding one of them returns the
+ * constant defined for it.
+ */
+class KnownOIDs
+{
+    private static final Class[] sources =
+    {
+        X509ObjectIdentifiers.class,
+        PKCSObjectIdentifiers.class,
+        BCStyle.class
+    };
+
+    static ASN1ObjectIdentifier[] getAll()
+    {
+        Vector oids = new Vector();
+
+        for (int i = 0; i != sources.length; i++)
+        {
+            Field[] fields = sources[i].getFields();
+            for (int j = 0; j != fields.length; j++)
+            {
+                Field field = fields[j];
+                if (Modifier.isStatic(field.getModifiers())
+                    && ASN1ObjectIdentifier.class.isAssignableFrom(field.getType()))
+                {
+                    try
+                    {
+                        Object oid = field.get(null);
+                        if (oid != null)
+                        {
+                            oids.addElement(oid);
+                        }
+                    }
+                    catch (IllegalAccessException e)
+                    {
+                        // public fields only, so can't happen
+                    }
+                }
+            }
+        }
+
+        ASN1ObjectIdentifier[] result = new ASN1ObjectIdentifier[oids.size()];
+        oids.copyInto(result);
+        return result;
+    }
+}
@@ -10,100 +10,95 @@
     extends ASN1Sequence
 {
     private byte[] encoded;
+    private int off, len;
+    private boolean parsed;
 
     LazyEncodedSequence(
         byte[] encoded)
         throws IOException
     {
-        this.encoded = encoded;
+        this(encoded, 0, encoded.length);
     }
 
-    private void parse()
+    /**
+     * The contents are referenced, not copied, so may be part of a larger encoding.
+     */
+    LazyEncodedSequence(
+        byte[] encoded,
+        int    off,
+        int    len)
     {
-        Enumeration en = new LazyConstructionEnumeration(encoded);
+        this.encoded = encoded;
+        this.off = off;
+        this.len = len;
+    }
 
-        while (en.hasMoreElements())
+    private synchronized void parse()
+    {
+        if (!parsed)
         {
-            seq.addElement(en.nextElement());
-        }
+            Enumeration en = new LazyConstructionEnumeration(encoded, off, len);
 
-        encoded = null;
+            while (en.hasMoreElements())
+            {
+                seq.addElement(en.nextElement());
+            }
+
+            parsed = true;
+        }
     }
 
     public synchronized ASN1Encodable getObjectAt(int index)
     {
-        if (encoded != null)
-        {
-            parse();
-        }
+        parse();
 
         return super.getObjectAt(index);
     }
 
     public synchronized Enumeration getObjects()
     {
-        if (encoded == null)
+        if (parsed)
         {
             return super.getObjects();
         }
 
-        return new LazyConstructionEnumeration(encoded);
+        return new LazyConstructionEnumeration(encoded, off, len);
     }
 
     public synchronized int size()
     {
-        if (encoded != null)
-        {
-            parse();
-        }
+        parse();
 
         return super.size();
     }
 
     ASN1Primitive toDERObject()
     {
-        if (encoded != null)
-        {
-            parse();
-        }
+        parse();
 
         return super.toDERObject();
     }
 
     ASN1Primitive toDLObject()
     {
-        if (encoded != null)
-        {
-            parse();
-        }
+        parse();
 
         return super.toDLObject();
     }
 
+    /*
+     * The original encoding is kept once the contents have been parsed, and written out as is.
+     */
     int encodedLength()
         throws IOException
     {
-        if (encoded != null)
-        {
-            return 1 + StreamUtil.calculateBodyLength(encoded.length) + encoded.length;
-        }
-        else
-        {
-            return super.toDLObject().encodedLength();
-        }
+        return 1 + StreamUtil.calculateBodyLength(len) + len;
     }
 
     void encode(
         ASN1OutputStream out)
         throws IOException
     {
-        if (encoded != null)
-        {
-            out.writeEncoded(BERTags.SEQUENCE | BERTags.CONSTRUCTED, encoded);
-        }
-        else
-        {
-            super.toDLObject().encode(out);
-        }
+        out.writeEncoded(BERTags.SEQUENCE | BERTags.CONSTRUCTED, encoded, off, len);
     }
 }
@@ -0,0 +1,178 @@
+package org.bouncycastle.asn1;
+
+/**
+ * A bounded table of canonical object identifiers, keyed on their encoded bodies, used when
+ * decoding. An OID seen before is found without being parsed again, and decoding it returns the
+ * same instance each time, so comparing two decoded OIDs is usually just an identity check.
+ * <p>
+ * The well known OIDs from {@link KnownOIDs} are held permanently; others share a fixed number of
+ * slots, spread over independently locked stripes, with older entries giving way to new ones once
+ * a stripe fills.
+ * </p>
+ */
+class OIDTable
+{
+    private static final int STRIPES = 16;
+    private static final int STRIPE_SIZE = 256;
+    private static final int PROBES = 4;
+
+    private static final Stripe[] stripes = new Stripe[STRIPES];
+
+    static
+    {
+        for (int i = 0; i != STRIPES; i++)
+        {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    private static class Stripe
+    {
+        final ASN1ObjectIdentifier[] entries = new ASN1ObjectIdentifier[STRIPE_SIZE];
+        int victim;
+    }
+
+    // built once, on first use, and only read afterwards
+    private static class Known
+    {
+        static final ASN1ObjectIdentifier[] table;
+
+        static
+        {
+            ASN1ObjectIdentifier[] oids = KnownOIDs.getAll();
+
+            int size = 16;
+            while (size < oids.length * 2)
+            {
+                size <<= 1;
+            }
+
+            table = new ASN1ObjectIdentifier[size];
+            for (int i = 0; i != oids.length; i++)
+            {
+                byte[] body = oids[i].getBody();
+                int index = hash(body) & (size - 1);
+                while (table[index] != null)
+                {
+                    if (matches(table[index], body))
+                    {
+                        break;
+                    }
+                    index = (index + 1) & (size - 1);
+                }
+                if (table[index] == null)
+                {
+                    table[index] = oids[i];
+                }
+            }
+        }
+
+        static ASN1ObjectIdentifier lookup(byte[] body, int hash)
+        {
+            int mask = table.length - 1;
+            int index = hash & mask;
+            ASN1ObjectIdentifier oid;
+            while ((oid = table[index]) != null)
+            {
+                if (matches(oid, body))
+                {
+                    return oid;
+                }
+                index = (index + 1) & mask;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Return the canonical OID for an encoded body, creating and registering one if there is
+     * none. The passed in array is not retained.
+     */
+    static ASN1ObjectIdentifier intern(byte[] body)
+    {
+        return intern(body, null);
+    }
+
+    /**
+     * Return the canonical instance for an OID, registering it if there is none.
+     */
+    static ASN1ObjectIdentifier intern(ASN1ObjectIdentifier candidate)
+    {
+        return intern(candidate.getBody(), candidate);
+    }
+
+    private static ASN1ObjectIdentifier intern(byte[] body, ASN1ObjectIdentifier candidate)
+    {
+        int hash = hash(body);
+
+        ASN1ObjectIdentifier oid = Known.lookup(body, hash);
+        if (oid != null)
+        {
+            return oid;
+        }
+
+        Stripe stripe = stripes[hash & (STRIPES - 1)];
+        int start = (hash >>> 4) & (STRIPE_SIZE - 1);
+
+        synchronized (stripe)
+        {
+            int free = -1;
+            for (int i = 0; i != PROBES; i++)
+            {
+                int index = (start + i) & (STRIPE_SIZE - 1);
+                oid = stripe.entries[index];
+                if (oid == null)
+                {
+                    if (free < 0)
+                    {
+                        free = index;
+                    }
+                }
+                else if (matches(oid, body))
+                {
+                    return oid;
+                }
+            }
+
+            if (free < 0)
+            {
+                free = (start + stripe.victim) & (STRIPE_SIZE - 1);
+                stripe.victim = (stripe.victim + 1) % PROBES;
+            }
+
+            oid = (candidate != null) ? candidate : new ASN1ObjectIdentifier(body);
+            stripe.entries[free] = oid;
+        }
+
+        return oid;
+    }
+
+    private static boolean matches(ASN1ObjectIdentifier oid, byte[] body)
+    {
+        byte[] oidBody = oid.getBody();
+        if (oidBody.length != body.length)
+        {
+            return false;
+        }
+
+        for (int i = oidBody.length - 1; i >= 0; i--)
+        {
+            if (oidBody[i] != body[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int hash(byte[] body)
+    {
+        int h = body.length;
+        for (int i = 0; i != body.length; i++)
+        {
+            h = h * 31 + body[i];
+        }
+        return h ^ (h >>> 16);
+    }
+}
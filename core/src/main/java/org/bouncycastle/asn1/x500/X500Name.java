@@ -37,6 +37,7 @@
 
     private X500NameStyle style;
     private RDN[] rdns;
+    private volatile ASN1Primitive rdnSeq;
 
     public X500Name(X500NameStyle style, X500Name name)
     {
@@ -245,7 +246,15 @@ public RDN[] getRDNs(ASN1ObjectIdentifier attributeType)
 
     public ASN1Primitive toASN1Primitive()
     {
-        return new DERSequence(rdns);
+        ASN1Primitive seq = rdnSeq;
+
+        // names don't change, so the sequence - and its encoding once asked for - is kept
+        if (seq == null)
+        {
+            seq = rdnSeq = new DERSequence(rdns);
+        }
+
+        return seq;
     }
 
     public int hashCode()
@@ -17,6 +17,7 @@
     private ASN1ObjectIdentifier objectId;
     private ASN1Encodable       parameters;
     private boolean             parametersDefined = false;
+    private volatile ASN1Primitive primitive;
 
     public static AlgorithmIdentifier getInstance(
         ASN1TaggedObject obj,
@@ -152,6 +153,13 @@ public ASN1Encodable getParameters()
      */
     public ASN1Primitive toASN1Primitive()
     {
+        ASN1Primitive seq = primitive;
+
+        if (seq != null)
+        {
+            return seq;
+        }
+
         ASN1EncodableVector  v = new ASN1EncodableVector();
 
         v.add(objectId);
@@ -168,6 +176,6 @@ public ASN1Primitive toASN1Primitive()
             }
         }
 
-        return new DERSequence(v);
+        return primitive = new DERSequence(v);
     }
 }
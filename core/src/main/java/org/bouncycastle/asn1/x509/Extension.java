@@ -177,6 +177,7 @@
     private ASN1ObjectIdentifier extnId;
     private boolean             critical;
     private ASN1OctetString      value;
+    private volatile ASN1Primitive primitive;
 
     public Extension(
         ASN1ObjectIdentifier extnId,
@@ -285,6 +286,13 @@ public boolean equals(
 
     public ASN1Primitive toASN1Primitive()
     {
+        ASN1Primitive seq = primitive;
+
+        if (seq != null)
+        {
+            return seq;
+        }
+
         ASN1EncodableVector v = new ASN1EncodableVector();
 
         v.add(extnId);
@@ -296,7 +304,7 @@ public ASN1Primitive toASN1Primitive()
 
         v.add(value);
 
-        return new DERSequence(v);
+        return primitive = new DERSequence(v);
     }
 
     /**
@@ -1,5 +1,7 @@
 package org.bouncycastle.asn1.x9;
 
+import org.bouncycastle.math.ec.FixedPointUtil;
+
 public abstract class X9ECParametersHolder
 {
     private X9ECParameters params;
@@ -8,7 +10,12 @@ public X9ECParameters getParameters()
     {
         if (params == null)
         {
-            params = createParameters();
+            X9ECParameters p = createParameters();
+
+            // the parameters are kept for the life of the process, so G's comb table pays for itself
+            FixedPointUtil.precompute(p.getG());
+
+            params = p;
         }
 
         return params;
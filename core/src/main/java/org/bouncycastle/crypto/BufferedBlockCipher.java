@@ -218,6 +218,20 @@ public int processBytes(
             len -= gapLen;
             inOff += gapLen;
 
+            if (cipher instanceof MultiBlockCipher && len > buf.length)
+            {
+                //
+                // hand the whole aligned middle of the input to the cipher in one call, keeping
+                // back the final (possibly partial) block as the loop below would.
+                //
+                int blockCount = (len - 1) / blockSize;
+
+                resultLen += ((MultiBlockCipher)cipher).processBlocks(in, inOff, blockCount, out, outOff + resultLen);
+
+                len -= blockCount * blockSize;
+                inOff += blockCount * blockSize;
+            }
+
             while (len > buf.length)
             {
                 resultLen += cipher.processBlock(in, inOff, out, outOff + resultLen);
@@ -0,0 +1,36 @@
+package org.bouncycastle.crypto;
+
+/**
+ * Block ciphers (and modes) which are able to process a run of consecutive blocks
+ * in a single call, avoiding the per block set up and bounds checking of
+ * {@link BlockCipher#processBlock(byte[], int, byte[], int)}.
+ */
+public interface MultiBlockCipher
+    extends BlockCipher
+{
+    /**
+     * Return the multi-block size for this cipher (in bytes) - the amount of data the
+     * cipher would ideally like to be given per call to processBlocks().
+     *
+     * @return the multi-block size for this cipher in bytes.
+     */
+    public int getMultiBlockSize();
+
+    /**
+     * Process blockCount blocks from input in offset inOff and place the output in
+     * out from offset outOff. The result is the same as calling processBlock() blockCount
+     * times in succession.
+     *
+     * @param in the array containing the input data.
+     * @param inOff offset into the in array the data starts at.
+     * @param blockCount number of blocks to be processed.
+     * @param out the array the output data will be copied into.
+     * @param outOff the offset into the out array the output will start at.
+     * @exception DataLengthException if there isn't enough data in in, or
+     * space in out.
+     * @exception IllegalStateException if the cipher isn't initialised.
+     * @return the number of bytes processed and produced.
+     */
+    public int processBlocks(byte[] in, int inOff, int blockCount, byte[] out, int outOff)
+        throws DataLengthException, IllegalStateException;
+}
@@ -0,0 +1,420 @@
+package org.bouncycastle.crypto.digests;
+
+import org.bouncycastle.crypto.ExtendedDigest;
+import org.bouncycastle.crypto.util.Pack;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Memoable;
+
+/**
+ * Implementation of the BLAKE2b message digest, as described in RFC 7693, with support for
+ * keyed hashing, salt, personalization and output lengths of 1 to 64 bytes.
+ * <p>
+ * BLAKE2b was designed by Jean-Philippe Aumasson, Samuel Neves, Zooko Wilcox-O'Hearn and
+ * Christian Winnerlein.
+ * </p>
+ */
+public class BLAKE2bDigest
+    implements ExtendedDigest, Memoable
+{
+    private static final int BLOCK_SIZE = 128;
+    private static final int ROUNDS = 12;
+
+    private static final long[] IV = new long[]{
+        0x6a09e667f3bcc908L, 0xbb67ae8584caa73bL, 0x3c6ef372fe94f82bL, 0xa54ff53a5f1d36f1L,
+        0x510e527fade682d1L, 0x9b05688c2b3e6c1fL, 0x1f83d9abfb41bd6bL, 0x5be0cd19137e2179L
+    };
+
+    private static final byte[][] SIGMA = new byte[][]{
+        { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15 },
+        { 14, 10, 4, 8, 9, 15, 13, 6, 1, 12, 0, 2, 11, 7, 5, 3 },
+        { 11, 8, 12, 0, 5, 2, 15, 13, 10, 14, 3, 6, 7, 1, 9, 4 },
+        { 7, 9, 3, 1, 13, 12, 11, 14, 2, 6, 5, 10, 4, 0, 15, 8 },
+        { 9, 0, 5, 7, 2, 4, 10, 15, 14, 1, 11, 12, 6, 8, 3, 13 },
+        { 2, 12, 6, 10, 0, 11, 8, 3, 4, 13, 7, 5, 15, 14, 1, 9 },
+        { 12, 5, 1, 15, 14, 13, 4, 10, 0, 7, 6, 3, 9, 2, 8, 11 },
+        { 13, 11, 7, 14, 12, 1, 3, 9, 5, 0, 15, 4, 8, 6, 2, 10 },
+        { 6, 15, 14, 9, 11, 3, 0, 8, 12, 2, 13, 7, 1, 4, 10, 5 },
+        { 10, 2, 8, 4, 7, 6, 1, 5, 15, 11, 9, 14, 3, 12, 13, 0 }
+    };
+
+    private final int digestLength;
+    private final int keyLength;
+    private final byte[] key;
+    private final byte[] salt;
+    private final byte[] personalization;
+
+    private final long[] h = new long[8];
+    private final long[] m = new long[16];
+    private final byte[] buf = new byte[BLOCK_SIZE];
+    private int bufOff;
+    private long t0;
+    private long t1;
+
+    /**
+     * Base constructor, 512 bit output.
+     */
+    public BLAKE2bDigest()
+    {
+        this(512);
+    }
+
+    /**
+     * Create an unkeyed digest with the passed in output size.
+     *
+     * @param digestSizeBits the output size in bits, usually one of 160, 256, 384 or 512.
+     */
+    public BLAKE2bDigest(int digestSizeBits)
+    {
+        this(null, checkDigestSizeBits(digestSizeBits) / 8, null, null);
+    }
+
+    /**
+     * Create a digest with the full set of parameters. With a key this is the keyed hash, or
+     * MAC, mode of BLAKE2b.
+     *
+     * @param key the key, up to 64 bytes, or null if none.
+     * @param digestLength the output size in bytes, from 1 to 64.
+     * @param salt a 16 byte salt, or null if none.
+     * @param personalization a 16 byte personalization string, or null if none.
+     */
+    public BLAKE2bDigest(byte[] key, int digestLength, byte[] salt, byte[] personalization)
+    {
+        if (digestLength < 1 || digestLength > 64)
+        {
+            throw new IllegalArgumentException("digest length must be from 1 to 64 bytes");
+        }
+        if (key != null && key.length > 64)
+        {
+            throw new IllegalArgumentException("key must be at most 64 bytes");
+        }
+        if (salt != null && salt.length != 16)
+        {
+            throw new IllegalArgumentException("salt must be 16 bytes");
+        }
+        if (personalization != null && personalization.length != 16)
+        {
+            throw new IllegalArgumentException("personalization must be 16 bytes");
+        }
+
+        this.digestLength = digestLength;
+        this.keyLength = (key == null) ? 0 : key.length;
+        this.key = Arrays.clone(key);
+        this.salt = Arrays.clone(salt);
+        this.personalization = Arrays.clone(personalization);
+
+        reset();
+    }
+
+    public BLAKE2bDigest(BLAKE2bDigest digest)
+    {
+        this.digestLength = digest.digestLength;
+        this.keyLength = digest.keyLength;
+        this.key = digest.key;
+        this.salt = digest.salt;
+        this.personalization = digest.personalization;
+
+        copyIn(digest);
+    }
+
+    private static int checkDigestSizeBits(int digestSizeBits)
+    {
+        if ((digestSizeBits % 8) != 0)
+        {
+            throw new IllegalArgumentException("digest size must be a multiple of 8 bits");
+        }
+        return digestSizeBits;
+    }
+
+    private void copyIn(BLAKE2bDigest digest)
+    {
+        System.arraycopy(digest.h, 0, h, 0, h.length);
+        System.arraycopy(digest.buf, 0, buf, 0, buf.length);
+        bufOff = digest.bufOff;
+        t0 = digest.t0;
+        t1 = digest.t1;
+    }
+
+    public String getAlgorithmName()
+    {
+        return "BLAKE2b-" + (digestLength * 8);
+    }
+
+    public int getDigestSize()
+    {
+        return digestLength;
+    }
+
+    public int getByteLength()
+    {
+        return BLOCK_SIZE;
+    }
+
+    public void update(byte in)
+    {
+        // a full buffer is only compressed once we know it is not the last block
+        if (bufOff == BLOCK_SIZE)
+        {
+            incrementCounter(BLOCK_SIZE);
+            compress(buf, 0, false);
+            bufOff = 0;
+        }
+
+        buf[bufOff++] = in;
+    }
+
+    public void update(byte[] in, int inOff, int len)
+    {
+        if (len <= 0)
+        {
+            return;
+        }
+
+        if (bufOff != 0)
+        {
+            int fill = BLOCK_SIZE - bufOff;
+            if (len <= fill)
+            {
+                System.arraycopy(in, inOff, buf, bufOff, len);
+                bufOff += len;
+                return;
+            }
+
+            System.arraycopy(in, inOff, buf, bufOff, fill);
+            incrementCounter(BLOCK_SIZE);
+            compress(buf, 0, false);
+            bufOff = 0;
+
+            inOff += fill;
+            len -= fill;
+        }
+
+        // whole blocks come straight from the input, keeping back the last one
+        while (len > BLOCK_SIZE)
+        {
+            incrementCounter(BLOCK_SIZE);
+            compress(in, inOff, false);
+
+            inOff += BLOCK_SIZE;
+            len -= BLOCK_SIZE;
+        }
+
+        System.arraycopy(in, inOff, buf, 0, len);
+        bufOff = len;
+    }
+
+    public int doFinal(byte[] out, int outOff)
+    {
+        incrementCounter(bufOff);
+        for (int i = bufOff; i < BLOCK_SIZE; i++)
+        {
+            buf[i] = 0;
+        }
+        compress(buf, 0, true);
+
+        for (int i = 0; i < digestLength; i++)
+        {
+            out[outOff + i] = (byte)(h[i >>> 3] >>> ((i & 7) << 3));
+        }
+
+        reset();
+
+        return digestLength;
+    }
+
+    public void reset()
+    {
+        System.arraycopy(IV, 0, h, 0, h.length);
+
+        h[0] ^= 0x01010000L ^ (keyLength << 8) ^ digestLength;
+        if (salt != null)
+        {
+            h[4] ^= Pack.littleEndianToLong(salt, 0);
+            h[5] ^= Pack.littleEndianToLong(salt, 8);
+        }
+        if (personalization != null)
+        {
+            h[6] ^= Pack.littleEndianToLong(personalization, 0);
+            h[7] ^= Pack.littleEndianToLong(personalization, 8);
+        }
+
+        t0 = 0;
+        t1 = 0;
+
+        for (int i = 0; i < BLOCK_SIZE; i++)
+        {
+            buf[i] = 0;
+        }
+
+        // a key is processed as a full first block of its own
+        if (keyLength > 0)
+        {
+            System.arraycopy(key, 0, buf, 0, keyLength);
+            bufOff = BLOCK_SIZE;
+        }
+        else
+        {
+            bufOff = 0;
+        }
+    }
+
+    public Memoable copy()
+    {
+        return new BLAKE2bDigest(this);
+    }
+
+    public void reset(Memoable other)
+    {
+        BLAKE2bDigest d = (BLAKE2bDigest)other;
+
+        if (d.digestLength != digestLength || d.keyLength != keyLength
+            || !Arrays.areEqual(d.salt, salt) || !Arrays.areEqual(d.personalization, personalization))
+        {
+            throw new IllegalArgumentException("cannot reset from a digest with different parameters");
+        }
+
+        copyIn(d);
+    }
+
+    private void incrementCounter(int count)
+    {
+        t0 += count;
+        // unsigned overflow of the low word
+        if (t0 >= 0 && t0 < count)
+        {
+            t1++;
+        }
+    }
+
+    private void compress(byte[] block, int off, boolean last)
+    {
+        for (int i = 0; i < 16; i++)
+        {
+            m[i] = Pack.littleEndianToLong(block, off + (i << 3));
+        }
+
+        long v0 = h[0], v1 = h[1], v2 = h[2], v3 = h[3];
+        long v4 = h[4], v5 = h[5], v6 = h[6], v7 = h[7];
+        long v8 = IV[0], v9 = IV[1], v10 = IV[2], v11 = IV[3];
+        long v12 = IV[4] ^ t0, v13 = IV[5] ^ t1, v14 = last ? ~IV[6] : IV[6], v15 = IV[7];
+
+        for (int round = 0; round < ROUNDS; round++)
+        {
+            byte[] s = SIGMA[round % 10];
+
+            // columns
+            v0 += v4 + m[s[0]];
+            v12 ^= v0;
+            v12 = (v12 >>> 32) | (v12 << 32);
+            v8 += v12;
+            v4 ^= v8;
+            v4 = (v4 >>> 24) | (v4 << 40);
+            v0 += v4 + m[s[1]];
+            v12 ^= v0;
+            v12 = (v12 >>> 16) | (v12 << 48);
+            v8 += v12;
+            v4 ^= v8;
+            v4 = (v4 >>> 63) | (v4 << 1);
+
+            v1 += v5 + m[s[2]];
+            v13 ^= v1;
+            v13 = (v13 >>> 32) | (v13 << 32);
+            v9 += v13;
+            v5 ^= v9;
+            v5 = (v5 >>> 24) | (v5 << 40);
+            v1 += v5 + m[s[3]];
+            v13 ^= v1;
+            v13 = (v13 >>> 16) | (v13 << 48);
+            v9 += v13;
+            v5 ^= v9;
+            v5 = (v5 >>> 63) | (v5 << 1);
+
+            v2 += v6 + m[s[4]];
+            v14 ^= v2;
+            v14 = (v14 >>> 32) | (v14 << 32);
+            v10 += v14;
+            v6 ^= v10;
+            v6 = (v6 >>> 24) | (v6 << 40);
+            v2 += v6 + m[s[5]];
+            v14 ^= v2;
+            v14 = (v14 >>> 16) | (v14 << 48);
+            v10 += v14;
+            v6 ^= v10;
+            v6 = (v6 >>> 63) | (v6 << 1);
+
+            v3 += v7 + m[s[6]];
+            v15 ^= v3;
+            v15 = (v15 >>> 32) | (v15 << 32);
+            v11 += v15;
+            v7 ^= v11;
+            v7 = (v7 >>> 24) | (v7 << 40);
+            v3 += v7 + m[s[7]];
+            v15 ^= v3;
+            v15 = (v15 >>> 16) | (v15 << 48);
+            v11 += v15;
+            v7 ^= v11;
+            v7 = (v7 >>> 63) | (v7 << 1);
+
+            // diagonals
+            v0 += v5 + m[s[8]];
+            v15 ^= v0;
+            v15 = (v15 >>> 32) | (v15 << 32);
+            v10 += v15;
+            v5 ^= v10;
+            v5 = (v5 >>> 24) | (v5 << 40);
+            v0 += v5 + m[s[9]];
+            v15 ^= v0;
+            v15 = (v15 >>> 16) | (v15 << 48);
+            v10 += v15;
+            v5 ^= v10;
+            v5 = (v5 >>> 63) | (v5 << 1);
+
+            v1 += v6 + m[s[10]];
+            v12 ^= v1;
+            v12 = (v12 >>> 32) | (v12 << 32);
+            v11 += v12;
+            v6 ^= v11;
+            v6 = (v6 >>> 24) | (v6 << 40);
+            v1 += v6 + m[s[11]];
+            v12 ^= v1;
+            v12 = (v12 >>> 16) | (v12 << 48);
+            v11 += v12;
+            v6 ^= v11;
+            v6 = (v6 >>> 63) | (v6 << 1);
+
+            v2 += v7 + m[s[12]];
+            v13 ^= v2;
+            v13 = (v13 >>> 32) | (v13 << 32);
+            v8 += v13;
+            v7 ^= v8;
+            v7 = (v7 >>> 24) | (v7 << 40);
+            v2 += v7 + m[s[13]];
+            v13 ^= v2;
+            v13 = (v13 >>> 16) | (v13 << 48);
+            v8 += v13;
+            v7 ^= v8;
+            v7 = (v7 >>> 63) | (v7 << 1);
+
+            v3 += v4 + m[s[14]];
+            v14 ^= v3;
+            v14 = (v14 >>> 32) | (v14 << 32);
+            v9 += v14;
+            v4 ^= v9;
+            v4 = (v4 >>> 24) | (v4 << 40);
+            v3 += v4 + m[s[15]];
+            v14 ^= v3;
+            v14 = (v14 >>> 16) | (v14 << 48);
+            v9 += v14;
+            v4 ^= v9;
+            v4 = (v4 >>> 63) | (v4 << 1);
+        }
+
+        h[0] ^= v0 ^ v8;
+        h[1] ^= v1 ^ v9;
+        h[2] ^= v2 ^ v10;
+        h[3] ^= v3 ^ v11;
+        h[4] ^= v4 ^ v12;
+        h[5] ^= v5 ^ v13;
+        h[6] ^= v6 ^ v14;
+        h[7] ^= v7 ^ v15;
+    }
+}
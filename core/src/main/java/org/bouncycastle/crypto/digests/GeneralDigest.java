@@ -76,15 +76,26 @@ public void update(
         }
 
         //
-        // process whole words.
+        // process whole words, or whole blocks once we are on a block boundary.
         //
         while (len > xBuf.length)
         {
-            processWord(in, inOff);
-
-            inOff += xBuf.length;
-            len -= xBuf.length;
-            byteCount += xBuf.length;
+            if (len >= BYTE_LENGTH && (byteCount & (BYTE_LENGTH - 1)) == 0)
+            {
+                processBlock(in, inOff);
+
+                inOff += BYTE_LENGTH;
+                len -= BYTE_LENGTH;
+                byteCount += BYTE_LENGTH;
+            }
+            else
+            {
+                processWord(in, inOff);
+
+                inOff += xBuf.length;
+                len -= xBuf.length;
+                byteCount += xBuf.length;
+            }
         }
 
         //
@@ -136,6 +147,22 @@ public int getByteLength()
     
     protected abstract void processWord(byte[] in, int inOff);
 
+    /**
+     * Process a whole block of input. This is only called when the input so far is a multiple of
+     * the block size, so the word buffer of the implementation is empty. Implementations can
+     * override this to decode the block directly rather than a word at a time.
+     *
+     * @param in the input array.
+     * @param inOff the offset of the block in the input array.
+     */
+    protected void processBlock(byte[] in, int inOff)
+    {
+        for (int i = 0; i < BYTE_LENGTH; i += xBuf.length)
+        {
+            processWord(in, inOff + i);
+        }
+    }
+
     protected abstract void processLength(long bitLength);
 
     protected abstract void processBlock();
@@ -0,0 +1,375 @@
+package org.bouncycastle.crypto.digests;
+
+import org.bouncycastle.crypto.ExtendedDigest;
+import org.bouncycastle.crypto.util.Pack;
+
+/**
+ * implementation of the Keccak sponge, as submitted to the SHA-3 competition, based on
+ * KeccakNISTInterface.c from http://keccak.noekeon.org/
+ * <p>
+ * The state is held as 25 64 bit lanes, with input absorbed and output squeezed a byte at a time
+ * directly against the lanes, and the permutation fully unrolled within each round.
+ * </p>
+ */
+public class KeccakDigest
+    implements ExtendedDigest
+{
+    private static final long[] KeccakRoundConstants = new long[]{
+        0x0000000000000001L, 0x0000000000008082L, 0x800000000000808aL, 0x8000000080008000L,
+        0x000000000000808bL, 0x0000000080000001L, 0x8000000080008081L, 0x8000000000008009L,
+        0x000000000000008aL, 0x0000000000000088L, 0x0000000080008009L, 0x000000008000000aL,
+        0x000000008000808bL, 0x800000000000008bL, 0x8000000000008089L, 0x8000000000008003L,
+        0x8000000000008002L, 0x8000000000000080L, 0x000000000000800aL, 0x800000008000000aL,
+        0x8000000080008081L, 0x8000000000008080L, 0x0000000080000001L, 0x8000000080008008L
+    };
+
+    /**
+     * The first byte of padding for Keccak: no domain separation bits, just the leading 1 of
+     * the pad10*1 rule.
+     */
+    protected static final byte KECCAK_PADDING = 0x01;
+
+    private final long[] state = new long[25];
+    private final byte[] dataQueue;
+    private final int rate;
+    private final int fixedOutputLength;
+    private final byte padding;
+
+    private int bytesInQueue;
+    private int bytesAvailableForSqueezing;
+    private boolean squeezing;
+
+    public KeccakDigest()
+    {
+        this(288);
+    }
+
+    public KeccakDigest(int bitLength)
+    {
+        this(getRate(bitLength), (bitLength == 0) ? 288 : bitLength, KECCAK_PADDING);
+    }
+
+    public KeccakDigest(KeccakDigest source)
+    {
+        this.rate = source.rate;
+        this.fixedOutputLength = source.fixedOutputLength;
+        this.padding = source.padding;
+        this.dataQueue = new byte[source.dataQueue.length];
+
+        System.arraycopy(source.state, 0, this.state, 0, source.state.length);
+        System.arraycopy(source.dataQueue, 0, this.dataQueue, 0, source.dataQueue.length);
+        this.bytesInQueue = source.bytesInQueue;
+        this.bytesAvailableForSqueezing = source.bytesAvailableForSqueezing;
+        this.squeezing = source.squeezing;
+    }
+
+    /**
+     * Base constructor.
+     *
+     * @param rate the rate of the sponge in bits, a multiple of 64.
+     * @param fixedOutputLength the default output length in bits.
+     * @param padding the first byte of padding, holding any domain separation bits followed by
+     * the leading 1 of the pad10*1 rule.
+     */
+    protected KeccakDigest(int rate, int fixedOutputLength, byte padding)
+    {
+        if ((rate <= 0) || (rate >= 1600) || ((rate % 64) != 0))
+        {
+            throw new IllegalStateException("invalid rate value");
+        }
+
+        this.rate = rate;
+        this.fixedOutputLength = fixedOutputLength;
+        this.padding = padding;
+        this.dataQueue = new byte[rate / 8];
+    }
+
+    private static int getRate(int bitLength)
+    {
+        switch (bitLength)
+        {
+        case 0:
+        case 288:
+            return 1024;
+        case 224:
+            return 1152;
+        case 256:
+            return 1088;
+        case 384:
+            return 832;
+        case 512:
+            return 576;
+        default:
+            throw new IllegalArgumentException("bitLength must be one of 224, 256, 384, or 512.");
+        }
+    }
+
+    public String getAlgorithmName()
+    {
+        return "Keccak-" + fixedOutputLength;
+    }
+
+    public int getDigestSize()
+    {
+        return fixedOutputLength / 8;
+    }
+
+    public void update(byte in)
+    {
+        if (squeezing)
+        {
+            throw new IllegalStateException("attempt to absorb while squeezing.");
+        }
+
+        dataQueue[bytesInQueue++] = in;
+        if (bytesInQueue == dataQueue.length)
+        {
+            absorbBlock(dataQueue, 0);
+            bytesInQueue = 0;
+        }
+    }
+
+    public void update(byte[] in, int inOff, int len)
+    {
+        if (squeezing)
+        {
+            throw new IllegalStateException("attempt to absorb while squeezing.");
+        }
+
+        int blockSize = dataQueue.length;
+
+        if (bytesInQueue != 0)
+        {
+            int partial = Math.min(blockSize - bytesInQueue, len);
+            System.arraycopy(in, inOff, dataQueue, bytesInQueue, partial);
+
+            bytesInQueue += partial;
+            inOff += partial;
+            len -= partial;
+
+            if (bytesInQueue < blockSize)
+            {
+                return;
+            }
+
+            absorbBlock(dataQueue, 0);
+            bytesInQueue = 0;
+        }
+
+        // whole blocks are absorbed straight from the input
+        while (len >= blockSize)
+        {
+            absorbBlock(in, inOff);
+
+            inOff += blockSize;
+            len -= blockSize;
+        }
+
+        System.arraycopy(in, inOff, dataQueue, 0, len);
+        bytesInQueue = len;
+    }
+
+    public int doFinal(byte[] out, int outOff)
+    {
+        squeeze(out, outOff, getDigestSize());
+
+        reset();
+
+        return getDigestSize();
+    }
+
+    public void reset()
+    {
+        for (int i = 0; i < state.length; i++)
+        {
+            state[i] = 0;
+        }
+        for (int i = 0; i < dataQueue.length; i++)
+        {
+            dataQueue[i] = 0;
+        }
+        bytesInQueue = 0;
+        bytesAvailableForSqueezing = 0;
+        squeezing = false;
+    }
+
+    /**
+     * Return the size of block that the compression function is applied to in bytes.
+     *
+     * @return internal byte length of a block.
+     */
+    public int getByteLength()
+    {
+        return rate / 8;
+    }
+
+    /**
+     * Squeeze output from the sponge, padding the input and switching to the squeezing phase
+     * first if this has not already been done. Successive calls continue the output stream.
+     *
+     * @param output the array the output is to be copied into.
+     * @param offset the offset into the output array the output is to start at.
+     * @param length the number of output bytes wanted.
+     */
+    protected void squeeze(byte[] output, int offset, int length)
+    {
+        if (!squeezing)
+        {
+            padAndSwitchToSqueezingPhase();
+        }
+
+        int blockSize = dataQueue.length;
+
+        while (length > 0)
+        {
+            if (bytesAvailableForSqueezing == 0)
+            {
+                keccakPermutation(state);
+                bytesAvailableForSqueezing = blockSize;
+            }
+
+            int pos = blockSize - bytesAvailableForSqueezing;
+            int partial = Math.min(bytesAvailableForSqueezing, length);
+
+            bytesAvailableForSqueezing -= partial;
+            length -= partial;
+
+            // odd bytes up to a lane boundary, then whole lanes, then any trailing bytes
+            while (partial > 0 && (pos & 7) != 0)
+            {
+                output[offset++] = (byte)(state[pos >>> 3] >>> ((pos & 7) << 3));
+                ++pos;
+                --partial;
+            }
+            while (partial >= 8)
+            {
+                Pack.longToLittleEndian(state[pos >>> 3], output, offset);
+                pos += 8;
+                offset += 8;
+                partial -= 8;
+            }
+            while (partial > 0)
+            {
+                output[offset++] = (byte)(state[pos >>> 3] >>> ((pos & 7) << 3));
+                ++pos;
+                --partial;
+            }
+        }
+    }
+
+    private void padAndSwitchToSqueezingPhase()
+    {
+        dataQueue[bytesInQueue] = padding;
+        for (int i = bytesInQueue + 1; i < dataQueue.length; i++)
+        {
+            dataQueue[i] = 0;
+        }
+        dataQueue[dataQueue.length - 1] |= (byte)0x80;
+
+        absorbBlock(dataQueue, 0);
+
+        bytesInQueue = 0;
+        bytesAvailableForSqueezing = dataQueue.length;
+        squeezing = true;
+    }
+
+    private void absorbBlock(byte[] data, int off)
+    {
+        int lanes = rate >>> 6;
+        for (int i = 0; i < lanes; i++)
+        {
+            state[i] ^= Pack.littleEndianToLong(data, off);
+            off += 8;
+        }
+
+        keccakPermutation(state);
+    }
+
+    private static void keccakPermutation(long[] A)
+    {
+        long a00 = A[0], a01 = A[1], a02 = A[2], a03 = A[3], a04 = A[4];
+        long a05 = A[5], a06 = A[6], a07 = A[7], a08 = A[8], a09 = A[9];
+        long a10 = A[10], a11 = A[11], a12 = A[12], a13 = A[13], a14 = A[14];
+        long a15 = A[15], a16 = A[16], a17 = A[17], a18 = A[18], a19 = A[19];
+        long a20 = A[20], a21 = A[21], a22 = A[22], a23 = A[23], a24 = A[24];
+
+        for (int i = 0; i < 24; i++)
+        {
+            // theta
+            long c0 = a00 ^ a05 ^ a10 ^ a15 ^ a20;
+            long c1 = a01 ^ a06 ^ a11 ^ a16 ^ a21;
+            long c2 = a02 ^ a07 ^ a12 ^ a17 ^ a22;
+            long c3 = a03 ^ a08 ^ a13 ^ a18 ^ a23;
+            long c4 = a04 ^ a09 ^ a14 ^ a19 ^ a24;
+
+            long d0 = (c1 << 1 | c1 >>> -1) ^ c4;
+            long d1 = (c2 << 1 | c2 >>> -1) ^ c0;
+            long d2 = (c3 << 1 | c3 >>> -1) ^ c1;
+            long d3 = (c4 << 1 | c4 >>> -1) ^ c2;
+            long d4 = (c0 << 1 | c0 >>> -1) ^ c3;
+
+            // rho and pi
+            long b00 = a00 ^ d0;
+            long t01 = a06 ^ d1, b01 = t01 << 44 | t01 >>> 20;
+            long t02 = a12 ^ d2, b02 = t02 << 43 | t02 >>> 21;
+            long t03 = a18 ^ d3, b03 = t03 << 21 | t03 >>> 43;
+            long t04 = a24 ^ d4, b04 = t04 << 14 | t04 >>> 50;
+            long t05 = a03 ^ d3, b05 = t05 << 28 | t05 >>> 36;
+            long t06 = a09 ^ d4, b06 = t06 << 20 | t06 >>> 44;
+            long t07 = a10 ^ d0, b07 = t07 << 3 | t07 >>> 61;
+            long t08 = a16 ^ d1, b08 = t08 << 45 | t08 >>> 19;
+            long t09 = a22 ^ d2, b09 = t09 << 61 | t09 >>> 3;
+            long t10 = a01 ^ d1, b10 = t10 << 1 | t10 >>> 63;
+            long t11 = a07 ^ d2, b11 = t11 << 6 | t11 >>> 58;
+            long t12 = a13 ^ d3, b12 = t12 << 25 | t12 >>> 39;
+            long t13 = a19 ^ d4, b13 = t13 << 8 | t13 >>> 56;
+            long t14 = a20 ^ d0, b14 = t14 << 18 | t14 >>> 46;
+            long t15 = a04 ^ d4, b15 = t15 << 27 | t15 >>> 37;
+            long t16 = a05 ^ d0, b16 = t16 << 36 | t16 >>> 28;
+            long t17 = a11 ^ d1, b17 = t17 << 10 | t17 >>> 54;
+            long t18 = a17 ^ d2, b18 = t18 << 15 | t18 >>> 49;
+            long t19 = a23 ^ d3, b19 = t19 << 56 | t19 >>> 8;
+            long t20 = a02 ^ d2, b20 = t20 << 62 | t20 >>> 2;
+            long t21 = a08 ^ d3, b21 = t21 << 55 | t21 >>> 9;
+            long t22 = a14 ^ d4, b22 = t22 << 39 | t22 >>> 25;
+            long t23 = a15 ^ d0, b23 = t23 << 41 | t23 >>> 23;
+            long t24 = a21 ^ d1, b24 = t24 << 2 | t24 >>> 62;
+
+            // chi
+            a00 = b00 ^ (~b01 & b02);
+            a01 = b01 ^ (~b02 & b03);
+            a02 = b02 ^ (~b03 & b04);
+            a03 = b03 ^ (~b04 & b00);
+            a04 = b04 ^ (~b00 & b01);
+            a05 = b05 ^ (~b06 & b07);
+            a06 = b06 ^ (~b07 & b08);
+            a07 = b07 ^ (~b08 & b09);
+            a08 = b08 ^ (~b09 & b05);
+            a09 = b09 ^ (~b05 & b06);
+            a10 = b10 ^ (~b11 & b12);
+            a11 = b11 ^ (~b12 & b13);
+            a12 = b12 ^ (~b13 & b14);
+            a13 = b13 ^ (~b14 & b10);
+            a14 = b14 ^ (~b10 & b11);
+            a15 = b15 ^ (~b16 & b17);
+            a16 = b16 ^ (~b17 & b18);
+            a17 = b17 ^ (~b18 & b19);
+            a18 = b18 ^ (~b19 & b15);
+            a19 = b19 ^ (~b15 & b16);
+            a20 = b20 ^ (~b21 & b22);
+            a21 = b21 ^ (~b22 & b23);
+            a22 = b22 ^ (~b23 & b24);
+            a23 = b23 ^ (~b24 & b20);
+            a24 = b24 ^ (~b20 & b21);
+
+            // iota
+            a00 ^= KeccakRoundConstants[i];
+        }
+
+        A[0] = a00; A[1] = a01; A[2] = a02; A[3] = a03; A[4] = a04;
+        A[5] = a05; A[6] = a06; A[7] = a07; A[8] = a08; A[9] = a09;
+        A[10] = a10; A[11] = a11; A[12] = a12; A[13] = a13; A[14] = a14;
+        A[15] = a15; A[16] = a16; A[17] = a17; A[18] = a18; A[19] = a19;
+        A[20] = a20; A[21] = a21; A[22] = a22; A[23] = a23; A[24] = a24;
+    }
+}
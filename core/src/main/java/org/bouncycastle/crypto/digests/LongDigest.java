@@ -98,15 +98,31 @@ public void update(
         }
 
         //
-        // process whole words.
+        // process whole words, or whole blocks once we are on a block boundary.
         //
         while (len > xBuf.length)
         {
-            processWord(in, inOff);
-
-            inOff += xBuf.length;
-            len -= xBuf.length;
-            byteCount1 += xBuf.length;
+            if (len >= BYTE_LENGTH && (byteCount1 & (BYTE_LENGTH - 1)) == 0)
+            {
+                for (int i = 0; i < 16; ++i)
+                {
+                    W[i] = Pack.bigEndianToLong(in, inOff);
+                    inOff += 8;
+                }
+
+                processBlock();
+
+                len -= BYTE_LENGTH;
+                byteCount1 += BYTE_LENGTH;
+            }
+            else
+            {
+                processWord(in, inOff);
+
+                inOff += xBuf.length;
+                len -= xBuf.length;
+                byteCount1 += xBuf.length;
+            }
         }
 
         //
@@ -0,0 +1,176 @@
+package org.bouncycastle.crypto.digests;
+
+import org.bouncycastle.crypto.util.Pack;
+
+/**
+ * Base class for hashing many independent, complete messages with an MD4 family style digest
+ * (64 byte blocks, big endian length padding). Messages are taken in groups of up to
+ * <code>lanes</code> at a time, the chaining state for each lane being kept in a shared int
+ * array, and all lanes of a group move through their blocks in lockstep.
+ * <p>
+ * Compared with running a separate digest per message, this avoids the per message objects and
+ * the byte-wise buffering of the streaming API: message words are read straight out of the input
+ * arrays and padding is applied in place as the final block is loaded.
+ * </p>
+ */
+public abstract class MultiLaneDigest
+{
+    private static final int BLOCK_SIZE = 64;
+
+    protected final int lanes;
+
+    /**
+     * The current block for each lane, lane l having its 16 words at X[l * 16].
+     */
+    protected final int[] X;
+
+    private final int[] active;
+
+    protected MultiLaneDigest(int lanes)
+    {
+        if (lanes < 1)
+        {
+            throw new IllegalArgumentException("lanes must be at least 1");
+        }
+
+        this.lanes = lanes;
+        this.X = new int[lanes * 16];
+        this.active = new int[lanes];
+    }
+
+    public abstract String getAlgorithmName();
+
+    public abstract int getDigestSize();
+
+    /**
+     * Return the number of messages hashed together.
+     *
+     * @return the number of lanes.
+     */
+    public int getLanes()
+    {
+        return lanes;
+    }
+
+    /**
+     * Hash each of the passed in messages.
+     *
+     * @param messages the messages to hash.
+     * @return an array holding the digest of each message, in the same order.
+     */
+    public byte[][] hashAll(byte[][] messages)
+    {
+        byte[][] digests = new byte[messages.length][];
+
+        for (int off = 0; off < messages.length; off += lanes)
+        {
+            hashGroup(messages, off, Math.min(lanes, messages.length - off), digests);
+        }
+
+        return digests;
+    }
+
+    private void hashGroup(byte[][] messages, int off, int count, byte[][] digests)
+    {
+        int maxBlocks = 0;
+        for (int lane = 0; lane < count; ++lane)
+        {
+            initLane(lane);
+            maxBlocks = Math.max(maxBlocks, getBlockCount(messages[off + lane].length));
+        }
+
+        for (int block = 0; block < maxBlocks; ++block)
+        {
+            // lanes with shorter messages drop out once their final block is done
+            int activeCount = 0;
+            for (int lane = 0; lane < count; ++lane)
+            {
+                byte[] message = messages[off + lane];
+                if (block < getBlockCount(message.length))
+                {
+                    loadBlock(lane, message, block);
+                    active[activeCount++] = lane;
+                }
+            }
+
+            for (int i = 0; i < activeCount; ++i)
+            {
+                processBlock(active[i]);
+            }
+        }
+
+        for (int lane = 0; lane < count; ++lane)
+        {
+            byte[] digest = new byte[getDigestSize()];
+            getLaneDigest(lane, digest, 0);
+            digests[off + lane] = digest;
+        }
+    }
+
+    private static int getBlockCount(int length)
+    {
+        // room for the 0x80 pad byte and the 8 byte bit length
+        return (length + 8) / BLOCK_SIZE + 1;
+    }
+
+    private void loadBlock(int lane, byte[] message, int block)
+    {
+        int off = block * BLOCK_SIZE, xOff = lane * 16;
+        int remaining = message.length - off;
+
+        if (remaining >= BLOCK_SIZE)
+        {
+            for (int i = 0; i < 16; ++i)
+            {
+                X[xOff + i] = Pack.bigEndianToInt(message, off + (i << 2));
+            }
+            return;
+        }
+
+        int i = 0;
+        if (remaining >= 0)
+        {
+            int fullWords = remaining >>> 2;
+            while (i < fullWords)
+            {
+                X[xOff + i] = Pack.bigEndianToInt(message, off + (i << 2));
+                ++i;
+            }
+
+            // the partial word, followed by the 0x80 pad byte
+            int pos = off + (i << 2), partial = remaining & 3, w = 0;
+            for (int j = 0; j < partial; ++j)
+            {
+                w |= (message[pos + j] & 0xff) << (24 - (j << 3));
+            }
+            X[xOff + i++] = w | (0x80 << (24 - (partial << 3)));
+        }
+
+        while (i < 16)
+        {
+            X[xOff + i++] = 0;
+        }
+
+        if (block == getBlockCount(message.length) - 1)
+        {
+            long bitLength = (long)message.length << 3;
+            X[xOff + 14] = (int)(bitLength >>> 32);
+            X[xOff + 15] = (int)bitLength;
+        }
+    }
+
+    /**
+     * Set the chaining variables of a lane to their initial values.
+     */
+    protected abstract void initLane(int lane);
+
+    /**
+     * Process the block in X for a lane, updating its chaining variables.
+     */
+    protected abstract void processBlock(int lane);
+
+    /**
+     * Write out the digest held in the chaining variables of a lane.
+     */
+    protected abstract void getLaneDigest(int lane, byte[] out, int outOff);
+}
@@ -0,0 +1,342 @@
+package org.bouncycastle.crypto.digests;
+
+import org.bouncycastle.crypto.ExtendedDigest;
+import org.bouncycastle.crypto.util.Pack;
+import org.bouncycastle.util.Memoable;
+
+/**
+ * A tree hash over an underlying digest, allowing the bulk of the hashing of a large input to be
+ * spread over several threads.
+ * <p>
+ * The input is split into chunks of a fixed size, the last chunk holding whatever is left over
+ * (an empty input gives a single empty chunk). With H the underlying digest, the result is:
+ * <pre>
+ *     leaf[i] = H(0x00 || chunk[i])
+ *     result  = H(0x01 || leaf[0] || ... || leaf[n - 1] || uint64(input length) || uint32(chunk size))
+ * </pre>
+ * where the integers are big endian. The chunk size is part of the result, so it must be agreed
+ * between the parties hashing and checking.
+ * </p>
+ * <p>
+ * Full chunks are collected until there is one for each thread, then hashed together, with the
+ * leaf values passed on to the root hash in order. Whole chunks in an update(byte[], int, int)
+ * call are hashed straight out of the caller's array.
+ * </p>
+ */
+public class ParallelDigest
+    implements ExtendedDigest
+{
+    /**
+     * Default chunk size, 1 MB.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private static final byte LEAF_NODE = 0x00;
+    private static final byte ROOT_NODE = 0x01;
+
+    private final ExtendedDigest root;
+    private final ExtendedDigest[] leaves;
+    private final byte[][] leafHashes;
+    private final int chunkSize;
+
+    // the buffers for chunks held over between updates, allocated as needed
+    private final byte[][] buffers;
+
+    // the pending full chunks, as an array and offset into it
+    private final byte[][] chunkSources;
+    private final int[] chunkOffsets;
+    private int chunkCount;
+
+    // bytes held in buffers[chunkCount] towards the next chunk
+    private int partial;
+    private long byteCount;
+
+    /**
+     * Create a tree hash using the default chunk size and a thread per available processor.
+     *
+     * @param digest the underlying digest, which must also implement {@link Memoable}.
+     */
+    public ParallelDigest(ExtendedDigest digest)
+    {
+        this(digest, DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a tree hash.
+     *
+     * @param digest the underlying digest, which must also implement {@link Memoable}.
+     * @param chunkSize the number of input bytes hashed into each leaf.
+     * @param parallelism the maximum number of threads to hash chunks on.
+     */
+    public ParallelDigest(ExtendedDigest digest, int chunkSize, int parallelism)
+    {
+        if (!(digest instanceof Memoable))
+        {
+            throw new IllegalArgumentException("digest must implement Memoable");
+        }
+        if (chunkSize < 1)
+        {
+            throw new IllegalArgumentException("chunkSize must be at least 1");
+        }
+        if (parallelism < 1)
+        {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+
+        // only copies are used, the caller's digest is left as it is
+        this.root = (ExtendedDigest)((Memoable)digest).copy();
+        this.leaves = new ExtendedDigest[parallelism];
+        this.leafHashes = new byte[parallelism][digest.getDigestSize()];
+        for (int i = 0; i < parallelism; i++)
+        {
+            leaves[i] = (ExtendedDigest)((Memoable)digest).copy();
+        }
+
+        this.chunkSize = chunkSize;
+        this.buffers = new byte[parallelism][];
+        this.chunkSources = new byte[parallelism][];
+        this.chunkOffsets = new int[parallelism];
+
+        reset();
+    }
+
+    public String getAlgorithmName()
+    {
+        return root.getAlgorithmName() + "-Tree";
+    }
+
+    public int getDigestSize()
+    {
+        return root.getDigestSize();
+    }
+
+    public int getByteLength()
+    {
+        return root.getByteLength();
+    }
+
+    /**
+     * Return the number of input bytes hashed into each leaf.
+     *
+     * @return the chunk size.
+     */
+    public int getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    public void update(byte in)
+    {
+        getBuffer(chunkCount)[partial++] = in;
+        ++byteCount;
+
+        if (partial == chunkSize)
+        {
+            addChunk(buffers[chunkCount], 0);
+            partial = 0;
+        }
+    }
+
+    public void update(byte[] in, int inOff, int len)
+    {
+        while (len > 0)
+        {
+            if (partial == 0 && len >= chunkSize)
+            {
+                addChunk(in, inOff);
+
+                inOff += chunkSize;
+                len -= chunkSize;
+                byteCount += chunkSize;
+            }
+            else
+            {
+                int count = Math.min(chunkSize - partial, len);
+                System.arraycopy(in, inOff, getBuffer(chunkCount), partial, count);
+
+                partial += count;
+                inOff += count;
+                len -= count;
+                byteCount += count;
+
+                if (partial == chunkSize)
+                {
+                    addChunk(buffers[chunkCount], 0);
+                    partial = 0;
+                }
+            }
+        }
+
+        // the caller is free to reuse its array once we return, so take copies of what's left
+        for (int i = 0; i < chunkCount; i++)
+        {
+            if (chunkSources[i] == in)
+            {
+                System.arraycopy(in, chunkOffsets[i], getBuffer(i), 0, chunkSize);
+                chunkSources[i] = buffers[i];
+                chunkOffsets[i] = 0;
+            }
+        }
+    }
+
+    public int doFinal(byte[] out, int outOff)
+    {
+        // the final partial chunk, if any, is in the buffer following the full ones
+        byte[] last = getBuffer(chunkCount);
+
+        hashChunks();
+
+        if (partial > 0 || byteCount == 0)
+        {
+            ExtendedDigest leaf = leaves[0];
+
+            leaf.update(LEAF_NODE);
+            leaf.update(last, 0, partial);
+            leaf.doFinal(leafHashes[0], 0);
+
+            root.update(leafHashes[0], 0, leafHashes[0].length);
+        }
+
+        byte[] trailer = new byte[12];
+        Pack.longToBigEndian(byteCount, trailer, 0);
+        Pack.intToBigEndian(chunkSize, trailer, 8);
+        root.update(trailer, 0, trailer.length);
+
+        int size = root.doFinal(out, outOff);
+
+        reset();
+
+        return size;
+    }
+
+    public void reset()
+    {
+        root.reset();
+        root.update(ROOT_NODE);
+
+        for (int i = 0; i < leaves.length; i++)
+        {
+            leaves[i].reset();
+            chunkSources[i] = null;
+        }
+
+        chunkCount = 0;
+        partial = 0;
+        byteCount = 0;
+    }
+
+    private byte[] getBuffer(int index)
+    {
+        if (buffers[index] == null)
+        {
+            buffers[index] = new byte[chunkSize];
+        }
+        return buffers[index];
+    }
+
+    private void addChunk(byte[] source, int off)
+    {
+        chunkSources[chunkCount] = source;
+        chunkOffsets[chunkCount] = off;
+
+        if (++chunkCount == leaves.length)
+        {
+            hashChunks();
+        }
+    }
+
+    private void hashChunks()
+    {
+        int count = chunkCount;
+        if (count == 0)
+        {
+            return;
+        }
+
+        Thread[] threads = new Thread[count];
+        final Throwable[] failures = new Throwable[count];
+
+        for (int i = 1; i < count; i++)
+        {
+            final int index = i;
+
+            threads[i] = new Thread()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        hashChunk(index);
+                    }
+                    catch (Throwable e)
+                    {
+                        failures[index] = e;
+                    }
+                }
+            };
+            threads[i].start();
+        }
+
+        try
+        {
+            hashChunk(0);
+        }
+        catch (Throwable e)
+        {
+            failures[0] = e;
+        }
+
+        for (int i = 1; i < count; i++)
+        {
+            try
+            {
+                threads[i].join();
+            }
+            catch (InterruptedException e)
+            {
+                throw new IllegalStateException("interrupted waiting for chunk hashing: " + e.getMessage());
+            }
+        }
+
+        for (int i = 0; i < count; i++)
+        {
+            if (failures[i] != null)
+            {
+                // the leaf digests are part way through a chunk, so start again
+                reset();
+                rethrow(failures[i]);
+            }
+        }
+
+        for (int i = 0; i < count; i++)
+        {
+            root.update(leafHashes[i], 0, leafHashes[i].length);
+            chunkSources[i] = null;
+        }
+
+        chunkCount = 0;
+    }
+
+    private void hashChunk(int index)
+    {
+        ExtendedDigest leaf = leaves[index];
+
+        leaf.update(LEAF_NODE);
+        leaf.update(chunkSources[index], chunkOffsets[index], chunkSize);
+        leaf.doFinal(leafHashes[index], 0);
+    }
+
+    private static void rethrow(Throwable e)
+    {
+        if (e instanceof RuntimeException)
+        {
+            throw (RuntimeException)e;
+        }
+        if (e instanceof Error)
+        {
+            throw (Error)e;
+        }
+
+        throw new IllegalStateException("chunk hashing failed: " + e.getMessage());
+    }
+}
@@ -1,6 +1,7 @@
 package org.bouncycastle.crypto.digests;
 
 
+import org.bouncycastle.crypto.util.Pack;
 import org.bouncycastle.util.Memoable;
 
 /**
@@ -77,6 +78,19 @@ protected void processWord(
         }
     }
 
+    protected void processBlock(
+        byte[]  in,
+        int     inOff)
+    {
+        for (int i = 0; i < 16; i++)
+        {
+            X[i] = Pack.littleEndianToInt(in, inOff);
+            inOff += 4;
+        }
+
+        processBlock();
+    }
+
     protected void processLength(
         long bitLength)
     {
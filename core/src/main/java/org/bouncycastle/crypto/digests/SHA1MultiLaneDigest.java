@@ -0,0 +1,219 @@
+package org.bouncycastle.crypto.digests;
+
+import org.bouncycastle.crypto.util.Pack;
+
+/**
+ * SHA-1 over many independent messages at once, see {@link MultiLaneDigest}. Produces the same
+ * digests as {@link SHA1Digest}.
+ */
+public class SHA1MultiLaneDigest
+    extends MultiLaneDigest
+{
+    private static final int DIGEST_LENGTH = 20;
+
+    /**
+     * The chaining variables for each lane, lane l having H1..H5 at H[l * 5].
+     */
+    private final int[] H;
+    private final int[] W = new int[80];
+
+    /**
+     * Create a digest hashing 8 messages at a time.
+     */
+    public SHA1MultiLaneDigest()
+    {
+        this(8);
+    }
+
+    public SHA1MultiLaneDigest(int lanes)
+    {
+        super(lanes);
+
+        this.H = new int[lanes * 5];
+    }
+
+    public String getAlgorithmName()
+    {
+        return "SHA-1";
+    }
+
+    public int getDigestSize()
+    {
+        return DIGEST_LENGTH;
+    }
+
+    protected void initLane(int lane)
+    {
+        int hOff = lane * 5;
+
+        H[hOff    ] = 0x67452301;
+        H[hOff + 1] = 0xefcdab89;
+        H[hOff + 2] = 0x98badcfe;
+        H[hOff + 3] = 0x10325476;
+        H[hOff + 4] = 0xc3d2e1f0;
+    }
+
+    //
+    // Additive constants
+    //
+    private static final int    Y1 = 0x5a827999;
+    private static final int    Y2 = 0x6ed9eba1;
+    private static final int    Y3 = 0x8f1bbcdc;
+    private static final int    Y4 = 0xca62c1d6;
+
+    private int f(
+        int    u,
+        int    v,
+        int    w)
+    {
+        return ((u & v) | ((~u) & w));
+    }
+
+    private int h(
+        int    u,
+        int    v,
+        int    w)
+    {
+        return (u ^ v ^ w);
+    }
+
+    private int g(
+        int    u,
+        int    v,
+        int    w)
+    {
+        return ((u & v) | (u & w) | (v & w));
+    }
+
+    protected void processBlock(int lane)
+    {
+        System.arraycopy(X, lane * 16, W, 0, 16);
+
+        //
+        // expand 16 word block into 80 word block.
+        //
+        for (int i = 16; i < 80; i++)
+        {
+            int t = W[i - 3] ^ W[i - 8] ^ W[i - 14] ^ W[i - 16];
+            W[i] = t << 1 | t >>> 31;
+        }
+
+        //
+        // set up working variables.
+        //
+        int     hOff = lane * 5;
+        int     A = H[hOff];
+        int     B = H[hOff + 1];
+        int     C = H[hOff + 2];
+        int     D = H[hOff + 3];
+        int     E = H[hOff + 4];
+
+        //
+        // round 1
+        //
+        int idx = 0;
+
+        for (int j = 0; j < 4; j++)
+        {
+            // E = rotateLeft(A, 5) + f(B, C, D) + E + W[idx++] + Y1
+            // B = rotateLeft(B, 30)
+            E += (A << 5 | A >>> 27) + f(B, C, D) + W[idx++] + Y1;
+            B = B << 30 | B >>> 2;
+
+            D += (E << 5 | E >>> 27) + f(A, B, C) + W[idx++] + Y1;
+            A = A << 30 | A >>> 2;
+
+            C += (D << 5 | D >>> 27) + f(E, A, B) + W[idx++] + Y1;
+            E = E << 30 | E >>> 2;
+
+            B += (C << 5 | C >>> 27) + f(D, E, A) + W[idx++] + Y1;
+            D = D << 30 | D >>> 2;
+
+            A += (B << 5 | B >>> 27) + f(C, D, E) + W[idx++] + Y1;
+            C = C << 30 | C >>> 2;
+        }
+
+        //
+        // round 2
+        //
+        for (int j = 0; j < 4; j++)
+        {
+            // E = rotateLeft(A, 5) + h(B, C, D) + E + W[idx++] + Y2
+            // B = rotateLeft(B, 30)
+            E += (A << 5 | A >>> 27) + h(B, C, D) + W[idx++] + Y2;
+            B = B << 30 | B >>> 2;
+
+            D += (E << 5 | E >>> 27) + h(A, B, C) + W[idx++] + Y2;
+            A = A << 30 | A >>> 2;
+
+            C += (D << 5 | D >>> 27) + h(E, A, B) + W[idx++] + Y2;
+            E = E << 30 | E >>> 2;
+
+            B += (C << 5 | C >>> 27) + h(D, E, A) + W[idx++] + Y2;
+            D = D << 30 | D >>> 2;
+
+            A += (B << 5 | B >>> 27) + h(C, D, E) + W[idx++] + Y2;
+            C = C << 30 | C >>> 2;
+        }
+
+        //
+        // round 3
+        //
+        for (int j = 0; j < 4; j++)
+        {
+            // E = rotateLeft(A, 5) + g(B, C, D) + E + W[idx++] + Y3
+            // B = rotateLeft(B, 30)
+            E += (A << 5 | A >>> 27) + g(B, C, D) + W[idx++] + Y3;
+            B = B << 30 | B >>> 2;
+
+            D += (E << 5 | E >>> 27) + g(A, B, C) + W[idx++] + Y3;
+            A = A << 30 | A >>> 2;
+
+            C += (D << 5 | D >>> 27) + g(E, A, B) + W[idx++] + Y3;
+            E = E << 30 | E >>> 2;
+
+            B += (C << 5 | C >>> 27) + g(D, E, A) + W[idx++] + Y3;
+            D = D << 30 | D >>> 2;
+
+            A += (B << 5 | B >>> 27) + g(C, D, E) + W[idx++] + Y3;
+            C = C << 30 | C >>> 2;
+        }
+
+        //
+        // round 4
+        //
+        for (int j = 0; j <= 3; j++)
+        {
+            // E = rotateLeft(A, 5) + h(B, C, D) + E + W[idx++] + Y4
+            // B = rotateLeft(B, 30)
+            E += (A << 5 | A >>> 27) + h(B, C, D) + W[idx++] + Y4;
+            B = B << 30 | B >>> 2;
+
+            D += (E << 5 | E >>> 27) + h(A, B, C) + W[idx++] + Y4;
+            A = A << 30 | A >>> 2;
+
+            C += (D << 5 | D >>> 27) + h(E, A, B) + W[idx++] + Y4;
+            E = E << 30 | E >>> 2;
+
+            B += (C << 5 | C >>> 27) + h(D, E, A) + W[idx++] + Y4;
+            D = D << 30 | D >>> 2;
+
+            A += (B << 5 | B >>> 27) + h(C, D, E) + W[idx++] + Y4;
+            C = C << 30 | C >>> 2;
+        }
+
+        H[hOff]     += A;
+        H[hOff + 1] += B;
+        H[hOff + 2] += C;
+        H[hOff + 3] += D;
+        H[hOff + 4] += E;
+    }
+
+    protected void getLaneDigest(int lane, byte[] out, int outOff)
+    {
+        for (int i = 0; i < 5; ++i)
+        {
+            Pack.intToBigEndian(H[lane * 5 + i], out, outOff + (i << 2));
+        }
+    }
+}
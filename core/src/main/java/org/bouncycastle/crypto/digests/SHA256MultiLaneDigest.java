@@ -0,0 +1,196 @@
+package org.bouncycastle.crypto.digests;
+
+import org.bouncycastle.crypto.util.Pack;
+
+/**
+ * SHA-256 over many independent messages at once, see {@link MultiLaneDigest}. Produces the same
+ * digests as {@link SHA256Digest}.
+ */
+public class SHA256MultiLaneDigest
+    extends MultiLaneDigest
+{
+    private static final int DIGEST_LENGTH = 32;
+
+    private static final int[] K = SHA256Digest.K;
+
+    /**
+     * The chaining variables for each lane, lane l having H1..H8 at H[l * 8].
+     */
+    private final int[] H;
+    private final int[] W = new int[64];
+
+    /**
+     * Create a digest hashing 8 messages at a time.
+     */
+    public SHA256MultiLaneDigest()
+    {
+        this(8);
+    }
+
+    public SHA256MultiLaneDigest(int lanes)
+    {
+        super(lanes);
+
+        this.H = new int[lanes * 8];
+    }
+
+    public String getAlgorithmName()
+    {
+        return "SHA-256";
+    }
+
+    public int getDigestSize()
+    {
+        return DIGEST_LENGTH;
+    }
+
+    protected void initLane(int lane)
+    {
+        int hOff = lane * 8;
+
+        H[hOff    ] = 0x6a09e667;
+        H[hOff + 1] = 0xbb67ae85;
+        H[hOff + 2] = 0x3c6ef372;
+        H[hOff + 3] = 0xa54ff53a;
+        H[hOff + 4] = 0x510e527f;
+        H[hOff + 5] = 0x9b05688c;
+        H[hOff + 6] = 0x1f83d9ab;
+        H[hOff + 7] = 0x5be0cd19;
+    }
+
+    protected void processBlock(int lane)
+    {
+        System.arraycopy(X, lane * 16, W, 0, 16);
+
+        //
+        // expand 16 word block into 64 word blocks.
+        //
+        for (int t = 16; t <= 63; t++)
+        {
+            W[t] = Theta1(W[t - 2]) + W[t - 7] + Theta0(W[t - 15]) + W[t - 16];
+        }
+
+        //
+        // set up working variables.
+        //
+        int     hOff = lane * 8;
+        int     a = H[hOff];
+        int     b = H[hOff + 1];
+        int     c = H[hOff + 2];
+        int     d = H[hOff + 3];
+        int     e = H[hOff + 4];
+        int     f = H[hOff + 5];
+        int     g = H[hOff + 6];
+        int     h = H[hOff + 7];
+
+        int t = 0;
+        for(int i = 0; i < 8; i ++)
+        {
+            // t = 8 * i
+            h += Sum1(e) + Ch(e, f, g) + K[t] + W[t];
+            d += h;
+            h += Sum0(a) + Maj(a, b, c);
+            ++t;
+
+            // t = 8 * i + 1
+            g += Sum1(d) + Ch(d, e, f) + K[t] + W[t];
+            c += g;
+            g += Sum0(h) + Maj(h, a, b);
+            ++t;
+
+            // t = 8 * i + 2
+            f += Sum1(c) + Ch(c, d, e) + K[t] + W[t];
+            b += f;
+            f += Sum0(g) + Maj(g, h, a);
+            ++t;
+
+            // t = 8 * i + 3
+            e += Sum1(b) + Ch(b, c, d) + K[t] + W[t];
+            a += e;
+            e += Sum0(f) + Maj(f, g, h);
+            ++t;
+
+            // t = 8 * i + 4
+            d += Sum1(a) + Ch(a, b, c) + K[t] + W[t];
+            h += d;
+            d += Sum0(e) + Maj(e, f, g);
+            ++t;
+
+            // t = 8 * i + 5
+            c += Sum1(h) + Ch(h, a, b) + K[t] + W[t];
+            g += c;
+            c += Sum0(d) + Maj(d, e, f);
+            ++t;
+
+            // t = 8 * i + 6
+            b += Sum1(g) + Ch(g, h, a) + K[t] + W[t];
+            f += b;
+            b += Sum0(c) + Maj(c, d, e);
+            ++t;
+
+            // t = 8 * i + 7
+            a += Sum1(f) + Ch(f, g, h) + K[t] + W[t];
+            e += a;
+            a += Sum0(b) + Maj(b, c, d);
+            ++t;
+        }
+
+        H[hOff]     += a;
+        H[hOff + 1] += b;
+        H[hOff + 2] += c;
+        H[hOff + 3] += d;
+        H[hOff + 4] += e;
+        H[hOff + 5] += f;
+        H[hOff + 6] += g;
+        H[hOff + 7] += h;
+    }
+
+    protected void getLaneDigest(int lane, byte[] out, int outOff)
+    {
+        for (int i = 0; i < 8; ++i)
+        {
+            Pack.intToBigEndian(H[lane * 8 + i], out, outOff + (i << 2));
+        }
+    }
+
+    /* SHA-256 functions */
+    private int Ch(
+        int    x,
+        int    y,
+        int    z)
+    {
+        return (x & y) ^ ((~x) & z);
+    }
+
+    private int Maj(
+        int    x,
+        int    y,
+        int    z)
+    {
+        return (x & y) ^ (x & z) ^ (y & z);
+    }
+
+    private int Sum0(
+        int    x)
+    {
+        return ((x >>> 2) | (x << 30)) ^ ((x >>> 13) | (x << 19)) ^ ((x >>> 22) | (x << 10));
+    }
+
+    private int Sum1(
+        int    x)
+    {
+        return ((x >>> 6) | (x << 26)) ^ ((x >>> 11) | (x << 21)) ^ ((x >>> 25) | (x << 7));
+    }
+
+    private int Theta0(
+        int    x)
+    {
+        return ((x >>> 7) | (x << 25)) ^ ((x >>> 18) | (x << 14)) ^ (x >>> 3);
+    }
+
+    private int Theta1(
+        int    x)
+    {
+        return ((x >>> 17) | (x << 15)) ^ ((x >>> 19) | (x << 13)) ^ (x >>> 10);
+    }
+}
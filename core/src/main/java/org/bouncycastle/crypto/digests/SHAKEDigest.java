@@ -0,0 +1,84 @@
+package org.bouncycastle.crypto.digests;
+
+import org.bouncycastle.crypto.Xof;
+
+/**
+ * implementation of the SHAKE extendable output functions from the draft FIPS 202, based on the
+ * Keccak sponge.
+ * <p>
+ * When used as a plain digest the output length is twice the security strength, so 32 bytes for
+ * SHAKE128 and 64 bytes for SHAKE256.
+ * </p>
+ */
+public class SHAKEDigest
+    extends KeccakDigest
+    implements Xof
+{
+    /**
+     * The SHAKE domain separation bits 1111, followed by the leading 1 of the pad10*1 rule.
+     */
+    private static final byte SHAKE_PADDING = 0x1F;
+
+    private final int bitLength;
+
+    /**
+     * Base constructor, SHAKE128.
+     */
+    public SHAKEDigest()
+    {
+        this(128);
+    }
+
+    /**
+     * Base constructor.
+     *
+     * @param bitLength the security strength, 128 or 256.
+     */
+    public SHAKEDigest(int bitLength)
+    {
+        super(getRate(bitLength), bitLength * 2, SHAKE_PADDING);
+
+        this.bitLength = bitLength;
+    }
+
+    public SHAKEDigest(SHAKEDigest source)
+    {
+        super(source);
+
+        this.bitLength = source.bitLength;
+    }
+
+    private static int getRate(int bitLength)
+    {
+        switch (bitLength)
+        {
+        case 128:
+            return 1344;
+        case 256:
+            return 1088;
+        default:
+            throw new IllegalArgumentException("bitLength must be one of 128 or 256.");
+        }
+    }
+
+    public String getAlgorithmName()
+    {
+        return "SHAKE" + bitLength;
+    }
+
+    public int doFinal(byte[] out, int outOff, int outLen)
+    {
+        doOutput(out, outOff, outLen);
+
+        reset();
+
+        return outLen;
+    }
+
+    public int doOutput(byte[] out, int outOff, int outLen)
+    {
+        squeeze(out, outOff, outLen);
+
+        return outLen;
+    }
+}
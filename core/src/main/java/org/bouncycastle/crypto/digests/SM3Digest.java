@@ -158,6 +158,19 @@ protected void processWord(byte[] in,
         }
     }
 
+    protected void processBlock(
+        byte[]  in,
+        int     inOff)
+    {
+        for (int i = 0; i < 16; i++)
+        {
+            inwords[i] = Pack.bigEndianToInt(in, inOff);
+            inOff += 4;
+        }
+
+        processBlock();
+    }
+
     protected void processLength(long bitLength)
     {
         if (this.xOff > (BLOCK_SIZE - 2))
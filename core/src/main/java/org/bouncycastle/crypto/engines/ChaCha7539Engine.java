@@ -0,0 +1,102 @@
+package org.bouncycastle.crypto.engines;
+
+import org.bouncycastle.crypto.MaxBytesExceededException;
+import org.bouncycastle.crypto.util.Pack;
+
+/**
+ * Implementation of Daniel J. Bernstein's ChaCha stream cipher, with the 96 bit nonce and 32 bit
+ * block counter described in RFC 7539.
+ * <p>
+ * ChaCha7539 requires a 256 bit key, and a 96 bit nonce.
+ */
+public class ChaCha7539Engine extends Salsa20Engine
+{
+    // set once block 2^32 - 1 has been generated and the counter has wrapped to zero
+    private boolean counterExhausted;
+
+    /**
+     * Creates a 20 rounds ChaCha engine.
+     */
+    public ChaCha7539Engine()
+    {
+        super();
+    }
+
+    public String getAlgorithmName()
+    {
+        return "ChaCha7539";
+    }
+
+    protected int getNonceSize()
+    {
+        return 12;
+    }
+
+    protected void advanceCounter()
+    {
+        if (++engineState[12] == 0)
+        {
+            counterExhausted = true;
+        }
+    }
+
+    protected void resetCounter()
+    {
+        engineState[12] = 0;
+        counterExhausted = false;
+    }
+
+    protected long getCounter()
+    {
+        return counterExhausted ? 1L << 32 : engineState[12] & 0xffffffffL;
+    }
+
+    protected void setCounter(long blockCounter)
+    {
+        if (blockCounter > (1L << 32))
+        {
+            throw new IllegalArgumentException("attempt to set counter past 2^32");
+        }
+        engineState[12] = (int)blockCounter;
+        counterExhausted = (blockCounter == (1L << 32));
+    }
+
+    protected void setKey(byte[] keyBytes, byte[] ivBytes)
+    {
+        if (keyBytes.length != 32)
+        {
+            throw new IllegalArgumentException(getAlgorithmName() + " requires 256 bit key");
+        }
+
+        // Constants
+        engineState[0] = Pack.littleEndianToInt(sigma, 0);
+        engineState[1] = Pack.littleEndianToInt(sigma, 4);
+        engineState[2] = Pack.littleEndianToInt(sigma, 8);
+        engineState[3] = Pack.littleEndianToInt(sigma, 12);
+
+        // Key
+        for (int i = 0; i < 8; i++)
+        {
+            engineState[4 + i] = Pack.littleEndianToInt(keyBytes, i * 4);
+        }
+
+        // Counter
+        engineState[12] = 0;
+        counterExhausted = false;
+
+        // IV
+        engineState[13] = Pack.littleEndianToInt(ivBytes, 0);
+        engineState[14] = Pack.littleEndianToInt(ivBytes, 4);
+        engineState[15] = Pack.littleEndianToInt(ivBytes, 8);
+    }
+
+    protected void generateKeyStreamWords(int[] output)
+    {
+        if (counterExhausted)
+        {
+            throw new MaxBytesExceededException("attempt to increase counter past 2^32");
+        }
+
+        ChaChaEngine.chachaCore(rounds, engineState, output);
+    }
+}
@@ -43,6 +43,17 @@ protected void resetCounter()
         engineState[12] = engineState[13] = 0;
     }
 
+    protected long getCounter()
+    {
+        return ((long)engineState[13] << 32) | (engineState[12] & 0xffffffffL);
+    }
+
+    protected void setCounter(long blockCounter)
+    {
+        engineState[12] = (int)blockCounter;
+        engineState[13] = (int)(blockCounter >>> 32);
+    }
+
     protected void setKey(byte[] keyBytes, byte[] ivBytes)
     {
         if ((keyBytes.length != 16) && (keyBytes.length != 32))
@@ -86,10 +97,9 @@ protected void setKey(byte[] keyBytes, byte[] ivBytes)
         engineState[15] = Pack.littleEndianToInt(ivBytes, 4);
     }
 
-    protected void generateKeyStream(byte[] output)
+    protected void generateKeyStreamWords(int[] output)
     {
-        chachaCore(rounds, engineState, x);
-        Pack.intToLittleEndian(x, output, 0);
+        chachaCore(rounds, engineState, output);
     }
 
     /**
@@ -4,6 +4,7 @@
 import org.bouncycastle.crypto.DataLengthException;
 import org.bouncycastle.crypto.MaxBytesExceededException;
 import org.bouncycastle.crypto.OutputLengthException;
+import org.bouncycastle.crypto.SkippingCipher;
 import org.bouncycastle.crypto.StreamCipher;
 import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.crypto.params.ParametersWithIV;
@@ -14,12 +15,13 @@
  * Implementation of Daniel J. Bernstein's Salsa20 stream cipher, Snuffle 2005
  */
 public class Salsa20Engine
-    implements StreamCipher
+    implements StreamCipher, SkippingCipher
 {
     public final static int DEFAULT_ROUNDS = 20;
 
     /** Constants */
     private final static int STATE_SIZE = 16; // 16, 32 bit ints = 64 bytes
+    private final static int BLOCK_SIZE = STATE_SIZE * 4;
 
     protected final static byte[]
         sigma = Strings.toByteArray("expand 32-byte k"),
@@ -177,7 +179,34 @@ public void processBytes(
             throw new MaxBytesExceededException("2^70 byte limit per IV would be exceeded; Change IV");
         }
 
-        for (int i = 0; i < len; i++)
+        int i = 0;
+
+        // use up any key stream left over from the last call
+        while (index != 0 && i < len)
+        {
+            out[i + outOff] = (byte)(keyStream[index] ^ in[i + inOff]);
+            index = (index + 1) & 63;
+            ++i;
+        }
+
+        // whole blocks are XORed a word at a time straight from the key stream words
+        while (len - i >= BLOCK_SIZE)
+        {
+            generateKeyStreamWords(x);
+            advanceCounter();
+
+            int inPos = inOff + i, outPos = outOff + i;
+            for (int w = 0; w < STATE_SIZE; ++w)
+            {
+                Pack.intToLittleEndian(x[w] ^ Pack.littleEndianToInt(in, inPos), out, outPos);
+                inPos += 4;
+                outPos += 4;
+            }
+
+            i += BLOCK_SIZE;
+        }
+
+        while (i < len)
         {
             if (index == 0)
             {
@@ -185,9 +214,59 @@ public void processBytes(
                 advanceCounter();
             }
 
-            out[i+outOff] = (byte)(keyStream[index]^in[i+inOff]);
+            out[i + outOff] = (byte)(keyStream[index] ^ in[i + inOff]);
             index = (index + 1) & 63;
+            ++i;
+        }
+    }
+
+    public long skip(long numberOfBytes)
+    {
+        long position = getPosition() + numberOfBytes;
+        if (position < 0)
+        {
+            throw new IllegalArgumentException("attempt to skip before start of stream");
+        }
+
+        seekTo(position);
+
+        return numberOfBytes;
+    }
+
+    public long seekTo(long position)
+    {
+        if (position < 0)
+        {
+            throw new IllegalArgumentException("position must be non-negative");
+        }
+
+        reset();
+
+        setCounter(position / BLOCK_SIZE);
+        setLimitCounter(position);
+
+        int residue = (int)(position % BLOCK_SIZE);
+        if (residue != 0)
+        {
+            generateKeyStream(keyStream);
+            advanceCounter();
+            index = residue;
         }
+
+        return position;
+    }
+
+    public long getPosition()
+    {
+        long blocks = getCounter();
+
+        // a partially used block has already advanced the counter
+        if (index != 0)
+        {
+            --blocks;
+        }
+
+        return blocks * BLOCK_SIZE + index;
     }
 
     public void reset()
@@ -202,6 +281,23 @@ protected void resetCounter()
         engineState[8] = engineState[9] = 0;
     }
 
+    /**
+     * Return the block counter - the number of the next key stream block to be generated.
+     */
+    protected long getCounter()
+    {
+        return ((long)engineState[9] << 32) | (engineState[8] & 0xffffffffL);
+    }
+
+    /**
+     * Set the block counter to the number of the next key stream block to be generated.
+     */
+    protected void setCounter(long blockCounter)
+    {
+        engineState[8] = (int)blockCounter;
+        engineState[9] = (int)(blockCounter >>> 32);
+    }
+
     protected void setKey(byte[] keyBytes, byte[] ivBytes)
     {
         if ((keyBytes.length != 16) && (keyBytes.length != 32)) {
@@ -245,10 +341,18 @@ protected void setKey(byte[] keyBytes, byte[] ivBytes)
 
     protected void generateKeyStream(byte[] output)
     {
-        salsaCore(rounds, engineState, x);
+        generateKeyStreamWords(x);
         Pack.intToLittleEndian(x, output, 0);
     }
 
+    /**
+     * Generate the key stream block for the current state as 16 little-endian words.
+     */
+    protected void generateKeyStreamWords(int[] output)
+    {
+        salsaCore(rounds, engineState, output);
+    }
+
     /**
      * Salsa20 function
      *
@@ -360,6 +464,13 @@ private void resetLimitCounter()
         cW2 = 0;
     }
 
+    private void setLimitCounter(long position)
+    {
+        cW0 = (int)position;
+        cW1 = (int)(position >>> 32);
+        cW2 = 0;
+    }
+
     private boolean limitExceeded()
     {
         if (++cW0 == 0)
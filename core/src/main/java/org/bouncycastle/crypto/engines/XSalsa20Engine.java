@@ -40,7 +40,7 @@ protected void setKey(byte[] keyBytes, byte[] ivBytes)
         engineState[9] = Pack.littleEndianToInt(ivBytes, 12);
 
         // Process engine state to generate Salsa20 key
-        int[] hsalsa20Out = new int[engineState.length];
+        int[] hsalsa20Out = x;
         salsaCore(20, engineState, hsalsa20Out);
 
         // Set new key, removing addition in last round of salsaCore
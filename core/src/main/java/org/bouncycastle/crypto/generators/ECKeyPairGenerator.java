@@ -11,7 +11,9 @@
 import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
 import org.bouncycastle.crypto.params.ECPublicKeyParameters;
 import org.bouncycastle.math.ec.ECConstants;
+import org.bouncycastle.math.ec.ECMultiplier;
 import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointUtil;
 
 public class ECKeyPairGenerator
     implements AsymmetricCipherKeyPairGenerator, ECConstants
@@ -44,10 +46,16 @@ public AsymmetricCipherKeyPair generateKeyPair()
         }
         while (d.equals(ZERO)  || (d.compareTo(n) >= 0));
 
-        ECPoint Q = params.getG().multiply(d);
+        ECPoint G = params.getG();
+        ECPoint Q = createBasePointMultiplier(G).multiply(G, d);
 
         return new AsymmetricCipherKeyPair(
             new ECPublicKeyParameters(Q, params),
             new ECPrivateKeyParameters(d, params));
     }
+
+    protected ECMultiplier createBasePointMultiplier(ECPoint G)
+    {
+        return FixedPointUtil.getMultiplier(G);
+    }
 }
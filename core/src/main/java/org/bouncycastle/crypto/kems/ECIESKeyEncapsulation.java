@@ -14,6 +14,7 @@
 import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.math.ec.ECCurve;
 import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointUtil;
 import org.bouncycastle.util.BigIntegers;
 
 /**
@@ -120,8 +121,9 @@ public CipherParameters encrypt(byte[] out, int outOff, int keyLen)
         // Compute the static-ephemeral key agreement
         BigInteger rPrime = CofactorMode ? r.multiply(h).mod(n) : r;
 
+        ECPoint G = ecParams.getG();
         ECPoint[] ghTilde = new ECPoint[]{ 
-            ecParams.getG().multiply(r),
+            FixedPointUtil.getMultiplier(G).multiply(G, r),
             ecPubKey.getQ().multiply(rPrime)
         };
 
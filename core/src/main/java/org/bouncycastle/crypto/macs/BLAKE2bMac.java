@@ -0,0 +1,116 @@
+package org.bouncycastle.crypto.macs;
+
+import org.bouncycastle.crypto.CipherParameters;
+import org.bouncycastle.crypto.Mac;
+import org.bouncycastle.crypto.digests.BLAKE2bDigest;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithSalt;
+
+/**
+ * The keyed hash mode of BLAKE2b as a MAC, see {@link BLAKE2bDigest}. The key is taken from a
+ * {@link KeyParameter}, optionally wrapped in a {@link ParametersWithSalt} carrying a 16 byte salt.
+ */
+public class BLAKE2bMac
+    implements Mac
+{
+    private final int macSize;
+
+    private BLAKE2bDigest digest;
+
+    /**
+     * Base constructor, 512 bit output.
+     */
+    public BLAKE2bMac()
+    {
+        this(512);
+    }
+
+    /**
+     * Constructs a BLAKE2b MAC with the passed in output size.
+     *
+     * @param macSizeBits the output size in bits, a multiple of 8 up to 512.
+     */
+    public BLAKE2bMac(int macSizeBits)
+    {
+        if ((macSizeBits % 8) != 0 || macSizeBits < 8 || macSizeBits > 512)
+        {
+            throw new IllegalArgumentException("MAC size must be a multiple of 8 bits, up to 512");
+        }
+
+        this.macSize = macSizeBits / 8;
+    }
+
+    public String getAlgorithmName()
+    {
+        return "BLAKE2b-MAC-" + (macSize * 8);
+    }
+
+    public void init(CipherParameters params)
+        throws IllegalArgumentException
+    {
+        byte[] salt = null;
+        if (params instanceof ParametersWithSalt)
+        {
+            salt = ((ParametersWithSalt)params).getSalt();
+            params = ((ParametersWithSalt)params).getParameters();
+        }
+
+        if (!(params instanceof KeyParameter))
+        {
+            throw new IllegalArgumentException("BLAKE2b MAC requires a key parameter.");
+        }
+
+        byte[] key = ((KeyParameter)params).getKey();
+        if (key.length == 0)
+        {
+            throw new IllegalArgumentException("BLAKE2b MAC requires a non-empty key.");
+        }
+
+        digest = new BLAKE2bDigest(key, macSize, salt, null);
+    }
+
+    public int getMacSize()
+    {
+        return macSize;
+    }
+
+    public void update(byte in)
+        throws IllegalStateException
+    {
+        checkInit();
+
+        digest.update(in);
+    }
+
+    public void update(byte[] in, int inOff, int len)
+        throws IllegalStateException
+    {
+        checkInit();
+
+        digest.update(in, inOff, len);
+    }
+
+    public int doFinal(byte[] out, int outOff)
+        throws IllegalStateException
+    {
+        checkInit();
+
+        return digest.doFinal(out, outOff);
+    }
+
+    public void reset()
+    {
+        if (digest != null)
+        {
+            digest.reset();
+        }
+    }
+
+    private void checkInit()
+    {
+        if (digest == null)
+        {
+            throw new IllegalStateException(getAlgorithmName() + " not initialised");
+        }
+    }
+}
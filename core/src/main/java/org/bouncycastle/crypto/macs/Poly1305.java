@@ -16,6 +16,10 @@
  * consisting of a 128 bit key applied to an underlying cipher, and a 128 bit key (with 106
  * effective key bits) used in the authenticator.
  * <p>
+ * If constructed without an underlying cipher the MAC takes a raw 256 bit one-time key in the
+ * layout used by RFC 7539 - the 128 bit polynomial key r followed by the 128 bit value s added
+ * at the end of the calculation - and no nonce.
+ * <p>
  * The polynomial calculation in this implementation is adapted from the public domain <a
  * href="https://github.com/floodyberry/poly1305-donna">poly1305-donna-unrolled</a> C implementation
  * by Andrew M (@floodyberry).
@@ -52,6 +56,14 @@
     /** Polynomial accumulator */
     private int h0, h1, h2, h3, h4;
 
+    /**
+     * Constructs a Poly1305 MAC, where the key passed to init() will be used directly.
+     */
+    public Poly1305()
+    {
+        this.cipher = null;
+    }
+
     /**
      * Constructs a Poly1305 MAC, using a 128 bit block cipher.
      */
@@ -67,41 +79,67 @@ public Poly1305(final BlockCipher cipher)
     /**
      * Initialises the Poly1305 MAC.
      *
-     * @param a {@link ParametersWithIV} containing a 128 bit nonce and a {@link KeyParameter} with
-     *            a 256 bit key complying to the {@link Poly1305KeyGenerator Poly1305 key format}.
+     * @param params if used with a block cipher, then a {@link ParametersWithIV} containing a 128 bit
+     *            nonce and a {@link KeyParameter} with a 256 bit key complying to the
+     *            {@link Poly1305KeyGenerator Poly1305 key format}, otherwise just the
+     *            {@link KeyParameter}.
      */
-    public void init(final CipherParameters params)
+    public void init(CipherParameters params)
         throws IllegalArgumentException
     {
-        final byte[] nonce;
-        final byte[] key;
-        if ((params instanceof ParametersWithIV) && ((ParametersWithIV)params).getParameters() instanceof KeyParameter)
+        byte[] nonce = null;
+
+        if (cipher != null)
         {
-            nonce = ((ParametersWithIV)params).getIV();
-            key = ((KeyParameter)((ParametersWithIV)params).getParameters()).getKey();
+            if (!(params instanceof ParametersWithIV))
+            {
+                throw new IllegalArgumentException("Poly1305 requires an IV when used with a block cipher.");
+            }
+
+            ParametersWithIV ivParams = (ParametersWithIV)params;
+            nonce = ivParams.getIV();
+            params = ivParams.getParameters();
         }
-        else
+
+        if (!(params instanceof KeyParameter))
         {
-            throw new IllegalArgumentException("Poly1305 requires a key and and IV.");
+            throw new IllegalArgumentException("Poly1305 requires a key.");
         }
 
-        setKey(key, nonce);
+        KeyParameter keyParams = (KeyParameter)params;
+
+        setKey(keyParams.getKey(), nonce);
         reset();
     }
 
     private void setKey(final byte[] key, final byte[] nonce)
     {
-        if (nonce.length != BLOCK_SIZE)
+        if (key.length != 32)
+        {
+            throw new IllegalArgumentException("Poly1305 key must be 256 bits.");
+        }
+        if (cipher != null && (nonce == null || nonce.length != BLOCK_SIZE))
         {
             throw new IllegalArgumentException("Poly1305 requires a 128 bit IV.");
         }
-        Poly1305KeyGenerator.checkKey(key);
 
-        // Extract r portion of key
-        int t0 = Pack.littleEndianToInt(key, BLOCK_SIZE + 0);
-        int t1 = Pack.littleEndianToInt(key, BLOCK_SIZE + 4);
-        int t2 = Pack.littleEndianToInt(key, BLOCK_SIZE + 8);
-        int t3 = Pack.littleEndianToInt(key, BLOCK_SIZE + 12);
+        // With a cipher the r portion of the key comes last, otherwise first
+        int rOff = BLOCK_SIZE, kOff = 0;
+        if (cipher != null)
+        {
+            Poly1305KeyGenerator.checkKey(key);
+        }
+        else
+        {
+            rOff = 0;
+            kOff = BLOCK_SIZE;
+        }
+
+        // Extract r portion of key (the masks clamp it as required)
+        int t0 = Pack.littleEndianToInt(key, rOff + 0);
+        int t1 = Pack.littleEndianToInt(key, rOff + 4);
+        int t2 = Pack.littleEndianToInt(key, rOff + 8);
+        int t3 = Pack.littleEndianToInt(key, rOff + 12);
 
         r0 = t0 & 0x3ffffff; t0 >>>= 26; t0 |= t1 << 6;
         r1 = t0 & 0x3ffff03; t1 >>>= 20; t1 |= t2 << 12;
@@ -115,22 +153,30 @@ private void setKey(final byte[] key, final byte[] nonce)
         s3 = r3 * 5;
         s4 = r4 * 5;
 
-        // Compute encrypted nonce
-        final byte[] cipherKey = new byte[BLOCK_SIZE];
-        System.arraycopy(key, 0, cipherKey, 0, cipherKey.length);
+        final byte[] kBytes;
+        if (cipher == null)
+        {
+            kBytes = key;
+        }
+        else
+        {
+            // Compute encrypted nonce
+            kBytes = new byte[BLOCK_SIZE];
+            System.arraycopy(key, 0, kBytes, 0, kBytes.length);
 
-        cipher.init(true, new KeyParameter(cipherKey));
-        cipher.processBlock(nonce, 0, cipherKey, 0);
+            cipher.init(true, new KeyParameter(kBytes));
+            cipher.processBlock(nonce, 0, kBytes, 0);
+        }
 
-        k0 = Pack.littleEndianToInt(cipherKey, 0);
-        k1 = Pack.littleEndianToInt(cipherKey, 4);
-        k2 = Pack.littleEndianToInt(cipherKey, 8);
-        k3 = Pack.littleEndianToInt(cipherKey, 12);
+        k0 = Pack.littleEndianToInt(kBytes, kOff + 0);
+        k1 = Pack.littleEndianToInt(kBytes, kOff + 4);
+        k2 = Pack.littleEndianToInt(kBytes, kOff + 8);
+        k3 = Pack.littleEndianToInt(kBytes, kOff + 12);
     }
 
     public String getAlgorithmName()
     {
-        return "Poly1305-" + cipher.getAlgorithmName();
+        return cipher == null ? "Poly1305" : "Poly1305-" + cipher.getAlgorithmName();
     }
 
     public int getMacSize()
@@ -3,6 +3,8 @@
 import org.bouncycastle.crypto.BlockCipher;
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.DataLengthException;
+import org.bouncycastle.crypto.MultiBlockCipher;
+import org.bouncycastle.crypto.OutputLengthException;
 import org.bouncycastle.crypto.params.ParametersWithIV;
 import org.bouncycastle.util.Arrays;
 
@@ -10,11 +12,14 @@
  * implements Cipher-Block-Chaining (CBC) mode on top of a simple cipher.
  */
 public class CBCBlockCipher
-    implements BlockCipher
+    implements MultiBlockCipher
 {
+    private static final int MULTI_BLOCK_COUNT = 16;
+
     private byte[]          IV;
     private byte[]          cbcV;
     private byte[]          cbcNextV;
+    private byte[]          cbcBlocks;
 
     private int             blockSize;
     private BlockCipher     cipher = null;
@@ -34,6 +39,7 @@ public CBCBlockCipher(
         this.IV = new byte[blockSize];
         this.cbcV = new byte[blockSize];
         this.cbcNextV = new byte[blockSize];
+        this.cbcBlocks = new byte[MULTI_BLOCK_COUNT * blockSize];
     }
 
     /**
@@ -148,6 +154,100 @@ public int processBlock(
         return (encrypting) ? encryptBlock(in, inOff, out, outOff) : decryptBlock(in, inOff, out, outOff);
     }
 
+    public int getMultiBlockSize()
+    {
+        return cbcBlocks.length;
+    }
+
+    /**
+     * Process blockCount blocks of input from the array in and write them to
+     * the out array. On decryption, where the blocks do not depend on each other,
+     * the underlying cipher is handed runs of blocks at a time.
+     *
+     * @param in the array containing the input data.
+     * @param inOff offset into the in array the data starts at.
+     * @param blockCount the number of blocks to process.
+     * @param out the array the output data will be copied into.
+     * @param outOff the offset into the out array the output will start at.
+     * @exception DataLengthException if there isn't enough data in in, or
+     * space in out.
+     * @exception IllegalStateException if the cipher isn't initialised.
+     * @return the number of bytes processed and produced.
+     */
+    public int processBlocks(
+        byte[]      in,
+        int         inOff,
+        int         blockCount,
+        byte[]      out,
+        int         outOff)
+        throws DataLengthException, IllegalStateException
+    {
+        if (blockCount < 0)
+        {
+            throw new IllegalArgumentException("blockCount cannot be negative");
+        }
+
+        int len = blockCount * blockSize;
+
+        if ((inOff + len) > in.length)
+        {
+            throw new DataLengthException("input buffer too short");
+        }
+
+        if ((outOff + len) > out.length)
+        {
+            throw new OutputLengthException("output buffer too short");
+        }
+
+        if (encrypting || !(cipher instanceof MultiBlockCipher))
+        {
+            for (int i = 0; i < blockCount; i++)
+            {
+                processBlock(in, inOff + i * blockSize, out, outOff + i * blockSize);
+            }
+
+            return len;
+        }
+
+        MultiBlockCipher multiCipher = (MultiBlockCipher)cipher;
+
+        while (blockCount > 0)
+        {
+            int count = Math.min(blockCount, MULTI_BLOCK_COUNT);
+            int chunkLen = count * blockSize;
+
+            multiCipher.processBlocks(in, inOff, count, cbcBlocks, 0);
+
+            /*
+             * XOR each block with the previous cipher text block, working backwards
+             * so that in place decryption never overwrites cipher text still needed.
+             */
+            System.arraycopy(in, inOff + chunkLen - blockSize, cbcNextV, 0, blockSize);
+
+            for (int i = chunkLen - 1; i >= blockSize; i--)
+            {
+                out[outOff + i] = (byte)(cbcBlocks[i] ^ in[inOff + i - blockSize]);
+            }
+
+            for (int i = blockSize - 1; i >= 0; i--)
+            {
+                out[outOff + i] = (byte)(cbcBlocks[i] ^ cbcV[i]);
+            }
+
+            byte[]  tmp;
+
+            tmp = cbcV;
+            cbcV = cbcNextV;
+            cbcNextV = tmp;
+
+            inOff += chunkLen;
+            outOff += chunkLen;
+            blockCount -= count;
+        }
+
+        return len;
+    }
+
     /**
      * reset the chaining vector back to the IV and reset the underlying
      * cipher.
@@ -255,7 +255,7 @@ public int processPacket(byte[] in, int inOff, int inLen, byte[] output, int out
         iv[0] = (byte)((q - 1) & 0x7);
         System.arraycopy(nonce, 0, iv, 1, nonce.length);
 
-        BlockCipher ctrCipher = new SICBlockCipher(cipher);
+        SICBlockCipher ctrCipher = new SICBlockCipher(cipher);
         ctrCipher.init(forEncryption, new ParametersWithIV(keyParam, iv));
 
         int outputLen;
@@ -274,11 +274,12 @@ public int processPacket(byte[] in, int inOff, int inLen, byte[] output, int out
 
             ctrCipher.processBlock(macBlock, 0, macBlock, 0);   // S0
 
-            while (inIndex < (inOff + inLen - blockSize))                 // S1...
+            if (inLen > blockSize)                                      // S1...
             {
-                ctrCipher.processBlock(in, inIndex, output, outIndex);
-                outIndex += blockSize;
-                inIndex += blockSize;
+                int blockCount = (inLen - 1) / blockSize;
+                int len = ctrCipher.processBlocks(in, inIndex, blockCount, output, outIndex);
+                outIndex += len;
+                inIndex += len;
             }
 
             byte[] block = new byte[blockSize];
@@ -312,11 +313,12 @@ public int processPacket(byte[] in, int inOff, int inLen, byte[] output, int out
                 macBlock[i] = 0;
             }
 
-            while (inIndex < (inOff + outputLen - blockSize))
+            if (outputLen > blockSize)
             {
-                ctrCipher.processBlock(in, inIndex, output, outIndex);
-                outIndex += blockSize;
-                inIndex += blockSize;
+                int blockCount = (outputLen - 1) / blockSize;
+                int len = ctrCipher.processBlocks(in, inIndex, blockCount, output, outIndex);
+                outIndex += len;
+                inIndex += len;
             }
 
             byte[] block = new byte[blockSize];
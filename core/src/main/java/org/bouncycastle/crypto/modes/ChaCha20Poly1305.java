@@ -0,0 +1,368 @@
+package org.bouncycastle.crypto.modes;
+
+import org.bouncycastle.crypto.CipherParameters;
+import org.bouncycastle.crypto.DataLengthException;
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.OutputLengthException;
+import org.bouncycastle.crypto.engines.ChaCha7539Engine;
+import org.bouncycastle.crypto.macs.Poly1305;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.bouncycastle.crypto.util.Pack;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * Implements the ChaCha20-Poly1305 AEAD construction described in RFC 7539.
+ * <p>
+ * The cipher requires a 256 bit key and a 96 bit nonce, and always produces a 128 bit tag.
+ * Associated data must be supplied before any message data is processed.
+ */
+public class ChaCha20Poly1305
+    implements AEADCipher
+{
+    private static final int KEY_SIZE = 32;
+    private static final int NONCE_SIZE = 12;
+    private static final int MAC_SIZE = 16;
+
+    private static final byte[] ZEROES = new byte[MAC_SIZE - 1];
+
+    private final ChaCha7539Engine chacha20;
+    private final Poly1305 poly1305;
+
+    private final byte[] key = new byte[KEY_SIZE];
+    private final byte[] macKey = new byte[64];
+    private final byte[] oneByte = new byte[1];
+
+    private boolean forEncryption;
+    private boolean keySet;
+    private byte[] nonce;
+    private byte[] initialAAD;
+
+    private byte[] macBlock;
+    private final byte[] bufBlock = new byte[MAC_SIZE];
+    private int bufOff;
+
+    private long aadCount;
+    private long dataCount;
+    private boolean processingData;
+
+    public ChaCha20Poly1305()
+    {
+        this.chacha20 = new ChaCha7539Engine();
+        this.poly1305 = new Poly1305();
+    }
+
+    public String getAlgorithmName()
+    {
+        return "ChaCha20Poly1305";
+    }
+
+    public void init(boolean forEncryption, CipherParameters params)
+        throws IllegalArgumentException
+    {
+        KeyParameter keyParam;
+        byte[] newNonce;
+        byte[] newAAD;
+
+        if (params instanceof AEADParameters)
+        {
+            AEADParameters param = (AEADParameters)params;
+
+            if (param.getMacSize() != MAC_SIZE * 8)
+            {
+                throw new IllegalArgumentException("Invalid value for MAC size: " + param.getMacSize());
+            }
+
+            keyParam = param.getKey();
+            newNonce = param.getNonce();
+            newAAD = param.getAssociatedText();
+        }
+        else if (params instanceof ParametersWithIV)
+        {
+            ParametersWithIV param = (ParametersWithIV)params;
+
+            keyParam = (KeyParameter)param.getParameters();
+            newNonce = param.getIV();
+            newAAD = null;
+        }
+        else
+        {
+            throw new IllegalArgumentException("invalid parameters passed to ChaCha20Poly1305");
+        }
+
+        if (newNonce == null || newNonce.length != NONCE_SIZE)
+        {
+            throw new IllegalArgumentException("ChaCha20Poly1305 requires a 96 bit nonce");
+        }
+
+        // if keyParam is null we're reusing the last key.
+        if (keyParam == null)
+        {
+            if (!keySet)
+            {
+                throw new IllegalArgumentException("Key must be specified in initial init");
+            }
+        }
+        else
+        {
+            byte[] newKey = keyParam.getKey();
+            if (newKey.length != KEY_SIZE)
+            {
+                throw new IllegalArgumentException("ChaCha20Poly1305 requires a 256 bit key");
+            }
+
+            System.arraycopy(newKey, 0, key, 0, KEY_SIZE);
+            keySet = true;
+        }
+
+        this.forEncryption = forEncryption;
+        this.nonce = Arrays.clone(newNonce);
+        this.initialAAD = Arrays.clone(newAAD);
+
+        reset(true);
+    }
+
+    public void processAADByte(byte in)
+    {
+        checkAAD();
+
+        poly1305.update(in);
+        ++aadCount;
+    }
+
+    public void processAADBytes(byte[] in, int inOff, int len)
+    {
+        if (inOff + len > in.length)
+        {
+            throw new DataLengthException("Input buffer too short");
+        }
+
+        checkAAD();
+
+        poly1305.update(in, inOff, len);
+        aadCount += len;
+    }
+
+    public int processByte(byte in, byte[] out, int outOff)
+        throws DataLengthException
+    {
+        oneByte[0] = in;
+
+        return processBytes(oneByte, 0, 1, out, outOff);
+    }
+
+    public int processBytes(byte[] in, int inOff, int len, byte[] out, int outOff)
+        throws DataLengthException
+    {
+        if (inOff + len > in.length)
+        {
+            throw new DataLengthException("Input buffer too short");
+        }
+        if (outOff + getUpdateOutputSize(len) > out.length)
+        {
+            throw new OutputLengthException("Output buffer too short");
+        }
+
+        startData();
+
+        if (forEncryption)
+        {
+            chacha20.processBytes(in, inOff, len, out, outOff);
+            poly1305.update(out, outOff, len);
+            dataCount += len;
+            return len;
+        }
+
+        // the last MAC_SIZE bytes seen may be the tag, so hold them back
+        int available = bufOff + len;
+        if (available <= MAC_SIZE)
+        {
+            System.arraycopy(in, inOff, bufBlock, bufOff, len);
+            bufOff = available;
+            return 0;
+        }
+
+        int outLen = available - MAC_SIZE;
+
+        int fromBuf = Math.min(bufOff, outLen);
+        int fromIn = outLen - fromBuf;
+
+        if (fromBuf > 0 && in == out)
+        {
+            // the output runs ahead of the input by the held back bytes
+            in = Arrays.copyOfRange(in, inOff, inOff + len);
+            inOff = 0;
+        }
+
+        if (fromBuf > 0)
+        {
+            decrypt(bufBlock, 0, fromBuf, out, outOff);
+        }
+        if (fromIn > 0)
+        {
+            decrypt(in, inOff, fromIn, out, outOff + fromBuf);
+        }
+
+        System.arraycopy(bufBlock, fromBuf, bufBlock, 0, bufOff - fromBuf);
+        bufOff -= fromBuf;
+        System.arraycopy(in, inOff + fromIn, bufBlock, bufOff, len - fromIn);
+        bufOff += len - fromIn;
+
+        return outLen;
+    }
+
+    public int doFinal(byte[] out, int outOff)
+        throws IllegalStateException, InvalidCipherTextException
+    {
+        if (nonce == null)
+        {
+            throw new IllegalStateException("ChaCha20Poly1305 not initialised");
+        }
+
+        startData();
+
+        if (forEncryption)
+        {
+            if (outOff + MAC_SIZE > out.length)
+            {
+                throw new OutputLengthException("Output buffer too short");
+            }
+        }
+        else if (bufOff < MAC_SIZE)
+        {
+            throw new InvalidCipherTextException("data too short");
+        }
+
+        padMac(dataCount);
+
+        byte[] lengths = new byte[MAC_SIZE];
+        Pack.longToLittleEndian(aadCount, lengths, 0);
+        Pack.longToLittleEndian(dataCount, lengths, 8);
+        poly1305.update(lengths, 0, MAC_SIZE);
+
+        macBlock = new byte[MAC_SIZE];
+        poly1305.doFinal(macBlock, 0);
+
+        int resultLen = 0;
+        if (forEncryption)
+        {
+            System.arraycopy(macBlock, 0, out, outOff, MAC_SIZE);
+            resultLen = MAC_SIZE;
+        }
+        else if (!Arrays.constantTimeAreEqual(macBlock, bufBlock))
+        {
+            throw new InvalidCipherTextException("mac check in ChaCha20Poly1305 failed");
+        }
+
+        reset(false);
+
+        return resultLen;
+    }
+
+    public byte[] getMac()
+    {
+        return Arrays.clone(macBlock);
+    }
+
+    public int getUpdateOutputSize(int len)
+    {
+        if (forEncryption)
+        {
+            return len;
+        }
+
+        int totalData = len + bufOff;
+        return totalData < MAC_SIZE ? 0 : totalData - MAC_SIZE;
+    }
+
+    public int getOutputSize(int len)
+    {
+        if (forEncryption)
+        {
+            return len + MAC_SIZE;
+        }
+
+        int totalData = len + bufOff;
+        return totalData < MAC_SIZE ? 0 : totalData - MAC_SIZE;
+    }
+
+    public void reset()
+    {
+        reset(true);
+    }
+
+    private void reset(boolean clearMac)
+    {
+        if (nonce == null)
+        {
+            return;
+        }
+
+        chacha20.init(true, new ParametersWithIV(new KeyParameter(key), nonce));
+
+        // block 0 of the key stream provides the one-time Poly1305 key, the data starts at block 1
+        Arrays.fill(macKey, (byte)0);
+        chacha20.processBytes(macKey, 0, macKey.length, macKey, 0);
+        poly1305.init(new KeyParameter(macKey, 0, KEY_SIZE));
+        Arrays.fill(macKey, (byte)0);
+
+        Arrays.fill(bufBlock, (byte)0);
+        bufOff = 0;
+        aadCount = 0;
+        dataCount = 0;
+        processingData = false;
+
+        if (clearMac)
+        {
+            macBlock = null;
+        }
+
+        if (initialAAD != null)
+        {
+            processAADBytes(initialAAD, 0, initialAAD.length);
+        }
+    }
+
+    private void checkAAD()
+    {
+        if (processingData)
+        {
+            throw new IllegalStateException("ChaCha20Poly1305 cannot process AAD once data processing has started");
+        }
+        if (nonce == null)
+        {
+            throw new IllegalStateException("ChaCha20Poly1305 not initialised");
+        }
+    }
+
+    private void startData()
+    {
+        if (!processingData)
+        {
+            if (nonce == null)
+            {
+                throw new IllegalStateException("ChaCha20Poly1305 not initialised");
+            }
+
+            padMac(aadCount);
+            processingData = true;
+        }
+    }
+
+    private void decrypt(byte[] in, int inOff, int len, byte[] out, int outOff)
+    {
+        poly1305.update(in, inOff, len);
+        chacha20.processBytes(in, inOff, len, out, outOff);
+        dataCount += len;
+    }
+
+    private void padMac(long count)
+    {
+        int partial = (int)count & (MAC_SIZE - 1);
+        if (partial != 0)
+        {
+            poly1305.update(ZEROES, 0, MAC_SIZE - partial);
+        }
+    }
+}
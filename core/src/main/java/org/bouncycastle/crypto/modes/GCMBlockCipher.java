@@ -4,6 +4,8 @@
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.DataLengthException;
 import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.MultiBlockCipher;
+import org.bouncycastle.crypto.OutputLengthException;
 import org.bouncycastle.crypto.modes.gcm.GCMExponentiator;
 import org.bouncycastle.crypto.modes.gcm.GCMMultiplier;
 import org.bouncycastle.crypto.modes.gcm.Tables1kGCMExponentiator;
@@ -22,11 +24,13 @@
     implements AEADBlockCipher
 {
     private static final int BLOCK_SIZE = 16;
+    private static final int MULTI_BLOCK_COUNT = 8;
 
     // not final due to a compiler bug 
     private BlockCipher   cipher;
     private GCMMultiplier multiplier;
     private GCMExponentiator exp;
+    private boolean expInitialised;
 
     // These fields are set by init and not modified by processing
     private boolean             forEncryption;
@@ -41,6 +45,7 @@
     private byte[]      macBlock;
     private byte[]      S, S_at, S_atPre;
     private byte[]      counter;
+    private byte[]      counterBlocks;
     private int         bufOff;
     private long        totalLength;
     private byte[]      atBlock;
@@ -54,6 +59,20 @@ public GCMBlockCipher(BlockCipher c)
     }
 
     public GCMBlockCipher(BlockCipher c, GCMMultiplier m)
+    {
+        this(c, m, null);
+    }
+
+    /**
+     * Construct a GCM cipher with a specific multiplier and exponentiator, e.g. a
+     * {@link org.bouncycastle.crypto.modes.gcm.ConstantTimeGCMMultiplier} together with a
+     * {@link org.bouncycastle.crypto.modes.gcm.ConstantTimeGCMExponentiator}.
+     *
+     * @param c the block cipher to use, must have a 16 byte block size.
+     * @param m the multiplier to use for GHASH, null for the default.
+     * @param e the exponentiator to use when AAD is supplied after processing has started, null for the default.
+     */
+    public GCMBlockCipher(BlockCipher c, GCMMultiplier m, GCMExponentiator e)
     {
         if (c.getBlockSize() != BLOCK_SIZE)
         {
@@ -69,6 +88,8 @@ public GCMBlockCipher(BlockCipher c, GCMMultiplier m)
 
         this.cipher = c;
         this.multiplier = m;
+        this.exp = e;
+        this.counterBlocks = new byte[MULTI_BLOCK_COUNT * BLOCK_SIZE];
     }
 
     public BlockCipher getUnderlyingCipher()
@@ -142,7 +163,7 @@ else if (params instanceof ParametersWithIV)
 
             // GCMMultiplier tables don't change unless the key changes (and are expensive to init)
             multiplier.init(H);
-            exp = null;
+            expInitialised = false;
         }
 
         this.J0 = new byte[BLOCK_SIZE];
@@ -271,18 +292,68 @@ public int processByte(byte in, byte[] out, int outOff)
     public int processBytes(byte[] in, int inOff, int len, byte[] out, int outOff)
         throws DataLengthException
     {
-        int resultLen = 0;
+        if ((inOff + len) > in.length)
+        {
+            throw new DataLengthException("Input buffer too short");
+        }
 
-        for (int i = 0; i < len; ++i)
+        // on decryption the last macSize bytes seen are always held back as the potential tag
+        int available = bufOff + len - (forEncryption ? 0 : macSize);
+        int blockCount = available < BLOCK_SIZE ? 0 : available / BLOCK_SIZE;
+
+        if (blockCount == 0)
         {
-            bufBlock[bufOff] = in[inOff + i];
-            if (++bufOff == bufBlock.length)
-            {
-                outputBlock(out, outOff + resultLen);
-                resultLen += BLOCK_SIZE;
-            }
+            System.arraycopy(in, inOff, bufBlock, bufOff, len);
+            bufOff += len;
+            return 0;
+        }
+
+        int resultLen = blockCount * BLOCK_SIZE;
+
+        if ((outOff + resultLen) > out.length)
+        {
+            throw new OutputLengthException("Output buffer too short");
+        }
+
+        if (totalLength == 0)
+        {
+            initCipher();
         }
 
+        // whole blocks already sitting in the buffer (decryption only)
+        while (blockCount > 0 && bufOff >= BLOCK_SIZE)
+        {
+            gCTRBlock(bufBlock, out, outOff);
+            System.arraycopy(bufBlock, BLOCK_SIZE, bufBlock, 0, bufOff - BLOCK_SIZE);
+            bufOff -= BLOCK_SIZE;
+            outOff += BLOCK_SIZE;
+            --blockCount;
+        }
+
+        // a block split between the buffer and the new input
+        if (blockCount > 0 && bufOff > 0)
+        {
+            int fill = BLOCK_SIZE - bufOff;
+            System.arraycopy(in, inOff, bufBlock, bufOff, fill);
+            gCTRBlock(bufBlock, out, outOff);
+            bufOff = 0;
+            inOff += fill;
+            len -= fill;
+            outOff += BLOCK_SIZE;
+            --blockCount;
+        }
+
+        // the remaining blocks are taken directly from the caller's array
+        if (blockCount > 0)
+        {
+            gCTRBlocks(in, inOff, blockCount, out, outOff);
+            inOff += blockCount * BLOCK_SIZE;
+            len -= blockCount * BLOCK_SIZE;
+        }
+
+        System.arraycopy(in, inOff, bufBlock, bufOff, len);
+        bufOff += len;
+
         return resultLen;
     }
 
@@ -358,7 +429,11 @@ public int doFinal(byte[] out, int outOff)
             if (exp == null)
             {
                 exp = new Tables1kGCMExponentiator();
+            }
+            if (!expInitialised)
+            {
                 exp.init(H);
+                expInitialised = true;
             }
             exp.exponentiateX(c, H_c);
 
@@ -459,6 +534,58 @@ private void gCTRBlock(byte[] block, byte[] out, int outOff)
         totalLength += BLOCK_SIZE;
     }
 
+    private void gCTRBlocks(byte[] in, int inOff, int blockCount, byte[] out, int outOff)
+    {
+        while (blockCount > 0)
+        {
+            int count = Math.min(blockCount, MULTI_BLOCK_COUNT);
+            int len = count * BLOCK_SIZE;
+
+            // generate the key stream for the whole run in one pass through the cipher
+            for (int off = 0; off < len; off += BLOCK_SIZE)
+            {
+                incrementCounter();
+                System.arraycopy(counter, 0, counterBlocks, off, BLOCK_SIZE);
+            }
+
+            if (cipher instanceof MultiBlockCipher)
+            {
+                ((MultiBlockCipher)cipher).processBlocks(counterBlocks, 0, count, counterBlocks, 0);
+            }
+            else
+            {
+                for (int off = 0; off < len; off += BLOCK_SIZE)
+                {
+                    cipher.processBlock(counterBlocks, off, counterBlocks, off);
+                }
+            }
+
+            for (int off = 0; off < len; off += BLOCK_SIZE)
+            {
+                if (!forEncryption)
+                {
+                    // hash the cipher text before it can be overwritten by in place decryption
+                    gHASHPartial(S, in, inOff + off, BLOCK_SIZE);
+                }
+
+                for (int i = 0; i < BLOCK_SIZE; ++i)
+                {
+                    out[outOff + off + i] = (byte)(in[inOff + off + i] ^ counterBlocks[off + i]);
+                }
+
+                if (forEncryption)
+                {
+                    gHASHPartial(S, out, outOff + off, BLOCK_SIZE);
+                }
+            }
+
+            totalLength += len;
+            blockCount -= count;
+            inOff += len;
+            outOff += len;
+        }
+    }
+
     private void gCTRPartial(byte[] buf, int off, int len, byte[] out, int outOff)
     {
         byte[] tmp = getNextCounterBlock();
@@ -493,6 +620,16 @@ private void gHASHPartial(byte[] Y, byte[] b, int off, int len)
     }
 
     private byte[] getNextCounterBlock()
+    {
+        incrementCounter();
+
+        byte[] tmp = new byte[BLOCK_SIZE];
+        // TODO Sure would be nice if ciphers could operate on int[]
+        cipher.processBlock(counter, 0, tmp, 0);
+        return tmp;
+    }
+
+    private void incrementCounter()
     {
         for (int i = 15; i >= 12; --i)
         {
@@ -504,11 +641,6 @@ private byte[] getNextCounterBlock()
                 break;
             }
         }
-
-        byte[] tmp = new byte[BLOCK_SIZE];
-        // TODO Sure would be nice if ciphers could operate on int[]
-        cipher.processBlock(counter, 0, tmp, 0);
-        return tmp;
     }
 
     private static void multiply(byte[] block, byte[] val)
@@ -3,22 +3,34 @@
 import org.bouncycastle.crypto.BlockCipher;
 import org.bouncycastle.crypto.CipherParameters;
 import org.bouncycastle.crypto.DataLengthException;
+import org.bouncycastle.crypto.MultiBlockCipher;
+import org.bouncycastle.crypto.OutputLengthException;
+import org.bouncycastle.crypto.SkippingCipher;
+import org.bouncycastle.crypto.StreamCipher;
 import org.bouncycastle.crypto.params.ParametersWithIV;
 
 /**
  * Implements the Segmented Integer Counter (SIC) mode on top of a simple
  * block cipher. This mode is also known as CTR mode.
+ * <p>
+ * As well as the block interfaces, the mode can be used directly as a stream cipher,
+ * in which case key stream is generated several counter blocks at a time, and it
+ * supports seeking to an arbitrary byte position in the key stream.
  */
 public class SICBlockCipher
-    implements BlockCipher
+    implements MultiBlockCipher, StreamCipher, SkippingCipher
 {
+    private static final int MULTI_BLOCK_COUNT = 16;
+
     private final BlockCipher     cipher;
     private final int             blockSize;
     
     private byte[]          IV;
     private byte[]          counter;
     private byte[]          counterOut;
-
+    private byte[]          keyStream;
+    private int             keyStreamOff;
+    private int             keyStreamLen;
 
     /**
      * Basic constructor.
@@ -32,6 +44,7 @@ public SICBlockCipher(BlockCipher c)
         this.IV = new byte[blockSize];
         this.counter = new byte[blockSize];
         this.counterOut = new byte[blockSize];
+        this.keyStream = new byte[MULTI_BLOCK_COUNT * blockSize];
     }
 
 
@@ -85,6 +98,14 @@ public int getBlockSize()
     public int processBlock(byte[] in, int inOff, byte[] out, int outOff)
           throws DataLengthException, IllegalStateException
     {
+        if (keyStreamOff != keyStreamLen)
+        {
+            // we are part way through a block of key stream from processBytes()/returnByte().
+            processBytes(in, inOff, blockSize, out, outOff);
+
+            return blockSize;
+        }
+
         cipher.processBlock(counter, 0, counterOut, 0);
 
         //
@@ -95,19 +116,226 @@ public int processBlock(byte[] in, int inOff, byte[] out, int outOff)
           out[outOff + i] = (byte)(counterOut[i] ^ in[inOff + i]);
         }
 
-        // increment counter by 1.
-        for (int i = counter.length - 1; i >= 0 && ++counter[i] == 0; i--)
+        incrementCounter();
+
+        return counter.length;
+    }
+
+    public int getMultiBlockSize()
+    {
+        return keyStream.length;
+    }
+
+    public int processBlocks(byte[] in, int inOff, int blockCount, byte[] out, int outOff)
+        throws DataLengthException, IllegalStateException
+    {
+        if (blockCount < 0)
         {
-            ; // do nothing - pre-increment and test for 0 in counter does the job.
+            throw new IllegalArgumentException("blockCount cannot be negative");
         }
 
-        return counter.length;
+        int len = blockCount * blockSize;
+
+        processBytes(in, inOff, len, out, outOff);
+
+        return len;
     }
 
+    public byte returnByte(byte in)
+    {
+        if (keyStreamOff == keyStreamLen)
+        {
+            generateKeyStream(1);
+        }
+
+        return (byte)(keyStream[keyStreamOff++] ^ in);
+    }
+
+    /**
+     * process a run of bytes from in putting the result into out. Whole blocks of
+     * key stream are generated several counter values at a time, and any key stream
+     * left over from a trailing partial block is kept for the next call.
+     *
+     * @param in the input byte array.
+     * @param inOff the offset into the in array where the data to be processed starts.
+     * @param len the number of bytes to be processed.
+     * @param out the output buffer the processed bytes go into.
+     * @param outOff the offset into the output byte array the processed data starts at.
+     * @exception DataLengthException if the output buffer is too small.
+     */
+    public void processBytes(byte[] in, int inOff, int len, byte[] out, int outOff)
+        throws DataLengthException
+    {
+        if ((inOff + len) > in.length)
+        {
+            throw new DataLengthException("input buffer too short");
+        }
+
+        if ((outOff + len) > out.length)
+        {
+            throw new OutputLengthException("output buffer too short");
+        }
+
+        int available = keyStreamLen - keyStreamOff;
+        if (available > 0)
+        {
+            int count = Math.min(available, len);
+
+            xor(keyStream, keyStreamOff, in, inOff, count, out, outOff);
+
+            keyStreamOff += count;
+            inOff += count;
+            outOff += count;
+            len -= count;
+        }
+
+        while (len >= blockSize)
+        {
+            int chunkLen = generateKeyStream(Math.min(len / blockSize, MULTI_BLOCK_COUNT));
+
+            xor(keyStream, 0, in, inOff, chunkLen, out, outOff);
+
+            keyStreamOff = chunkLen;
+            inOff += chunkLen;
+            outOff += chunkLen;
+            len -= chunkLen;
+        }
+
+        if (len > 0)
+        {
+            generateKeyStream(1);
+
+            xor(keyStream, 0, in, inOff, len, out, outOff);
+
+            keyStreamOff = len;
+        }
+    }
+
+    public long skip(long numberOfBytes)
+    {
+        long position = getPosition() + numberOfBytes;
+
+        if (position < 0)
+        {
+            throw new IllegalArgumentException("attempt to skip before start of key stream");
+        }
+
+        seekTo(position);
+
+        return numberOfBytes;
+    }
+
+    public long seekTo(long position)
+    {
+        if (position < 0)
+        {
+            throw new IllegalArgumentException("position cannot be negative");
+        }
+
+        reset();
+
+        addToCounter(position / blockSize);
+
+        int residue = (int)(position % blockSize);
+        if (residue != 0)
+        {
+            generateKeyStream(1);
+            keyStreamOff = residue;
+        }
+
+        return position;
+    }
+
+    public long getPosition()
+    {
+        //
+        // the low order 64 bits of (counter - IV) give the number of blocks generated.
+        //
+        long blocks = 0;
+        int borrow = 0;
+
+        for (int i = counter.length - 1, shift = 0; i >= 0 && shift < 64; i--, shift += 8)
+        {
+            int d = (counter[i] & 0xff) - (IV[i] & 0xff) - borrow;
+
+            borrow = (d < 0) ? 1 : 0;
+            blocks |= (long)(d & 0xff) << shift;
+        }
+
+        return blocks * blockSize - (keyStreamLen - keyStreamOff);
+    }
 
     public void reset()
     {
         System.arraycopy(IV, 0, counter, 0, counter.length);
+        keyStreamOff = 0;
+        keyStreamLen = 0;
         cipher.reset();
     }
+
+    /**
+     * Encrypt the next count counter values into keyStream, laying them out first
+     * so the underlying cipher can process them in a single pass.
+     *
+     * @return the number of bytes of key stream generated.
+     */
+    private int generateKeyStream(int count)
+    {
+        int len = count * blockSize;
+
+        for (int off = 0; off < len; off += blockSize)
+        {
+            System.arraycopy(counter, 0, keyStream, off, blockSize);
+            incrementCounter();
+        }
+
+        if (cipher instanceof MultiBlockCipher)
+        {
+            ((MultiBlockCipher)cipher).processBlocks(keyStream, 0, count, keyStream, 0);
+        }
+        else
+        {
+            for (int off = 0; off < len; off += blockSize)
+            {
+                cipher.processBlock(keyStream, off, keyStream, off);
+            }
+        }
+
+        keyStreamOff = 0;
+        keyStreamLen = len;
+
+        return len;
+    }
+
+    private void incrementCounter()
+    {
+        // increment counter by 1.
+        for (int i = counter.length - 1; i >= 0 && ++counter[i] == 0; i--)
+        {
+            ; // do nothing - pre-increment and test for 0 in counter does the job.
+        }
+    }
+
+    private void addToCounter(long blocks)
+    {
+        int carry = 0;
+
+        for (int i = counter.length - 1; i >= 0 && (blocks != 0 || carry != 0); i--)
+        {
+            int sum = (counter[i] & 0xff) + (int)(blocks & 0xff) + carry;
+
+            counter[i] = (byte)sum;
+            carry = sum >>> 8;
+            blocks >>>= 8;
+        }
+    }
+
+    private static void xor(byte[] keyStream, int keyOff, byte[] in, int inOff, int len, byte[] out, int outOff)
+    {
+        // a simple counted loop over the arrays - HotSpot will unroll and vectorise this.
+        for (int i = 0; i < len; i++)
+        {
+            out[outOff + i] = (byte)(keyStream[keyOff + i] ^ in[inOff + i]);
+        }
+    }
 }
@@ -0,0 +1,40 @@
+package org.bouncycastle.crypto.modes.gcm;
+
+import org.bouncycastle.util.Arrays;
+
+/**
+ * An exponentiator to go with {@link ConstantTimeGCMMultiplier}. Only the (public) power
+ * affects the sequence of operations; the multiplications themselves are constant time.
+ */
+public class ConstantTimeGCMExponentiator implements GCMExponentiator
+{
+    private long[] x;
+
+    public void init(byte[] x)
+    {
+        this.x = GCMUtil.asLongs(x);
+    }
+
+    public void exponentiateX(long pow, byte[] output)
+    {
+        // Initial value is little-endian 1
+        long[] y = GCMUtil.oneAsLongs();
+
+        if (pow > 0)
+        {
+            long[] powX = Arrays.clone(x);
+            do
+            {
+                if ((pow & 1L) != 0)
+                {
+                    GCMUtil.multiplyConstantTime(y, powX);
+                }
+                GCMUtil.multiplyConstantTime(powX, powX);
+                pow >>>= 1;
+            }
+            while (pow > 0);
+        }
+
+        GCMUtil.asBytes(y, output);
+    }
+}
@@ -0,0 +1,26 @@
+package org.bouncycastle.crypto.modes.gcm;
+
+import org.bouncycastle.crypto.util.Pack;
+
+/**
+ * A GCM multiplier which uses no tables and has no branches or memory accesses dependent on
+ * H or the data, so it does not leak through shared caches. Slower than the table based
+ * multipliers, but suitable for hosts shared with untrusted code.
+ */
+public class ConstantTimeGCMMultiplier implements GCMMultiplier
+{
+    private long[] H;
+
+    public void init(byte[] H)
+    {
+        this.H = GCMUtil.asLongs(H);
+    }
+
+    public void multiplyH(byte[] x)
+    {
+        long[] t = GCMUtil.asLongs(x);
+        GCMUtil.multiplyConstantTime(t, H);
+        Pack.longToBigEndian(t[0], x, 0);
+        Pack.longToBigEndian(t[1], x, 8);
+    }
+}
@@ -7,7 +7,7 @@
 {
     private static final int E1 = 0xe1000000;
     private static final byte E1B = (byte)0xe1;
-    private static final long E1L = (E1 & 0xFFFFFFFFL) << 24;
+    private static final long E1L = (E1 & 0xFFFFFFFFL) << 32;
 
     private static int[] generateLookup()
     {
@@ -176,6 +176,70 @@ static void multiply(long[] x, long[] y)
         x[1] = r1[1];
     }
 
+    /**
+     * Multiply x by y without any branches or table lookups dependent on either value.
+     * <p>
+     * Both values are bit reversed into conventional polynomial order, multiplied with a
+     * Karatsuba step over 64x64 carry-less products, reduced, and reversed back.
+     */
+    static void multiplyConstantTime(long[] x, long[] y)
+    {
+        long x0 = Long.reverse(x[0]), x1 = Long.reverse(x[1]);
+        long y0 = Long.reverse(y[0]), y1 = Long.reverse(y[1]);
+        long x0r = x[0], x1r = x[1], y0r = y[0], y1r = y[1];
+
+        long c0l = implMul64(x0, y0), c0h = Long.reverse(implMul64(x0r, y0r)) >>> 1;
+        long c2l = implMul64(x1, y1), c2h = Long.reverse(implMul64(x1r, y1r)) >>> 1;
+        long c1l = implMul64(x0 ^ x1, y0 ^ y1), c1h = Long.reverse(implMul64(x0r ^ x1r, y0r ^ y1r)) >>> 1;
+
+        c1l ^= c0l ^ c2l;
+        c1h ^= c0h ^ c2h;
+
+        long z0 = c0l;
+        long z1 = c0h ^ c1l;
+        long z2 = c2l ^ c1h;
+        long z3 = c2h;
+
+        // reduce modulo x^128 + x^7 + x^2 + x + 1
+        z1 ^= z3 ^ (z3 << 1) ^ (z3 << 2) ^ (z3 << 7);
+        z2 ^= (z3 >>> 63) ^ (z3 >>> 62) ^ (z3 >>> 57);
+
+        z0 ^= z2 ^ (z2 << 1) ^ (z2 << 2) ^ (z2 << 7);
+        z1 ^= (z2 >>> 63) ^ (z2 >>> 62) ^ (z2 >>> 57);
+
+        x[0] = Long.reverse(z0);
+        x[1] = Long.reverse(z1);
+    }
+
+    /*
+     * Low 64 bits of the carry-less product of x and y, using integer multiplies on
+     * operands with only every fourth bit set so that carries never reach a bit we keep.
+     */
+    private static long implMul64(long x, long y)
+    {
+        long x0 = x & 0x1111111111111111L;
+        long x1 = x & 0x2222222222222222L;
+        long x2 = x & 0x4444444444444444L;
+        long x3 = x & 0x8888888888888888L;
+
+        long y0 = y & 0x1111111111111111L;
+        long y1 = y & 0x2222222222222222L;
+        long y2 = y & 0x4444444444444444L;
+        long y3 = y & 0x8888888888888888L;
+
+        long z0 = (x0 * y0) ^ (x1 * y3) ^ (x2 * y2) ^ (x3 * y1);
+        long z1 = (x0 * y1) ^ (x1 * y0) ^ (x2 * y3) ^ (x3 * y2);
+        long z2 = (x0 * y2) ^ (x1 * y1) ^ (x2 * y0) ^ (x3 * y3);
+        long z3 = (x0 * y3) ^ (x1 * y2) ^ (x2 * y1) ^ (x3 * y0);
+
+        z0 &= 0x1111111111111111L;
+        z1 &= 0x2222222222222222L;
+        z2 &= 0x4444444444444444L;
+        z3 &= 0x8888888888888888L;
+
+        return z0 | z1 | z2 | z3;
+    }
+
     // P is the value with only bit i=1 set
     static void multiplyP(int[] x)
     {
@@ -211,6 +275,20 @@ static void multiplyP8(int[] x, int[] y)
         y[0] ^= LOOKUP[c >>> 24];
     }
 
+    static void multiplyP(long[] x, long[] y)
+    {
+        if (shiftRight(x, y) != 0)
+        {
+            y[0] ^= E1L;
+        }
+    }
+
+    static void multiplyP8(long[] x, long[] y)
+    {
+        long c = shiftRightN(x, 8, y);
+        y[0] ^= (LOOKUP[(int)(c >>> 56)] & 0xFFFFFFFFL) << 32;
+    }
+
     static byte shiftRight(byte[] x)
     {
 //        int c = 0;
@@ -393,6 +471,17 @@ static int shiftRightN(int[] x, int n, int[] z)
         return b << nInv;
     }
 
+    static long shiftRightN(long[] x, int n, long[] z)
+    {
+        long b = x[0];
+        int nInv = 64 - n;
+        z[0] = b >>> n;
+        long c = b << nInv;
+        b = x[1];
+        z[1] = (b >>> n) | c;
+        return b << nInv;
+    }
+
     static void xor(byte[] x, byte[] y)
     {
         int i = 0;
@@ -0,0 +1,75 @@
+package org.bouncycastle.crypto.modes.gcm;
+
+import org.bouncycastle.crypto.util.Pack;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * A version of {@link Tables64kGCMMultiplier} storing each table entry as two longs, halving
+ * the number of loads and XORs per multiplication on 64-bit JVMs.
+ */
+public class Tables64kLongGCMMultiplier implements GCMMultiplier
+{
+    private byte[] H;
+    private long[][][] M;
+
+    public void init(byte[] H)
+    {
+        if (M == null)
+        {
+            M = new long[16][256][2];
+        }
+        else if (Arrays.areEqual(this.H, H))
+        {
+            return;
+        }
+
+        this.H = Arrays.clone(H);
+
+        // M[0][0] is ZEROES;
+        GCMUtil.asLongs(H, M[0][128]);
+
+        for (int j = 64; j >= 1; j >>= 1)
+        {
+            GCMUtil.multiplyP(M[0][j + j], M[0][j]);
+        }
+
+        int i = 0;
+        for (;;)
+        {
+            for (int j = 2; j < 256; j += j)
+            {
+                for (int k = 1; k < j; ++k)
+                {
+                    GCMUtil.xor(M[i][j], M[i][k], M[i][j + k]);
+                }
+            }
+
+            if (++i == 16)
+            {
+                return;
+            }
+
+            // M[i][0] is ZEROES;
+            for (int j = 128; j > 0; j >>= 1)
+            {
+                GCMUtil.multiplyP8(M[i - 1][j], M[i][j]);
+            }
+        }
+    }
+
+    public void multiplyH(byte[] x)
+    {
+//      assert x.Length == 16;
+
+        long z0 = 0, z1 = 0;
+        for (int i = 15; i >= 0; --i)
+        {
+            long[] m = M[i][x[i] & 0xff];
+            z0 ^= m[0];
+            z1 ^= m[1];
+        }
+
+        Pack.longToBigEndian(z0, x, 0);
+        Pack.longToBigEndian(z1, x, 8);
+    }
+}
@@ -0,0 +1,89 @@
+package org.bouncycastle.crypto.modes.gcm;
+
+import org.bouncycastle.crypto.util.Pack;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * A version of {@link Tables8kGCMMultiplier} storing each table entry as two longs, halving
+ * the number of loads and XORs per multiplication on 64-bit JVMs.
+ */
+public class Tables8kLongGCMMultiplier  implements GCMMultiplier
+{
+    private byte[] H;
+    private long[][][] M;
+
+    public void init(byte[] H)
+    {
+        if (M == null)
+        {
+            M = new long[32][16][2];
+        }
+        else if (Arrays.areEqual(this.H, H))
+        {
+            return;
+        }
+
+        this.H = Arrays.clone(H);
+
+        // M[0][0] is ZEROES;
+        // M[1][0] is ZEROES;
+        GCMUtil.asLongs(H, M[1][8]);
+
+        for (int j = 4; j >= 1; j >>= 1)
+        {
+            GCMUtil.multiplyP(M[1][j + j], M[1][j]);
+        }
+
+        GCMUtil.multiplyP(M[1][1], M[0][8]);
+
+        for (int j = 4; j >= 1; j >>= 1)
+        {
+            GCMUtil.multiplyP(M[0][j + j], M[0][j]);
+        }
+
+        int i = 0;
+        for (;;)
+        {
+            for (int j = 2; j < 16; j += j)
+            {
+                for (int k = 1; k < j; ++k)
+                {
+                    GCMUtil.xor(M[i][j], M[i][k], M[i][j + k]);
+                }
+            }
+
+            if (++i == 32)
+            {
+                return;
+            }
+
+            if (i > 1)
+            {
+                // M[i][0] is ZEROES;
+                for(int j = 8; j > 0; j >>= 1)
+                {
+                    GCMUtil.multiplyP8(M[i - 2][j], M[i][j]);
+                }
+            }
+        }
+    }
+
+    public void multiplyH(byte[] x)
+    {
+//      assert x.Length == 16;
+
+        long z0 = 0, z1 = 0;
+        for (int i = 15; i >= 0; --i)
+        {
+            long[] m = M[i + i][x[i] & 0x0f];
+            z0 ^= m[0];
+            z1 ^= m[1];
+            m = M[i + i + 1][(x[i] & 0xf0) >>> 4];
+            z0 ^= m[0];
+            z1 ^= m[1];
+        }
+
+        Pack.longToBigEndian(z0, x, 0);
+        Pack.longToBigEndian(z1, x, 8);
+    }
+}
@@ -0,0 +1,153 @@
+package org.bouncycastle.crypto.signers;
+
+import java.util.Vector;
+
+/**
+ * Base class for verifiers that check a batch of independent signatures in one go, so work that
+ * is common to the items (precomputation for a key, inversions, point normalization) can be
+ * shared between them. Items are added with the add() method of the subclass and verified with
+ * {@link #verify()}, which reports a result for each item in the order they were added.
+ * <p>
+ * If a parallelism greater than one is given, verify() splits the batch into that many chunks
+ * and checks them on separate threads.
+ * </p>
+ */
+public abstract class BatchSignatureVerifier
+{
+    // below this many items per thread, the thread isn't worth starting
+    private static final int MIN_CHUNK_SIZE = 8;
+
+    private final Vector items = new Vector();
+    private final int parallelism;
+
+    protected BatchSignatureVerifier(int parallelism)
+    {
+        if (parallelism < 1)
+        {
+            throw new IllegalArgumentException("parallelism must be at least 1");
+        }
+
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Return the number of items currently in the batch.
+     *
+     * @return the batch size.
+     */
+    public int size()
+    {
+        return items.size();
+    }
+
+    /**
+     * Remove all the items from the batch.
+     */
+    public void reset()
+    {
+        items.removeAllElements();
+    }
+
+    /**
+     * Verify all the items in the batch. The batch is left intact, call reset() to reuse the
+     * verifier for a new batch.
+     *
+     * @return an array holding, for each item in the order it was added, true if the signature
+     * verifies, false otherwise.
+     */
+    public boolean[] verify()
+    {
+        final Object[] batch = new Object[items.size()];
+        items.copyInto(batch);
+
+        final boolean[] results = new boolean[batch.length];
+
+        int threadCount = Math.min(parallelism, batch.length / MIN_CHUNK_SIZE);
+        if (threadCount <= 1)
+        {
+            verify(batch, 0, batch.length, results);
+            return results;
+        }
+
+        Thread[] threads = new Thread[threadCount];
+        final Throwable[] failures = new Throwable[threadCount];
+
+        int off = 0;
+        for (int i = 0; i < threadCount; ++i)
+        {
+            final int index = i, chunkOff = off;
+            final int chunkLen = (batch.length - off) / (threadCount - i);
+
+            threads[i] = new Thread()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        verify(batch, chunkOff, chunkLen, results);
+                    }
+                    catch (Throwable e)
+                    {
+                        failures[index] = e;
+                    }
+                }
+            };
+            threads[i].start();
+
+            off += chunkLen;
+        }
+
+        for (int i = 0; i < threadCount; ++i)
+        {
+            try
+            {
+                threads[i].join();
+            }
+            catch (InterruptedException e)
+            {
+                throw new IllegalStateException("interrupted waiting for batch verification: " + e.getMessage());
+            }
+        }
+
+        for (int i = 0; i < threadCount; ++i)
+        {
+            if (failures[i] != null)
+            {
+                rethrow(failures[i]);
+            }
+        }
+
+        return results;
+    }
+
+    private static void rethrow(Throwable e)
+    {
+        if (e instanceof RuntimeException)
+        {
+            throw (RuntimeException)e;
+        }
+        if (e instanceof Error)
+        {
+            throw (Error)e;
+        }
+
+        throw new IllegalStateException("batch verification failed: " + e.getMessage());
+    }
+
+    protected void addItem(Object item)
+    {
+        items.addElement(item);
+    }
+
+    /**
+     * Verify a range of the batch, setting the corresponding entries in results. Different
+     * ranges may be verified concurrently, so implementations must not modify shared state
+     * without synchronization.
+     *
+     * @param batch the items in the batch, as passed to addItem().
+     * @param off the index of the first item to verify.
+     * @param len the number of items to verify.
+     * @param results the array to write the result for item i to, at index i.
+     */
+    protected abstract void verify(Object[] batch, int off, int len, boolean[] results);
+}
@@ -0,0 +1,249 @@
+package org.bouncycastle.crypto.signers;
+
+import java.math.BigInteger;
+import java.util.Enumeration;
+import java.util.Hashtable;
+import java.util.Vector;
+
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECConstants;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECPoint;
+
+/**
+ * Batch verification of EC-DSA signatures, giving the same result for each item as
+ * {@link ECDSASigner#verifySignature(byte[], BigInteger, BigInteger)} would.
+ * <p>
+ * Equal keys and generators are mapped to a single point object, so the precomputation for a key
+ * is done once for the batch (and kept for later batches while the point is in use). The
+ * inverses of the s values are found with a single modular inversion per curve, and the
+ * resulting points are normalized together with {@link ECCurve#normalizeAll(ECPoint[])}.
+ * </p>
+ */
+public class ECDSABatchVerifier
+    extends BatchSignatureVerifier
+    implements ECConstants
+{
+    private final Hashtable domains = new Hashtable();
+    private final Hashtable keys = new Hashtable();
+
+    /**
+     * Create a verifier which checks its batches on the calling thread.
+     */
+    public ECDSABatchVerifier()
+    {
+        this(1);
+    }
+
+    /**
+     * Create a verifier which checks its batches using up to parallelism threads.
+     *
+     * @param parallelism the maximum number of threads to use.
+     */
+    public ECDSABatchVerifier(int parallelism)
+    {
+        super(parallelism);
+    }
+
+    /**
+     * Add a signature to the batch.
+     *
+     * @param key the public key to verify the signature with.
+     * @param message the message that was signed, for conventional EC-DSA a hash of the message of
+     * interest.
+     * @param r the r value of the signature.
+     * @param s the s value of the signature.
+     */
+    public void add(ECPublicKeyParameters key, byte[] message, BigInteger r, BigInteger s)
+    {
+        ECDomainParameters params = key.getParameters();
+
+        Domain domain = getDomain(params);
+        ECPoint Q = getKey(domain.G.getCurve().importPoint(key.getQ()));
+
+        addItem(new Item(domain, Q, calculateE(domain.n, message), r, s));
+    }
+
+    public void reset()
+    {
+        super.reset();
+
+        domains.clear();
+        keys.clear();
+    }
+
+    protected void verify(Object[] batch, int off, int len, boolean[] results)
+    {
+        /*
+         * Group the items in the range by domain, invalid signatures are dropped here and left
+         * as false.
+         */
+        Hashtable groups = new Hashtable();
+        for (int i = off; i < off + len; ++i)
+        {
+            Item item = (Item)batch[i];
+            BigInteger n = item.domain.n;
+
+            // r and s in the range [1,n-1]
+            if (item.r.compareTo(ONE) < 0 || item.r.compareTo(n) >= 0
+                || item.s.compareTo(ONE) < 0 || item.s.compareTo(n) >= 0)
+            {
+                continue;
+            }
+
+            Vector group = (Vector)groups.get(item.domain);
+            if (group == null)
+            {
+                group = new Vector();
+                groups.put(item.domain, group);
+            }
+            group.addElement(new Integer(i));
+        }
+
+        for (Enumeration en = groups.keys(); en.hasMoreElements();)
+        {
+            Domain domain = (Domain)en.nextElement();
+            Vector group = (Vector)groups.get(domain);
+
+            verifyGroup(domain, batch, group, results);
+        }
+    }
+
+    private void verifyGroup(Domain domain, Object[] batch, Vector group, boolean[] results)
+    {
+        int count = group.size();
+        BigInteger n = domain.n;
+
+        Item[] items = new Item[count];
+        BigInteger[] cs = new BigInteger[count];
+        for (int i = 0; i < count; ++i)
+        {
+            items[i] = (Item)batch[((Integer)group.elementAt(i)).intValue()];
+            cs[i] = items[i].s;
+        }
+
+        invertAll(cs, n);
+
+        ECPoint[] points = new ECPoint[count];
+        for (int i = 0; i < count; ++i)
+        {
+            Item item = items[i];
+            BigInteger c = cs[i];
+
+            BigInteger u1 = item.e.multiply(c).mod(n);
+            BigInteger u2 = item.r.multiply(c).mod(n);
+
+            points[i] = ECAlgorithms.sumOfTwoMultiplies(domain.G, u1, item.Q, u2);
+        }
+
+        domain.G.getCurve().normalizeAll(points);
+
+        for (int i = 0; i < count; ++i)
+        {
+            ECPoint point = points[i];
+
+            // components must be bogus.
+            if (point.isInfinity())
+            {
+                continue;
+            }
+
+            BigInteger v = point.getAffineXCoord().toBigInteger().mod(n);
+
+            results[((Integer)group.elementAt(i)).intValue()] = v.equals(items[i].r);
+        }
+    }
+
+    /**
+     * Replace each of xs with its inverse mod n, using a single modular inversion (Montgomery's
+     * trick). All the xs must be in the range [1,n-1] and n must be prime.
+     */
+    private static void invertAll(BigInteger[] xs, BigInteger n)
+    {
+        int count = xs.length;
+
+        BigInteger[] cs = new BigInteger[count];
+        cs[0] = xs[0];
+        for (int i = 1; i < count; ++i)
+        {
+            cs[i] = cs[i - 1].multiply(xs[i]).mod(n);
+        }
+
+        BigInteger u = cs[count - 1].modInverse(n);
+        for (int i = count - 1; i > 0; --i)
+        {
+            BigInteger x = xs[i];
+            xs[i] = cs[i - 1].multiply(u).mod(n);
+            u = u.multiply(x).mod(n);
+        }
+
+        xs[0] = u;
+    }
+
+    private Domain getDomain(ECDomainParameters params)
+    {
+        ECPoint G = params.getG();
+
+        Domain domain = (Domain)domains.get(G);
+        if (domain == null)
+        {
+            domain = new Domain(G, params.getN());
+            domains.put(G, domain);
+        }
+        return domain;
+    }
+
+    private ECPoint getKey(ECPoint Q)
+    {
+        ECPoint key = (ECPoint)keys.get(Q);
+        if (key == null)
+        {
+            key = Q;
+            keys.put(Q, key);
+        }
+        return key;
+    }
+
+    private BigInteger calculateE(BigInteger n, byte[] message)
+    {
+        int log2n = n.bitLength();
+        int messageBitLength = message.length * 8;
+
+        BigInteger e = new BigInteger(1, message);
+        if (log2n < messageBitLength)
+        {
+            e = e.shiftRight(messageBitLength - log2n);
+        }
+        return e;
+    }
+
+    private static class Domain
+    {
+        final ECPoint G;
+        final BigInteger n;
+
+        Domain(ECPoint G, BigInteger n)
+        {
+            this.G = G;
+            this.n = n;
+        }
+    }
+
+    private static class Item
+    {
+        final Domain domain;
+        final ECPoint Q;
+        final BigInteger e, r, s;
+
+        Item(Domain domain, ECPoint Q, BigInteger e, BigInteger r, BigInteger s)
+        {
+            this.domain = domain;
+            this.Q = Q;
+            this.e = e;
+            this.r = r;
+            this.s = s;
+        }
+    }
+}
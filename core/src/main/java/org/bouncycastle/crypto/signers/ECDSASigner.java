@@ -11,7 +11,9 @@
 import org.bouncycastle.crypto.params.ParametersWithRandom;
 import org.bouncycastle.math.ec.ECAlgorithms;
 import org.bouncycastle.math.ec.ECConstants;
+import org.bouncycastle.math.ec.ECMultiplier;
 import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointUtil;
 
 /**
  * EC-DSA as described in X9.62
@@ -64,6 +66,8 @@ public BigInteger[] generateSignature(
         BigInteger r = null;
         BigInteger s = null;
 
+        ECMultiplier basePointMultiplier = createBasePointMultiplier(key.getParameters().getG());
+
         // 5.3.2
         do // generate s
         {
@@ -78,7 +82,7 @@ public BigInteger[] generateSignature(
                 }
                 while (k.equals(ZERO) || k.compareTo(n) >= 0);
 
-                ECPoint p = key.getParameters().getG().multiply(k).normalize();
+                ECPoint p = basePointMultiplier.multiply(key.getParameters().getG(), k).normalize();
 
                 // 5.3.3
                 BigInteger x = p.getAffineXCoord().toBigInteger();
@@ -148,6 +152,11 @@ public boolean verifySignature(
         return v.equals(r);
     }
 
+    protected ECMultiplier createBasePointMultiplier(ECPoint G)
+    {
+        return FixedPointUtil.getMultiplier(G);
+    }
+
     private BigInteger calculateE(BigInteger n, byte[] message)
     {
         int log2n = n.bitLength();
@@ -8,7 +8,9 @@
 import org.bouncycastle.crypto.params.ParametersWithRandom;
 import org.bouncycastle.math.ec.ECAlgorithms;
 import org.bouncycastle.math.ec.ECConstants;
+import org.bouncycastle.math.ec.ECMultiplier;
 import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointUtil;
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
@@ -70,6 +72,8 @@ public BigInteger[] generateSignature(
         BigInteger r = null;
         BigInteger s = null;
 
+        ECMultiplier basePointMultiplier = createBasePointMultiplier(key.getParameters().getG());
+
         do // generate s
         {
             BigInteger k = null;
@@ -82,7 +86,7 @@ public BigInteger[] generateSignature(
                 }
                 while (k.equals(ECConstants.ZERO));
 
-                ECPoint p = key.getParameters().getG().multiply(k).normalize();
+                ECPoint p = basePointMultiplier.multiply(key.getParameters().getG(), k).normalize();
 
                 BigInteger x = p.getAffineXCoord().toBigInteger();
 
@@ -155,4 +159,9 @@ public boolean verifySignature(
 
         return R.equals(r);
     }
+
+    protected ECMultiplier createBasePointMultiplier(ECPoint G)
+    {
+        return FixedPointUtil.getMultiplier(G);
+    }
 }
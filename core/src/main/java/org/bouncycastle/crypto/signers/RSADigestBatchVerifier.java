@@ -0,0 +1,101 @@
+package org.bouncycastle.crypto.signers;
+
+import java.util.Hashtable;
+
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.crypto.digests.NullDigest;
+import org.bouncycastle.crypto.params.RSAKeyParameters;
+
+/**
+ * Batch verification of PKCS#1 v1.5 RSA signatures over precalculated hashes, giving the same
+ * result for each item as {@link RSADigestSigner} would.
+ * <p>
+ * There is little per key work to share for RSA public key operations, so the gain here is in
+ * reusing one initialised signer per key and digest within a range of the batch, and in
+ * spreading the batch over several threads.
+ * </p>
+ */
+public class RSADigestBatchVerifier
+    extends BatchSignatureVerifier
+{
+    /**
+     * Create a verifier which checks its batches on the calling thread.
+     */
+    public RSADigestBatchVerifier()
+    {
+        this(1);
+    }
+
+    /**
+     * Create a verifier which checks its batches using up to parallelism threads.
+     *
+     * @param parallelism the maximum number of threads to use.
+     */
+    public RSADigestBatchVerifier(int parallelism)
+    {
+        super(parallelism);
+    }
+
+    /**
+     * Add a signature to the batch.
+     *
+     * @param key the public key to verify the signature with.
+     * @param digestOid the OID of the digest used, as it appears in the signature's DigestInfo.
+     * @param hash the hash of the message that was signed.
+     * @param signature the signature.
+     */
+    public void add(RSAKeyParameters key, ASN1ObjectIdentifier digestOid, byte[] hash, byte[] signature)
+    {
+        if (key.isPrivate())
+        {
+            throw new IllegalArgumentException("verification requires public key");
+        }
+
+        addItem(new Item(key, digestOid, hash, signature));
+    }
+
+    protected void verify(Object[] batch, int off, int len, boolean[] results)
+    {
+        // signers are not thread safe, so each range gets its own
+        Hashtable signers = new Hashtable();
+
+        for (int i = off; i < off + len; ++i)
+        {
+            Item item = (Item)batch[i];
+
+            Hashtable keySigners = (Hashtable)signers.get(item.key);
+            if (keySigners == null)
+            {
+                keySigners = new Hashtable();
+                signers.put(item.key, keySigners);
+            }
+
+            RSADigestSigner signer = (RSADigestSigner)keySigners.get(item.digestOid);
+            if (signer == null)
+            {
+                signer = new RSADigestSigner(new NullDigest(), item.digestOid);
+                signer.init(false, item.key);
+                keySigners.put(item.digestOid, signer);
+            }
+
+            // the NullDigest passes the hash through unchanged, and is reset by verifySignature()
+            signer.update(item.hash, 0, item.hash.length);
+            results[i] = signer.verifySignature(item.signature);
+        }
+    }
+
+    private static class Item
+    {
+        final RSAKeyParameters key;
+        final ASN1ObjectIdentifier digestOid;
+        final byte[] hash, signature;
+
+        Item(RSAKeyParameters key, ASN1ObjectIdentifier digestOid, byte[] hash, byte[] signature)
+        {
+            this.key = key;
+            this.digestOid = digestOid;
+            this.hash = hash;
+            this.signature = signature;
+        }
+    }
+}
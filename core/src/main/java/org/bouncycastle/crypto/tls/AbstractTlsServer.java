@@ -17,7 +17,7 @@
     protected short[] offeredCompressionMethods;
     protected Hashtable clientExtensions;
 
-    protected short maxFragmentLengthOffered;
+    protected short maxFragmentLengthOffered = -1;
     protected boolean truncatedHMacOffered;
     protected Vector supportedSignatureAlgorithms;
     protected boolean eccCipherSuitesOffered;
@@ -307,4 +307,14 @@ public NewSessionTicket getNewSessionTicket()
          */
         return new NewSessionTicket(0L, TlsUtils.EMPTY_BYTES);
     }
+
+    public TlsSessionCache getSessionCache()
+    {
+        return null;
+    }
+
+    public SessionTicketManager getSessionTicketManager()
+    {
+        return null;
+    }
 }
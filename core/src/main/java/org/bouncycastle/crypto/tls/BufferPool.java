@@ -0,0 +1,151 @@
+package org.bouncycastle.crypto.tls;
+
+/**
+ * A bounded pool of buffers shared by {@link ByteQueue}s. A queue takes a buffer from the pool
+ * when data arrives and gives it back once it has been emptied, so connections which are idle hold
+ * no buffers of their own.
+ * <p>
+ * Buffers are sized in powers of two; those larger than 64 KiB are never pooled, and buffers given
+ * back once the pool holds its maximum number of bytes are left for the garbage collector. The
+ * buffers themselves never leave the queues and the pool.
+ * </p>
+ */
+public class BufferPool
+{
+    /**
+     * The default bound on the bytes held by a pool, 4 MiB.
+     */
+    public static final int DEFAULT_MAX_POOLED_BYTES = 1 << 22;
+
+    private static final int MIN_SHIFT = 4;
+    private static final int MAX_SHIFT = 16;
+
+    private static final BufferPool defaultPool = new BufferPool(DEFAULT_MAX_POOLED_BYTES);
+
+    /**
+     * Return the pool used by queues not given one of their own.
+     *
+     * @return the default pool.
+     */
+    public static BufferPool getDefault()
+    {
+        return defaultPool;
+    }
+
+    private final int maxPooledBytes;
+
+    // stacks of free buffers, by size class
+    private final byte[][][] free = new byte[MAX_SHIFT - MIN_SHIFT + 1][][];
+    private final int[] freeCount = new int[MAX_SHIFT - MIN_SHIFT + 1];
+    private int pooledBytes = 0;
+
+    /**
+     * Create a pool.
+     *
+     * @param maxPooledBytes the most bytes the pool will hold in free buffers.
+     */
+    public BufferPool(int maxPooledBytes)
+    {
+        if (maxPooledBytes < 0)
+        {
+            throw new IllegalArgumentException("'maxPooledBytes' cannot be negative");
+        }
+
+        this.maxPooledBytes = maxPooledBytes;
+
+        for (int i = 0; i < free.length; ++i)
+        {
+            free[i] = new byte[4][];
+        }
+    }
+
+    /**
+     * @return the number of bytes held in free buffers.
+     */
+    public synchronized int getPooledBytes()
+    {
+        return pooledBytes;
+    }
+
+    /**
+     * Drop all free buffers.
+     */
+    public synchronized void clear()
+    {
+        for (int i = 0; i < free.length; ++i)
+        {
+            free[i] = new byte[4][];
+            freeCount[i] = 0;
+        }
+        pooledBytes = 0;
+    }
+
+    /**
+     * Take a buffer of at least minSize bytes, whose length is a power of two.
+     */
+    byte[] acquire(int minSize)
+    {
+        int shift = MIN_SHIFT;
+        while ((1 << shift) < minSize)
+        {
+            ++shift;
+        }
+
+        if (shift <= MAX_SHIFT)
+        {
+            int sizeClass = shift - MIN_SHIFT;
+
+            synchronized (this)
+            {
+                int count = freeCount[sizeClass];
+                if (count > 0)
+                {
+                    byte[] buf = free[sizeClass][--count];
+                    free[sizeClass][count] = null;
+                    freeCount[sizeClass] = count;
+                    pooledBytes -= buf.length;
+                    return buf;
+                }
+            }
+        }
+
+        return new byte[1 << shift];
+    }
+
+    /**
+     * Give back a buffer obtained from {@link #acquire(int)}.
+     */
+    void release(byte[] buf)
+    {
+        int length = buf.length;
+        if (length < (1 << MIN_SHIFT) || length > (1 << MAX_SHIFT) || (length & (length - 1)) != 0)
+        {
+            return;
+        }
+
+        int sizeClass = 0;
+        while ((1 << (sizeClass + MIN_SHIFT)) < length)
+        {
+            ++sizeClass;
+        }
+
+        synchronized (this)
+        {
+            if (pooledBytes + length > maxPooledBytes)
+            {
+                return;
+            }
+
+            int count = freeCount[sizeClass];
+            if (count == free[sizeClass].length)
+            {
+                byte[][] tmp = new byte[count * 2][];
+                System.arraycopy(free[sizeClass], 0, tmp, 0, count);
+                free[sizeClass] = tmp;
+            }
+            free[sizeClass][count] = buf;
+            freeCount[sizeClass] = count + 1;
+            pooledBytes += length;
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package org.bouncycastle.crypto.tls;
 
 /**
- * A queue for bytes. This file could be more optimized.
+ * A queue for bytes, kept in a ring buffer taken from a {@link BufferPool} while the queue holds
+ * any data.
  */
 public class ByteQueue
 {
@@ -28,14 +29,24 @@ public static final int nextTwoPow(int i)
     private static final int DEFAULT_CAPACITY = 1024;
 
     /**
-     * The buffer where we store our data.
+     * The pool our buffer is taken from, and returned to when the queue is empty.
      */
-    private byte[] databuf;;
+    private final BufferPool pool;
 
     /**
-     * How many bytes at the beginning of the buffer are skipped.
+     * The smallest buffer to take from the pool.
      */
-    private int skipped = 0;
+    private final int initialCapacity;
+
+    /**
+     * The buffer where we store our data, used as a ring; null while the queue is empty.
+     */
+    private byte[] databuf = null;
+
+    /**
+     * The position in the buffer of the first byte of data.
+     */
+    private int head = 0;
 
     /**
      * How many bytes in the buffer are valid data.
@@ -49,7 +60,23 @@ public ByteQueue()
 
     public ByteQueue(int capacity)
     {
-        databuf = new byte[capacity];
+        this(BufferPool.getDefault(), capacity);
+    }
+
+    public ByteQueue(BufferPool pool)
+    {
+        this(pool, DEFAULT_CAPACITY);
+    }
+
+    public ByteQueue(BufferPool pool, int capacity)
+    {
+        if (pool == null)
+        {
+            throw new IllegalArgumentException("'pool' cannot be null");
+        }
+
+        this.pool = pool;
+        this.initialCapacity = capacity;
     }
 
     /**
@@ -71,7 +98,16 @@ public void read(byte[] buf, int offset, int len, int skip)
             throw new TlsRuntimeException("Buffer size of " + buf.length
                 + " is too small for a read of " + len + " bytes");
         }
-        System.arraycopy(databuf, skipped + skip, buf, offset, len);
+        if (len < 1)
+        {
+            return;
+        }
+
+        int mask = databuf.length - 1;
+        int pos = (head + skip) & mask;
+        int first = Math.min(len, databuf.length - pos);
+        System.arraycopy(databuf, pos, buf, offset, first);
+        System.arraycopy(databuf, 0, buf, offset + first, len - first);
     }
 
     /**
@@ -83,23 +119,30 @@ public void read(byte[] buf, int offset, int len, int skip)
      */
     public void addData(byte[] buf, int off, int len)
     {
-        if ((skipped + available + len) > databuf.length)
+        if (len < 1)
         {
-            int desiredSize = ByteQueue.nextTwoPow(available + len);
-            if (desiredSize > databuf.length)
-            {
-                byte[] tmp = new byte[desiredSize];
-                System.arraycopy(databuf, skipped, tmp, 0, available);
-                databuf = tmp;
-            }
-            else
-            {
-                System.arraycopy(databuf, skipped, databuf, 0, available);
-            }
-            skipped = 0;
+            return;
         }
 
-        System.arraycopy(buf, off, databuf, skipped + available, len);
+        if (databuf == null)
+        {
+            databuf = pool.acquire(Math.max(initialCapacity, len));
+            head = 0;
+        }
+        else if ((available + len) > databuf.length)
+        {
+            byte[] tmp = pool.acquire(available + len);
+            read(tmp, 0, available, 0);
+            pool.release(databuf);
+            databuf = tmp;
+            head = 0;
+        }
+
+        int mask = databuf.length - 1;
+        int pos = (head + available) & mask;
+        int first = Math.min(len, databuf.length - pos);
+        System.arraycopy(buf, off, databuf, pos, first);
+        System.arraycopy(buf, off + first, databuf, 0, len - first);
         available += len;
     }
 
@@ -114,12 +157,26 @@ public void removeData(int i)
         {
             throw new TlsRuntimeException("Cannot remove " + i + " bytes, only got " + available);
         }
+        if (i < 1)
+        {
+            return;
+        }
 
         /*
          * Skip the data.
          */
         available -= i;
-        skipped += i;
+        head = (head + i) & (databuf.length - 1);
+
+        /*
+         * Once empty, the buffer goes back to the pool until more data arrives.
+         */
+        if (available == 0)
+        {
+            pool.release(databuf);
+            databuf = null;
+            head = 0;
+        }
     }
 
     /**
@@ -150,4 +207,12 @@ public int size()
     {
         return available;
     }
+
+    /**
+     * @return The size of the buffer currently held, zero if none is.
+     */
+    public int capacity()
+    {
+        return databuf == null ? 0 : databuf.length;
+    }
 }
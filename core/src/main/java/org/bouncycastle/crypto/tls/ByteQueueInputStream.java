@@ -0,0 +1,83 @@
+package org.bouncycastle.crypto.tls;
+
+import java.io.InputStream;
+
+/**
+ * An InputStream over a {@link ByteQueue}, used to feed the record layer in non-blocking mode.
+ * Reads never block, returning -1 when the queue is empty.
+ */
+public class ByteQueueInputStream
+    extends InputStream
+{
+    private ByteQueue buffer;
+
+    public ByteQueueInputStream()
+    {
+        buffer = new ByteQueue();
+    }
+
+    public void addBytes(byte[] bytes)
+    {
+        addBytes(bytes, 0, bytes.length);
+    }
+
+    public void addBytes(byte[] bytes, int offset, int length)
+    {
+        buffer.addData(bytes, offset, length);
+    }
+
+    /**
+     * Copy bytes from the front of the queue without removing them.
+     *
+     * @param buf the array to copy to, which is filled if enough bytes are available.
+     * @return the number of bytes copied.
+     */
+    public int peek(byte[] buf)
+    {
+        int bytesToRead = Math.min(buffer.size(), buf.length);
+        buffer.read(buf, 0, bytesToRead, 0);
+        return bytesToRead;
+    }
+
+    public int read()
+    {
+        if (buffer.size() == 0)
+        {
+            return -1;
+        }
+        return buffer.removeData(1, 0)[0] & 0xFF;
+    }
+
+    public int read(byte[] b)
+    {
+        return read(b, 0, b.length);
+    }
+
+    public int read(byte[] b, int off, int len)
+    {
+        if (len > 0 && buffer.size() == 0)
+        {
+            return -1;
+        }
+
+        int bytesToRead = Math.min(buffer.size(), len);
+        buffer.removeData(b, off, bytesToRead, 0);
+        return bytesToRead;
+    }
+
+    public long skip(long n)
+    {
+        int bytesToRemove = Math.min((int)n, buffer.size());
+        buffer.removeData(bytesToRemove);
+        return bytesToRemove;
+    }
+
+    public int available()
+    {
+        return buffer.size();
+    }
+
+    public void close()
+    {
+    }
+}
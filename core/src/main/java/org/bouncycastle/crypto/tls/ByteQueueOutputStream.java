@@ -0,0 +1,33 @@
+package org.bouncycastle.crypto.tls;
+
+import java.io.OutputStream;
+
+/**
+ * An OutputStream collecting what is written in a {@link ByteQueue}, used to take the output
+ * of the record layer in non-blocking mode.
+ */
+public class ByteQueueOutputStream
+    extends OutputStream
+{
+    private ByteQueue buffer;
+
+    public ByteQueueOutputStream()
+    {
+        buffer = new ByteQueue();
+    }
+
+    public ByteQueue getBuffer()
+    {
+        return buffer;
+    }
+
+    public void write(int b)
+    {
+        buffer.addData(new byte[]{ (byte)b }, 0, 1);
+    }
+
+    public void write(byte[] b, int off, int len)
+    {
+        buffer.addData(b, off, len);
+    }
+}
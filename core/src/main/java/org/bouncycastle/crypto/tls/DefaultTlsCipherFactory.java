@@ -21,6 +21,7 @@
 import org.bouncycastle.crypto.modes.AEADBlockCipher;
 import org.bouncycastle.crypto.modes.CBCBlockCipher;
 import org.bouncycastle.crypto.modes.CCMBlockCipher;
+import org.bouncycastle.crypto.modes.ChaCha20Poly1305;
 import org.bouncycastle.crypto.modes.GCMBlockCipher;
 
 public class DefaultTlsCipherFactory
@@ -59,6 +60,9 @@ public TlsCipher createCipher(TlsContext context, int encryptionAlgorithm, int m
             return createCamelliaCipher(context, 16, macAlgorithm);
         case EncryptionAlgorithm.CAMELLIA_256_CBC:
             return createCamelliaCipher(context, 32, macAlgorithm);
+        case EncryptionAlgorithm.CHACHA20_POLY1305:
+            // NOTE: Ignores macAlgorithm
+            return createChaCha20Poly1305(context);
         case EncryptionAlgorithm.ESTREAM_SALSA20:
             return createSalsa20Cipher(context, 12, 32, macAlgorithm);
         case EncryptionAlgorithm.NULL:
@@ -95,6 +99,13 @@ protected TlsAEADCipher createCipher_AES_GCM(TlsContext context, int cipherKeySi
             createAEADBlockCipher_AES_GCM(), cipherKeySize, macSize);
     }
 
+    protected TlsAEADCipher createChaCha20Poly1305(TlsContext context)
+        throws IOException
+    {
+        return new TlsAEADCipher(context, new ChaCha20Poly1305(), new ChaCha20Poly1305(), 32, 16,
+            TlsAEADCipher.NONCE_RFC7905);
+    }
+
     protected TlsBlockCipher createCamelliaCipher(TlsContext context, int cipherKeySize, int macAlgorithm)
         throws IOException
     {
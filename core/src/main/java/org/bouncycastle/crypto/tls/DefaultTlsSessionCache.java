@@ -0,0 +1,352 @@
+package org.bouncycastle.crypto.tls;
+
+import java.util.Hashtable;
+
+import org.bouncycastle.util.Arrays;
+
+/**
+ * A bounded {@link TlsSessionCache}. Sessions are dropped once their lifetime has passed, and when
+ * the cache is full the least recently used session makes way for a new one.
+ * <p>
+ * Larger caches are split into a number of stripes by session ID, each with its own lock, so that
+ * connections looking up different sessions rarely contend. Size limits and recency are kept per
+ * stripe, which makes the LRU ordering approximate across the cache as a whole; as session IDs are
+ * random the stripes fill evenly.
+ * </p>
+ */
+public class DefaultTlsSessionCache
+    implements TlsSessionCache
+{
+    /**
+     * The default maximum number of cached sessions.
+     */
+    public static final int DEFAULT_MAX_SIZE = 20000;
+
+    /**
+     * The default session lifetime, 24 hours - the upper limit suggested by RFC 5246 F.1.4.
+     */
+    public static final long DEFAULT_LIFETIME = 24L * 60 * 60 * 1000;
+
+    private static final int MAX_STRIPES = 16;
+    private static final int MIN_STRIPE_SIZE = 64;
+
+    private final Stripe[] stripes;
+    private final long lifetime;
+
+    /**
+     * Create a cache with the default size limit and session lifetime.
+     */
+    public DefaultTlsSessionCache()
+    {
+        this(DEFAULT_MAX_SIZE, DEFAULT_LIFETIME);
+    }
+
+    /**
+     * Create a cache.
+     *
+     * @param maxSize the maximum number of sessions to hold.
+     * @param lifetime the time in milliseconds a session may be resumed for after it is added.
+     */
+    public DefaultTlsSessionCache(int maxSize, long lifetime)
+    {
+        if (maxSize < 1)
+        {
+            throw new IllegalArgumentException("'maxSize' must be at least 1");
+        }
+        if (lifetime < 1)
+        {
+            throw new IllegalArgumentException("'lifetime' must be at least 1");
+        }
+
+        int count = 1;
+        while (count < MAX_STRIPES && count * 2 * MIN_STRIPE_SIZE <= maxSize)
+        {
+            count *= 2;
+        }
+
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; ++i)
+        {
+            // spread the remainder so the stripe limits add up to exactly maxSize
+            stripes[i] = new Stripe(maxSize / count + (i < maxSize % count ? 1 : 0));
+        }
+        this.lifetime = lifetime;
+    }
+
+    public TlsSession get(byte[] sessionID)
+    {
+        SessionID key = new SessionID(sessionID);
+        Stripe stripe = getStripe(key);
+
+        synchronized (stripe)
+        {
+            Entry entry = (Entry)stripe.entries.get(key);
+            if (entry == null)
+            {
+                ++stripe.misses;
+                return null;
+            }
+
+            if (!entry.session.isResumable())
+            {
+                stripe.unlink(entry);
+                ++stripe.misses;
+                return null;
+            }
+
+            if (currentTimeMillis() - entry.created >= lifetime)
+            {
+                stripe.unlink(entry);
+                ++stripe.misses;
+                ++stripe.evictions;
+                return null;
+            }
+
+            stripe.moveToFront(entry);
+            ++stripe.hits;
+            return entry.session;
+        }
+    }
+
+    public void put(TlsSession session)
+    {
+        if (session == null || !session.isResumable())
+        {
+            return;
+        }
+
+        SessionID key = new SessionID(session.getSessionID());
+        Stripe stripe = getStripe(key);
+
+        synchronized (stripe)
+        {
+            Entry entry = (Entry)stripe.entries.get(key);
+            if (entry != null)
+            {
+                stripe.unlink(entry);
+            }
+            else if (stripe.entries.size() >= stripe.maxSize)
+            {
+                stripe.unlink(stripe.head.prev);
+                ++stripe.evictions;
+            }
+
+            entry = new Entry(key, session, currentTimeMillis());
+            stripe.entries.put(key, entry);
+            stripe.moveToFront(entry);
+        }
+    }
+
+    public void remove(byte[] sessionID)
+    {
+        SessionID key = new SessionID(sessionID);
+        Stripe stripe = getStripe(key);
+
+        synchronized (stripe)
+        {
+            Entry entry = (Entry)stripe.entries.get(key);
+            if (entry != null)
+            {
+                stripe.unlink(entry);
+            }
+        }
+    }
+
+    /**
+     * Remove all sessions whose lifetime has passed, or which have been invalidated. Expired
+     * sessions are otherwise only dropped when looked up or pushed out by newer ones, so a server
+     * may call this periodically to release their memory sooner.
+     *
+     * @return the number of sessions removed.
+     */
+    public int removeExpired()
+    {
+        int removed = 0;
+        for (int i = 0; i < stripes.length; ++i)
+        {
+            Stripe stripe = stripes[i];
+            synchronized (stripe)
+            {
+                long now = currentTimeMillis();
+                Entry entry = stripe.head.next;
+                while (entry != stripe.head)
+                {
+                    Entry next = entry.next;
+                    if (!entry.session.isResumable())
+                    {
+                        stripe.unlink(entry);
+                        ++removed;
+                    }
+                    else if (now - entry.created >= lifetime)
+                    {
+                        stripe.unlink(entry);
+                        ++stripe.evictions;
+                        ++removed;
+                    }
+                    entry = next;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * @return the number of sessions currently held.
+     */
+    public int size()
+    {
+        int size = 0;
+        for (int i = 0; i < stripes.length; ++i)
+        {
+            synchronized (stripes[i])
+            {
+                size += stripes[i].entries.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of lookups which found a resumable session.
+     */
+    public long getHitCount()
+    {
+        long count = 0;
+        for (int i = 0; i < stripes.length; ++i)
+        {
+            synchronized (stripes[i])
+            {
+                count += stripes[i].hits;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of lookups which did not find a resumable session.
+     */
+    public long getMissCount()
+    {
+        long count = 0;
+        for (int i = 0; i < stripes.length; ++i)
+        {
+            synchronized (stripes[i])
+            {
+                count += stripes[i].misses;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of sessions dropped to make room for newer ones, or because their
+     *         lifetime had passed.
+     */
+    public long getEvictionCount()
+    {
+        long count = 0;
+        for (int i = 0; i < stripes.length; ++i)
+        {
+            synchronized (stripes[i])
+            {
+                count += stripes[i].evictions;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Return the current time, against which session lifetimes are measured.
+     *
+     * @return the current time in milliseconds.
+     */
+    protected long currentTimeMillis()
+    {
+        return System.currentTimeMillis();
+    }
+
+    private Stripe getStripe(SessionID key)
+    {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    private static class Stripe
+    {
+        final int maxSize;
+        final Hashtable entries = new Hashtable();
+
+        // sentinel of a circular list in order of use, most recent first
+        final Entry head = new Entry(null, null, 0);
+
+        long hits, misses, evictions;
+
+        Stripe(int maxSize)
+        {
+            this.maxSize = maxSize;
+            head.next = head.prev = head;
+        }
+
+        void moveToFront(Entry entry)
+        {
+            if (entry.next != null)
+            {
+                entry.prev.next = entry.next;
+                entry.next.prev = entry.prev;
+            }
+
+            entry.next = head.next;
+            entry.prev = head;
+            head.next.prev = entry;
+            head.next = entry;
+        }
+
+        void unlink(Entry entry)
+        {
+            entries.remove(entry.key);
+
+            entry.prev.next = entry.next;
+            entry.next.prev = entry.prev;
+            entry.next = entry.prev = null;
+        }
+    }
+
+    private static class Entry
+    {
+        final SessionID key;
+        final TlsSession session;
+        final long created;
+
+        Entry prev, next;
+
+        Entry(SessionID key, TlsSession session, long created)
+        {
+            this.key = key;
+            this.session = session;
+            this.created = created;
+        }
+    }
+
+    private static class SessionID
+    {
+        private final byte[] id;
+        private final int hashCode;
+
+        SessionID(byte[] id)
+        {
+            this.id = id;
+            this.hashCode = Arrays.hashCode(id);
+        }
+
+        public boolean equals(Object o)
+        {
+            return o instanceof SessionID && Arrays.areEqual(id, ((SessionID)o).id);
+        }
+
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+}
@@ -49,6 +49,11 @@
     public static final int AES_256_CCM = 17;
     public static final int AES_256_CCM_8 = 18;
 
+    /*
+     * RFC 7905
+     */
+    public static final int CHACHA20_POLY1305 = 21;
+
     /*
      * TBD[draft-josefsson-salsa20-tls-02] 
      */
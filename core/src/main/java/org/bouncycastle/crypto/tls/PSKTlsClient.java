@@ -42,6 +42,7 @@ public TlsKeyExchange getKeyExchange() throws IOException
         case CipherSuite.TLS_DHE_PSK_WITH_AES_256_CBC_SHA384:
         case CipherSuite.TLS_DHE_PSK_WITH_AES_256_CCM:
         case CipherSuite.TLS_DHE_PSK_WITH_AES_256_GCM_SHA384:
+        case CipherSuite.TLS_DHE_PSK_WITH_CHACHA20_POLY1305_SHA256:
         case CipherSuite.TLS_DHE_PSK_WITH_ESTREAM_SALSA20_SHA1:
         case CipherSuite.TLS_DHE_PSK_WITH_ESTREAM_SALSA20_UMAC96:
         case CipherSuite.TLS_DHE_PSK_WITH_NULL_SHA:
@@ -59,6 +60,7 @@ public TlsKeyExchange getKeyExchange() throws IOException
         case CipherSuite.TLS_ECDHE_PSK_WITH_AES_128_CBC_SHA256:
         case CipherSuite.TLS_ECDHE_PSK_WITH_AES_256_CBC_SHA:
         case CipherSuite.TLS_ECDHE_PSK_WITH_AES_256_CBC_SHA384:
+        case CipherSuite.TLS_ECDHE_PSK_WITH_CHACHA20_POLY1305_SHA256:
         case CipherSuite.TLS_ECDHE_PSK_WITH_ESTREAM_SALSA20_SHA1:
         case CipherSuite.TLS_ECDHE_PSK_WITH_ESTREAM_SALSA20_UMAC96:
         case CipherSuite.TLS_ECDHE_PSK_WITH_NULL_SHA:
@@ -80,6 +82,7 @@ public TlsKeyExchange getKeyExchange() throws IOException
         case CipherSuite.TLS_PSK_WITH_AES_256_CCM:
         case CipherSuite.TLS_PSK_WITH_AES_256_CCM_8:
         case CipherSuite.TLS_PSK_WITH_AES_256_GCM_SHA384:
+        case CipherSuite.TLS_PSK_WITH_CHACHA20_POLY1305_SHA256:
         case CipherSuite.TLS_PSK_WITH_ESTREAM_SALSA20_SHA1:
         case CipherSuite.TLS_PSK_WITH_ESTREAM_SALSA20_UMAC96:
         case CipherSuite.TLS_PSK_WITH_NULL_SHA:
@@ -97,6 +100,7 @@ public TlsKeyExchange getKeyExchange() throws IOException
         case CipherSuite.TLS_RSA_PSK_WITH_AES_256_CBC_SHA:
         case CipherSuite.TLS_RSA_PSK_WITH_AES_256_CBC_SHA384:
         case CipherSuite.TLS_RSA_PSK_WITH_AES_256_GCM_SHA384:
+        case CipherSuite.TLS_RSA_PSK_WITH_CHACHA20_POLY1305_SHA256:
         case CipherSuite.TLS_RSA_PSK_WITH_ESTREAM_SALSA20_SHA1:
         case CipherSuite.TLS_RSA_PSK_WITH_ESTREAM_SALSA20_UMAC96:
         case CipherSuite.TLS_RSA_PSK_WITH_NULL_SHA:
@@ -189,6 +193,12 @@ public TlsCipher getCipher() throws IOException
         case CipherSuite.TLS_RSA_PSK_WITH_ESTREAM_SALSA20_UMAC96:
             return cipherFactory.createCipher(context, EncryptionAlgorithm.ESTREAM_SALSA20, MACAlgorithm.umac96);
 
+        case CipherSuite.TLS_DHE_PSK_WITH_CHACHA20_POLY1305_SHA256:
+        case CipherSuite.TLS_ECDHE_PSK_WITH_CHACHA20_POLY1305_SHA256:
+        case CipherSuite.TLS_PSK_WITH_CHACHA20_POLY1305_SHA256:
+        case CipherSuite.TLS_RSA_PSK_WITH_CHACHA20_POLY1305_SHA256:
+            return cipherFactory.createCipher(context, EncryptionAlgorithm.CHACHA20_POLY1305, MACAlgorithm._null);
+
         case CipherSuite.TLS_DHE_PSK_WITH_NULL_SHA:
         case CipherSuite.TLS_ECDHE_PSK_WITH_NULL_SHA:
         case CipherSuite.TLS_PSK_WITH_NULL_SHA:
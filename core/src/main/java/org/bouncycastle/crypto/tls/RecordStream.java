@@ -1,11 +1,13 @@
 package org.bouncycastle.crypto.tls;
 
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
 import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.util.io.Streams;
 
 /**
  * An implementation of the TLS 1.0/1.1/1.2 record layer, allowing downgrade to SSLv3.
@@ -22,6 +24,10 @@
     private long readSeqNo = 0, writeSeqNo = 0;
     private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
 
+    // reused for every record, grown as needed
+    private byte[] recordHeader = new byte[5];
+    private byte[] readBuffer = new byte[0], writeBuffer = new byte[0];
+
     private TlsContext context = null;
     private TlsHandshakeHash hash = null;
 
@@ -139,11 +145,15 @@ void finaliseHandshake()
     public boolean readRecord()
         throws IOException
     {
-        byte[] recordHeader = TlsUtils.readAllOrNothing(5, input);
-        if (recordHeader == null)
+        int headerRead = Streams.readFully(input, recordHeader, 0, 5);
+        if (headerRead == 0)
         {
             return false;
         }
+        if (headerRead != 5)
+        {
+            throw new EOFException();
+        }
 
         short type = TlsUtils.readUint8(recordHeader, 0);
 
@@ -175,20 +185,39 @@ else if (!version.equals(readVersion))
         }
 
         int length = TlsUtils.readUint16(recordHeader, 3);
-        byte[] plaintext = decodeAndVerify(type, input, length);
-        handler.processRecord(type, plaintext, 0, plaintext.length);
+        decodeAndVerify(type, input, length);
         return true;
     }
 
-    protected byte[] decodeAndVerify(short type, InputStream input, int len)
+    protected void decodeAndVerify(short type, InputStream input, int len)
         throws IOException
     {
         checkLength(len, ciphertextLimit, AlertDescription.record_overflow);
 
-        byte[] buf = TlsUtils.readFully(len, input);
-        byte[] decoded = readCipher.decodeCiphertext(readSeqNo++, type, buf, 0, buf.length);
+        if (readBuffer.length < len)
+        {
+            readBuffer = new byte[len];
+        }
+        byte[] buf = readBuffer;
+        if (Streams.readFully(input, buf, 0, len) != len)
+        {
+            throw new EOFException();
+        }
+
+        byte[] decoded;
+        int decodedLength;
+        if (readCipher instanceof TlsInPlaceCipher)
+        {
+            decoded = buf;
+            decodedLength = ((TlsInPlaceCipher)readCipher).decodeCiphertextInPlace(readSeqNo++, type, buf, 0, len);
+        }
+        else
+        {
+            decoded = readCipher.decodeCiphertext(readSeqNo++, type, buf, 0, len);
+            decodedLength = decoded.length;
+        }
 
-        checkLength(decoded.length, compressedLimit, AlertDescription.record_overflow);
+        checkLength(decodedLength, compressedLimit, AlertDescription.record_overflow);
 
         /*
          * TODO RFC5264 6.2.2. Implementation note: Decompression functions are responsible for
@@ -197,9 +226,10 @@ protected byte[] decodeAndVerify(short type, InputStream input, int len)
         OutputStream cOut = readCompression.decompress(buffer);
         if (cOut != buffer)
         {
-            cOut.write(decoded, 0, decoded.length);
+            cOut.write(decoded, 0, decodedLength);
             cOut.flush();
             decoded = getBufferContents();
+            decodedLength = decoded.length;
         }
 
         /*
@@ -207,18 +237,19 @@ protected byte[] decodeAndVerify(short type, InputStream input, int len)
          * would decompress to a length in excess of 2^14 bytes, it should report a fatal
          * decompression failure error.
          */
-        checkLength(decoded.length, plaintextLimit, AlertDescription.decompression_failure);
+        checkLength(decodedLength, plaintextLimit, AlertDescription.decompression_failure);
 
         /*
          * RFC 5264 6.2.1 Implementations MUST NOT send zero-length fragments of Handshake, Alert,
          * or ChangeCipherSpec content types.
          */
-        if (decoded.length < 1 && type != ContentType.application_data)
+        if (decodedLength < 1 && type != ContentType.application_data)
         {
             throw new TlsFatalAlert(AlertDescription.illegal_parameter);
         }
 
-        return decoded;
+        // NOTE: The handler copies what it needs, so the read buffer can be reused for the next record
+        handler.processRecord(type, decoded, 0, decodedLength);
     }
 
     protected void writeRecord(short type, byte[] plaintext, int plaintextOffset, int plaintextLength)
@@ -250,13 +281,7 @@ protected void writeRecord(short type, byte[] plaintext, int plaintextOffset, in
         }
 
         OutputStream cOut = writeCompression.compress(buffer);
-
-        byte[] ciphertext;
-        if (cOut == buffer)
-        {
-            ciphertext = writeCipher.encodePlaintext(writeSeqNo++, type, plaintext, plaintextOffset, plaintextLength);
-        }
-        else
+        if (cOut != buffer)
         {
             cOut.write(plaintext, plaintextOffset, plaintextLength);
             cOut.flush();
@@ -268,20 +293,44 @@ protected void writeRecord(short type, byte[] plaintext, int plaintextOffset, in
              */
             checkLength(compressed.length, plaintextLength + 1024, AlertDescription.internal_error);
 
-            ciphertext = writeCipher.encodePlaintext(writeSeqNo++, type, compressed, 0, compressed.length);
+            plaintext = compressed;
+            plaintextOffset = 0;
+            plaintextLength = compressed.length;
+        }
+
+        byte[] record;
+        int ciphertextLength;
+        if (writeCipher instanceof TlsInPlaceCipher)
+        {
+            TlsInPlaceCipher cipher = (TlsInPlaceCipher)writeCipher;
+
+            int maxRecordLength = 5 + cipher.getMaxCiphertextLength(plaintextLength);
+            if (writeBuffer.length < maxRecordLength)
+            {
+                writeBuffer = new byte[maxRecordLength];
+            }
+            record = writeBuffer;
+            ciphertextLength = cipher.encodePlaintext(writeSeqNo++, type, plaintext, plaintextOffset,
+                plaintextLength, record, 5);
+        }
+        else
+        {
+            byte[] ciphertext = writeCipher.encodePlaintext(writeSeqNo++, type, plaintext, plaintextOffset,
+                plaintextLength);
+            ciphertextLength = ciphertext.length;
+            record = new byte[ciphertextLength + 5];
+            System.arraycopy(ciphertext, 0, record, 5, ciphertextLength);
         }
 
         /*
          * RFC 5264 6.2.3. The length may not exceed 2^14 + 2048.
          */
-        checkLength(ciphertext.length, ciphertextLimit, AlertDescription.internal_error);
+        checkLength(ciphertextLength, ciphertextLimit, AlertDescription.internal_error);
 
-        byte[] record = new byte[ciphertext.length + 5];
         TlsUtils.writeUint8(type, record, 0);
         TlsUtils.writeVersion(writeVersion, record, 1);
-        TlsUtils.writeUint16(ciphertext.length, record, 3);
-        System.arraycopy(ciphertext, 0, record, 5, ciphertext.length);
-        output.write(record);
+        TlsUtils.writeUint16(ciphertextLength, record, 3);
+        output.write(record, 0, ciphertextLength + 5);
         output.flush();
     }
 
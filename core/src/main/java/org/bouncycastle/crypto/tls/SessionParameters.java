@@ -3,6 +3,8 @@
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Hashtable;
 
 import org.bouncycastle.util.Arrays;
@@ -129,6 +131,82 @@ public Certificate getPeerCertificate()
         return peerCertificate;
     }
 
+    /**
+     * Encode these {@link SessionParameters} to an {@link OutputStream}, for example to be held in
+     * a session ticket. The encoding includes the master secret, so must be kept confidential.
+     *
+     * @param output the {@link OutputStream} to encode to.
+     * @throws IOException
+     */
+    public void encode(OutputStream output)
+        throws IOException
+    {
+        TlsUtils.writeUint16(cipherSuite, output);
+        TlsUtils.writeUint8(compressionAlgorithm, output);
+        TlsUtils.writeOpaque8(masterSecret, output);
+
+        if (peerCertificate == null)
+        {
+            TlsUtils.writeUint8(0, output);
+        }
+        else
+        {
+            TlsUtils.writeUint8(1, output);
+            peerCertificate.encode(output);
+        }
+
+        if (encodedServerExtensions == null)
+        {
+            TlsUtils.writeUint8(0, output);
+        }
+        else
+        {
+            TlsUtils.writeUint8(1, output);
+            TlsUtils.writeOpaque16(encodedServerExtensions, output);
+        }
+    }
+
+    /**
+     * Parse {@link SessionParameters} from an {@link InputStream}.
+     *
+     * @param input the {@link InputStream} to parse from.
+     * @return a {@link SessionParameters} object.
+     * @throws IOException
+     */
+    public static SessionParameters parse(InputStream input)
+        throws IOException
+    {
+        int cipherSuite = TlsUtils.readUint16(input);
+        short compressionAlgorithm = TlsUtils.readUint8(input);
+        byte[] masterSecret = TlsUtils.readOpaque8(input);
+
+        Certificate peerCertificate = null;
+        if (readPresence(input))
+        {
+            peerCertificate = Certificate.parse(input);
+        }
+
+        byte[] encodedServerExtensions = null;
+        if (readPresence(input))
+        {
+            encodedServerExtensions = TlsUtils.readOpaque16(input);
+        }
+
+        return new SessionParameters(cipherSuite, compressionAlgorithm, masterSecret, peerCertificate,
+            encodedServerExtensions);
+    }
+
+    private static boolean readPresence(InputStream input)
+        throws IOException
+    {
+        short present = TlsUtils.readUint8(input);
+        if (present > 1)
+        {
+            throw new TlsFatalAlert(AlertDescription.decode_error);
+        }
+        return present == 1;
+    }
+
     public Hashtable readServerExtensions() throws IOException
     {
         if (encodedServerExtensions == null)
@@ -0,0 +1,311 @@
+package org.bouncycastle.crypto.tls;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.SecureRandom;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.engines.AESFastEngine;
+import org.bouncycastle.crypto.modes.GCMBlockCipher;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * Issues and decrypts stateless session tickets (RFC 5077), allowing a server to resume sessions
+ * without keeping any per session state. The {@link SessionParameters} of a session are encrypted
+ * and authenticated under a ticket key held only by the server(s), and handed to the client to
+ * present again on reconnection.
+ * <p>
+ * Tickets follow the structure recommended in RFC 5077 4, with AES-GCM in place of the suggested
+ * AES-CBC and HMAC-SHA-256 pair:
+ * </p>
+ * <pre>
+ *     struct {
+ *         opaque key_name[16];
+ *         opaque nonce[12];
+ *         opaque encrypted_state&lt;0..2^16-1&gt;;  // includes the 16 byte GCM tag
+ *     } ticket;
+ * </pre>
+ * The key name is authenticated as associated data, and the encrypted state holds the time the
+ * ticket was issued followed by the encoded session parameters.
+ * <p>
+ * Ticket keys should be changed regularly using {@link #addKey(byte[], byte[])} or
+ * {@link #rotateKey()}; the most recent few keys are kept so that tickets issued shortly before a
+ * change can still be used. Servers sharing the same keys (added in the same order) can resume
+ * each other's sessions.
+ * </p>
+ */
+public class SessionTicketManager
+{
+    /**
+     * The default ticket lifetime, 24 hours.
+     */
+    public static final long DEFAULT_LIFETIME = 24L * 60 * 60 * 1000;
+
+    private static final int KEY_NAME_LENGTH = 16;
+    private static final int NONCE_LENGTH = 12;
+    private static final int MAC_SIZE = 128;
+
+    private static final int MAX_KEYS = 3;
+
+    private final SecureRandom random;
+    private final long lifetime;
+
+    // most recent first, the first being used to issue new tickets
+    private TicketKey[] keys = new TicketKey[0];
+
+    /**
+     * Create a manager with a random initial key and the default ticket lifetime.
+     *
+     * @param random the source of keys and nonces.
+     */
+    public SessionTicketManager(SecureRandom random)
+    {
+        this(random, DEFAULT_LIFETIME);
+    }
+
+    /**
+     * Create a manager with a random initial key.
+     *
+     * @param random the source of keys and nonces.
+     * @param lifetime the time in milliseconds a ticket may be used for after it is issued.
+     */
+    public SessionTicketManager(SecureRandom random, long lifetime)
+    {
+        if (lifetime < 1000)
+        {
+            throw new IllegalArgumentException("'lifetime' must be at least one second");
+        }
+
+        this.random = random;
+        this.lifetime = lifetime;
+
+        rotateKey();
+    }
+
+    /**
+     * Create a manager using the given initial key, for sharing tickets between servers.
+     *
+     * @param random the source of nonces.
+     * @param lifetime the time in milliseconds a ticket may be used for after it is issued.
+     * @param keyName a 16 byte name identifying the key.
+     * @param key an AES key of 16, 24 or 32 bytes.
+     */
+    public SessionTicketManager(SecureRandom random, long lifetime, byte[] keyName, byte[] key)
+    {
+        if (lifetime < 1000)
+        {
+            throw new IllegalArgumentException("'lifetime' must be at least one second");
+        }
+
+        this.random = random;
+        this.lifetime = lifetime;
+
+        addKey(keyName, key);
+    }
+
+    /**
+     * Make a new key current for issuing tickets. The two keys before it remain available for
+     * decrypting tickets issued under them.
+     *
+     * @param keyName a 16 byte name identifying the key.
+     * @param key an AES key of 16, 24 or 32 bytes.
+     */
+    public void addKey(byte[] keyName, byte[] key)
+    {
+        if (keyName == null || keyName.length != KEY_NAME_LENGTH)
+        {
+            throw new IllegalArgumentException("'keyName' must be " + KEY_NAME_LENGTH + " bytes");
+        }
+        if (key == null || (key.length != 16 && key.length != 24 && key.length != 32))
+        {
+            throw new IllegalArgumentException("'key' must be 16, 24 or 32 bytes");
+        }
+
+        TicketKey ticketKey = new TicketKey(Arrays.clone(keyName), new KeyParameter(key));
+
+        synchronized (this)
+        {
+            TicketKey[] newKeys = new TicketKey[Math.min(keys.length + 1, MAX_KEYS)];
+            newKeys[0] = ticketKey;
+            System.arraycopy(keys, 0, newKeys, 1, newKeys.length - 1);
+            this.keys = newKeys;
+        }
+    }
+
+    /**
+     * Make a new, randomly generated, 128 bit key current for issuing tickets.
+     */
+    public void rotateKey()
+    {
+        byte[] keyName = new byte[KEY_NAME_LENGTH];
+        byte[] key = new byte[16];
+        random.nextBytes(keyName);
+        random.nextBytes(key);
+
+        addKey(keyName, key);
+    }
+
+    /**
+     * Return the lifetime of the tickets issued.
+     *
+     * @return the ticket lifetime in milliseconds.
+     */
+    public long getLifetime()
+    {
+        return lifetime;
+    }
+
+    /**
+     * Issue a ticket for a session.
+     *
+     * @param sessionParameters the parameters of the session.
+     * @return a {@link NewSessionTicket} holding the encrypted session parameters.
+     * @throws IOException if the ticket cannot be created.
+     */
+    public NewSessionTicket createTicket(SessionParameters sessionParameters)
+        throws IOException
+    {
+        TicketKey key = getCurrentKey();
+
+        ByteArrayOutputStream state = new ByteArrayOutputStream();
+        TlsUtils.writeUint48(currentTimeMillis(), state);
+        sessionParameters.encode(state);
+        byte[] plaintext = state.toByteArray();
+
+        byte[] nonce = new byte[NONCE_LENGTH];
+        random.nextBytes(nonce);
+
+        GCMBlockCipher cipher = new GCMBlockCipher(new AESFastEngine());
+        cipher.init(true, new AEADParameters(key.key, MAC_SIZE, nonce, key.name));
+
+        byte[] ticket = new byte[KEY_NAME_LENGTH + NONCE_LENGTH + cipher.getOutputSize(plaintext.length)];
+        System.arraycopy(key.name, 0, ticket, 0, KEY_NAME_LENGTH);
+        System.arraycopy(nonce, 0, ticket, KEY_NAME_LENGTH, NONCE_LENGTH);
+
+        int outOff = KEY_NAME_LENGTH + NONCE_LENGTH;
+        int len = cipher.processBytes(plaintext, 0, plaintext.length, ticket, outOff);
+        try
+        {
+            cipher.doFinal(ticket, outOff + len);
+        }
+        catch (InvalidCipherTextException e)
+        {
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
+        finally
+        {
+            Arrays.fill(plaintext, (byte)0);
+        }
+
+        return new NewSessionTicket(lifetime / 1000, ticket);
+    }
+
+    /**
+     * Recover the session parameters from a ticket presented by a client.
+     *
+     * @param ticket the ticket.
+     * @return the session parameters, or null if the ticket was not issued under a key still held,
+     *         fails to authenticate, or has expired.
+     */
+    public SessionParameters decryptTicket(byte[] ticket)
+    {
+        if (ticket == null || ticket.length < KEY_NAME_LENGTH + NONCE_LENGTH + MAC_SIZE / 8 + 6)
+        {
+            return null;
+        }
+
+        TicketKey key = getKey(ticket);
+        if (key == null)
+        {
+            return null;
+        }
+
+        byte[] nonce = Arrays.copyOfRange(ticket, KEY_NAME_LENGTH, KEY_NAME_LENGTH + NONCE_LENGTH);
+
+        GCMBlockCipher cipher = new GCMBlockCipher(new AESFastEngine());
+        cipher.init(false, new AEADParameters(key.key, MAC_SIZE, nonce, key.name));
+
+        int inOff = KEY_NAME_LENGTH + NONCE_LENGTH, inLen = ticket.length - inOff;
+        byte[] plaintext = new byte[cipher.getOutputSize(inLen)];
+
+        try
+        {
+            int len = cipher.processBytes(ticket, inOff, inLen, plaintext, 0);
+            cipher.doFinal(plaintext, len);
+
+            ByteArrayInputStream state = new ByteArrayInputStream(plaintext);
+
+            long issued = TlsUtils.readUint48(state);
+            long age = currentTimeMillis() - issued;
+            if (age < 0 || age >= lifetime)
+            {
+                return null;
+            }
+
+            SessionParameters sessionParameters = SessionParameters.parse(state);
+            TlsProtocol.assertEmpty(state);
+            return sessionParameters;
+        }
+        catch (InvalidCipherTextException e)
+        {
+            return null;
+        }
+        catch (IOException e)
+        {
+            return null;
+        }
+        finally
+        {
+            Arrays.fill(plaintext, (byte)0);
+        }
+    }
+
+    /**
+     * Return the current time, against which ticket lifetimes are measured.
+     *
+     * @return the current time in milliseconds.
+     */
+    protected long currentTimeMillis()
+    {
+        return System.currentTimeMillis();
+    }
+
+    private synchronized TicketKey getCurrentKey()
+    {
+        return keys[0];
+    }
+
+    private synchronized TicketKey getKey(byte[] ticket)
+    {
+        for (int i = 0; i < keys.length; ++i)
+        {
+            byte[] name = keys[i].name;
+
+            int diff = 0;
+            for (int j = 0; j < KEY_NAME_LENGTH; ++j)
+            {
+                diff |= name[j] ^ ticket[j];
+            }
+            if (diff == 0)
+            {
+                return keys[i];
+            }
+        }
+        return null;
+    }
+
+    private static class TicketKey
+    {
+        final byte[] name;
+        final KeyParameter key;
+
+        TicketKey(byte[] name, KeyParameter key)
+        {
+            this.name = name;
+            this.key = key;
+        }
+    }
+}
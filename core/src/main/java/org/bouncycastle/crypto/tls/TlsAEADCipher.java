@@ -2,25 +2,51 @@
 
 import java.io.IOException;
 
-import org.bouncycastle.crypto.modes.AEADBlockCipher;
+import org.bouncycastle.crypto.modes.AEADCipher;
 import org.bouncycastle.crypto.params.AEADParameters;
 import org.bouncycastle.crypto.params.KeyParameter;
 import org.bouncycastle.util.Arrays;
 
 public class TlsAEADCipher
-    implements TlsCipher
+    implements TlsInPlaceCipher
 {
+    /*
+     * RFC 5288/6655: a 4 byte implicit salt followed by an 8 byte explicit nonce sent with each
+     * record.
+     */
+    public static final int NONCE_RFC5288 = 1;
+
+    /*
+     * RFC 7905: a 12 byte implicit IV XORed with the padded sequence number, with no explicit nonce.
+     */
+    public static final int NONCE_RFC7905 = 2;
+
     protected TlsContext context;
     protected int macSize;
     protected int nonce_explicit_length;
+    protected int nonceMode;
 
-    protected AEADBlockCipher encryptCipher;
-    protected AEADBlockCipher decryptCipher;
+    protected AEADCipher encryptCipher;
+    protected AEADCipher decryptCipher;
 
     protected byte[] encryptImplicitNonce, decryptImplicitNonce;
 
-    public TlsAEADCipher(TlsContext context, AEADBlockCipher clientWriteCipher, AEADBlockCipher serverWriteCipher,
+    /*
+     * Scratch space reused for every record. The parameters refer to the nonce and additional data
+     * arrays, which are filled in afresh before each call to init.
+     */
+    protected byte[] encryptNonce, decryptNonce;
+    protected byte[] encryptAdditionalData = new byte[13], decryptAdditionalData = new byte[13];
+    protected AEADParameters encryptParameters, decryptParameters;
+
+    public TlsAEADCipher(TlsContext context, AEADCipher clientWriteCipher, AEADCipher serverWriteCipher,
         int cipherKeySize, int macSize) throws IOException
+    {
+        this(context, clientWriteCipher, serverWriteCipher, cipherKeySize, macSize, NONCE_RFC5288);
+    }
+
+    public TlsAEADCipher(TlsContext context, AEADCipher clientWriteCipher, AEADCipher serverWriteCipher,
+        int cipherKeySize, int macSize, int nonceMode) throws IOException
     {
         if (!TlsUtils.isTLSv12(context))
         {
@@ -29,12 +55,24 @@ public TlsAEADCipher(TlsContext context, AEADBlockCipher clientWriteCipher, AEAD
 
         this.context = context;
         this.macSize = macSize;
-
-        // NOTE: Valid for RFC 5288/6655 ciphers but may need review for other AEAD ciphers
-        this.nonce_explicit_length = 8;
+        this.nonceMode = nonceMode;
 
         // TODO SecurityParameters.fixed_iv_length
-        int fixed_iv_length = 4;
+        int fixed_iv_length;
+
+        switch (nonceMode)
+        {
+        case NONCE_RFC5288:
+            fixed_iv_length = 4;
+            this.nonce_explicit_length = 8;
+            break;
+        case NONCE_RFC7905:
+            fixed_iv_length = 12;
+            this.nonce_explicit_length = 0;
+            break;
+        default:
+            throw new TlsFatalAlert(AlertDescription.internal_error);
+        }
 
         int key_block_size = (2 * cipherKeySize) + (2 * fixed_iv_length);
 
@@ -76,10 +114,16 @@ public TlsAEADCipher(TlsContext context, AEADBlockCipher clientWriteCipher, AEAD
             decryptKey = server_write_key;
         }
 
-        byte[] dummyNonce = new byte[fixed_iv_length + nonce_explicit_length];
+        int nonceLength = nonceMode == NONCE_RFC5288 ? fixed_iv_length + nonce_explicit_length : fixed_iv_length;
+        byte[] dummyNonce = new byte[nonceLength];
 
         this.encryptCipher.init(true, new AEADParameters(encryptKey, 8 * macSize, dummyNonce));
         this.decryptCipher.init(false, new AEADParameters(decryptKey, 8 * macSize, dummyNonce));
+
+        this.encryptNonce = new byte[nonceLength];
+        this.decryptNonce = new byte[nonceLength];
+        this.encryptParameters = new AEADParameters(null, 8 * macSize, encryptNonce, encryptAdditionalData);
+        this.decryptParameters = new AEADParameters(null, 8 * macSize, decryptNonce, decryptAdditionalData);
     }
 
     public int getPlaintextLimit(int ciphertextLimit)
@@ -88,34 +132,35 @@ public int getPlaintextLimit(int ciphertextLimit)
         return ciphertextLimit - macSize - nonce_explicit_length;
     }
 
+    public int getMaxCiphertextLength(int plaintextLength)
+    {
+        return nonce_explicit_length + encryptCipher.getOutputSize(plaintextLength);
+    }
+
     public byte[] encodePlaintext(long seqNo, short type, byte[] plaintext, int offset, int len)
         throws IOException
     {
-        byte[] nonce = new byte[this.encryptImplicitNonce.length + nonce_explicit_length];
-        System.arraycopy(encryptImplicitNonce, 0, nonce, 0, encryptImplicitNonce.length);
-
-        /*
-         * RFC 5288/6655 The nonce_explicit MAY be the 64-bit sequence number.
-         * 
-         * (May need review for other AEAD ciphers).
-         */
-        TlsUtils.writeUint64(seqNo, nonce, encryptImplicitNonce.length);
+        byte[] output = new byte[getMaxCiphertextLength(len)];
+        encodePlaintext(seqNo, type, plaintext, offset, len, output, 0);
+        return output;
+    }
 
-        int plaintextOffset = offset;
-        int plaintextLength = len;
-        int ciphertextLength = encryptCipher.getOutputSize(plaintextLength);
+    public int encodePlaintext(long seqNo, short type, byte[] plaintext, int offset, int len, byte[] output,
+        int outputOffset) throws IOException
+    {
+        int ciphertextLength = getMaxCiphertextLength(len);
 
-        byte[] output = new byte[nonce_explicit_length + ciphertextLength];
-        System.arraycopy(nonce, encryptImplicitNonce.length, output, 0, nonce_explicit_length);
-        int outputPos = nonce_explicit_length;
+        writeNonce(encryptImplicitNonce, seqNo, encryptNonce);
+        writeAdditionalData(seqNo, type, len, encryptAdditionalData);
 
-        byte[] additionalData = getAdditionalData(seqNo, type, plaintextLength);
-        AEADParameters parameters = new AEADParameters(null, 8 * macSize, nonce, additionalData);
+        System.arraycopy(encryptNonce, encryptNonce.length - nonce_explicit_length, output, outputOffset,
+            nonce_explicit_length);
+        int outputPos = outputOffset + nonce_explicit_length;
 
         try
         {
-            encryptCipher.init(true, parameters);
-            outputPos += encryptCipher.processBytes(plaintext, plaintextOffset, plaintextLength, output, outputPos);
+            encryptCipher.init(true, encryptParameters);
+            outputPos += encryptCipher.processBytes(plaintext, offset, len, output, outputPos);
             outputPos += encryptCipher.doFinal(output, outputPos);
         }
         catch (Exception e)
@@ -123,13 +168,13 @@ public byte[] encodePlaintext(long seqNo, short type, byte[] plaintext, int offs
             throw new TlsFatalAlert(AlertDescription.internal_error);
         }
 
-        if (outputPos != output.length)
+        if (outputPos - outputOffset != ciphertextLength)
         {
             // NOTE: Existing AEAD cipher implementations all give exact output lengths
             throw new TlsFatalAlert(AlertDescription.internal_error);
         }
 
-        return output;
+        return ciphertextLength;
     }
 
     public byte[] decodeCiphertext(long seqNo, short type, byte[] ciphertext, int offset, int len)
@@ -140,23 +185,43 @@ public byte[] decodeCiphertext(long seqNo, short type, byte[] ciphertext, int of
             throw new TlsFatalAlert(AlertDescription.decode_error);
         }
 
-        byte[] nonce = new byte[this.decryptImplicitNonce.length + nonce_explicit_length];
-        System.arraycopy(decryptImplicitNonce, 0, nonce, 0, decryptImplicitNonce.length);
-        System.arraycopy(ciphertext, offset, nonce, decryptImplicitNonce.length, nonce_explicit_length);
+        byte[] output = new byte[decryptCipher.getOutputSize(len - nonce_explicit_length)];
+        decodeCiphertext(seqNo, type, ciphertext, offset, len, output, 0);
+        return output;
+    }
+
+    public int decodeCiphertextInPlace(long seqNo, short type, byte[] buf, int offset, int len)
+        throws IOException
+    {
+        if (getPlaintextLimit(len) < 0)
+        {
+            throw new TlsFatalAlert(AlertDescription.decode_error);
+        }
+
+        /*
+         * NOTE: The plaintext is written behind the ciphertext still to be read, which the AEAD
+         * modes permit as they never write output ahead of the input consumed.
+         */
+        return decodeCiphertext(seqNo, type, buf, offset, len, buf, offset);
+    }
 
+    protected int decodeCiphertext(long seqNo, short type, byte[] ciphertext, int offset, int len, byte[] output,
+        int outputOffset) throws IOException
+    {
         int ciphertextOffset = offset + nonce_explicit_length;
         int ciphertextLength = len - nonce_explicit_length;
         int plaintextLength = decryptCipher.getOutputSize(ciphertextLength);
 
-        byte[] output = new byte[plaintextLength];
-        int outputPos = 0;
+        writeNonce(decryptImplicitNonce, seqNo, decryptNonce);
+        System.arraycopy(ciphertext, offset, decryptNonce, decryptNonce.length - nonce_explicit_length,
+            nonce_explicit_length);
+        writeAdditionalData(seqNo, type, plaintextLength, decryptAdditionalData);
 
-        byte[] additionalData = getAdditionalData(seqNo, type, plaintextLength);
-        AEADParameters parameters = new AEADParameters(null, 8 * macSize, nonce, additionalData);
+        int outputPos = outputOffset;
 
         try
         {
-            decryptCipher.init(false, parameters);
+            decryptCipher.init(false, decryptParameters);
             outputPos += decryptCipher.processBytes(ciphertext, ciphertextOffset, ciphertextLength, output, outputPos);
             outputPos += decryptCipher.doFinal(output, outputPos);
         }
@@ -165,29 +230,67 @@ public byte[] decodeCiphertext(long seqNo, short type, byte[] ciphertext, int of
             throw new TlsFatalAlert(AlertDescription.bad_record_mac);
         }
 
-        if (outputPos != output.length)
+        if (outputPos - outputOffset != plaintextLength)
         {
             // NOTE: Existing AEAD cipher implementations all give exact output lengths
             throw new TlsFatalAlert(AlertDescription.internal_error);
         }
 
-        return output;
+        return plaintextLength;
+    }
+
+    protected byte[] createNonce(byte[] implicitNonce, long seqNo)
+    {
+        byte[] nonce = new byte[encryptNonce.length];
+        writeNonce(implicitNonce, seqNo, nonce);
+        return nonce;
+    }
+
+    protected void writeNonce(byte[] implicitNonce, long seqNo, byte[] nonce)
+    {
+        if (nonceMode == NONCE_RFC5288)
+        {
+            System.arraycopy(implicitNonce, 0, nonce, 0, implicitNonce.length);
+
+            /*
+             * RFC 5288/6655 The nonce_explicit MAY be the 64-bit sequence number.
+             */
+            TlsUtils.writeUint64(seqNo, nonce, implicitNonce.length);
+        }
+        else
+        {
+            /*
+             * RFC 7905 The 64-bit record sequence number is padded on the left by 4 bytes of zeros,
+             * and the result XORed with the client_write_IV or server_write_IV.
+             */
+            System.arraycopy(implicitNonce, 0, nonce, 0, implicitNonce.length);
+
+            for (int i = 0; i < 8; ++i)
+            {
+                nonce[nonce.length - 1 - i] ^= (byte)(seqNo >>> (8 * i));
+            }
+        }
     }
 
     protected byte[] getAdditionalData(long seqNo, short type, int len)
         throws IOException
+    {
+        byte[] additional_data = new byte[13];
+        writeAdditionalData(seqNo, type, len, additional_data);
+        return additional_data;
+    }
+
+    protected void writeAdditionalData(long seqNo, short type, int len, byte[] additional_data)
+        throws IOException
     {
         /*
          * additional_data = seq_num + TLSCompressed.type + TLSCompressed.version +
          * TLSCompressed.length
          */
 
-        byte[] additional_data = new byte[13];
         TlsUtils.writeUint64(seqNo, additional_data, 0);
         TlsUtils.writeUint8(type, additional_data, 8);
         TlsUtils.writeVersion(context.getServerVersion(), additional_data, 9);
         TlsUtils.writeUint16(len, additional_data, 11);
-
-        return additional_data;
     }
 }
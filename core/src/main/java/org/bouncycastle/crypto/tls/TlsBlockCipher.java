@@ -14,7 +14,7 @@
  * A generic TLS 1.0-1.1 / SSLv3 block cipher. This can be used for AES or 3DES for example.
  */
 public class TlsBlockCipher
-    implements TlsCipher
+    implements TlsInPlaceCipher
 {
     private static boolean encryptThenMAC = false;
 
@@ -28,6 +28,10 @@
     protected TlsMac writeMac;
     protected TlsMac readMac;
 
+    // scratch space reused for every record
+    protected byte[] explicitIV;
+    protected byte[] calculatedMac;
+
     public TlsMac getWriteMac()
     {
         return writeMac;
@@ -114,6 +118,9 @@ public TlsBlockCipher(TlsContext context, BlockCipher clientWriteCipher, BlockCi
 
         this.encryptCipher.init(true, encryptParams);
         this.decryptCipher.init(false, decryptParams);
+
+        this.explicitIV = new byte[encryptCipher.getBlockSize()];
+        this.calculatedMac = new byte[readMac.getSize()];
     }
 
     public int getPlaintextLimit(int ciphertextLimit)
@@ -147,86 +154,90 @@ public int getPlaintextLimit(int ciphertextLimit)
         return plaintextLimit;
     }
 
-    public byte[] encodePlaintext(long seqNo, short type, byte[] plaintext, int offset, int len)
+    public int getMaxCiphertextLength(int plaintextLength)
     {
         int blockSize = encryptCipher.getBlockSize();
-        int macSize = writeMac.getSize();
-
-        ProtocolVersion version = context.getServerVersion();
 
-        int enc_input_length = len;
-        if (!encryptThenMAC)
+        // At most 255 bytes of padding, plus the padding length byte
+        int maxLength = plaintextLength + writeMac.getSize() + 256;
+        if (useExplicitIV)
         {
-            enc_input_length += macSize;
+            maxLength += blockSize;
         }
+        return maxLength;
+    }
 
-        int padding_length = blockSize - 1 - (enc_input_length % blockSize);
+    public byte[] encodePlaintext(long seqNo, short type, byte[] plaintext, int offset, int len)
+    {
+        int padding_length = choosePaddingLength(len);
 
-        // TODO[DTLS] Consider supporting in DTLS (without exceeding send limit though)
-        if (!version.isDTLS() && !version.isSSL())
-        {
-            // Add a random number of extra blocks worth of padding
-            int maxExtraPadBlocks = (255 - padding_length) / blockSize;
-            int actualExtraPadBlocks = chooseExtraPadBlocks(context.getSecureRandom(), maxExtraPadBlocks);
-            padding_length += actualExtraPadBlocks * blockSize;
-        }
+        byte[] outBuf = new byte[getCiphertextLength(len, padding_length)];
+        encodePlaintext(seqNo, type, plaintext, offset, len, padding_length, outBuf, 0);
+        return outBuf;
+    }
 
-        int totalSize = len + macSize + padding_length + 1;
-        if (useExplicitIV)
-        {
-            totalSize += blockSize;
-        }
+    public int encodePlaintext(long seqNo, short type, byte[] plaintext, int offset, int len, byte[] output,
+        int outputOffset)
+    {
+        return encodePlaintext(seqNo, type, plaintext, offset, len, choosePaddingLength(len), output, outputOffset);
+    }
+
+    protected int encodePlaintext(long seqNo, short type, byte[] plaintext, int offset, int len,
+        int padding_length, byte[] output, int outputOffset)
+    {
+        int blockSize = encryptCipher.getBlockSize();
 
-        byte[] outBuf = new byte[totalSize];
-        int outOff = 0;
+        int outOff = outputOffset;
 
         if (useExplicitIV)
         {
-            byte[] explicitIV = new byte[blockSize];
+            /*
+             * RFC 4346 6.2.3.2 (2)(b). Rather than re-initialise the cipher for every record, a random
+             * block is prepended to the plaintext and encrypted with the CBC residue of the previous
+             * record as mask; the resulting ciphertext block serves as the IV for the rest.
+             */
             context.getSecureRandom().nextBytes(explicitIV);
 
-            encryptCipher.init(true, new ParametersWithIV(null, explicitIV));
-
-            System.arraycopy(explicitIV, 0, outBuf, outOff, blockSize);
+            System.arraycopy(explicitIV, 0, output, outOff, blockSize);
             outOff += blockSize;
         }
 
-        int blocks_start = outOff;
-
-        System.arraycopy(plaintext, offset, outBuf, outOff, len);
+        System.arraycopy(plaintext, offset, output, outOff, len);
         outOff += len;
 
         if (!encryptThenMAC)
         {
-            byte[] mac = writeMac.calculateMac(seqNo, type, plaintext, offset, len);
-            System.arraycopy(mac, 0, outBuf, outOff, mac.length);
-            outOff += mac.length;
+            outOff += writeMac.calculateMac(seqNo, type, plaintext, offset, len, output, outOff);
         }
 
         for (int i = 0; i <= padding_length; i++)
         {
-            outBuf[outOff++] = (byte)padding_length;
+            output[outOff++] = (byte)padding_length;
         }
 
-        for (int i = blocks_start; i < outOff; i += blockSize)
+        for (int i = outputOffset; i < outOff; i += blockSize)
         {
-            encryptCipher.processBlock(outBuf, i, outBuf, i);
+            encryptCipher.processBlock(output, i, output, i);
         }
 
         if (encryptThenMAC)
         {
-            byte[] mac = writeMac.calculateMac(seqNo, type, outBuf, 0, outOff);
-            System.arraycopy(mac, 0, outBuf, outOff, mac.length);
-            outOff += mac.length;
+            outOff += writeMac.calculateMac(seqNo, type, output, outputOffset, outOff - outputOffset, output, outOff);
         }
 
-//        assert outBuf.length == outOff;
-
-        return outBuf;
+        return outOff - outputOffset;
     }
 
     public byte[] decodeCiphertext(long seqNo, short type, byte[] ciphertext, int offset, int len)
         throws IOException
+    {
+        int dec_output_length = decodeCiphertextInPlace(seqNo, type, ciphertext, offset, len);
+
+        return Arrays.copyOfRange(ciphertext, offset, offset + dec_output_length);
+    }
+
+    public int decodeCiphertextInPlace(long seqNo, short type, byte[] ciphertext, int offset, int len)
+        throws IOException
     {
         int blockSize = decryptCipher.getBlockSize();
         int macSize = readMac.getSize();
@@ -264,11 +275,9 @@ public byte[] decodeCiphertext(long seqNo, short type, byte[] ciphertext, int of
 
         if (encryptThenMAC)
         {
-            int end = offset + len;
-            byte[] receivedMac = Arrays.copyOfRange(ciphertext, end - macSize, end);
-            byte[] calculatedMac = readMac.calculateMac(seqNo, type, ciphertext, offset, len - macSize);
+            readMac.calculateMac(seqNo, type, ciphertext, offset, len - macSize, calculatedMac, 0);
 
-            boolean badMac = !Arrays.constantTimeAreEqual(calculatedMac, receivedMac);
+            boolean badMac = !Arrays.constantTimeAreEqual(macSize, calculatedMac, 0, ciphertext, offset + len - macSize);
 
             if (badMac)
             {
@@ -278,15 +287,26 @@ public byte[] decodeCiphertext(long seqNo, short type, byte[] ciphertext, int of
 
         if (useExplicitIV)
         {
-            decryptCipher.init(false, new ParametersWithIV(null, ciphertext, offset, blockSize));
+            /*
+             * Decrypting the explicit IV along with the rest leaves the cipher chained from it, without
+             * re-initialising. The block it decrypts to is of no use, and is overwritten by the first
+             * block of plaintext.
+             */
+            decryptCipher.processBlock(ciphertext, offset, ciphertext, offset);
+
+            for (int i = blockSize; i < blocks_length; i += blockSize)
+            {
+                decryptCipher.processBlock(ciphertext, offset + i, ciphertext, offset + i - blockSize);
+            }
 
-            offset += blockSize;
             blocks_length -= blockSize;
         }
-
-        for (int i = 0; i < blocks_length; i += blockSize)
+        else
         {
-            decryptCipher.processBlock(ciphertext, offset + i, ciphertext, offset + i);
+            for (int i = 0; i < blocks_length; i += blockSize)
+            {
+                decryptCipher.processBlock(ciphertext, offset + i, ciphertext, offset + i);
+            }
         }
 
         // If there's anything wrong with the padding, this will return zero
@@ -299,11 +319,10 @@ public byte[] decodeCiphertext(long seqNo, short type, byte[] ciphertext, int of
             dec_output_length -= macSize;
             int macInputLen = dec_output_length;
             int macOff = offset + macInputLen;
-            byte[] receivedMac = Arrays.copyOfRange(ciphertext, macOff, macOff + macSize);
-            byte[] calculatedMac = readMac.calculateMacConstantTime(seqNo, type, ciphertext, offset, macInputLen,
-                blocks_length - macSize, randomData);
+            readMac.calculateMacConstantTime(seqNo, type, ciphertext, offset, macInputLen,
+                blocks_length - macSize, randomData, calculatedMac, 0);
 
-            boolean badMac = !Arrays.constantTimeAreEqual(calculatedMac, receivedMac);
+            boolean badMac = !Arrays.constantTimeAreEqual(macSize, calculatedMac, 0, ciphertext, macOff);
 
             if (badMac || totalPad == 0)
             {
@@ -311,7 +330,44 @@ public byte[] decodeCiphertext(long seqNo, short type, byte[] ciphertext, int of
             }
         }
 
-        return Arrays.copyOfRange(ciphertext, offset, offset + dec_output_length);
+        return dec_output_length;
+    }
+
+    protected int choosePaddingLength(int len)
+    {
+        int blockSize = encryptCipher.getBlockSize();
+        int macSize = writeMac.getSize();
+
+        ProtocolVersion version = context.getServerVersion();
+
+        int enc_input_length = len;
+        if (!encryptThenMAC)
+        {
+            enc_input_length += macSize;
+        }
+
+        int padding_length = blockSize - 1 - (enc_input_length % blockSize);
+
+        // TODO[DTLS] Consider supporting in DTLS (without exceeding send limit though)
+        if (!version.isDTLS() && !version.isSSL())
+        {
+            // Add a random number of extra blocks worth of padding
+            int maxExtraPadBlocks = (255 - padding_length) / blockSize;
+            int actualExtraPadBlocks = chooseExtraPadBlocks(context.getSecureRandom(), maxExtraPadBlocks);
+            padding_length += actualExtraPadBlocks * blockSize;
+        }
+
+        return padding_length;
+    }
+
+    protected int getCiphertextLength(int len, int padding_length)
+    {
+        int totalSize = len + writeMac.getSize() + padding_length + 1;
+        if (useExplicitIV)
+        {
+            totalSize += encryptCipher.getBlockSize();
+        }
+        return totalSize;
     }
 
     protected int checkPaddingConstantTime(byte[] buf, int off, int len, int blockSize, int macSize)
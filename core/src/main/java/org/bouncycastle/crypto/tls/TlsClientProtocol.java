@@ -54,7 +54,29 @@ public TlsClientProtocol(InputStream input, OutputStream output, SecureRandom se
     }
 
     /**
-     * Initiates a TLS handshake in the role of client
+     * Constructor for non-blocking mode.<br>
+     * <br>
+     * When data is received, use {@link #offerInput(byte[])} to provide the received ciphertext,
+     * then use {@link #readInput(byte[], int, int)} to read the corresponding cleartext.<br>
+     * <br>
+     * Similarly, when data needs to be sent, use {@link #offerOutput(byte[], int, int)} to provide
+     * the cleartext, then use {@link #readOutput(byte[], int, int)} to get the corresponding
+     * ciphertext.
+     *
+     * @param secureRandom
+     *            Random number generator for various cryptographic functions
+     */
+    public TlsClientProtocol(SecureRandom secureRandom)
+    {
+        super(secureRandom);
+    }
+
+    /**
+     * Initiates a TLS handshake in the role of client.<br>
+     * <br>
+     * In blocking mode, this will not return until the handshake is complete. In non-blocking
+     * mode, the handshake is driven by subsequent calls to offerInput(), and the first handshake
+     * message to send is available from readOutput() on return.
      *
      * @param tlsClient The {@link TlsClient} to use for the handshake.
      * @throws IOException If handshake was not successful.
@@ -94,7 +116,10 @@ public void connect(TlsClient tlsClient) throws IOException
         sendClientHelloMessage();
         this.connection_state = CS_CLIENT_HELLO;
 
-        completeHandshake();
+        if (isBlocking())
+        {
+            completeHandshake();
+        }
     }
 
     protected void cleanupHandshake()
@@ -214,6 +239,19 @@ protected void handleHandshakeMessage(short type, byte[] data)
             switch (this.connection_state)
             {
             case CS_CLIENT_FINISHED:
+            {
+                if (this.expectSessionTicket)
+                {
+                    /*
+                     * RFC 5077 3.3. This message MUST be sent if the server included a
+                     * SessionTicket extension in the ServerHello.
+                     */
+                    throw new TlsFatalAlert(AlertDescription.unexpected_message);
+                }
+
+                // NB: Fall through to next case label
+            }
+            case CS_SERVER_SESSION_TICKET:
             {
                 processFinishedMessage(buf);
                 this.connection_state = CS_SERVER_FINISHED;
@@ -493,6 +531,7 @@ protected void handleHandshakeMessage(short type, byte[] data)
             default:
                 throw new TlsFatalAlert(AlertDescription.unexpected_message);
             }
+            break;
         }
         case HandshakeType.hello_request:
         {
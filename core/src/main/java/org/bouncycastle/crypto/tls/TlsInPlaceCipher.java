@@ -0,0 +1,38 @@
+package org.bouncycastle.crypto.tls;
+
+import java.io.IOException;
+
+/**
+ * A {@link TlsCipher} that can encode records into, and decode them within, buffers supplied by
+ * the caller, so that no arrays need be allocated per record. The record layer uses these methods
+ * in preference to those of {@link TlsCipher} when they are available.
+ */
+public interface TlsInPlaceCipher
+    extends TlsCipher
+{
+    /**
+     * Return the most bytes that encoding a given amount of plaintext may produce.
+     *
+     * @param plaintextLength the length of the plaintext.
+     * @return the largest possible length of the ciphertext.
+     */
+    int getMaxCiphertextLength(int plaintextLength);
+
+    /**
+     * Encode a record into an output buffer, which must not overlap the plaintext.
+     *
+     * @param output a buffer with room for at least {@link #getMaxCiphertextLength(int)} bytes
+     *            from outputOffset.
+     * @return the length of the ciphertext written to output.
+     */
+    int encodePlaintext(long seqNo, short type, byte[] plaintext, int offset, int len, byte[] output,
+        int outputOffset) throws IOException;
+
+    /**
+     * Decode a record in place, overwriting the ciphertext with the plaintext.
+     *
+     * @return the length of the plaintext, which starts at offset in buf.
+     */
+    int decodeCiphertextInPlace(long seqNo, short type, byte[] buf, int offset, int len)
+        throws IOException;
+}
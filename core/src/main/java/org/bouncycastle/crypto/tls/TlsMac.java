@@ -19,6 +19,10 @@
     protected int digestOverhead;
     protected int macLength;
 
+    // scratch space reused by every calculation, so that no arrays are allocated per record
+    protected byte[] macHeader = new byte[13];
+    protected byte[] macResult;
+
     /**
      * Generate a new instance of an TlsMac.
      *
@@ -72,6 +76,7 @@ public TlsMac(TlsContext context, Digest digest, byte[] key, int keyOff, int key
         this.mac.init(keyParameter);
 
         this.macLength = mac.getMacSize();
+        this.macResult = new byte[macLength];
         if (context.getSecurityParameters().truncatedHMac)
         {
             this.macLength = Math.min(this.macLength, 10);
@@ -104,6 +109,25 @@ public int getSize()
      * @return A new byte-buffer containing the MAC value.
      */
     public byte[] calculateMac(long seqNo, short type, byte[] message, int offset, int length)
+    {
+        byte[] result = new byte[macLength];
+        calculateMac(seqNo, type, message, offset, length, result, 0);
+        return result;
+    }
+
+    /**
+     * Calculate the MAC for some given data, writing it to an output buffer.
+     *
+     * @param type         The message type of the message.
+     * @param message      A byte-buffer containing the message.
+     * @param offset       The number of bytes to skip, before the message starts.
+     * @param length       The length of the message.
+     * @param output       The buffer to write the MAC value to.
+     * @param outputOffset The position in output to write the MAC value at.
+     * @return The length of the MAC value, {@link #getSize()}.
+     */
+    public int calculateMac(long seqNo, short type, byte[] message, int offset, int length, byte[] output,
+        int outputOffset)
     {
         /*
          * TODO[draft-josefsson-salsa20-tls-02] 3. Moreover, in order to accommodate MAC algorithms
@@ -117,30 +141,45 @@ public byte[] calculateMac(long seqNo, short type, byte[] message, int offset, i
         ProtocolVersion serverVersion = context.getServerVersion();
         boolean isSSL = serverVersion.isSSL();
 
-        byte[] macHeader = new byte[isSSL ? 11 : 13];
+        int headerLength = isSSL ? 11 : 13;
         TlsUtils.writeUint64(seqNo, macHeader, 0);
         TlsUtils.writeUint8(type, macHeader, 8);
         if (!isSSL)
         {
             TlsUtils.writeVersion(serverVersion, macHeader, 9);
         }
-        TlsUtils.writeUint16(length, macHeader, macHeader.length - 2);
+        TlsUtils.writeUint16(length, macHeader, headerLength - 2);
 
-        mac.update(macHeader, 0, macHeader.length);
+        mac.update(macHeader, 0, headerLength);
         mac.update(message, offset, length);
 
-        byte[] result = new byte[mac.getMacSize()];
-        mac.doFinal(result, 0);
-        return truncate(result);
+        if (macLength < macResult.length)
+        {
+            mac.doFinal(macResult, 0);
+            System.arraycopy(macResult, 0, output, outputOffset, macLength);
+        }
+        else
+        {
+            mac.doFinal(output, outputOffset);
+        }
+        return macLength;
     }
 
     public byte[] calculateMacConstantTime(long seqNo, short type, byte[] message, int offset, int length,
         int fullLength, byte[] dummyData)
+    {
+        byte[] result = new byte[macLength];
+        calculateMacConstantTime(seqNo, type, message, offset, length, fullLength, dummyData, result, 0);
+        return result;
+    }
+
+    public int calculateMacConstantTime(long seqNo, short type, byte[] message, int offset, int length,
+        int fullLength, byte[] dummyData, byte[] output, int outputOffset)
     {
         /*
          * Actual MAC only calculated on 'length' bytes...
          */
-        byte[] result = calculateMac(seqNo, type, message, offset, length);
+        int result = calculateMac(seqNo, type, message, offset, length, output, outputOffset);
 
         /*
          * ...but ensure a constant number of complete digest blocks are processed (as many as would
@@ -9,13 +9,16 @@
  * A NULL CipherSuite with optional MAC
  */
 public class TlsNullCipher
-    implements TlsCipher
+    implements TlsInPlaceCipher
 {
     protected TlsContext context;
 
     protected TlsMac writeMac;
     protected TlsMac readMac;
 
+    // scratch space reused for every record
+    protected byte[] computedMac;
+
     public TlsNullCipher(TlsContext context)
     {
         this.context = context;
@@ -67,6 +70,11 @@ public TlsNullCipher(TlsContext context, Digest clientWriteDigest, Digest server
             writeMac = clientWriteMac;
             readMac = serverWriteMac;
         }
+
+        if (readMac != null)
+        {
+            computedMac = new byte[readMac.getSize()];
+        }
     }
 
     public int getPlaintextLimit(int ciphertextLimit)
@@ -79,6 +87,16 @@ public int getPlaintextLimit(int ciphertextLimit)
         return result;
     }
 
+    public int getMaxCiphertextLength(int plaintextLength)
+    {
+        int result = plaintextLength;
+        if (writeMac != null)
+        {
+            result += writeMac.getSize();
+        }
+        return result;
+    }
+
     public byte[] encodePlaintext(long seqNo, short type, byte[] plaintext, int offset, int len)
         throws IOException
     {
@@ -94,12 +112,33 @@ public byte[] encodePlaintext(long seqNo, short type, byte[] plaintext, int offs
         return ciphertext;
     }
 
+    public int encodePlaintext(long seqNo, short type, byte[] plaintext, int offset, int len, byte[] output,
+        int outputOffset) throws IOException
+    {
+        System.arraycopy(plaintext, offset, output, outputOffset, len);
+
+        if (writeMac == null)
+        {
+            return len;
+        }
+
+        return len + writeMac.calculateMac(seqNo, type, plaintext, offset, len, output, outputOffset + len);
+    }
+
     public byte[] decodeCiphertext(long seqNo, short type, byte[] ciphertext, int offset, int len)
         throws IOException
+    {
+        int macInputLen = decodeCiphertextInPlace(seqNo, type, ciphertext, offset, len);
+
+        return Arrays.copyOfRange(ciphertext, offset, offset + macInputLen);
+    }
+
+    public int decodeCiphertextInPlace(long seqNo, short type, byte[] buf, int offset, int len)
+        throws IOException
     {
         if (readMac == null)
         {
-            return Arrays.copyOfRange(ciphertext, offset, offset + len);
+            return len;
         }
 
         int macSize = readMac.getSize();
@@ -110,14 +149,13 @@ public byte[] decodeCiphertext(long seqNo, short type, byte[] ciphertext, int of
 
         int macInputLen = len - macSize;
 
-        byte[] receivedMac = Arrays.copyOfRange(ciphertext, offset + macInputLen, offset + len);
-        byte[] computedMac = readMac.calculateMac(seqNo, type, ciphertext, offset, macInputLen);
+        readMac.calculateMac(seqNo, type, buf, offset, macInputLen, computedMac, 0);
 
-        if (!Arrays.constantTimeAreEqual(receivedMac, computedMac))
+        if (!Arrays.constantTimeAreEqual(macSize, computedMac, 0, buf, offset + macInputLen))
         {
             throw new TlsFatalAlert(AlertDescription.bad_record_mac);
         }
 
-        return Arrays.copyOfRange(ciphertext, offset, offset + macInputLen);
+        return macInputLen;
     }
 }
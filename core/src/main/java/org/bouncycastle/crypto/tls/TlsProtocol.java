@@ -16,6 +16,15 @@
 
 /**
  * An implementation of all high level protocols in TLS 1.0/1.1.
+ * <p>
+ * A protocol created with input and output streams is blocking: the handshake and reads of
+ * application data pull records from the input stream as needed. A protocol created without
+ * streams is non-blocking: the caller passes received bytes in with {@link #offerInput(byte[])},
+ * takes decrypted application data out with {@link #readInput(byte[], int, int)}, passes
+ * application data to send in with {@link #offerOutput(byte[], int, int)} and takes the bytes to
+ * send to the peer out with {@link #readOutput(byte[], int, int)}. None of these wait on the
+ * network, so one thread can drive many connections.
+ * </p>
  */
 public abstract class TlsProtocol
 {
@@ -61,6 +70,14 @@
     private TlsInputStream tlsInputStream = null;
     private TlsOutputStream tlsOutputStream = null;
 
+    /*
+     * The buffers used in place of the streams in non-blocking mode.
+     */
+    private final boolean blocking;
+    private final ByteQueueInputStream inputBuffers;
+    private final ByteQueueOutputStream outputBuffer;
+    private final byte[] recordHeader = new byte[5];
+
     private volatile boolean closed = false;
     private volatile boolean failedWithError = false;
     private volatile boolean appDataReady = false;
@@ -86,10 +103,27 @@
 
     public TlsProtocol(InputStream input, OutputStream output, SecureRandom secureRandom)
     {
+        this.blocking = true;
+        this.inputBuffers = null;
+        this.outputBuffer = null;
         this.recordStream = new RecordStream(this, input, output);
         this.secureRandom = secureRandom;
     }
 
+    /**
+     * Constructor for non-blocking mode.
+     *
+     * @param secureRandom random source for the connection.
+     */
+    public TlsProtocol(SecureRandom secureRandom)
+    {
+        this.blocking = false;
+        this.inputBuffers = new ByteQueueInputStream();
+        this.outputBuffer = new ByteQueueOutputStream();
+        this.recordStream = new RecordStream(this, inputBuffers, outputBuffer);
+        this.secureRandom = secureRandom;
+    }
+
     protected abstract AbstractTlsContext getContext();
 
     protected abstract TlsPeer getPeer();
@@ -158,8 +192,11 @@ protected void completeHandshake()
             {
                 this.appDataReady = true;
 
-                this.tlsInputStream = new TlsInputStream(this);
-                this.tlsOutputStream = new TlsOutputStream(this);
+                if (blocking)
+                {
+                    this.tlsInputStream = new TlsInputStream(this);
+                    this.tlsOutputStream = new TlsOutputStream(this);
+                }
             }
 
             if (this.tlsSession != null)
@@ -292,8 +329,19 @@ private void processHandshake()
                     /*
                      * Now, parse the message.
                      */
+                    short stateBefore = this.connection_state;
+
                     handleHandshakeMessage(type, buf);
                     read = true;
+
+                    /*
+                     * In non-blocking mode nothing is waiting in completeHandshake(), so finish off
+                     * the handshake here as soon as the state machine reaches the end.
+                     */
+                    if (!blocking && stateBefore != CS_END && this.connection_state == CS_END)
+                    {
+                        completeHandshake();
+                    }
                 }
             }
         }
@@ -572,6 +620,10 @@ protected void writeHandshakeMessage(byte[] buf, int off, int len) throws IOExce
      */
     public OutputStream getOutputStream()
     {
+        if (!blocking)
+        {
+            throw new IllegalStateException("Cannot use OutputStream in non-blocking mode! Use offerOutput() instead.");
+        }
         return this.tlsOutputStream;
     }
 
@@ -580,9 +632,211 @@ public OutputStream getOutputStream()
      */
     public InputStream getInputStream()
     {
+        if (!blocking)
+        {
+            throw new IllegalStateException("Cannot use InputStream in non-blocking mode! Use offerInput() instead.");
+        }
         return this.tlsInputStream;
     }
 
+    /**
+     * Offer input from an arbitrary source. Only allowed in non-blocking mode.<br>
+     * <br>
+     * After this method returns, the input buffer is "owned" by this object. Other code may not
+     * attempt to use it in any way.<br>
+     * <br>
+     * Every complete record in the input is processed before this method returns, which may
+     * produce output to send (see {@link #getAvailableOutputBytes()}) and application data to read
+     * (see {@link #getAvailableInputBytes()}). A partial record at the end is kept until the rest
+     * of it is offered.
+     *
+     * @param input The input buffer to offer.
+     * @throws IOException If an error occurs while decrypting or processing a record.
+     */
+    public void offerInput(byte[] input)
+        throws IOException
+    {
+        offerInput(input, 0, input.length);
+    }
+
+    /**
+     * Offer input from an arbitrary source. Only allowed in non-blocking mode.
+     *
+     * @param input The array holding the input.
+     * @param inputOff The offset of the input in the array.
+     * @param inputLen The length of the input.
+     * @throws IOException If an error occurs while decrypting or processing a record.
+     * @see #offerInput(byte[])
+     */
+    public void offerInput(byte[] input, int inputOff, int inputLen)
+        throws IOException
+    {
+        if (blocking)
+        {
+            throw new IllegalStateException("Cannot use offerInput() in blocking mode! Use getInputStream() instead.");
+        }
+
+        if (closed)
+        {
+            throw new IOException("Connection is closed, cannot accept any more input");
+        }
+
+        inputBuffers.addBytes(input, inputOff, inputLen);
+
+        // process as many records as we can find in the buffer
+        while (inputBuffers.available() >= recordHeader.length)
+        {
+            inputBuffers.peek(recordHeader);
+
+            int totalLength = TlsUtils.readUint16(recordHeader, 3) + recordHeader.length;
+            if (inputBuffers.available() < totalLength)
+            {
+                // not enough bytes to read a whole record
+                break;
+            }
+
+            safeReadRecord();
+
+            if (closed)
+            {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Gets the amount of received application data. A call to {@link #readInput(byte[], int, int)}
+     * is guaranteed to be able to return at least this much data.<br>
+     * <br>
+     * Only allowed in non-blocking mode.
+     *
+     * @return The number of bytes of available application data
+     */
+    public int getAvailableInputBytes()
+    {
+        if (blocking)
+        {
+            throw new IllegalStateException("Cannot use getAvailableInputBytes() in blocking mode! Use getInputStream().available() instead.");
+        }
+        return applicationDataQueue.size();
+    }
+
+    /**
+     * Retrieves received application data. Use {@link #getAvailableInputBytes()} to check how
+     * much application data is currently available. This method functions similarly to
+     * {@link InputStream#read(byte[], int, int)}, except that it never blocks. If no data is
+     * available, nothing will be copied and zero will be returned.<br>
+     * <br>
+     * Only allowed in non-blocking mode.
+     *
+     * @param buffer The buffer to hold the application data
+     * @param offset The start offset in the buffer at which the data is written
+     * @param length The maximum number of bytes to read
+     * @return The total number of bytes copied to the buffer. May be less than the length
+     *         specified if the length was greater than the amount of available data.
+     */
+    public int readInput(byte[] buffer, int offset, int length)
+    {
+        if (blocking)
+        {
+            throw new IllegalStateException("Cannot use readInput() in blocking mode! Use getInputStream() instead.");
+        }
+
+        length = Math.min(length, applicationDataQueue.size());
+        applicationDataQueue.removeData(buffer, offset, length, 0);
+        return length;
+    }
+
+    /**
+     * Offer output from an arbitrary source. Only allowed in non-blocking mode, once the handshake
+     * is complete.<br>
+     * <br>
+     * The data is encrypted straight away, after which it is available from
+     * {@link #readOutput(byte[], int, int)}.
+     *
+     * @param buffer The buffer containing application data to send
+     * @param offset The offset at which the application data begins
+     * @param length The number of bytes of application data to send
+     * @throws IOException If the connection is closed or not yet ready, or an error occurs.
+     */
+    public void offerOutput(byte[] buffer, int offset, int length)
+        throws IOException
+    {
+        if (blocking)
+        {
+            throw new IllegalStateException("Cannot use offerOutput() in blocking mode! Use getOutputStream() instead.");
+        }
+
+        if (!appDataReady)
+        {
+            throw new IOException("Application data cannot be sent until the handshake is complete!");
+        }
+
+        writeData(buffer, offset, length);
+    }
+
+    /**
+     * Gets the amount of encrypted data available to be sent. A call to
+     * {@link #readOutput(byte[], int, int)} is guaranteed to be able to return at least this much
+     * data.<br>
+     * <br>
+     * Only allowed in non-blocking mode.
+     *
+     * @return The number of bytes of available encrypted data
+     */
+    public int getAvailableOutputBytes()
+    {
+        if (blocking)
+        {
+            throw new IllegalStateException("Cannot use getAvailableOutputBytes() in blocking mode! Use getOutputStream() instead.");
+        }
+
+        return outputBuffer.getBuffer().size();
+    }
+
+    /**
+     * Retrieves encrypted data to be sent to the peer. Use {@link #getAvailableOutputBytes()} to
+     * check how much encrypted data is currently available. This method functions similarly to
+     * {@link InputStream#read(byte[], int, int)}, except that it never blocks. If no data is
+     * available, nothing will be copied and zero will be returned.<br>
+     * <br>
+     * Only allowed in non-blocking mode.
+     *
+     * @param buffer The buffer to hold the encrypted data
+     * @param offset The start offset in the buffer at which the data is written
+     * @param length The maximum number of bytes to read
+     * @return The total number of bytes copied to the buffer. May be less than the length
+     *         specified if the length was greater than the amount of available data.
+     */
+    public int readOutput(byte[] buffer, int offset, int length)
+    {
+        if (blocking)
+        {
+            throw new IllegalStateException("Cannot use readOutput() in blocking mode! Use getOutputStream() instead.");
+        }
+
+        length = Math.min(getAvailableOutputBytes(), length);
+        outputBuffer.getBuffer().removeData(buffer, offset, length, 0);
+        return length;
+    }
+
+    /**
+     * @return true if this protocol was created with streams, in blocking mode, false if it is in
+     * non-blocking mode.
+     */
+    public boolean isBlocking()
+    {
+        return blocking;
+    }
+
+    /**
+     * @return true once the connection has been closed, by either side or on an error.
+     */
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
     /**
      * Terminate this connection with an alert. Can be used for normal closure too.
      * 
@@ -997,6 +1251,7 @@ protected static int getPRFAlgorithm(TlsContext context, int ciphersuite) throws
         case CipherSuite.TLS_DHE_PSK_WITH_AES_128_CCM:
         case CipherSuite.TLS_DHE_PSK_WITH_AES_128_GCM_SHA256:
         case CipherSuite.TLS_DHE_PSK_WITH_AES_256_CCM:
+        case CipherSuite.TLS_DHE_PSK_WITH_CHACHA20_POLY1305_SHA256:
         case CipherSuite.TLS_DHE_RSA_WITH_AES_128_CBC_SHA256:
         case CipherSuite.TLS_DHE_RSA_WITH_AES_128_CCM:
         case CipherSuite.TLS_DHE_RSA_WITH_AES_128_CCM_8:
@@ -1004,14 +1259,18 @@ protected static int getPRFAlgorithm(TlsContext context, int ciphersuite) throws
         case CipherSuite.TLS_DHE_RSA_WITH_AES_256_CBC_SHA256:
         case CipherSuite.TLS_DHE_RSA_WITH_AES_256_CCM:
         case CipherSuite.TLS_DHE_RSA_WITH_AES_256_CCM_8:
+        case CipherSuite.TLS_DHE_RSA_WITH_CHACHA20_POLY1305_SHA256:
         case CipherSuite.TLS_ECDH_ECDSA_WITH_AES_128_CBC_SHA256:
         case CipherSuite.TLS_ECDH_ECDSA_WITH_AES_128_GCM_SHA256:
         case CipherSuite.TLS_ECDH_RSA_WITH_AES_128_CBC_SHA256:
         case CipherSuite.TLS_ECDH_RSA_WITH_AES_128_GCM_SHA256:
         case CipherSuite.TLS_ECDHE_ECDSA_WITH_AES_128_CBC_SHA256:
         case CipherSuite.TLS_ECDHE_ECDSA_WITH_AES_128_GCM_SHA256:
+        case CipherSuite.TLS_ECDHE_ECDSA_WITH_CHACHA20_POLY1305_SHA256:
+        case CipherSuite.TLS_ECDHE_PSK_WITH_CHACHA20_POLY1305_SHA256:
         case CipherSuite.TLS_ECDHE_RSA_WITH_AES_128_CBC_SHA256:
         case CipherSuite.TLS_ECDHE_RSA_WITH_AES_128_GCM_SHA256:
+        case CipherSuite.TLS_ECDHE_RSA_WITH_CHACHA20_POLY1305_SHA256:
         case CipherSuite.TLS_PSK_DHE_WITH_AES_128_CCM_8:
         case CipherSuite.TLS_PSK_DHE_WITH_AES_256_CCM_8:
         case CipherSuite.TLS_PSK_WITH_AES_128_CCM:
@@ -1019,7 +1278,9 @@ protected static int getPRFAlgorithm(TlsContext context, int ciphersuite) throws
         case CipherSuite.TLS_PSK_WITH_AES_128_GCM_SHA256:
         case CipherSuite.TLS_PSK_WITH_AES_256_CCM:
         case CipherSuite.TLS_PSK_WITH_AES_256_CCM_8:
+        case CipherSuite.TLS_PSK_WITH_CHACHA20_POLY1305_SHA256:
         case CipherSuite.TLS_RSA_PSK_WITH_AES_128_GCM_SHA256:
+        case CipherSuite.TLS_RSA_PSK_WITH_CHACHA20_POLY1305_SHA256:
         case CipherSuite.TLS_RSA_WITH_AES_128_CBC_SHA256:
         case CipherSuite.TLS_RSA_WITH_AES_128_CCM:
         case CipherSuite.TLS_RSA_WITH_AES_128_CCM_8:
@@ -87,4 +87,28 @@ void notifyClientCertificate(Certificate clientCertificate)
      */
     NewSessionTicket getNewSessionTicket()
         throws IOException;
+
+    /**
+     * Return the cache used for session resumption. When a cache is returned, a ClientHello
+     * offering the ID of a session found in it is answered with an abbreviated handshake, and
+     * sessions established by full handshakes are added to it.
+     * <p/>
+     * Sessions can only be resumed across connections if the same cache is returned for each of
+     * them, so a single instance should normally be shared by all the server's connections.
+     *
+     * @return The {@link TlsSessionCache} to use, or null if sessions are not to be resumed.
+     */
+    TlsSessionCache getSessionCache();
+
+    /**
+     * RFC 5077 Stateless session resumption.
+     * <p/>
+     * Return the manager used to issue session tickets to clients offering the SessionTicket
+     * extension, and to resume sessions from the tickets they present. When a manager is returned,
+     * it is used in place of {@link #getNewSessionTicket()}.
+     *
+     * @return The {@link SessionTicketManager} to use, or null if tickets are not to be handled by
+     *         the protocol.
+     */
+    SessionTicketManager getSessionTicketManager();
 }
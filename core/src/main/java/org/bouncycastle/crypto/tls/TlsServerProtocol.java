@@ -26,13 +26,40 @@
     protected short clientCertificateType = -1;
     protected byte[] certificateVerifyHash = null;
 
+    protected TlsSessionCache sessionCache = null;
+    protected SessionTicketManager sessionTicketManager = null;
+    protected byte[] offeredSessionID = null;
+    protected boolean newSessionEstablished = false;
+
     public TlsServerProtocol(InputStream input, OutputStream output, SecureRandom secureRandom)
     {
         super(input, output, secureRandom);
     }
 
     /**
-     * Receives a TLS handshake in the role of server
+     * Constructor for non-blocking mode.<br>
+     * <br>
+     * When data is received, use {@link #offerInput(byte[])} to provide the received ciphertext,
+     * then use {@link #readInput(byte[], int, int)} to read the corresponding cleartext.<br>
+     * <br>
+     * Similarly, when data needs to be sent, use {@link #offerOutput(byte[], int, int)} to provide
+     * the cleartext, then use {@link #readOutput(byte[], int, int)} to get the corresponding
+     * ciphertext.
+     *
+     * @param secureRandom
+     *            Random number generator for various cryptographic functions
+     */
+    public TlsServerProtocol(SecureRandom secureRandom)
+    {
+        super(secureRandom);
+    }
+
+    /**
+     * Receives a TLS handshake in the role of server.<br>
+     * <br>
+     * In blocking mode, this will not return until the handshake is complete. In non-blocking
+     * mode, this returns straight away and the handshake is driven by subsequent calls to
+     * offerInput().
      *
      * @param tlsServer
      * @throws IOException If handshake was not successful.
@@ -59,15 +86,38 @@ public void accept(TlsServer tlsServer)
         this.tlsServer.init(tlsServerContext);
         this.recordStream.init(tlsServerContext);
 
+        this.sessionCache = tlsServer.getSessionCache();
+        this.sessionTicketManager = tlsServer.getSessionTicketManager();
+
         this.recordStream.setRestrictReadVersion(false);
 
-        completeHandshake();
+        if (isBlocking())
+        {
+            completeHandshake();
+        }
+    }
+
+    protected void completeHandshake()
+        throws IOException
+    {
+        super.completeHandshake();
+
+        /*
+         * A resumed session is already in the cache; a new one is added once the handshake has
+         * completed, so that a failed handshake never leaves a resumable session behind.
+         */
+        if (this.newSessionEstablished)
+        {
+            this.newSessionEstablished = false;
+            this.sessionCache.put(getContext().getResumableSession());
+        }
     }
 
     protected void cleanupHandshake()
     {
         super.cleanupHandshake();
         
+        this.offeredSessionID = null;
         this.keyExchange = null;
         this.serverCredentials = null;
         this.certificateRequest = null;
@@ -103,6 +153,17 @@ protected void handleHandshakeMessage(short type, byte[] data)
                 sendServerHelloMessage();
                 this.connection_state = CS_SERVER_HELLO;
 
+                if (this.resumedSession)
+                {
+                    this.securityParameters.masterSecret = Arrays.clone(this.sessionParameters.getMasterSecret());
+                    this.recordStream.setPendingConnectionState(getPeer().getCompression(), getPeer().getCipher());
+
+                    sendChangeCipherSpecMessage();
+                    sendFinishedMessage();
+                    this.connection_state = CS_SERVER_FINISHED;
+                    break;
+                }
+
                 Vector serverSupplementalData = tlsServer.getServerSupplementalData();
                 if (serverSupplementalData != null)
                 {
@@ -294,6 +355,17 @@ else if (TlsUtils.isSSL(getContext()))
         {
             switch (this.connection_state)
             {
+            case CS_SERVER_FINISHED:
+            {
+                if (!this.resumedSession)
+                {
+                    throw new TlsFatalAlert(AlertDescription.unexpected_message);
+                }
+                processFinishedMessage(buf);
+                this.connection_state = CS_CLIENT_FINISHED;
+                this.connection_state = CS_END;
+                break;
+            }
             case CS_CLIENT_KEY_EXCHANGE:
             {
                 if (this.certificateVerifyHash != null)
@@ -309,7 +381,7 @@ else if (TlsUtils.isSSL(getContext()))
 
                 if (this.expectSessionTicket)
                 {
-                    sendNewSessionTicketMessage(tlsServer.getNewSessionTicket());
+                    sendNewSessionTicketMessage(createNewSessionTicket());
                     sendChangeCipherSpecMessage();
                 }
                 this.connection_state = CS_SERVER_SESSION_TICKET;
@@ -451,15 +523,12 @@ protected void receiveClientHelloMessage(ByteArrayInputStream buf)
 
         byte[] client_random = TlsUtils.readFully(32, buf);
 
-        /*
-         * TODO RFC 5077 3.4. If a ticket is presented by the client, the server MUST NOT attempt to
-         * use the Session ID in the ClientHello for stateful session resumption.
-         */
         byte[] sessionID = TlsUtils.readOpaque8(buf);
         if (sessionID.length > 32)
         {
             throw new TlsFatalAlert(AlertDescription.illegal_parameter);
         }
+        this.offeredSessionID = sessionID;
 
         /*
          * TODO RFC 5246 7.4.1.2. If the session_id field is not empty (implying a session
@@ -621,16 +690,6 @@ protected void sendServerHelloMessage()
         recordStream.setRestrictReadVersion(true);
         getContext().setServerVersion(server_version);
 
-        TlsUtils.writeVersion(server_version, message);
-
-        message.write(this.securityParameters.serverRandom);
-
-        /*
-         * The server may return an empty session_id to indicate that the session will not be cached
-         * and therefore cannot be resumed.
-         */
-        TlsUtils.writeOpaque8(TlsUtils.EMPTY_BYTES, message);
-
         int selectedCipherSuite = tlsServer.getSelectedCipherSuite();
         if (!arrayContains(this.offeredCipherSuites, selectedCipherSuite)
             || selectedCipherSuite == CipherSuite.TLS_NULL_WITH_NULL_NULL
@@ -647,10 +706,45 @@ protected void sendServerHelloMessage()
         }
         securityParameters.compressionAlgorithm = selectedCompressionMethod;
 
+        selectSession(selectedCipherSuite, selectedCompressionMethod);
+
+        TlsUtils.writeVersion(server_version, message);
+
+        message.write(this.securityParameters.serverRandom);
+
+        /*
+         * The server may return an empty session_id to indicate that the session will not be cached
+         * and therefore cannot be resumed.
+         */
+        TlsUtils.writeOpaque8(this.tlsSession == null ? TlsUtils.EMPTY_BYTES : this.tlsSession.getSessionID(), message);
+
         TlsUtils.writeUint16(selectedCipherSuite, message);
         TlsUtils.writeUint8(selectedCompressionMethod, message);
 
-        this.serverExtensions = tlsServer.getServerExtensions();
+        if (this.resumedSession)
+        {
+            /*
+             * RFC 3546 2.3 If [...] the older session is resumed, then the server MUST ignore
+             * extensions appearing in the client hello, and send a server hello containing no
+             * extensions.
+             */
+            this.serverExtensions = null;
+        }
+        else
+        {
+            this.serverExtensions = tlsServer.getServerExtensions();
+
+            /*
+             * RFC 5077 3.2. The server uses an empty SessionTicket extension to indicate to the client
+             * that it will send a new session ticket using the NewSessionTicket handshake message.
+             */
+            if (this.sessionTicketManager != null
+                && TlsUtils.getExtensionData(this.clientExtensions, EXT_SessionTicket) != null)
+            {
+                this.serverExtensions = TlsExtensionsUtils.ensureExtensionsInitialised(this.serverExtensions);
+                this.serverExtensions.put(EXT_SessionTicket, TlsUtils.EMPTY_BYTES);
+            }
+        }
 
         /*
          * RFC 5746 3.6. Server Behavior: Initial Handshake
@@ -679,18 +773,19 @@ protected void sendServerHelloMessage()
             }
         }
 
-        /*
-         * TODO RFC 3546 2.3 If [...] the older session is resumed, then the server MUST ignore
-         * extensions appearing in the client hello, and send a server hello containing no
-         * extensions.
-         */
+        Hashtable sessionClientExtensions = clientExtensions, sessionServerExtensions = serverExtensions;
+        if (this.resumedSession)
+        {
+            sessionClientExtensions = null;
+            sessionServerExtensions = this.sessionParameters.readServerExtensions();
+        }
 
-        if (this.serverExtensions != null)
+        if (sessionServerExtensions != null)
         {
-            this.securityParameters.maxFragmentLength = processMaxFragmentLengthExtension(clientExtensions,
-                this.serverExtensions, AlertDescription.internal_error);
+            this.securityParameters.maxFragmentLength = processMaxFragmentLengthExtension(sessionClientExtensions,
+                sessionServerExtensions, AlertDescription.internal_error);
 
-            this.securityParameters.truncatedHMac = TlsExtensionsUtils.hasTruncatedHMacExtension(this.serverExtensions);
+            this.securityParameters.truncatedHMac = TlsExtensionsUtils.hasTruncatedHMacExtension(sessionServerExtensions);
 
             /*
              * TODO It's surprising that there's no provision to allow a 'fresh' CertificateStatus to be sent in
@@ -703,7 +798,10 @@ protected void sendServerHelloMessage()
             this.expectSessionTicket = !this.resumedSession
                 && TlsUtils.hasExpectedEmptyExtensionData(this.serverExtensions, TlsProtocol.EXT_SessionTicket,
                     AlertDescription.internal_error);
+        }
 
+        if (this.serverExtensions != null)
+        {
             writeExtensions(message, this.serverExtensions);
         }
 
@@ -726,6 +824,108 @@ protected void sendServerHelloMessage()
         recordStream.notifyHelloComplete();
     }
 
+    protected NewSessionTicket createNewSessionTicket()
+        throws IOException
+    {
+        if (this.sessionTicketManager == null)
+        {
+            return tlsServer.getNewSessionTicket();
+        }
+
+        SessionParameters ticketParameters = new SessionParameters.Builder()
+            .setCipherSuite(this.securityParameters.cipherSuite)
+            .setCompressionAlgorithm(this.securityParameters.compressionAlgorithm)
+            .setMasterSecret(this.securityParameters.masterSecret)
+            .setPeerCertificate(this.peerCertificate)
+            .setServerExtensions(this.serverExtensions)
+            .build();
+
+        try
+        {
+            return this.sessionTicketManager.createTicket(ticketParameters);
+        }
+        finally
+        {
+            ticketParameters.clear();
+        }
+    }
+
+    /**
+     * Decide whether this handshake resumes an earlier session, from a session ticket or the
+     * session cache, setting up either the session being resumed or a new session to be
+     * established. Resumption needs the server to have selected the same cipher suite and
+     * compression method the session was established with; otherwise a full handshake is done.
+     */
+    protected void selectSession(int selectedCipherSuite, short selectedCompressionMethod)
+    {
+        byte[] ticket = TlsUtils.getExtensionData(this.clientExtensions, EXT_SessionTicket);
+
+        if (this.sessionTicketManager != null && ticket != null && ticket.length > 0)
+        {
+            SessionParameters sessionParameters = this.sessionTicketManager.decryptTicket(ticket);
+            if (sessionParameters != null)
+            {
+                if (resumeSession(sessionParameters, selectedCipherSuite, selectedCompressionMethod))
+                {
+                    /*
+                     * RFC 5077 3.4. If the server accepts the ticket and the Session ID is not
+                     * empty, then it MUST respond with the same Session ID present in the
+                     * ClientHello.
+                     */
+                    if (this.offeredSessionID.length > 0)
+                    {
+                        this.tlsSession = new TlsSessionImpl(this.offeredSessionID, sessionParameters);
+                    }
+                    return;
+                }
+            }
+        }
+        else if (this.sessionCache != null && this.offeredSessionID.length > 0)
+        {
+            /*
+             * RFC 5077 3.4. If a ticket is presented by the client, the server MUST NOT attempt to
+             * use the Session ID in the ClientHello for stateful session resumption.
+             */
+            TlsSession session = this.sessionCache.get(this.offeredSessionID);
+            if (session != null)
+            {
+                SessionParameters sessionParameters = session.exportSessionParameters();
+                if (sessionParameters != null
+                    && resumeSession(sessionParameters, selectedCipherSuite, selectedCompressionMethod))
+                {
+                    this.tlsSession = session;
+                    return;
+                }
+            }
+        }
+
+        if (this.sessionCache == null)
+        {
+            return;
+        }
+
+        byte[] sessionID = new byte[32];
+        this.secureRandom.nextBytes(sessionID);
+
+        this.tlsSession = new TlsSessionImpl(sessionID, null);
+        this.newSessionEstablished = true;
+    }
+
+    private boolean resumeSession(SessionParameters sessionParameters, int selectedCipherSuite,
+        short selectedCompressionMethod)
+    {
+        if (sessionParameters.getCipherSuite() != selectedCipherSuite
+            || sessionParameters.getCompressionAlgorithm() != selectedCompressionMethod)
+        {
+            sessionParameters.clear();
+            return false;
+        }
+
+        this.sessionParameters = sessionParameters;
+        this.resumedSession = true;
+        return true;
+    }
+
     protected void sendServerHelloDoneMessage()
         throws IOException
     {
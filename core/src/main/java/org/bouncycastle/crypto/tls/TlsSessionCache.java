@@ -0,0 +1,32 @@
+package org.bouncycastle.crypto.tls;
+
+/**
+ * A store of resumable sessions, keyed by session ID, used by a server to support abbreviated
+ * handshakes. Implementations must be safe for use by many connections at once.
+ *
+ * @see TlsServer#getSessionCache()
+ */
+public interface TlsSessionCache
+{
+    /**
+     * Look up a session to resume.
+     *
+     * @param sessionID the session ID offered in a ClientHello.
+     * @return the resumable session with the given ID, or null if there is none.
+     */
+    TlsSession get(byte[] sessionID);
+
+    /**
+     * Add a newly established session to the cache, replacing any session with the same ID.
+     *
+     * @param session the session to add.
+     */
+    void put(TlsSession session);
+
+    /**
+     * Remove a session from the cache, if present.
+     *
+     * @param sessionID the ID of the session to remove.
+     */
+    void remove(byte[] sessionID);
+}
@@ -2,8 +2,49 @@
 
 import java.math.BigInteger;
 
+import org.bouncycastle.math.ec.endo.GLVEndomorphism;
+
 public class ECAlgorithms
 {
+    private static final byte[] EMPTY_WNAF = new byte[0];
+
+    public static ECPoint sumOfMultiplies(ECPoint[] ps, BigInteger[] ks)
+    {
+        if (ps == null || ks == null || ps.length != ks.length || ps.length < 1)
+        {
+            throw new IllegalArgumentException("point and scalar arrays should be non-null, and of equal, non-zero, length");
+        }
+
+        int count = ps.length;
+        switch (count)
+        {
+        case 1:
+            return ps[0].multiply(ks[0]);
+        case 2:
+            return sumOfTwoMultiplies(ps[0], ks[0], ps[1], ks[1]);
+        default:
+            break;
+        }
+
+        ECPoint p = ps[0];
+        ECCurve c = p.getCurve();
+
+        ECPoint[] imported = new ECPoint[count];
+        imported[0] = p;
+        for (int i = 1; i < count; ++i)
+        {
+            imported[i] = importPoint(c, ps[i]);
+        }
+
+        GLVEndomorphism glvEndomorphism = c.getEndomorphism();
+        if (glvEndomorphism != null)
+        {
+            return implSumOfMultipliesGLV(imported, ks, glvEndomorphism);
+        }
+
+        return implSumOfMultiplies(imported, ks);
+    }
+
     public static ECPoint sumOfTwoMultiplies(ECPoint P, BigInteger a,
         ECPoint Q, BigInteger b)
     {
@@ -20,7 +61,13 @@ public static ECPoint sumOfTwoMultiplies(ECPoint P, BigInteger a,
             }
         }
 
-        return implShamirsTrick(P, a, Q, b);
+        GLVEndomorphism glvEndomorphism = cp.getEndomorphism();
+        if (glvEndomorphism != null)
+        {
+            return implSumOfMultipliesGLV(new ECPoint[]{ P, Q }, new BigInteger[]{ a, b }, glvEndomorphism);
+        }
+
+        return implShamirsTrickWNaf(P, a, Q, b);
     }
 
     /*
@@ -92,6 +139,173 @@ static void implMontgomeryTrick(ECFieldElement[] zs, int off, int len)
         zs[off] = u;
     }
 
+    /**
+     * Interleaved wNAF ("Shamir's trick" with a window), see "Guide to Elliptic Curve
+     * Cryptography", Algorithm 3.51. The precomputation for each point is cached with the point,
+     * so a fixed P (typically the generator) only pays for its table once, and each call
+     * builds at most a small table for Q.
+     */
+    static ECPoint implShamirsTrickWNaf(ECPoint P, BigInteger k,
+        ECPoint Q, BigInteger l)
+    {
+        return implSumOfMultiplies(new ECPoint[]{ P, Q }, new BigInteger[]{ k, l });
+    }
+
+    static ECPoint implSumOfMultiplies(ECPoint[] ps, BigInteger[] ks)
+    {
+        int count = ps.length;
+        boolean[] negs = new boolean[count];
+        WNafPreCompInfo[] infos = new WNafPreCompInfo[count];
+        byte[][] wnafs = new byte[count][];
+
+        for (int i = 0; i < count; ++i)
+        {
+            BigInteger ki = ks[i];
+            negs[i] = ki.signum() < 0;
+            ki = ki.abs();
+
+            if (ki.signum() == 0 || ps[i].isInfinity())
+            {
+                wnafs[i] = EMPTY_WNAF;
+                continue;
+            }
+
+            int width = getWindowWidth(ki.bitLength());
+            infos[i] = WNafUtil.precompute(ps[i], width, true);
+            wnafs[i] = WNafUtil.generateWindowNaf(width, ki);
+        }
+
+        return implSumOfMultiplies(ps[0].getCurve(), negs, infos, wnafs);
+    }
+
+    static ECPoint implSumOfMultipliesGLV(ECPoint[] ps, BigInteger[] ks, GLVEndomorphism glvEndomorphism)
+    {
+        int halfCount = ps.length, fullCount = halfCount << 1;
+
+        boolean[] negs = new boolean[fullCount];
+        WNafPreCompInfo[] infos = new WNafPreCompInfo[fullCount];
+        byte[][] wnafs = new byte[fullCount][];
+
+        for (int i = 0; i < halfCount; ++i)
+        {
+            if (ks[i].signum() == 0 || ps[i].isInfinity())
+            {
+                wnafs[i << 1] = EMPTY_WNAF;
+                wnafs[(i << 1) + 1] = EMPTY_WNAF;
+                continue;
+            }
+
+            BigInteger[] ab = glvEndomorphism.decomposeScalar(ks[i]);
+
+            BigInteger a = ab[0], b = ab[1];
+            negs[i << 1] = a.signum() < 0;
+            negs[(i << 1) + 1] = b.signum() < 0;
+            a = a.abs();
+            b = b.abs();
+
+            int width = getWindowWidth(Math.max(a.bitLength(), b.bitLength()));
+
+            /*
+             * The table for phi(P) is just the table for P with the endomorphism applied, which
+             * is much cheaper than building it from scratch.
+             */
+            WNafPreCompInfo info = WNafUtil.precompute(ps[i], width, true);
+            infos[i << 1] = info;
+            infos[(i << 1) + 1] = mapPreCompInfo(info, width, glvEndomorphism);
+
+            wnafs[i << 1] = generateWindowNaf(width, a);
+            wnafs[(i << 1) + 1] = generateWindowNaf(width, b);
+        }
+
+        return implSumOfMultiplies(ps[0].getCurve(), negs, infos, wnafs);
+    }
+
+    private static byte[] generateWindowNaf(int width, BigInteger k)
+    {
+        return k.signum() == 0 ? EMPTY_WNAF : WNafUtil.generateWindowNaf(width, k);
+    }
+
+    private static int getWindowWidth(int bits)
+    {
+        // generateWindowNaf supports widths in the range [2, 8]
+        return Math.max(2, Math.min(8, WNafUtil.getWindowSize(bits)));
+    }
+
+    private static WNafPreCompInfo mapPreCompInfo(WNafPreCompInfo info, int width, GLVEndomorphism glvEndomorphism)
+    {
+        // the cached table may be larger than needed
+        int len = 1 << Math.max(0, width - 2);
+
+        ECPoint[] preComp = info.getPreComp(), preCompNeg = info.getPreCompNeg();
+        ECPoint[] preCompMapped = new ECPoint[len], preCompNegMapped = new ECPoint[len];
+        for (int i = 0; i < len; ++i)
+        {
+            preCompMapped[i] = glvEndomorphism.mapPoint(preComp[i]);
+            preCompNegMapped[i] = glvEndomorphism.mapPoint(preCompNeg[i]);
+        }
+
+        WNafPreCompInfo mapped = new WNafPreCompInfo();
+        mapped.setPreComp(preCompMapped);
+        mapped.setPreCompNeg(preCompNegMapped);
+        return mapped;
+    }
+
+    private static ECPoint implSumOfMultiplies(ECCurve curve, boolean[] negs, WNafPreCompInfo[] infos,
+        byte[][] wnafs)
+    {
+        int len = 0, count = wnafs.length;
+        for (int i = 0; i < count; ++i)
+        {
+            len = Math.max(len, wnafs[i].length);
+        }
+
+        ECPoint infinity = curve.getInfinity();
+
+        ECPoint R = infinity;
+        int zeroes = 0;
+
+        for (int i = len - 1; i >= 0; --i)
+        {
+            ECPoint r = infinity;
+            boolean nonZero = false;
+
+            for (int j = 0; j < count; ++j)
+            {
+                byte[] wnaf = wnafs[j];
+                int wi = i < wnaf.length ? wnaf[i] : 0;
+                if (wi != 0)
+                {
+                    int n = Math.abs(wi);
+                    WNafPreCompInfo info = infos[j];
+                    ECPoint[] table = (wi < 0 ^ negs[j]) ? info.getPreCompNeg() : info.getPreComp();
+                    r = r.add(table[n >>> 1]);
+                    nonZero = true;
+                }
+            }
+
+            if (!nonZero)
+            {
+                ++zeroes;
+                continue;
+            }
+
+            if (zeroes > 0)
+            {
+                R = R.timesPow2(zeroes);
+                zeroes = 0;
+            }
+
+            R = R.twicePlus(r);
+        }
+
+        if (zeroes > 0)
+        {
+            R = R.timesPow2(zeroes);
+        }
+
+        return R;
+    }
+
     static ECPoint implShamirsTrick(ECPoint P, BigInteger k,
         ECPoint Q, BigInteger l)
     {
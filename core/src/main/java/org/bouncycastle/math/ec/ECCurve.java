@@ -1,8 +1,10 @@
 package org.bouncycastle.math.ec;
 
 import java.math.BigInteger;
+import java.util.Hashtable;
 import java.util.Random;
 
+import org.bouncycastle.math.ec.endo.GLVEndomorphism;
 import org.bouncycastle.util.BigIntegers;
 
 /**
@@ -19,6 +21,9 @@
     public static final int COORD_LAMBDA_PROJECTIVE = 6;
     public static final int COORD_SKEWED = 7;
 
+    // where the single precomputation of the deprecated get/setPreCompInfo methods is kept
+    private static final String PRECOMP_NAME_DEFAULT = "bc_default";
+
     public static int[] getAllCoordinateSystems()
     {
         return new int[]{ COORD_AFFINE, COORD_HOMOGENEOUS, COORD_JACOBIAN, COORD_JACOBIAN_CHUDNOVSKY,
@@ -104,31 +109,86 @@ protected ECMultiplier createDefaultMultiplier()
         return new WNafL2RMultiplier();
     }
 
+    /**
+     * Return the GLV endomorphism for this curve, if it has one that is known.
+     *
+     * @return the curve's endomorphism, or null if none is available.
+     */
+    public GLVEndomorphism getEndomorphism()
+    {
+        return null;
+    }
+
     public boolean supportsCoordinateSystem(int coord)
     {
         return coord == COORD_AFFINE;
     }
 
+    /**
+     * @deprecated use {@link #getPreCompInfo(ECPoint, String)} with a name for the type of
+     * precomputation.
+     */
+    @Deprecated
     public PreCompInfo getPreCompInfo(ECPoint p)
     {
-        checkPoint(p);
-        return p.preCompInfo;
+        return getPreCompInfo(p, PRECOMP_NAME_DEFAULT);
+    }
+
+    /**
+     * Returns the <code>PreCompInfo</code> stored under the given name for a point on this curve,
+     * or <code>null</code> if there is none.
+     * 
+     * @param point
+     *            The <code>ECPoint</code> to retrieve precomputations for.
+     * @param name
+     *            A <code>String</code> used to index precomputations of different types.
+     * @return The values precomputed by the <code>ECMultiplier</code> that used <code>name</code>.
+     */
+    public PreCompInfo getPreCompInfo(ECPoint point, String name)
+    {
+        checkPoint(point);
+        synchronized (point)
+        {
+            Hashtable table = point.preCompTable;
+            return table == null ? null : (PreCompInfo)table.get(name);
+        }
     }
 
     /**
      * Sets the <code>PreCompInfo</code> for a point on this curve. Used by
      * <code>ECMultiplier</code>s to save the precomputation for this <code>ECPoint</code> for use
-     * by subsequent multiplication.
+     * by subsequent multiplication. Different multipliers use different names, so the
+     * precomputations of one don't displace those of another.
      * 
      * @param point
      *            The <code>ECPoint</code> to store precomputations for.
+     * @param name
+     *            A <code>String</code> used to index precomputations of different types.
      * @param preCompInfo
      *            The values precomputed by the <code>ECMultiplier</code>.
      */
-    public void setPreCompInfo(ECPoint point, PreCompInfo preCompInfo)
+    public void setPreCompInfo(ECPoint point, String name, PreCompInfo preCompInfo)
     {
         checkPoint(point);
-        point.preCompInfo = preCompInfo;
+        synchronized (point)
+        {
+            Hashtable table = point.preCompTable;
+            if (null == table)
+            {
+                point.preCompTable = table = new Hashtable(4);
+            }
+            table.put(name, preCompInfo);
+        }
+    }
+
+    /**
+     * @deprecated use {@link #setPreCompInfo(ECPoint, String, PreCompInfo)} with a name for the
+     * type of precomputation.
+     */
+    @Deprecated
+    public void setPreCompInfo(ECPoint point, PreCompInfo preCompInfo)
+    {
+        setPreCompInfo(point, PRECOMP_NAME_DEFAULT, preCompInfo);
     }
 
     public ECPoint importPoint(ECPoint p)
@@ -450,13 +510,15 @@ public boolean equals(
 
             ECCurve.Fp other = (ECCurve.Fp) anObject;
 
+            // compare values, the field elements may have different representations
             return this.q.equals(other.q) 
-                    && a.equals(other.a) && b.equals(other.b);
+                    && a.toBigInteger().equals(other.a.toBigInteger())
+                    && b.toBigInteger().equals(other.b.toBigInteger());
         }
 
         public int hashCode() 
         {
-            return a.hashCode() ^ b.hashCode() ^ q.hashCode();
+            return a.toBigInteger().hashCode() ^ b.toBigInteger().hashCode() ^ q.hashCode();
         }
     }
 
@@ -1,6 +1,7 @@
 package org.bouncycastle.math.ec;
 
 import java.math.BigInteger;
+import java.util.Hashtable;
 
 /**
  * base class for points on elliptic curves.
@@ -47,7 +48,8 @@ protected static ECFieldElement[] getInitialZCoords(ECCurve curve)
 
     protected boolean withCompression;
 
-    protected PreCompInfo preCompInfo = null;
+    // Hashtable is (String -> PreCompInfo)
+    protected Hashtable preCompTable = null;
 
     protected ECPoint(ECCurve curve, ECFieldElement x, ECFieldElement y)
     {
@@ -502,6 +504,21 @@ public Fp(ECCurve curve, ECFieldElement x, ECFieldElement y, boolean withCompres
             this.withCompression = withCompression;
         }
 
+        /**
+         * Return this point with its x coordinate multiplied by <code>scale</code>, for applying
+         * endomorphisms of the form (x, y) -> (beta * x, y).
+         */
+        public ECPoint scaleX(ECFieldElement scale)
+        {
+            if (isInfinity())
+            {
+                return this;
+            }
+
+            // in each supported coordinate system the affine x is X over some function of Z
+            return new ECPoint.Fp(this.getCurve(), this.x.multiply(scale), this.y, this.zs, this.withCompression);
+        }
+
         protected boolean getCompressionYTilde()
         {
             return getAffineYCoord().testBitZero();
@@ -0,0 +1,58 @@
+package org.bouncycastle.math.ec;
+
+import java.math.BigInteger;
+
+/**
+ * Class implementing the fixed-base comb method for multiplication (see "Guide to Elliptic Curve
+ * Cryptography", Algorithm 3.44). The comb table costs several hundred point operations to build,
+ * so this multiplier is only suitable for points that are multiplied many times, such as the
+ * base point of a set of domain parameters. The table is cached with the point.
+ */
+public class FixedPointCombMultiplier extends AbstractECMultiplier
+{
+    protected ECPoint multiplyPositive(ECPoint p, BigInteger k)
+    {
+        ECCurve c = p.getCurve();
+        int size = FixedPointUtil.getCombSize(c);
+
+        if (k.bitLength() > size)
+        {
+            // larger than any reduced scalar, so the table doesn't cover it
+            return c.createDefaultMultiplier().multiply(p, k);
+        }
+
+        int minWidth = getWidthForCombSize(size);
+
+        FixedPointPreCompInfo info = FixedPointUtil.precompute(p, minWidth);
+        ECPoint[] lookupTable = info.getPreComp();
+        int width = info.getWidth();
+
+        int d = (size + width - 1) / width;
+
+        ECPoint R = c.getInfinity();
+
+        int top = d * width - 1;
+        for (int i = 0; i < d; ++i)
+        {
+            int index = 0;
+
+            for (int j = top - i; j >= 0; j -= d)
+            {
+                index <<= 1;
+                if (k.testBit(j))
+                {
+                    index |= 1;
+                }
+            }
+
+            R = R.twicePlus(lookupTable[index]);
+        }
+
+        return R;
+    }
+
+    protected int getWidthForCombSize(int combSize)
+    {
+        return FixedPointUtil.getCombWidth(combSize);
+    }
+}
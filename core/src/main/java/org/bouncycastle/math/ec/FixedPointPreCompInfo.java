@@ -0,0 +1,36 @@
+package org.bouncycastle.math.ec;
+
+/**
+ * Class holding precomputation data for fixed-point multiplications.
+ */
+public class FixedPointPreCompInfo implements PreCompInfo
+{
+    /**
+     * Array holding the precomputed <code>ECPoint</code>s used for a fixed
+     * point multiplication.
+     */
+    protected final ECPoint[] preComp;
+
+    /**
+     * The width used for the precomputation. If a larger width precomputation
+     * is already available this may be larger than was requested, so calling
+     * code should refer to the actual width.
+     */
+    protected final int width;
+
+    public FixedPointPreCompInfo(ECPoint[] preComp, int width)
+    {
+        this.preComp = preComp;
+        this.width = width;
+    }
+
+    public ECPoint[] getPreComp()
+    {
+        return preComp;
+    }
+
+    public int getWidth()
+    {
+        return width;
+    }
+}
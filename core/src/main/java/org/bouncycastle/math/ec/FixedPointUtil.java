@@ -0,0 +1,118 @@
+package org.bouncycastle.math.ec;
+
+public class FixedPointUtil
+{
+    public static final String PRECOMP_NAME = "bc_fixed_point";
+
+    /**
+     * Return the number of bits of scalar the comb must cover. Any multiple of a point needed in
+     * practice is reduced modulo the point's order, which by Hasse's theorem is no more than one
+     * bit longer than the field size.
+     */
+    public static int getCombSize(ECCurve c)
+    {
+        return c.getFieldSize() + 1;
+    }
+
+    public static int getCombWidth(int combSize)
+    {
+        return combSize > 257 ? 6 : 5;
+    }
+
+    public static FixedPointPreCompInfo getFixedPointPreCompInfo(PreCompInfo preCompInfo)
+    {
+        if ((preCompInfo != null) && (preCompInfo instanceof FixedPointPreCompInfo))
+        {
+            return (FixedPointPreCompInfo)preCompInfo;
+        }
+
+        return null;
+    }
+
+    /**
+     * Return the multiplier to use for multiples of p: the comb, if p already has a comb table
+     * and isn't on a Koblitz curve, otherwise the curve's own multiplier. Building a table costs
+     * more than the multiplications it saves unless p is kept and reused, so tables are only
+     * built for long-lived points (see {@link #precompute(ECPoint)}).
+     */
+    public static ECMultiplier getMultiplier(ECPoint p)
+    {
+        ECCurve c = p.getCurve();
+
+        if (!isKoblitz(c) && getFixedPointPreCompInfo(c.getPreCompInfo(p, PRECOMP_NAME)) != null)
+        {
+            return new FixedPointCombMultiplier();
+        }
+
+        return c.getMultiplier();
+    }
+
+    /**
+     * Build the comb table for a point that will be kept, such as the generator of a named curve,
+     * so that {@link #getMultiplier(ECPoint)} will use the comb for it. Koblitz curves are left
+     * alone, as their own multiplier is already faster.
+     */
+    public static void precompute(ECPoint p)
+    {
+        ECCurve c = p.getCurve();
+
+        if (!isKoblitz(c))
+        {
+            precompute(p, getCombWidth(getCombSize(c)));
+        }
+    }
+
+    /**
+     * Build (or fetch) the comb table for p. The table is stored with the point, so for a fixed
+     * base such as the generator of a named curve it is only built once for the life of the
+     * process.
+     */
+    public static FixedPointPreCompInfo precompute(ECPoint p, int minWidth)
+    {
+        ECCurve c = p.getCurve();
+
+        FixedPointPreCompInfo info = getFixedPointPreCompInfo(c.getPreCompInfo(p, PRECOMP_NAME));
+        if (info != null && info.getWidth() >= minWidth)
+        {
+            return info;
+        }
+
+        int n = 1 << minWidth;
+        int bits = getCombSize(c);
+        int d = (bits + minWidth - 1) / minWidth;
+
+        ECPoint[] pow2Table = new ECPoint[minWidth];
+        pow2Table[0] = p;
+        for (int i = 1; i < minWidth; ++i)
+        {
+            pow2Table[i] = pow2Table[i - 1].timesPow2(d);
+        }
+        c.normalizeAll(pow2Table);
+
+        // lookupTable[i] is the sum of pow2Table[j] for each bit j set in i
+        ECPoint[] lookupTable = new ECPoint[n];
+        lookupTable[0] = c.getInfinity();
+
+        for (int bit = minWidth - 1; bit >= 0; --bit)
+        {
+            ECPoint pow2 = pow2Table[bit];
+
+            int step = 1 << bit;
+            for (int i = step; i < n; i += (step << 1))
+            {
+                lookupTable[i] = lookupTable[i - step].add(pow2);
+            }
+        }
+        c.normalizeAll(lookupTable);
+
+        info = new FixedPointPreCompInfo(lookupTable, minWidth);
+        c.setPreCompInfo(p, PRECOMP_NAME, info);
+
+        return info;
+    }
+
+    private static boolean isKoblitz(ECCurve c)
+    {
+        return c instanceof ECCurve.F2m && ((ECCurve.F2m)c).isKoblitz();
+    }
+}
@@ -4,6 +4,8 @@
 
 public abstract class WNafUtil
 {
+    public static final String PRECOMP_NAME = "bc_wnaf";
+
     private static int[] DEFAULT_WINDOW_SIZE_CUTOFFS = new int[]{ 13, 41, 121, 337, 897, 2305 };
 
     public static int[] generateCompactNaf(BigInteger k)
@@ -250,6 +252,11 @@ public static byte[] generateWindowNaf(int width, BigInteger k)
         return wnaf;
     }
 
+    public static WNafPreCompInfo getWNafPreCompInfo(ECPoint p)
+    {
+        return getWNafPreCompInfo(p.getCurve().getPreCompInfo(p, PRECOMP_NAME));
+    }
+
     public static WNafPreCompInfo getWNafPreCompInfo(PreCompInfo preCompInfo)
     {
         if ((preCompInfo != null) && (preCompInfo instanceof WNafPreCompInfo))
@@ -293,81 +300,89 @@ public static int getWindowSize(int bits, int[] windowSizeCutoffs)
 
     public static WNafPreCompInfo precompute(ECPoint p, int width, boolean includeNegated)
     {
-        ECCurve c = p.getCurve();
-        WNafPreCompInfo wnafPreCompInfo = getWNafPreCompInfo(c.getPreCompInfo(p));
-
-        ECPoint[] preComp = wnafPreCompInfo.getPreComp();
-        if (preComp == null)
+        /*
+         * The table is built up in place, so serialize callers sharing a point (e.g. a public key
+         * or the generator used from several threads). Tables only ever grow, so results already
+         * handed out remain valid.
+         */
+        synchronized (p)
         {
-            preComp = new ECPoint[]{ p };
-        }
-
-        int preCompLen = preComp.length;
-        int reqPreCompLen = 1 << Math.max(0, width - 2);
+            ECCurve c = p.getCurve();
+            WNafPreCompInfo wnafPreCompInfo = getWNafPreCompInfo(c.getPreCompInfo(p, PRECOMP_NAME));
 
-        if (preCompLen < reqPreCompLen)
-        {
-            ECPoint twiceP = wnafPreCompInfo.getTwiceP();
-            if (twiceP == null)
+            ECPoint[] preComp = wnafPreCompInfo.getPreComp();
+            if (preComp == null)
             {
-                twiceP = preComp[0].twice().normalize();
-                wnafPreCompInfo.setTwiceP(twiceP);
+                preComp = new ECPoint[]{ p };
             }
 
-            preComp = resizeTable(preComp, reqPreCompLen);
+            int preCompLen = preComp.length;
+            int reqPreCompLen = 1 << Math.max(0, width - 2);
 
-            /*
-             * TODO Okeya/Sakurai paper has precomputation trick and  "Montgomery's Trick" to speed this up.
-             * Also, co-Z arithmetic could avoid the subsequent normalization too.
-             */
-            for (int i = preCompLen; i < reqPreCompLen; i++)
+            if (preCompLen < reqPreCompLen)
             {
+                ECPoint twiceP = wnafPreCompInfo.getTwiceP();
+                if (twiceP == null)
+                {
+                    twiceP = preComp[0].twice().normalize();
+                    wnafPreCompInfo.setTwiceP(twiceP);
+                }
+
+                preComp = resizeTable(preComp, reqPreCompLen);
+
                 /*
-                 * Compute the new ECPoints for the precomputation array. The values 1, 3, 5, ...,
-                 * 2^(width-1)-1 times p are computed
+                 * TODO Okeya/Sakurai paper has precomputation trick and  "Montgomery's Trick" to speed this up.
+                 * Also, co-Z arithmetic could avoid the subsequent normalization too.
                  */
-                preComp[i] = twiceP.add(preComp[i - 1]);
-            }
+                for (int i = preCompLen; i < reqPreCompLen; i++)
+                {
+                    /*
+                     * Compute the new ECPoints for the precomputation array. The values 1, 3, 5, ...,
+                     * 2^(width-1)-1 times p are computed
+                     */
+                    preComp[i] = twiceP.add(preComp[i - 1]);
+                }
 
-            /*
-             * Having oft-used operands in affine form makes operations faster.
-             */
-            c.normalizeAll(preComp);
-        }
+                /*
+                 * Having oft-used operands in affine form makes operations faster.
+                 */
+                c.normalizeAll(preComp);
+            }
 
-        wnafPreCompInfo.setPreComp(preComp);
+            wnafPreCompInfo.setPreComp(preComp);
 
-        if (includeNegated)
-        {
-            ECPoint[] preCompNeg = wnafPreCompInfo.getPreCompNeg();
-            
-            int pos;
-            if (preCompNeg == null)
+            if (includeNegated)
             {
-                pos = 0;
-                preCompNeg = new ECPoint[reqPreCompLen]; 
-            }
-            else
-            {
-                pos = preCompNeg.length;
-                if (pos < reqPreCompLen)
+                ECPoint[] preCompNeg = wnafPreCompInfo.getPreCompNeg();
+            
+                int pos;
+                if (preCompNeg == null)
                 {
-                    preCompNeg = resizeTable(preCompNeg, reqPreCompLen);
+                    pos = 0;
+                    preCompNeg = new ECPoint[reqPreCompLen]; 
+                }
+                else
+                {
+                    pos = preCompNeg.length;
+                    if (pos < reqPreCompLen)
+                    {
+                        preCompNeg = resizeTable(preCompNeg, reqPreCompLen);
+                    }
                 }
-            }
 
-            while (pos < reqPreCompLen)
-            {
-                preCompNeg[pos] = preComp[pos].negate();
-                ++pos;
-            }
+                while (pos < reqPreCompLen)
+                {
+                    preCompNeg[pos] = preComp[pos].negate();
+                    ++pos;
+                }
 
-            wnafPreCompInfo.setPreCompNeg(preCompNeg);
-        }
+                wnafPreCompInfo.setPreCompNeg(preCompNeg);
+            }
 
-        c.setPreCompInfo(p, wnafPreCompInfo);
+            c.setPreCompInfo(p, PRECOMP_NAME, wnafPreCompInfo);
 
-        return wnafPreCompInfo;
+            return wnafPreCompInfo;
+        }
     }
 
     private static byte[] trim(byte[] a, int length)
@@ -8,6 +8,8 @@
  */
 public class WTauNafMultiplier extends AbstractECMultiplier
 {
+    static final String PRECOMP_NAME = "bc_wtnaf";
+
     /**
      * Multiplies a {@link org.bouncycastle.math.ec.ECPoint.F2m ECPoint.F2m}
      * by <code>k</code> using the reduced <code>&tau;</code>-adic NAF (RTNAF)
@@ -33,7 +35,7 @@ protected ECPoint multiplyPositive(ECPoint point, BigInteger k)
 
         ZTauElement rho = Tnaf.partModReduction(k, m, a, s, mu, (byte)10);
 
-        return multiplyWTnaf(p, rho, curve.getPreCompInfo(p), a, mu);
+        return multiplyWTnaf(p, rho, curve.getPreCompInfo(p, PRECOMP_NAME), a, mu);
     }
 
     /**
@@ -87,7 +89,7 @@ private static ECPoint.F2m multiplyFromWTnaf(ECPoint.F2m p, byte[] u,
         if ((preCompInfo == null) || !(preCompInfo instanceof WTauNafPreCompInfo))
         {
             pu = Tnaf.getPreComp(p, a);
-            curve.setPreCompInfo(p, new WTauNafPreCompInfo(pu));
+            curve.setPreCompInfo(p, PRECOMP_NAME, new WTauNafPreCompInfo(pu));
         }
         else
         {
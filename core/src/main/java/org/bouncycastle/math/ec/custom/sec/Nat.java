@@ -0,0 +1,240 @@
+package org.bouncycastle.math.ec.custom.sec;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic on fixed length natural numbers, stored as little-endian arrays of 32 bit words.
+ * Used by the field implementations in this package in place of BigInteger.
+ */
+public abstract class Nat
+{
+    private static final long M = 0xFFFFFFFFL;
+
+    public static int add(int len, int[] x, int[] y, int[] z)
+    {
+        long c = 0;
+        for (int i = 0; i < len; ++i)
+        {
+            c += (x[i] & M) + (y[i] & M);
+            z[i] = (int)c;
+            c >>>= 32;
+        }
+        return (int)c;
+    }
+
+    /**
+     * @return the borrow, either 0 or -1.
+     */
+    public static int sub(int len, int[] x, int[] y, int[] z)
+    {
+        long c = 0;
+        for (int i = 0; i < len; ++i)
+        {
+            c += (x[i] & M) - (y[i] & M);
+            z[i] = (int)c;
+            c >>= 32;
+        }
+        return (int)c;
+    }
+
+    public static int inc(int len, int[] x, int[] z)
+    {
+        long c = 1;
+        for (int i = 0; i < len; ++i)
+        {
+            c += (x[i] & M);
+            z[i] = (int)c;
+            c >>>= 32;
+        }
+        return (int)c;
+    }
+
+    public static int[] copy(int len, int[] x)
+    {
+        int[] z = new int[len];
+        System.arraycopy(x, 0, z, 0, len);
+        return z;
+    }
+
+    public static boolean eq(int len, int[] x, int[] y)
+    {
+        for (int i = len - 1; i >= 0; --i)
+        {
+            if (x[i] != y[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean gte(int len, int[] x, int[] y)
+    {
+        for (int i = len - 1; i >= 0; --i)
+        {
+            int x_i = x[i] ^ Integer.MIN_VALUE;
+            int y_i = y[i] ^ Integer.MIN_VALUE;
+            if (x_i < y_i)
+            {
+                return false;
+            }
+            if (x_i > y_i)
+            {
+                return true;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isOne(int len, int[] x)
+    {
+        if (x[0] != 1)
+        {
+            return false;
+        }
+        for (int i = 1; i < len; ++i)
+        {
+            if (x[i] != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static boolean isZero(int len, int[] x)
+    {
+        for (int i = 0; i < len; ++i)
+        {
+            if (x[i] != 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int bitLength(int len, int[] x)
+    {
+        for (int i = len - 1; i >= 0; --i)
+        {
+            int x_i = x[i];
+            if (x_i != 0)
+            {
+                return (i << 5) + 32 - Integer.numberOfLeadingZeros(x_i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Schoolbook multiplication, zz must have space for 2 * len words.
+     */
+    public static void mul(int len, int[] x, int[] y, int[] zz)
+    {
+        long c = 0, y_0 = y[0] & M;
+        for (int i = 0; i < len; ++i)
+        {
+            c += (x[i] & M) * y_0;
+            zz[i] = (int)c;
+            c >>>= 32;
+        }
+        zz[len] = (int)c;
+
+        for (int j = 1; j < len; ++j)
+        {
+            long y_j = y[j] & M;
+            c = 0;
+            for (int i = 0; i < len; ++i)
+            {
+                c += (x[i] & M) * y_j + (zz[i + j] & M);
+                zz[i + j] = (int)c;
+                c >>>= 32;
+            }
+            zz[j + len] = (int)c;
+        }
+    }
+
+    /**
+     * Squaring, computing each cross product only once. zz must have space for 2 * len words.
+     */
+    public static void square(int len, int[] x, int[] zz)
+    {
+        int extLen = len << 1;
+        for (int i = 0; i < extLen; ++i)
+        {
+            zz[i] = 0;
+        }
+
+        for (int i = 0; i < len - 1; ++i)
+        {
+            long c = 0, x_i = x[i] & M;
+            for (int j = i + 1; j < len; ++j)
+            {
+                c += x_i * (x[j] & M) + (zz[i + j] & M);
+                zz[i + j] = (int)c;
+                c >>>= 32;
+            }
+            zz[i + len] = (int)c;
+        }
+
+        // double the cross products
+        int prev = 0;
+        for (int i = 0; i < extLen; ++i)
+        {
+            int next = zz[i];
+            zz[i] = (next << 1) | (prev >>> 31);
+            prev = next;
+        }
+
+        // and add in the squares on the diagonal
+        long c = 0;
+        for (int i = 0; i < len; ++i)
+        {
+            long x_i = x[i] & M;
+            long p = x_i * x_i;
+            c += (zz[i << 1] & M) + (p & M);
+            zz[i << 1] = (int)c;
+            c >>>= 32;
+            c += (zz[(i << 1) + 1] & M) + (p >>> 32);
+            zz[(i << 1) + 1] = (int)c;
+            c >>>= 32;
+        }
+    }
+
+    public static int[] fromBigInteger(int bits, BigInteger x)
+    {
+        if (x.signum() < 0 || x.bitLength() > bits)
+        {
+            throw new IllegalArgumentException();
+        }
+
+        int len = (bits + 31) >> 5;
+        int[] z = new int[len];
+        int i = 0;
+        while (x.signum() != 0)
+        {
+            z[i++] = x.intValue();
+            x = x.shiftRight(32);
+        }
+        return z;
+    }
+
+    public static BigInteger toBigInteger(int len, int[] x)
+    {
+        byte[] bs = new byte[len << 2];
+        for (int i = 0; i < len; ++i)
+        {
+            int x_i = x[i];
+            if (x_i != 0)
+            {
+                int off = (len - 1 - i) << 2;
+                bs[off    ] = (byte)(x_i >>> 24);
+                bs[off + 1] = (byte)(x_i >>> 16);
+                bs[off + 2] = (byte)(x_i >>> 8);
+                bs[off + 3] = (byte)x_i;
+            }
+        }
+        return new BigInteger(1, bs);
+    }
+}
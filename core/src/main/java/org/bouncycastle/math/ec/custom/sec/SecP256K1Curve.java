@@ -0,0 +1,59 @@
+package org.bouncycastle.math.ec.custom.sec;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.math.ec.ECConstants;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECFieldElement;
+import org.bouncycastle.math.ec.endo.GLVEndomorphism;
+import org.bouncycastle.math.ec.endo.GLVTypeBEndomorphism;
+import org.bouncycastle.math.ec.endo.GLVTypeBParameters;
+import org.bouncycastle.util.encoders.Hex;
+
+/**
+ * The curve secp256k1, with field arithmetic on fixed width int arrays.
+ */
+public class SecP256K1Curve extends ECCurve.Fp
+{
+    public static final BigInteger q = new BigInteger(1,
+        Hex.decode("FFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFFEFFFFFC2F"));
+
+    private static final GLVTypeBParameters GLV_PARAMETERS = new GLVTypeBParameters(
+        new BigInteger("7ae96a2b657c07106e64479eac3434e99cf0497512f58995c1396c28719501ee", 16),
+        new BigInteger("5363ad4cc05c30e0a5261c028812645a122e22ea20816678df02967c1b23bd72", 16),
+        new BigInteger[]{
+            new BigInteger("3086d221a7d46bcde86c90e49284eb15", 16),
+            new BigInteger("-e4437ed6010e88286f547fa90abfe4c3", 16) },
+        new BigInteger[]{
+            new BigInteger("114ca50f7a8e2f3f657c1108d9d44cfd8", 16),
+            new BigInteger("3086d221a7d46bcde86c90e49284eb15", 16) },
+        new BigInteger("3086d221a7d46bcde86c90e49284eb153dab", 16),
+        new BigInteger("e4437ed6010e88286f547fa90abfe4c42212", 16),
+        272);
+
+    private final GLVEndomorphism endomorphism;
+
+    public SecP256K1Curve()
+    {
+        super(q, null,
+            new SecP256K1FieldElement(ECConstants.ZERO),
+            new SecP256K1FieldElement(BigInteger.valueOf(7)));
+
+        this.endomorphism = new GLVTypeBEndomorphism(this, GLV_PARAMETERS);
+    }
+
+    protected ECCurve cloneCurve()
+    {
+        return new SecP256K1Curve();
+    }
+
+    public ECFieldElement fromBigInteger(BigInteger x)
+    {
+        return new SecP256K1FieldElement(x);
+    }
+
+    public GLVEndomorphism getEndomorphism()
+    {
+        return endomorphism;
+    }
+}
@@ -0,0 +1,128 @@
+package org.bouncycastle.math.ec.custom.sec;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic modulo p = 2^256 - 2^32 - 977, reducing using 2^256 = 2^32 + 977 (mod p).
+ */
+public class SecP256K1Field
+{
+    private static final long M = 0xFFFFFFFFL;
+
+    // 2^256 - 2^32 - 2^9 - 2^8 - 2^7 - 2^6 - 2^4 - 1
+    static final int[] P = new int[]{ 0xFFFFFC2F, 0xFFFFFFFE, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF,
+        0xFFFFFFFF, 0xFFFFFFFF };
+    // 2^256 - p = 2^32 + PInvLow
+    private static final long PInvLow = 0x3D1L;
+
+    public static void add(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.add(8, x, y, z);
+        if (c != 0 || Nat.gte(8, z, P))
+        {
+            Nat.sub(8, z, P, z);
+        }
+    }
+
+    public static void addOne(int[] x, int[] z)
+    {
+        int c = Nat.inc(8, x, z);
+        if (c != 0 || Nat.gte(8, z, P))
+        {
+            Nat.sub(8, z, P, z);
+        }
+    }
+
+    public static int[] fromBigInteger(BigInteger x)
+    {
+        int[] z = Nat.fromBigInteger(256, x);
+        if (Nat.gte(8, z, P))
+        {
+            Nat.sub(8, z, P, z);
+        }
+        return z;
+    }
+
+    public static void multiply(int[] x, int[] y, int[] z)
+    {
+        int[] tt = new int[16];
+        Nat.mul(8, x, y, tt);
+        reduce(tt, z);
+    }
+
+    public static void negate(int[] x, int[] z)
+    {
+        if (Nat.isZero(8, x))
+        {
+            System.arraycopy(x, 0, z, 0, 8);
+        }
+        else
+        {
+            Nat.sub(8, P, x, z);
+        }
+    }
+
+    public static void reduce(int[] xx, int[] z)
+    {
+        long cc = 0;
+        for (int i = 0; i < 8; ++i)
+        {
+            cc += (xx[i] & M) + (xx[i + 8] & M) * PInvLow;
+            if (i > 0)
+            {
+                cc += (xx[i + 7] & M);
+            }
+            z[i] = (int)cc;
+            cc >>>= 32;
+        }
+        cc += (xx[15] & M);
+
+        reduce64(cc, z);
+    }
+
+    /**
+     * Fold an overflow x (representing x * 2^256, with x below 2^40) back into z, using
+     * 2^256 = 2^32 + 977 (mod p), and leave z fully reduced.
+     */
+    public static void reduce64(long x, int[] z)
+    {
+        while (x != 0)
+        {
+            long cc = (z[0] & M) + x * PInvLow;
+            z[0] = (int)cc;
+            cc >>>= 32;
+            cc += (z[1] & M) + x;
+            z[1] = (int)cc;
+            cc >>>= 32;
+            for (int i = 2; i < 8 && cc != 0; ++i)
+            {
+                cc += (z[i] & M);
+                z[i] = (int)cc;
+                cc >>>= 32;
+            }
+
+            x = cc;
+        }
+
+        if (Nat.gte(8, z, P))
+        {
+            Nat.sub(8, z, P, z);
+        }
+    }
+
+    public static void square(int[] x, int[] z)
+    {
+        int[] tt = new int[16];
+        Nat.square(8, x, tt);
+        reduce(tt, z);
+    }
+
+    public static void subtract(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.sub(8, x, y, z);
+        if (c != 0)
+        {
+            Nat.add(8, z, P, z);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package org.bouncycastle.math.ec.custom.sec;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.math.ec.ECFieldElement;
+
+/**
+ * An element of the field of the curve secp256k1.
+ */
+public class SecP256K1FieldElement extends ECFieldElement
+{
+    public static final BigInteger Q = SecP256K1Curve.q;
+
+    // Q = 3 mod 4, so a square root of x, if one exists, is x^((Q + 1) / 4)
+    private static final BigInteger SQRT_EXPONENT = Q.shiftRight(2).add(ONE);
+
+    protected int[] x;
+
+    public SecP256K1FieldElement(BigInteger x)
+    {
+        if (x == null || x.signum() < 0 || x.compareTo(Q) >= 0)
+        {
+            throw new IllegalArgumentException("x value invalid for SecP256K1FieldElement");
+        }
+
+        this.x = SecP256K1Field.fromBigInteger(x);
+    }
+
+    protected SecP256K1FieldElement(int[] x)
+    {
+        this.x = x;
+    }
+
+    public boolean isZero()
+    {
+        return Nat.isZero(8, x);
+    }
+
+    public boolean testBitZero()
+    {
+        return (x[0] & 1) == 1;
+    }
+
+    public int bitLength()
+    {
+        return Nat.bitLength(8, x);
+    }
+
+    public BigInteger toBigInteger()
+    {
+        return Nat.toBigInteger(8, x);
+    }
+
+    public String getFieldName()
+    {
+        return "SecP256K1Field";
+    }
+
+    public int getFieldSize()
+    {
+        return Q.bitLength();
+    }
+
+    public ECFieldElement add(ECFieldElement b)
+    {
+        int[] z = new int[8];
+        SecP256K1Field.add(x, ((SecP256K1FieldElement)b).x, z);
+        return new SecP256K1FieldElement(z);
+    }
+
+    public ECFieldElement addOne()
+    {
+        int[] z = new int[8];
+        SecP256K1Field.addOne(x, z);
+        return new SecP256K1FieldElement(z);
+    }
+
+    public ECFieldElement subtract(ECFieldElement b)
+    {
+        int[] z = new int[8];
+        SecP256K1Field.subtract(x, ((SecP256K1FieldElement)b).x, z);
+        return new SecP256K1FieldElement(z);
+    }
+
+    public ECFieldElement multiply(ECFieldElement b)
+    {
+        int[] z = new int[8];
+        SecP256K1Field.multiply(x, ((SecP256K1FieldElement)b).x, z);
+        return new SecP256K1FieldElement(z);
+    }
+
+    public ECFieldElement divide(ECFieldElement b)
+    {
+        return multiply(b.invert());
+    }
+
+    public ECFieldElement negate()
+    {
+        int[] z = new int[8];
+        SecP256K1Field.negate(x, z);
+        return new SecP256K1FieldElement(z);
+    }
+
+    public ECFieldElement square()
+    {
+        int[] z = new int[8];
+        SecP256K1Field.square(x, z);
+        return new SecP256K1FieldElement(z);
+    }
+
+    public ECFieldElement invert()
+    {
+        return new SecP256K1FieldElement(toBigInteger().modInverse(Q));
+    }
+
+    /**
+     * return a sqrt root - the routine verifies that the calculation returns the right value - if
+     * none exists it returns null.
+     */
+    public ECFieldElement sqrt()
+    {
+        int[] x1 = this.x;
+        if (Nat.isZero(8, x1) || Nat.isOne(8, x1))
+        {
+            return this;
+        }
+
+        int[] t1 = Nat.copy(8, x1);
+        for (int i = SQRT_EXPONENT.bitLength() - 2; i >= 0; --i)
+        {
+            SecP256K1Field.square(t1, t1);
+            if (SQRT_EXPONENT.testBit(i))
+            {
+                SecP256K1Field.multiply(t1, x1, t1);
+            }
+        }
+
+        int[] t2 = new int[8];
+        SecP256K1Field.square(t1, t2);
+
+        return Nat.eq(8, x1, t2) ? new SecP256K1FieldElement(t1) : null;
+    }
+
+    public boolean equals(Object other)
+    {
+        if (other == this)
+        {
+            return true;
+        }
+
+        if (!(other instanceof SecP256K1FieldElement))
+        {
+            return false;
+        }
+
+        SecP256K1FieldElement o = (SecP256K1FieldElement)other;
+        return Nat.eq(8, x, o.x);
+    }
+
+    public int hashCode()
+    {
+        // consistent with ECFieldElement.Fp, points may be compared across representations
+        return Q.hashCode() ^ toBigInteger().hashCode();
+    }
+}
@@ -0,0 +1,35 @@
+package org.bouncycastle.math.ec.custom.sec;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECFieldElement;
+import org.bouncycastle.util.encoders.Hex;
+
+/**
+ * The curve secp256r1 (NIST P-256), with field arithmetic on fixed width int arrays.
+ */
+public class SecP256R1Curve extends ECCurve.Fp
+{
+    public static final BigInteger q = new BigInteger(1,
+        Hex.decode("FFFFFFFF00000001000000000000000000000000FFFFFFFFFFFFFFFFFFFFFFFF"));
+
+    public SecP256R1Curve()
+    {
+        super(q, null,
+            new SecP256R1FieldElement(new BigInteger(1,
+                Hex.decode("FFFFFFFF00000001000000000000000000000000FFFFFFFFFFFFFFFFFFFFFFFC"))),
+            new SecP256R1FieldElement(new BigInteger(1,
+                Hex.decode("5AC635D8AA3A93E7B3EBBD55769886BC651D06B0CC53B0F63BCE3C3E27D2604B"))));
+    }
+
+    protected ECCurve cloneCurve()
+    {
+        return new SecP256R1Curve();
+    }
+
+    public ECFieldElement fromBigInteger(BigInteger x)
+    {
+        return new SecP256R1FieldElement(x);
+    }
+}
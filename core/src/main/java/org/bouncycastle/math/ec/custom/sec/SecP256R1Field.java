@@ -0,0 +1,158 @@
+package org.bouncycastle.math.ec.custom.sec;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic modulo p = 2^256 - 2^224 + 2^192 + 2^96 - 1, using the fast reduction
+ * for generalized Mersenne primes from FIPS 186-4, D.2.3.
+ */
+public class SecP256R1Field
+{
+    private static final long M = 0xFFFFFFFFL;
+
+    // 2^256 - 2^224 + 2^192 + 2^96 - 1
+    static final int[] P = new int[]{ 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0x00000000, 0x00000000, 0x00000000,
+        0x00000001, 0xFFFFFFFF };
+
+    public static void add(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.add(8, x, y, z);
+        if (c != 0 || Nat.gte(8, z, P))
+        {
+            Nat.sub(8, z, P, z);
+        }
+    }
+
+    public static void addOne(int[] x, int[] z)
+    {
+        int c = Nat.inc(8, x, z);
+        if (c != 0 || Nat.gte(8, z, P))
+        {
+            Nat.sub(8, z, P, z);
+        }
+    }
+
+    public static int[] fromBigInteger(BigInteger x)
+    {
+        int[] z = Nat.fromBigInteger(256, x);
+        if (Nat.gte(8, z, P))
+        {
+            Nat.sub(8, z, P, z);
+        }
+        return z;
+    }
+
+    public static void multiply(int[] x, int[] y, int[] z)
+    {
+        int[] tt = new int[16];
+        Nat.mul(8, x, y, tt);
+        reduce(tt, z);
+    }
+
+    public static void negate(int[] x, int[] z)
+    {
+        if (Nat.isZero(8, x))
+        {
+            System.arraycopy(x, 0, z, 0, 8);
+        }
+        else
+        {
+            Nat.sub(8, P, x, z);
+        }
+    }
+
+    public static void reduce(int[] xx, int[] z)
+    {
+        long xx08 = xx[8] & M, xx09 = xx[9] & M, xx10 = xx[10] & M, xx11 = xx[11] & M;
+        long xx12 = xx[12] & M, xx13 = xx[13] & M, xx14 = xx[14] & M, xx15 = xx[15] & M;
+
+        long cc = 0;
+        cc += (xx[0] & M) + xx08 + xx09 - xx11 - xx12 - xx13 - xx14;
+        z[0] = (int)cc;
+        cc >>= 32;
+        cc += (xx[1] & M) + xx09 + xx10 - xx12 - xx13 - xx14 - xx15;
+        z[1] = (int)cc;
+        cc >>= 32;
+        cc += (xx[2] & M) + xx10 + xx11 - xx13 - xx14 - xx15;
+        z[2] = (int)cc;
+        cc >>= 32;
+        cc += (xx[3] & M) + ((xx11 + xx12) << 1) + xx13 - xx15 - xx08 - xx09;
+        z[3] = (int)cc;
+        cc >>= 32;
+        cc += (xx[4] & M) + ((xx12 + xx13) << 1) + xx14 - xx09 - xx10;
+        z[4] = (int)cc;
+        cc >>= 32;
+        cc += (xx[5] & M) + ((xx13 + xx14) << 1) + xx15 - xx10 - xx11;
+        z[5] = (int)cc;
+        cc >>= 32;
+        cc += (xx[6] & M) + ((xx14 + xx15) << 1) + xx14 + xx13 - xx08 - xx09;
+        z[6] = (int)cc;
+        cc >>= 32;
+        cc += (xx[7] & M) + (xx15 << 1) + xx15 + xx08 - xx10 - xx11 - xx12 - xx13;
+        z[7] = (int)cc;
+        cc >>= 32;
+
+        reduce32((int)cc, z);
+    }
+
+    /**
+     * Fold a small signed overflow word x (representing x * 2^256) back into z, using
+     * 2^256 = 2^224 - 2^192 - 2^96 + 1 (mod p), and leave z fully reduced.
+     */
+    public static void reduce32(int x, int[] z)
+    {
+        while (x != 0)
+        {
+            long xx08 = x;
+
+            long cc = 0;
+            cc += (z[0] & M) + xx08;
+            z[0] = (int)cc;
+            cc >>= 32;
+            cc += (z[1] & M);
+            z[1] = (int)cc;
+            cc >>= 32;
+            cc += (z[2] & M);
+            z[2] = (int)cc;
+            cc >>= 32;
+            cc += (z[3] & M) - xx08;
+            z[3] = (int)cc;
+            cc >>= 32;
+            cc += (z[4] & M);
+            z[4] = (int)cc;
+            cc >>= 32;
+            cc += (z[5] & M);
+            z[5] = (int)cc;
+            cc >>= 32;
+            cc += (z[6] & M) - xx08;
+            z[6] = (int)cc;
+            cc >>= 32;
+            cc += (z[7] & M) + xx08;
+            z[7] = (int)cc;
+            cc >>= 32;
+
+            x = (int)cc;
+        }
+
+        if (Nat.gte(8, z, P))
+        {
+            Nat.sub(8, z, P, z);
+        }
+    }
+
+    public static void square(int[] x, int[] z)
+    {
+        int[] tt = new int[16];
+        Nat.square(8, x, tt);
+        reduce(tt, z);
+    }
+
+    public static void subtract(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.sub(8, x, y, z);
+        if (c != 0)
+        {
+            Nat.add(8, z, P, z);
+        }
+    }
+}
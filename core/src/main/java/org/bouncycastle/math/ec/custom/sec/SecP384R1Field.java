@@ -0,0 +1,183 @@
+package org.bouncycastle.math.ec.custom.sec;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic modulo p = 2^384 - 2^128 - 2^96 + 2^32 - 1, using the fast reduction
+ * for generalized Mersenne primes from FIPS 186-4, D.2.4.
+ */
+public class SecP384R1Field
+{
+    private static final long M = 0xFFFFFFFFL;
+
+    // 2^384 - 2^128 - 2^96 + 2^32 - 1
+    static final int[] P = new int[]{ 0xFFFFFFFF, 0x00000000, 0x00000000, 0xFFFFFFFF, 0xFFFFFFFE, 0xFFFFFFFF,
+        0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF };
+
+    public static void add(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.add(12, x, y, z);
+        if (c != 0 || Nat.gte(12, z, P))
+        {
+            Nat.sub(12, z, P, z);
+        }
+    }
+
+    public static void addOne(int[] x, int[] z)
+    {
+        int c = Nat.inc(12, x, z);
+        if (c != 0 || Nat.gte(12, z, P))
+        {
+            Nat.sub(12, z, P, z);
+        }
+    }
+
+    public static int[] fromBigInteger(BigInteger x)
+    {
+        int[] z = Nat.fromBigInteger(384, x);
+        if (Nat.gte(12, z, P))
+        {
+            Nat.sub(12, z, P, z);
+        }
+        return z;
+    }
+
+    public static void multiply(int[] x, int[] y, int[] z)
+    {
+        int[] tt = new int[24];
+        Nat.mul(12, x, y, tt);
+        reduce(tt, z);
+    }
+
+    public static void negate(int[] x, int[] z)
+    {
+        if (Nat.isZero(12, x))
+        {
+            System.arraycopy(x, 0, z, 0, 8);
+        }
+        else
+        {
+            Nat.sub(12, P, x, z);
+        }
+    }
+
+    public static void reduce(int[] xx, int[] z)
+    {
+        long xx12 = xx[12] & M, xx13 = xx[13] & M, xx14 = xx[14] & M, xx15 = xx[15] & M;
+        long xx16 = xx[16] & M, xx17 = xx[17] & M, xx18 = xx[18] & M, xx19 = xx[19] & M;
+        long xx20 = xx[20] & M, xx21 = xx[21] & M, xx22 = xx[22] & M, xx23 = xx[23] & M;
+
+        long cc = 0;
+        cc += (xx[0] & M) + xx12 + xx21 + xx20 - xx23;
+        z[0] = (int)cc;
+        cc >>= 32;
+        cc += (xx[1] & M) + xx13 + xx22 + xx23 - xx12 - xx20;
+        z[1] = (int)cc;
+        cc >>= 32;
+        cc += (xx[2] & M) + xx14 + xx23 - xx13 - xx21;
+        z[2] = (int)cc;
+        cc >>= 32;
+        cc += (xx[3] & M) + xx15 + xx12 + xx20 + xx21 - xx14 - xx22 - xx23;
+        z[3] = (int)cc;
+        cc >>= 32;
+        cc += (xx[4] & M) + (xx21 << 1) + xx16 + xx13 + xx12 + xx20 + xx22 - xx15 - (xx23 << 1);
+        z[4] = (int)cc;
+        cc >>= 32;
+        cc += (xx[5] & M) + (xx22 << 1) + xx17 + xx14 + xx13 + xx21 + xx23 - xx16;
+        z[5] = (int)cc;
+        cc >>= 32;
+        cc += (xx[6] & M) + (xx23 << 1) + xx18 + xx15 + xx14 + xx22 - xx17;
+        z[6] = (int)cc;
+        cc >>= 32;
+        cc += (xx[7] & M) + xx19 + xx16 + xx15 + xx23 - xx18;
+        z[7] = (int)cc;
+        cc >>= 32;
+        cc += (xx[8] & M) + xx20 + xx17 + xx16 - xx19;
+        z[8] = (int)cc;
+        cc >>= 32;
+        cc += (xx[9] & M) + xx21 + xx18 + xx17 - xx20;
+        z[9] = (int)cc;
+        cc >>= 32;
+        cc += (xx[10] & M) + xx22 + xx19 + xx18 - xx21;
+        z[10] = (int)cc;
+        cc >>= 32;
+        cc += (xx[11] & M) + xx23 + xx20 + xx19 - xx22;
+        z[11] = (int)cc;
+        cc >>= 32;
+
+        reduce32((int)cc, z);
+    }
+
+    /**
+     * Fold a small signed overflow word x (representing x * 2^384) back into z, using
+     * 2^384 = 2^128 + 2^96 - 2^32 + 1 (mod p), and leave z fully reduced.
+     */
+    public static void reduce32(int x, int[] z)
+    {
+        while (x != 0)
+        {
+            long xx12 = x;
+
+            long cc = 0;
+            cc += (z[0] & M) + xx12;
+            z[0] = (int)cc;
+            cc >>= 32;
+            cc += (z[1] & M) - xx12;
+            z[1] = (int)cc;
+            cc >>= 32;
+            cc += (z[2] & M);
+            z[2] = (int)cc;
+            cc >>= 32;
+            cc += (z[3] & M) + xx12;
+            z[3] = (int)cc;
+            cc >>= 32;
+            cc += (z[4] & M) + xx12;
+            z[4] = (int)cc;
+            cc >>= 32;
+            cc += (z[5] & M);
+            z[5] = (int)cc;
+            cc >>= 32;
+            cc += (z[6] & M);
+            z[6] = (int)cc;
+            cc >>= 32;
+            cc += (z[7] & M);
+            z[7] = (int)cc;
+            cc >>= 32;
+            cc += (z[8] & M);
+            z[8] = (int)cc;
+            cc >>= 32;
+            cc += (z[9] & M);
+            z[9] = (int)cc;
+            cc >>= 32;
+            cc += (z[10] & M);
+            z[10] = (int)cc;
+            cc >>= 32;
+            cc += (z[11] & M);
+            z[11] = (int)cc;
+            cc >>= 32;
+
+            x = (int)cc;
+        }
+
+        if (Nat.gte(12, z, P))
+        {
+            Nat.sub(12, z, P, z);
+        }
+    }
+
+    public static void square(int[] x, int[] z)
+    {
+        int[] tt = new int[24];
+        Nat.square(12, x, tt);
+        reduce(tt, z);
+    }
+
+    public static void subtract(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.sub(12, x, y, z);
+        if (c != 0)
+        {
+            Nat.add(12, z, P, z);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.bouncycastle.math.ec.custom.sec;
+
+import java.math.BigInteger;
+
+/**
+ * Arithmetic modulo the Mersenne prime p = 2^521 - 1, reducing by folding the bits above
+ * position 521 back onto the low bits.
+ */
+public class SecP521R1Field
+{
+    private static final long M = 0xFFFFFFFFL;
+
+    // 2^521 - 1
+    static final int[] P = new int[]{ 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF,
+        0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF, 0xFFFFFFFF,
+        0xFFFFFFFF, 0x1FF };
+
+    public static void add(int[] x, int[] y, int[] z)
+    {
+        Nat.add(17, x, y, z);
+        reduce23(z);
+    }
+
+    public static void addOne(int[] x, int[] z)
+    {
+        Nat.inc(17, x, z);
+        reduce23(z);
+    }
+
+    public static int[] fromBigInteger(BigInteger x)
+    {
+        int[] z = Nat.fromBigInteger(521, x);
+        if (Nat.eq(17, z, P))
+        {
+            Nat.sub(17, z, P, z);
+        }
+        return z;
+    }
+
+    public static void multiply(int[] x, int[] y, int[] z)
+    {
+        int[] tt = new int[34];
+        Nat.mul(17, x, y, tt);
+        reduce(tt, z);
+    }
+
+    public static void negate(int[] x, int[] z)
+    {
+        if (Nat.isZero(17, x))
+        {
+            System.arraycopy(x, 0, z, 0, 17);
+        }
+        else
+        {
+            Nat.sub(17, P, x, z);
+        }
+    }
+
+    public static void reduce(int[] xx, int[] z)
+    {
+        // z = (xx mod 2^521) + (xx >>> 521), the product of two reduced values being below 2^1042
+        long cc = 0;
+        for (int i = 0; i < 16; ++i)
+        {
+            cc += (xx[i] & M) + (((xx[i + 16] >>> 9) | (xx[i + 17] << 23)) & M);
+            z[i] = (int)cc;
+            cc >>>= 32;
+        }
+        cc += (xx[16] & 0x1FF) + (((xx[32] >>> 9) | (xx[33] << 23)) & M);
+        z[16] = (int)cc;
+
+        reduce23(z);
+    }
+
+    /**
+     * Fold any bits of z at position 521 and above back onto the low bits, z being below
+     * 2^522 - 1, and leave z fully reduced.
+     */
+    public static void reduce23(int[] z)
+    {
+        int c = z[16] >>> 9;
+        z[16] &= 0x1FF;
+
+        if (c != 0)
+        {
+            long cc = (z[0] & M) + c;
+            z[0] = (int)cc;
+            cc >>>= 32;
+            for (int i = 1; i < 17 && cc != 0; ++i)
+            {
+                cc += (z[i] & M);
+                z[i] = (int)cc;
+                cc >>>= 32;
+            }
+        }
+
+        if (Nat.eq(17, z, P))
+        {
+            Nat.sub(17, z, P, z);
+        }
+    }
+
+    public static void square(int[] x, int[] z)
+    {
+        int[] tt = new int[34];
+        Nat.square(17, x, tt);
+        reduce(tt, z);
+    }
+
+    public static void subtract(int[] x, int[] y, int[] z)
+    {
+        int c = Nat.sub(17, x, y, z);
+        if (c != 0)
+        {
+            Nat.add(17, z, P, z);
+        }
+    }
+}
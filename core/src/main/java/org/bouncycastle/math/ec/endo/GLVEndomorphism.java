@@ -0,0 +1,30 @@
+package org.bouncycastle.math.ec.endo;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.math.ec.ECPoint;
+
+/**
+ * An efficiently computable endomorphism phi of a curve, acting on the points of the curve's
+ * prime order subgroup as multiplication by some lambda, as used by the
+ * Gallant-Lambert-Vanstone method to halve the length of scalars.
+ */
+public interface GLVEndomorphism
+{
+    /**
+     * Apply the endomorphism to a point.
+     *
+     * @param p a point on the curve.
+     * @return phi(p), which is lambda * p for p in the prime order subgroup.
+     */
+    ECPoint mapPoint(ECPoint p);
+
+    /**
+     * Split a scalar k into two scalars {k0, k1} of about half the size of the group order, such
+     * that k = k0 + k1 * lambda (mod n). Either of the results may be negative.
+     *
+     * @param k the scalar to split.
+     * @return the two halves of k.
+     */
+    BigInteger[] decomposeScalar(BigInteger k);
+}
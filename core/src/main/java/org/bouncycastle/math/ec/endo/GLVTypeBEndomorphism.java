@@ -0,0 +1,66 @@
+package org.bouncycastle.math.ec.endo;
+
+import java.math.BigInteger;
+
+import org.bouncycastle.math.ec.ECConstants;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECFieldElement;
+import org.bouncycastle.math.ec.ECPoint;
+
+/**
+ * The endomorphism phi(x, y) = (beta * x, y) of a curve y^2 = x^3 + b over a prime field with
+ * p = 1 (mod 3), beta being a non-trivial cube root of unity.
+ */
+public class GLVTypeBEndomorphism
+    implements GLVEndomorphism
+{
+    protected final ECCurve curve;
+    protected final GLVTypeBParameters parameters;
+    protected final ECFieldElement beta;
+
+    public GLVTypeBEndomorphism(ECCurve curve, GLVTypeBParameters parameters)
+    {
+        this.curve = curve;
+        this.parameters = parameters;
+        this.beta = curve.fromBigInteger(parameters.getBeta());
+    }
+
+    public ECPoint mapPoint(ECPoint p)
+    {
+        if (p.getCurve() != curve)
+        {
+            throw new IllegalArgumentException("point must be on the endomorphism's curve");
+        }
+
+        return ((ECPoint.Fp)p).scaleX(beta);
+    }
+
+    public BigInteger[] decomposeScalar(BigInteger k)
+    {
+        int bits = parameters.getBits();
+        BigInteger b1 = calculateB(k, parameters.getG1(), bits);
+        BigInteger b2 = calculateB(k, parameters.getG2(), bits);
+
+        BigInteger[] v1 = parameters.getV1(), v2 = parameters.getV2();
+        BigInteger a = k.subtract((b1.multiply(v1[0])).add(b2.multiply(v2[0])));
+        BigInteger b = (b1.multiply(v1[1])).add(b2.multiply(v2[1])).negate();
+
+        return new BigInteger[]{ a, b };
+    }
+
+    /**
+     * Calculate round(k * g / 2^t), the sign of g being carried separately.
+     */
+    protected BigInteger calculateB(BigInteger k, BigInteger g, int t)
+    {
+        boolean negative = (g.signum() < 0);
+        BigInteger b = k.multiply(g.abs());
+        boolean extra = b.testBit(t - 1);
+        b = b.shiftRight(t);
+        if (extra)
+        {
+            b = b.add(ECConstants.ONE);
+        }
+        return negative ? b.negate() : b;
+    }
+}
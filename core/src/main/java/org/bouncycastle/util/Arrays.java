@@ -139,6 +139,55 @@ public static boolean constantTimeAreEqual(
         return nonEqual == 0;
     }
 
+    /**
+     * A constant time equals comparison of two ranges of bytes - does not terminate early if
+     * test will fail.
+     *
+     * @param len the number of bytes to compare
+     * @param a first array
+     * @param aOff offset of the range in the first array
+     * @param b second array
+     * @param bOff offset of the range in the second array
+     * @return true if the ranges are equal, false otherwise.
+     */
+    public static boolean constantTimeAreEqual(
+        int     len,
+        byte[]  a,
+        int     aOff,
+        byte[]  b,
+        int     bOff)
+    {
+        if (null == a)
+        {
+            throw new NullPointerException("'a' cannot be null");
+        }
+        if (null == b)
+        {
+            throw new NullPointerException("'b' cannot be null");
+        }
+        if (len < 0)
+        {
+            throw new IllegalArgumentException("'len' cannot be negative");
+        }
+        if (aOff > (a.length - len))
+        {
+            throw new IndexOutOfBoundsException("'aOff' value invalid for specified length");
+        }
+        if (bOff > (b.length - len))
+        {
+            throw new IndexOutOfBoundsException("'bOff' value invalid for specified length");
+        }
+
+        int nonEqual = 0;
+
+        for (int i = 0; i < len; ++i)
+        {
+            nonEqual |= (a[aOff + i] ^ b[bOff + i]);
+        }
+
+        return nonEqual == 0;
+    }
+
     public static boolean areEqual(
         int[]  a,
         int[]  b)
@@ -0,0 +1,139 @@
+package org.bouncycastle.asn1.test;
+
+import java.io.IOException;
+
+import org.bouncycastle.asn1.ASN1EncodableVector;
+import org.bouncycastle.asn1.ASN1Encoding;
+import org.bouncycastle.asn1.ASN1InputStream;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1Object;
+import org.bouncycastle.asn1.ASN1Primitive;
+import org.bouncycastle.asn1.ASN1Sequence;
+import org.bouncycastle.asn1.ASN1Set;
+import org.bouncycastle.asn1.DERNull;
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.DERSequence;
+import org.bouncycastle.asn1.DERSet;
+import org.bouncycastle.asn1.DERTaggedObject;
+import org.bouncycastle.asn1.DERUTF8String;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.util.encoders.Hex;
+import org.bouncycastle.util.test.SimpleTest;
+
+/**
+ * Check encodings kept by constructed objects give the same results as working them out again.
+ */
+public class CachedEncodingTest
+    extends SimpleTest
+{
+    public String getName()
+    {
+        return "CachedEncoding";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        ASN1EncodableVector v = new ASN1EncodableVector();
+        v.add(new ASN1Integer(3));
+        v.add(new DERUTF8String("cached"));
+        v.add(new DERSet(new ASN1Integer(1)));
+        DERSequence seq = new DERSequence(v);
+
+        // what the encodings are before anything is kept
+        byte[] expected = new DERSequence(v).getEncoded();
+        byte[] expectedImplicit = new DERTaggedObject(false, 1, new DERSequence(v)).getEncoded();
+        byte[] expectedNested = new DERSequence(new DERSequence(v)).getEncoded();
+
+        byte[] first = seq.getEncoded(ASN1Encoding.DER);
+        byte[] second = seq.getEncoded();
+        if (!areEqual(expected, first) || !areEqual(expected, second))
+        {
+            fail("cached encoding differs");
+        }
+        if (first == second)
+        {
+            fail("cached encoding not copied");
+        }
+        first[0] = 0;
+        if (!areEqual(expected, seq.getEncoded()))
+        {
+            fail("cached encoding changed by caller");
+        }
+
+        if (!areEqual(expectedImplicit, new DERTaggedObject(false, 1, seq).getEncoded()))
+        {
+            fail("implicitly tagged cached encoding differs");
+        }
+        if (!areEqual(expectedNested, new DERSequence(seq).getEncoded()))
+        {
+            fail("nested cached encoding differs");
+        }
+
+        if (seq.hashCode() != seq.hashCode() || seq.hashCode() != new DERSequence(v).hashCode())
+        {
+            fail("sequence hashCode inconsistent");
+        }
+
+        // a parsed set keeps its order, except when a DER encoding is asked for
+        byte[] unsorted = Hex.decode("3106020102020101");
+        ASN1Set set = (ASN1Set)ASN1Primitive.fromByteArray(unsorted);
+        byte[] sorted = Hex.decode("3106020101020102");
+        for (int i = 0; i != 2; i++)
+        {
+            if (!areEqual(unsorted, set.getEncoded()))
+            {
+                fail("parsed set order not kept");
+            }
+            if (!areEqual(sorted, set.getEncoded(ASN1Encoding.DER)))
+            {
+                fail("parsed set not sorted for DER");
+            }
+        }
+        if (set.hashCode() != ASN1Primitive.fromByteArray(unsorted).hashCode())
+        {
+            fail("set hashCode inconsistent");
+        }
+
+        // a lazy sequence writes what it was read from, even after being looked into
+        byte[] enc = new DERSequence(new DERSequence(v)).getEncoded();
+        ASN1Sequence lazy = (ASN1Sequence)new ASN1InputStream(enc, true).readObject();
+        ASN1Sequence inner = (ASN1Sequence)lazy.getObjectAt(0);
+        if (inner.size() != 3 || !areEqual(enc, lazy.getEncoded()))
+        {
+            fail("lazy sequence encoding differs after parsing");
+        }
+        if (!lazy.equals(new DERSequence(new DERSequence(v))) || lazy.hashCode() != new DERSequence(new DERSequence(v)).hashCode())
+        {
+            fail("lazy sequence not equal to original");
+        }
+
+        checkKept(new X500Name("CN=Test, O=Legion of the Bouncy Castle, C=AU"));
+        checkKept(new AlgorithmIdentifier(PKCSObjectIdentifiers.sha256WithRSAEncryption, DERNull.INSTANCE));
+        checkKept(new Extension(Extension.basicConstraints, true, new DEROctetString(new DERSequence().getEncoded())));
+    }
+
+    private void checkKept(ASN1Object obj)
+        throws IOException
+    {
+        if (obj.toASN1Primitive() != obj.toASN1Primitive())
+        {
+            fail(obj.getClass().getName() + " primitive not kept");
+        }
+
+        byte[] enc = obj.getEncoded(ASN1Encoding.DER);
+        if (!areEqual(enc, obj.getEncoded()) || !obj.toASN1Primitive().equals(ASN1Primitive.fromByteArray(enc)))
+        {
+            fail(obj.getClass().getName() + " encoding differs");
+        }
+    }
+
+    public static void main(
+        String[] args)
+    {
+        runTest(new CachedEncodingTest());
+    }
+}
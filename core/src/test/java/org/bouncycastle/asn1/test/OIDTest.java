@@ -10,6 +10,7 @@
 import org.bouncycastle.asn1.DERObjectIdentifier;
 import org.bouncycastle.asn1.DEROutputStream;
 import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.asn1.x509.X509ObjectIdentifiers;
 import org.bouncycastle.util.encoders.Hex;
 import org.bouncycastle.util.test.SimpleTest;
 
@@ -119,6 +120,52 @@ private void onCheck(String stem, String test, boolean expected)
         }
     }
 
+    private void internCheck()
+        throws IOException
+    {
+        ASN1ObjectIdentifier known = (ASN1ObjectIdentifier)ASN1ObjectIdentifier.fromByteArray(PKCSObjectIdentifiers.rsaEncryption.getEncoded());
+        if (known != PKCSObjectIdentifiers.rsaEncryption)
+        {
+            fail("decoded well known OID not canonical");
+        }
+
+        known = (ASN1ObjectIdentifier)ASN1ObjectIdentifier.fromByteArray(X509ObjectIdentifiers.commonName.getEncoded());
+        if (known != new ASN1ObjectIdentifier("2.5.4.3").intern())
+        {
+            fail("intern() not canonical for well known OID");
+        }
+
+        ASN1ObjectIdentifier oid = new ASN1ObjectIdentifier("1.2.3.4.5.6.7.8.9.10.11.12.13");
+        byte[] enc = oid.getEncoded();
+
+        ASN1ObjectIdentifier first = (ASN1ObjectIdentifier)ASN1ObjectIdentifier.fromByteArray(enc);
+        ASN1ObjectIdentifier second = (ASN1ObjectIdentifier)ASN1ObjectIdentifier.fromByteArray(enc);
+        if (first != second)
+        {
+            fail("decoded OID not interned");
+        }
+        if (!first.equals(oid) || first.hashCode() != oid.hashCode() || oid.intern() != first)
+        {
+            fail("interned OID doesn't match");
+        }
+
+        // the table is bounded, so flooding it must still give back correct OIDs
+        for (int i = 0; i != 20000; i++)
+        {
+            String id = "1.3.6.1.4.1.99999." + i;
+            ASN1ObjectIdentifier decoded = (ASN1ObjectIdentifier)ASN1ObjectIdentifier.fromByteArray(new ASN1ObjectIdentifier(id).getEncoded());
+            if (!id.equals(decoded.getId()))
+            {
+                fail("failed flood check for " + id);
+            }
+        }
+
+        if (ASN1ObjectIdentifier.fromByteArray(PKCSObjectIdentifiers.rsaEncryption.getEncoded()) != PKCSObjectIdentifiers.rsaEncryption)
+        {
+            fail("well known OID evicted");
+        }
+    }
+
     public void performTest()
         throws IOException
     {
@@ -156,6 +203,8 @@ public void performTest()
         onCheck("1.12", "1.1.2", false);
         onCheck("1.1", "1.1.1", true);
         onCheck("1.1", "1.1.2", true);
+
+        internCheck();
     }
 
     public static void main(
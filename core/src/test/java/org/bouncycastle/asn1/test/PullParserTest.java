@@ -0,0 +1,289 @@
+package org.bouncycastle.asn1.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import org.bouncycastle.asn1.ASN1EncodableVector;
+import org.bouncycastle.asn1.ASN1Encoding;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.ASN1Primitive;
+import org.bouncycastle.asn1.ASN1PullParser;
+import org.bouncycastle.asn1.BERSequence;
+import org.bouncycastle.asn1.BERTags;
+import org.bouncycastle.asn1.BERTaggedObject;
+import org.bouncycastle.asn1.DERBitString;
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.DERSequence;
+import org.bouncycastle.asn1.DERSet;
+import org.bouncycastle.asn1.DERTaggedObject;
+import org.bouncycastle.asn1.DERUTF8String;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.encoders.Hex;
+import org.bouncycastle.util.test.SimpleTest;
+
+public class PullParserTest
+    extends SimpleTest
+{
+    public String getName()
+    {
+        return "PullParser";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        eventTest();
+        indefiniteLengthTest();
+        skipTest();
+        readObjectTest();
+        largeSequenceTest();
+        truncationTest();
+    }
+
+    private void eventTest()
+        throws IOException
+    {
+        // SEQUENCE { INTEGER 1, [0] EXPLICIT OCTET STRING 0102, SET { } }
+        byte[] enc = new DERSequence(new ASN1Primitive[] {
+            new ASN1Integer(1),
+            new DERTaggedObject(true, 0, new DEROctetString(Hex.decode("0102"))),
+            new DERSet() }).getEncoded();
+
+        ASN1PullParser parser = new ASN1PullParser(enc);
+
+        checkStart(parser, 0, BERTags.SEQUENCE, enc.length - 2, 0);
+        checkPrimitive(parser, 0, BERTags.INTEGER, Hex.decode("01"), 1);
+        checkStart(parser, BERTags.TAGGED, 0, 4, 1);
+        checkPrimitive(parser, 0, BERTags.OCTET_STRING, Hex.decode("0102"), 2);
+        checkEnd(parser, 1);
+        checkStart(parser, 0, BERTags.SET, 0, 1);
+        checkEnd(parser, 1);
+        checkEnd(parser, 0);
+
+        if (parser.next() != ASN1PullParser.END_OF_INPUT || parser.next() != ASN1PullParser.END_OF_INPUT)
+        {
+            fail("end of input not reported");
+        }
+    }
+
+    private void indefiniteLengthTest()
+        throws IOException
+    {
+        byte[] enc = new BERSequence(new ASN1Primitive[] {
+            new BERSequence(new ASN1Integer(7)),
+            new BERTaggedObject(true, 3, new DERUTF8String("tagged")),
+            new ASN1Integer(8) }).getEncoded();
+
+        ASN1PullParser parser = new ASN1PullParser(enc);
+
+        checkStart(parser, 0, BERTags.SEQUENCE, -1, 0);
+        checkStart(parser, 0, BERTags.SEQUENCE, -1, 1);
+        checkPrimitive(parser, 0, BERTags.INTEGER, Hex.decode("07"), 2);
+        checkEnd(parser, 1);
+        checkStart(parser, BERTags.TAGGED, 3, -1, 1);
+        checkPrimitive(parser, 0, BERTags.UTF8_STRING, "tagged".getBytes(), 2);
+        checkEnd(parser, 1);
+        checkPrimitive(parser, 0, BERTags.INTEGER, Hex.decode("08"), 1);
+        checkEnd(parser, 0);
+
+        if (parser.next() != ASN1PullParser.END_OF_INPUT)
+        {
+            fail("end of indefinite length input not reported");
+        }
+    }
+
+    private void skipTest()
+        throws IOException
+    {
+        ASN1Primitive big = new DERSequence(new ASN1Primitive[] {
+            new DEROctetString(new byte[1000]), new DERSequence(new DERBitString(new byte[10])) });
+
+        checkSkip(new DERSequence(new ASN1Primitive[] { big, new ASN1Integer(42) }).getEncoded());
+        checkSkip(new BERSequence(new ASN1Primitive[] { new BERSequence(big), new ASN1Integer(42) }).getEncoded());
+    }
+
+    private void checkSkip(byte[] enc)
+        throws IOException
+    {
+        ASN1PullParser parser = new ASN1PullParser(enc);
+
+        parser.next();
+        if (parser.next() != ASN1PullParser.START_CONSTRUCTED)
+        {
+            fail("inner sequence not found");
+        }
+        parser.skip();
+        if (parser.getEventType() != 0)
+        {
+            fail("skipped element still current");
+        }
+
+        checkPrimitive(parser, 0, BERTags.INTEGER, Hex.decode("2a"), 1);
+
+        // unread primitive contents are passed over too
+        parser.skip();
+        checkEnd(parser, 0);
+    }
+
+    private void readObjectTest()
+        throws IOException
+    {
+        ASN1EncodableVector v = new ASN1EncodableVector();
+        v.add(new ASN1ObjectIdentifier("1.2.840.113549.1.1.11"));
+        v.add(new DERTaggedObject(false, 1, new DERSequence(new ASN1Integer(5))));
+        v.add(new DERSet(new DERUTF8String("set")));
+        ASN1Primitive definite = new DERSequence(v);
+        ASN1Primitive indefinite = new BERSequence(new ASN1Integer(6));
+
+        byte[] enc = new DERSequence(new ASN1Primitive[] { definite, new BERTaggedObject(true, 2, indefinite), new ASN1Integer(9) }).getEncoded();
+
+        ASN1PullParser parser = new ASN1PullParser(enc);
+        parser.next();
+
+        parser.next();
+        // compared with ASN1InputStream's result, as an implicit tag can't be undone
+        ASN1Primitive obj = parser.readObject();
+        if (!ASN1Primitive.fromByteArray(definite.getEncoded()).equals(obj) || !areEqual(definite.getEncoded(), obj.getEncoded()))
+        {
+            fail("definite length element not read back");
+        }
+
+        parser.next();
+        if (parser.getTagClass() != BERTags.TAGGED || parser.getTagNo() != 2)
+        {
+            fail("tagged element not found");
+        }
+        parser.next();
+        obj = parser.readObject();
+        if (!indefinite.equals(obj))
+        {
+            fail("indefinite length element not read back");
+        }
+        checkEnd(parser, 1);
+
+        parser.next();
+        if (!new ASN1Integer(9).equals(parser.readObject()))
+        {
+            fail("primitive element not read back");
+        }
+        checkEnd(parser, 0);
+    }
+
+    private void largeSequenceTest()
+        throws IOException
+    {
+        // entries read one at a time, as for a large CRL
+        ASN1EncodableVector v = new ASN1EncodableVector();
+        for (int i = 0; i != 5000; i++)
+        {
+            v.add(new DERSequence(new ASN1Primitive[] { new ASN1Integer(i), new DEROctetString(new byte[i % 50]) }));
+        }
+        byte[] enc = new DERSequence(v).getEncoded(ASN1Encoding.DER);
+
+        ASN1PullParser parser = new ASN1PullParser(new ByteArrayInputStream(enc));
+        parser.next();
+
+        int count = 0;
+        while (parser.next() == ASN1PullParser.START_CONSTRUCTED)
+        {
+            ASN1Primitive entry = parser.readObject();
+            if (!v.get(count).equals(entry))
+            {
+                fail("entry " + count + " not read back");
+            }
+            count++;
+        }
+
+        if (count != v.size() || parser.getEventType() != ASN1PullParser.END_CONSTRUCTED)
+        {
+            fail("wrong number of entries: " + count);
+        }
+    }
+
+    private void truncationTest()
+        throws IOException
+    {
+        byte[] enc = new DERSequence(new DEROctetString(new byte[20])).getEncoded();
+        byte[] truncated = Arrays.copyOfRange(enc, 0, enc.length - 5);
+
+        ASN1PullParser parser = new ASN1PullParser(new ByteArrayInputStream(truncated), enc.length);
+        try
+        {
+            parser.next();
+            parser.skip();
+            fail("truncated element not detected");
+        }
+        catch (IOException e)
+        {
+            // expected
+        }
+
+        try
+        {
+            parser = new ASN1PullParser(Hex.decode("300300"));
+            parser.next();
+            parser.next();
+            fail("misplaced end-of-contents not detected");
+        }
+        catch (IOException e)
+        {
+            // expected
+        }
+    }
+
+    private void checkStart(ASN1PullParser parser, int tagClass, int tagNo, int length, int depth)
+        throws IOException
+    {
+        if (parser.next() != ASN1PullParser.START_CONSTRUCTED)
+        {
+            fail("start of constructed element expected");
+        }
+        checkElement(parser, tagClass, tagNo, length, depth);
+    }
+
+    private void checkPrimitive(ASN1PullParser parser, int tagClass, int tagNo, byte[] contents, int depth)
+        throws IOException
+    {
+        if (parser.next() != ASN1PullParser.PRIMITIVE)
+        {
+            fail("primitive element expected");
+        }
+        checkElement(parser, tagClass, tagNo, contents.length, depth);
+        if (parser.isConstructed() || !areEqual(contents, parser.getContents()))
+        {
+            fail("primitive contents wrong");
+        }
+    }
+
+    private void checkEnd(ASN1PullParser parser, int depth)
+        throws IOException
+    {
+        if (parser.next() != ASN1PullParser.END_CONSTRUCTED || parser.getDepth() != depth)
+        {
+            fail("end of constructed element expected at depth " + depth);
+        }
+    }
+
+    private void checkElement(ASN1PullParser parser, int tagClass, int tagNo, int length, int depth)
+    {
+        if (parser.getTagClass() != tagClass || parser.getTagNo() != tagNo)
+        {
+            fail("wrong tag: " + parser.getTagClass() + "/" + parser.getTagNo());
+        }
+        if (parser.getLength() != length)
+        {
+            fail("wrong length: " + parser.getLength());
+        }
+        if (parser.getDepth() != depth)
+        {
+            fail("wrong depth: " + parser.getDepth());
+        }
+    }
+
+    public static void main(
+        String[] args)
+    {
+        runTest(new PullParserTest());
+    }
+}
@@ -70,7 +70,11 @@
         new ParsingTest(),
         new GeneralNameTest(),
         new ObjectIdentifierTest(),
-        new RFC4519Test()
+        new RFC4519Test(),
+        new SliceDecodingTest(),
+        new StreamingEncodingTest(),
+        new CachedEncodingTest(),
+        new PullParserTest()
     };
 
     public static void main(
@@ -0,0 +1,126 @@
+package org.bouncycastle.asn1.test;
+
+import java.io.IOException;
+
+import org.bouncycastle.asn1.ASN1EncodableVector;
+import org.bouncycastle.asn1.ASN1Encoding;
+import org.bouncycastle.asn1.ASN1InputStream;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1ParsingException;
+import org.bouncycastle.asn1.ASN1Primitive;
+import org.bouncycastle.asn1.ASN1Sequence;
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.DERSequence;
+import org.bouncycastle.asn1.DERSet;
+import org.bouncycastle.asn1.DERTaggedObject;
+import org.bouncycastle.asn1.DERUTF8String;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.test.SimpleTest;
+
+/**
+ * Check decoding from part of a larger array, where constructed objects are read by reference to
+ * the array rather than copied.
+ */
+public class SliceDecodingTest
+    extends SimpleTest
+{
+    public String getName()
+    {
+        return "SliceDecoding";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        ASN1Primitive structure = createStructure();
+        byte[] encoding = structure.getEncoded(ASN1Encoding.DER);
+
+        // surround the encoding with data the decoder must not read
+        byte[] buf = new byte[encoding.length + 20];
+        Arrays.fill(buf, (byte)0x30);
+        System.arraycopy(encoding, 0, buf, 7, encoding.length);
+
+        checkSlice(structure, encoding, buf, false);
+        checkSlice(structure, encoding, buf, true);
+
+        // a lazy sequence encodes straight from the array, without being parsed
+        ASN1InputStream aIn = new ASN1InputStream(buf, 7, encoding.length, true);
+        ASN1Sequence lazy = (ASN1Sequence)aIn.readObject();
+        ASN1Sequence inner = (ASN1Sequence)lazy.getObjectAt(1);
+        byte[] innerEncoding = ((ASN1Sequence)structure).getObjectAt(1).toASN1Primitive().getEncoded(ASN1Encoding.DER);
+        if (!areEqual(innerEncoding, inner.getEncoded()))
+        {
+            fail("lazy inner sequence encoding not equal");
+        }
+
+        // the length of the second inner sequence running past the end of the outer one
+        byte[] truncated = Arrays.clone(encoding);
+        if (truncated[9] != 0x30 || truncated[10] != (byte)0x82)
+        {
+            fail("unexpected test encoding");
+        }
+        truncated[11]++;
+        checkTruncated(truncated, false);
+        checkTruncated(truncated, true);
+    }
+
+    private void checkSlice(ASN1Primitive structure, byte[] encoding, byte[] buf, boolean lazy)
+        throws IOException
+    {
+        ASN1InputStream aIn = new ASN1InputStream(buf, 7, encoding.length, lazy);
+
+        ASN1Primitive decoded = aIn.readObject();
+        if (!structure.equals(decoded))
+        {
+            fail("structure not equal (lazy " + lazy + ")");
+        }
+        if (!areEqual(encoding, decoded.getEncoded(ASN1Encoding.DER)))
+        {
+            fail("encoding not equal (lazy " + lazy + ")");
+        }
+        if (aIn.readObject() != null)
+        {
+            fail("data read beyond slice (lazy " + lazy + ")");
+        }
+    }
+
+    private void checkTruncated(byte[] truncated, boolean lazy)
+    {
+        try
+        {
+            ASN1Sequence seq = (ASN1Sequence)new ASN1InputStream(truncated, lazy).readObject();
+            seq.getObjectAt(0);
+            fail("truncated object not detected (lazy " + lazy + ")");
+        }
+        catch (IOException e)
+        {
+            // expected
+        }
+        catch (ASN1ParsingException e)
+        {
+            // expected from lazy parsing
+        }
+    }
+
+    private static ASN1Primitive createStructure()
+    {
+        ASN1EncodableVector inner = new ASN1EncodableVector();
+        inner.add(new ASN1Integer(12345));
+        inner.add(new DEROctetString(new byte[300]));
+        inner.add(new DERSet(new DERUTF8String("slice")));
+        inner.add(new DERTaggedObject(true, 2, new DERSequence(new ASN1Integer(-1))));
+
+        ASN1EncodableVector outer = new ASN1EncodableVector();
+        outer.add(new DERSequence(new ASN1Integer(1)));
+        outer.add(new DERSequence(inner));
+        outer.add(new DERUTF8String("end"));
+
+        return new DERSequence(outer);
+    }
+
+    public static void main(
+        String[]    args)
+    {
+        runTest(new SliceDecodingTest());
+    }
+}
@@ -0,0 +1,163 @@
+package org.bouncycastle.asn1.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.bouncycastle.asn1.ASN1Encodable;
+import org.bouncycastle.asn1.ASN1EncodableVector;
+import org.bouncycastle.asn1.ASN1Encoding;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1ObjectIdentifier;
+import org.bouncycastle.asn1.ASN1Primitive;
+import org.bouncycastle.asn1.ASN1Sequence;
+import org.bouncycastle.asn1.ASN1Set;
+import org.bouncycastle.asn1.BERSequence;
+import org.bouncycastle.asn1.DERExternal;
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.DERSequence;
+import org.bouncycastle.asn1.DERSet;
+import org.bouncycastle.asn1.DERTaggedObject;
+import org.bouncycastle.asn1.DERUTF8String;
+import org.bouncycastle.util.encoders.Hex;
+import org.bouncycastle.util.test.SimpleTest;
+
+/**
+ * Check encodings written straight to a stream, with lengths worked out beforehand, against
+ * encodings built up a level at a time.
+ */
+public class StreamingEncodingTest
+    extends SimpleTest
+{
+    public String getName()
+    {
+        return "StreamingEncoding";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        // a deep structure, mixing explicit and implicit tags and BER children
+        ASN1Encodable obj = new DEROctetString(Hex.decode("0102030405"));
+        for (int i = 0; i != 50; i++)
+        {
+            ASN1EncodableVector v = new ASN1EncodableVector();
+            v.add(new ASN1Integer(i));
+            v.add(new DERTaggedObject(i % 2 == 0, i, obj));
+            v.add(new BERSequence(new DERUTF8String("level " + i)));
+            obj = (i % 3 == 0) ? (ASN1Encodable)new DERSet(v) : new DERSequence(v);
+        }
+        checkEncoding(obj.toASN1Primitive());
+
+        // a set big enough that sorting it matters, with some equal elements
+        ASN1EncodableVector v = new ASN1EncodableVector();
+        for (int i = 0; i != 2000; i++)
+        {
+            v.add(new ASN1Integer((i * 7919) % 1000 - 500));
+        }
+        ASN1Set set = new DERSet(v);
+        checkSorted(set);
+        checkEncoding(set);
+
+        // sorting the parsed form of an unsorted set
+        byte[] unsorted = new DERSequence(v).getEncoded();
+        unsorted[0] = 0x31;
+        ASN1Set parsed = (ASN1Set)ASN1Primitive.fromByteArray(unsorted);
+        checkEncoding(parsed);
+
+        ASN1Set reparsed = (ASN1Set)ASN1Primitive.fromByteArray(parsed.getEncoded(ASN1Encoding.DER));
+        if (!areEqual(set.getEncoded(), reparsed.getEncoded()))
+        {
+            fail("re-sorted set differs");
+        }
+
+        // EXTERNAL's length once came from its own encoding
+        DERExternal external = new DERExternal(new ASN1ObjectIdentifier("1.2.3"), new ASN1Integer(5),
+            new DERUTF8String("descriptor"), new DERTaggedObject(true, 0, new DEROctetString(new byte[300])));
+        checkEncoding(external);
+        if (!external.equals(ASN1Primitive.fromByteArray(external.getEncoded())))
+        {
+            fail("EXTERNAL round trip failed");
+        }
+
+        // encoding again gives the same result, even with lengths already known
+        byte[] first = ((ASN1Primitive)obj).getEncoded(ASN1Encoding.DER);
+        byte[] second = ((ASN1Primitive)obj).getEncoded(ASN1Encoding.DER);
+        if (!areEqual(first, second))
+        {
+            fail("second encoding differs");
+        }
+    }
+
+    private void checkEncoding(ASN1Primitive obj)
+        throws IOException
+    {
+        byte[] der = obj.getEncoded(ASN1Encoding.DER);
+
+        ByteArrayOutputStream bOut = new ByteArrayOutputStream();
+        obj.encodeTo(bOut, ASN1Encoding.DER);
+        if (!areEqual(der, bOut.toByteArray()))
+        {
+            fail("streamed DER encoding differs for " + obj.getClass().getName());
+        }
+
+        bOut.reset();
+        obj.encodeTo(bOut);
+        if (!areEqual(obj.getEncoded(), bOut.toByteArray()))
+        {
+            fail("streamed encoding differs for " + obj.getClass().getName());
+        }
+
+        if (!areEqual(der, ASN1Primitive.fromByteArray(der).getEncoded(ASN1Encoding.DER)))
+        {
+            fail("DER encoding did not survive a round trip for " + obj.getClass().getName());
+        }
+
+        if (obj instanceof ASN1Sequence)
+        {
+            // each element of a sequence must be encoded as if on its own
+            ASN1Sequence seq = (ASN1Sequence)ASN1Primitive.fromByteArray(der);
+            for (int i = 0; i != seq.size(); i++)
+            {
+                ASN1Primitive element = seq.getObjectAt(i).toASN1Primitive();
+                if (!areEqual(element.getEncoded(ASN1Encoding.DER), ((ASN1Sequence)obj).getObjectAt(i).toASN1Primitive().getEncoded(ASN1Encoding.DER)))
+                {
+                    fail("element " + i + " encoding differs");
+                }
+            }
+        }
+    }
+
+    private void checkSorted(ASN1Set set)
+        throws IOException
+    {
+        byte[] last = null;
+        for (int i = 0; i != set.size(); i++)
+        {
+            byte[] enc = set.getObjectAt(i).toASN1Primitive().getEncoded();
+            if (last != null && compare(last, enc) > 0)
+            {
+                fail("set not sorted at " + i);
+            }
+            last = enc;
+        }
+    }
+
+    private static int compare(byte[] a, byte[] b)
+    {
+        int len = Math.min(a.length, b.length);
+        for (int i = 0; i != len; ++i)
+        {
+            if (a[i] != b[i])
+            {
+                return (a[i] & 0xff) - (b[i] & 0xff);
+            }
+        }
+        return a.length - b.length;
+    }
+
+    public static void main(
+        String[] args)
+    {
+        runTest(new StreamingEncodingTest());
+    }
+}
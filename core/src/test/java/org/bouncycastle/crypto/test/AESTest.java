@@ -3,7 +3,10 @@
 import org.bouncycastle.crypto.BlockCipher;
 import org.bouncycastle.crypto.BufferedBlockCipher;
 import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.MultiBlockCipher;
 import org.bouncycastle.crypto.engines.AESEngine;
+import org.bouncycastle.crypto.engines.AESFastEngine;
+import org.bouncycastle.crypto.engines.AESLightEngine;
 import org.bouncycastle.crypto.modes.CBCBlockCipher;
 import org.bouncycastle.crypto.modes.CFBBlockCipher;
 import org.bouncycastle.crypto.modes.OFBBlockCipher;
@@ -243,6 +246,130 @@ private void testNullCFB()
         }
     }
 
+    private void testMultiBlock(BlockCipher single, MultiBlockCipher multi, boolean forEncryption)
+    {
+        KeyParameter kp = new KeyParameter(Hex.decode("5F060D3716B345C253F6749ABAC10917"));
+        byte[] iv = Hex.decode("000102030405060708090a0b0c0d0e0f");
+        byte[] data = new byte[37 * 16];
+
+        for (int i = 0; i != data.length; i++)
+        {
+            data[i] = (byte)(i * 7);
+        }
+
+        single.init(forEncryption, new ParametersWithIV(kp, iv));
+        multi.init(forEncryption, new ParametersWithIV(kp, iv));
+
+        byte[] expected = new byte[data.length];
+        for (int i = 0; i != data.length; i += 16)
+        {
+            single.processBlock(data, i, expected, i);
+        }
+
+        // split into uneven runs, in place, to cross the internal multi-block boundaries
+        byte[] out = new byte[data.length];
+        System.arraycopy(data, 0, out, 0, data.length);
+
+        int len = multi.processBlocks(out, 0, 1, out, 0);
+        len += multi.processBlocks(out, len, 19, out, len);
+        len += multi.processBlocks(out, len, 17, out, len);
+
+        if (len != data.length || !areEqual(expected, out))
+        {
+            fail("multi-block mismatch for " + multi.getAlgorithmName() + (forEncryption ? " encryption" : " decryption"));
+        }
+    }
+
+    private void testMultiBlock()
+    {
+        BlockCipher[] engines = { new AESEngine(), new AESFastEngine(), new AESLightEngine() };
+
+        for (int i = 0; i != engines.length; i++)
+        {
+            testMultiBlock(new SICBlockCipher(new AESEngine()), new SICBlockCipher(engines[i]), true);
+            testMultiBlock(new CBCBlockCipher(new AESEngine()), new CBCBlockCipher(engines[i]), true);
+            testMultiBlock(new CBCBlockCipher(new AESEngine()), new CBCBlockCipher(engines[i]), false);
+        }
+    }
+
+    private void testSICStream()
+    {
+        KeyParameter kp = new KeyParameter(Hex.decode("5F060D3716B345C253F6749ABAC10917"));
+        byte[] data = new byte[1000];
+
+        for (int i = 0; i != data.length; i++)
+        {
+            data[i] = (byte)(i * 3);
+        }
+
+        SICBlockCipher sic = new SICBlockCipher(new AESEngine());
+
+        sic.init(true, new ParametersWithIV(kp, Hex.decode("000102030405060708090a0b0cfffffe")));
+
+        byte[] expected = new byte[data.length];
+        int blocks = data.length / 16;
+        for (int i = 0; i != blocks * 16; i += 16)
+        {
+            sic.processBlock(data, i, expected, i);
+        }
+        byte[] last = new byte[16];
+        System.arraycopy(data, blocks * 16, last, 0, data.length - blocks * 16);
+        sic.processBlock(last, 0, last, 0);
+        System.arraycopy(last, 0, expected, blocks * 16, data.length - blocks * 16);
+
+        // uneven runs through processBytes, with a single byte and a block mixed in
+        byte[] out = new byte[data.length];
+
+        sic.reset();
+        sic.processBytes(data, 0, 5, out, 0);
+        out[5] = sic.returnByte(data[5]);
+        sic.processBytes(data, 6, 300, out, 6);
+        sic.processBlock(data, 306, out, 306);
+        sic.processBytes(data, 322, data.length - 322, out, 322);
+
+        if (!areEqual(expected, out))
+        {
+            fail("SIC stream mismatch");
+        }
+
+        if (sic.getPosition() != data.length)
+        {
+            fail("SIC position wrong: " + sic.getPosition());
+        }
+
+        // random access
+        int[] positions = { 0, 1, 15, 16, 17, 511, 983 };
+        for (int i = 0; i != positions.length; i++)
+        {
+            int pos = positions[i];
+
+            sic.seekTo(pos);
+
+            if (sic.getPosition() != pos)
+            {
+                fail("SIC seekTo position wrong: " + pos);
+            }
+
+            byte[] part = new byte[data.length - pos];
+            sic.processBytes(data, pos, part.length, part, 0);
+
+            for (int j = 0; j != part.length; j++)
+            {
+                if (part[j] != expected[pos + j])
+                {
+                    fail("SIC seekTo mismatch at " + pos);
+                }
+            }
+        }
+
+        sic.seekTo(700);
+        sic.skip(-699);
+        if (sic.getPosition() != 1 || sic.returnByte(data[1]) != expected[1])
+        {
+            fail("SIC skip failed");
+        }
+    }
+
     public void performTest()
         throws Exception
     {
@@ -285,6 +412,8 @@ public void performTest()
         testNullSIC();
         testNullOFB();
         testNullCFB();
+        testMultiBlock();
+        testSICStream();
     }
 
     public static void main(
@@ -0,0 +1,195 @@
+package org.bouncycastle.crypto.test;
+
+import org.bouncycastle.crypto.CipherParameters;
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.crypto.Mac;
+import org.bouncycastle.crypto.digests.BLAKE2bDigest;
+import org.bouncycastle.crypto.digests.BLAKE2sDigest;
+import org.bouncycastle.crypto.macs.BLAKE2bMac;
+import org.bouncycastle.crypto.macs.BLAKE2sMac;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithSalt;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Memoable;
+import org.bouncycastle.util.encoders.Hex;
+import org.bouncycastle.util.test.SimpleTest;
+
+/**
+ * BLAKE2b and BLAKE2s tests, the keyed vectors follow the reference implementation's KAT files:
+ * key 00 01 02 ..., message 00 01 02 ... of the given length.
+ */
+public class BLAKE2DigestTest
+    extends SimpleTest
+{
+    private static final int[] keyedLengths = { 0, 1, 63, 64, 65, 127, 128, 129, 255 };
+
+    private static final String[] keyed2b = {
+        "10ebb67700b1868efb4417987acf4690ae9d972fb7a590c2f02871799aaa4786b5e996e8f0f4eb981fc214b005f42d2ff4233499391653df7aefcbc13fc51568",
+        "961f6dd1e4dd30f63901690c512e78e4b45e4742ed197c3c5e45c549fd25f2e4187b0bc9fe30492b16b0d0bc4ef9b0f34c7003fac09a5ef1532e69430234cebd",
+        "bd965bf31e87d70327536f2a341cebc4768eca275fa05ef98f7f1b71a0351298de006fba73fe6733ed01d75801b4a928e54231b38e38c562b2e33ea1284992fa",
+        "65676d800617972fbd87e4b9514e1c67402b7a331096d3bfac22f1abb95374abc942f16e9ab0ead33b87c91968a6e509e119ff07787b3ef483e1dcdccf6e3022",
+        "939fa189699c5d2c81ddd1ffc1fa207c970b6a3685bb29ce1d3e99d42f2f7442da53e95a72907314f4588399a3ff5b0a92beb3f6be2694f9f86ecf2952d5b41c",
+        "76d2d819c92bce55fa8e092ab1bf9b9eab237a25267986cacf2b8ee14d214d730dc9a5aa2d7b596e86a1fd8fa0804c77402d2fcd45083688b218b1cdfa0dcbcb",
+        "72065ee4dd91c2d8509fa1fc28a37c7fc9fa7d5b3f8ad3d0d7a25626b57b1b44788d4caf806290425f9890a3a2a35a905ab4b37acfd0da6e4517b2525c9651e4",
+        "64475dfe7600d7171bea0b394e27c9b00d8e74dd1e416a79473682ad3dfdbb706631558055cfc8a40e07bd015a4540dcdea15883cbbf31412df1de1cd4152b91",
+        "142709d62e28fcccd0af97fad0f8465b971e82201dc51070faa0372aa43e92484be1c1e73ba10906d5d1853db6a4106e0a7bf9800d373d6dee2d46d62ef2a461"
+    };
+
+    private static final String[] keyed2s = {
+        "48a8997da407876b3d79c0d92325ad3b89cbb754d86ab71aee047ad345fd2c49",
+        "40d15fee7c328830166ac3f918650f807e7e01e177258cdc0a39b11f598066f1",
+        "c65382513f07460da39833cb666c5ed82e61b9e998f4b0c4287cee56c3cc9bcd",
+        "8975b0577fd35566d750b362b0897a26c399136df07bababbde6203ff2954ed4",
+        "21fe0ceb0052be7fb0f004187cacd7de67fa6eb0938d927677f2398c132317a8",
+        "ddbfea75cc467882eb3483ce5e2e756a4f4701b76b445519e89f22d60fa86e06",
+        "0c311f38c35a4fb90d651c289d486856cd1413df9b0677f53ece2cd9e477c60a",
+        "46a73a8dd3e70f59d3942c01df599def783c9da82fd83222cd662b53dce7dbdf",
+        "3fb735061abc519dfe979e54c1ee5bfad0a9d858b3315bad34bde999efd724dd"
+    };
+
+    public String getName()
+    {
+        return "BLAKE2";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        byte[] abc = Hex.decode("616263");
+
+        // unkeyed, RFC 7693 appendix A for "abc"
+        checkDigest(new BLAKE2bDigest(), new byte[0], "786a02f742015903c6c6fd852552d272912f4740e15847618a86e217f71f5419d25e1031afee585313896444934eb04b903a685b1448b755d56f701afe9be2ce");
+        checkDigest(new BLAKE2bDigest(), abc, "ba80a53f981c4d0d6a2797b69f12f6e94c212f14685ac4b74b12bb6fdbffa2d17d87c5392aab792dc252d5de4533cc9518d38aa8dbf1925ab92386edd4009923");
+        checkDigest(new BLAKE2bDigest(160), abc, "384264f676f39536840523f284921cdc68b6846b");
+        checkDigest(new BLAKE2sDigest(), new byte[0], "69217a3079908094e11121d042354a7c1f55b6482ca1a51e1b250dfd1ed0eef9");
+        checkDigest(new BLAKE2sDigest(), abc, "508c5e8c327c14e2e1a72ba34eeb452f37458b209ed63a294d999b4c86675982");
+        checkDigest(new BLAKE2sDigest(160), abc, "5ae3b99be29b01834c3b508521ede60438f8de17");
+
+        // keyed
+        for (int i = 0; i != keyedLengths.length; i++)
+        {
+            byte[] message = sequence(keyedLengths[i]);
+
+            checkDigest(new BLAKE2bDigest(sequence(64), 64, null, null), message, keyed2b[i]);
+            checkDigest(new BLAKE2sDigest(sequence(32), 32, null, null), message, keyed2s[i]);
+        }
+
+        // salt and personalization
+        checkDigest(new BLAKE2bDigest(null, 32, sequence(16), sequence(0x40, 16)), abc, "370b0c92b2224792deed10702417bf5b738e028deb5994aef2d7e3be5ae08d28");
+        checkDigest(new BLAKE2sDigest(null, 16, sequence(8), sequence(0x40, 8)), abc, "2bc4226a1179c9b26eee67e29124ca96");
+
+        // the MACs
+        checkMac(new BLAKE2bMac(512), new KeyParameter(sequence(64)), sequence(255), keyed2b[8]);
+        checkMac(new BLAKE2sMac(256), new KeyParameter(sequence(32)), sequence(255), keyed2s[8]);
+
+        byte[] macKey = new byte[20];
+        Arrays.fill(macKey, (byte)0x0b);
+        checkMac(new BLAKE2bMac(128), new ParametersWithSalt(new KeyParameter(macKey), sequence(16)), sequence(200), "3fc5d0673bf2090dec4a25f7c9b46355");
+        checkMac(new BLAKE2sMac(128), new ParametersWithSalt(new KeyParameter(macKey), sequence(8)), sequence(200), "91400496cf5c61e48bffee34132e7ca7");
+
+        try
+        {
+            new BLAKE2bDigest(null, 65, null, null);
+            fail("no exception on oversize BLAKE2b digest");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+
+        try
+        {
+            new BLAKE2sDigest(new byte[33], 32, null, null);
+            fail("no exception on oversize BLAKE2s key");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    private void checkDigest(Digest digest, byte[] message, String expected)
+    {
+        byte[] result = new byte[digest.getDigestSize()];
+
+        digest.update(message, 0, message.length);
+        digest.doFinal(result, 0);
+
+        if (!Arrays.areEqual(Hex.decode(expected), result))
+        {
+            fail(digest.getAlgorithmName() + " failed on " + message.length + " bytes", expected, new String(Hex.encode(result)));
+        }
+
+        // again, after the reset, a byte at a time with a copy taken half way
+        int half = message.length / 2;
+        for (int i = 0; i != half; i++)
+        {
+            digest.update(message[i]);
+        }
+
+        Memoable copy = ((Memoable)digest).copy();
+
+        for (int i = half; i != message.length; i++)
+        {
+            digest.update(message[i]);
+        }
+        digest.doFinal(result, 0);
+
+        if (!Arrays.areEqual(Hex.decode(expected), result))
+        {
+            fail(digest.getAlgorithmName() + " byte update failed on " + message.length + " bytes");
+        }
+
+        Digest copyDigest = (Digest)copy;
+        copyDigest.update(message, half, message.length - half);
+        copyDigest.doFinal(result, 0);
+
+        if (!Arrays.areEqual(Hex.decode(expected), result))
+        {
+            fail(digest.getAlgorithmName() + " copy failed on " + message.length + " bytes");
+        }
+    }
+
+    private void checkMac(Mac mac, CipherParameters params, byte[] message, String expected)
+    {
+        byte[] result = new byte[mac.getMacSize()];
+
+        mac.init(params);
+        mac.update(message, 0, message.length);
+        mac.doFinal(result, 0);
+
+        if (!Arrays.areEqual(Hex.decode(expected), result))
+        {
+            fail(mac.getAlgorithmName() + " failed", expected, new String(Hex.encode(result)));
+        }
+
+        // doFinal leaves the MAC ready to go again with the same key
+        mac.update(message, 0, message.length);
+        mac.doFinal(result, 0);
+
+        if (!Arrays.areEqual(Hex.decode(expected), result))
+        {
+            fail(mac.getAlgorithmName() + " reuse failed");
+        }
+    }
+
+    private static byte[] sequence(int length)
+    {
+        return sequence(0, length);
+    }
+
+    private static byte[] sequence(int start, int length)
+    {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i != length; i++)
+        {
+            bytes[i] = (byte)(start + i);
+        }
+        return bytes;
+    }
+
+    public static void main(String[] args)
+    {
+        runTest(new BLAKE2DigestTest());
+    }
+}
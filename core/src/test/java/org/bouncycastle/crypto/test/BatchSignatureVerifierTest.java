@@ -0,0 +1,239 @@
+package org.bouncycastle.crypto.test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import org.bouncycastle.asn1.sec.SECNamedCurves;
+import org.bouncycastle.asn1.x509.X509ObjectIdentifiers;
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.digests.SHA1Digest;
+import org.bouncycastle.crypto.generators.ECKeyPairGenerator;
+import org.bouncycastle.crypto.generators.RSAKeyPairGenerator;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECKeyGenerationParameters;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.params.ParametersWithRandom;
+import org.bouncycastle.crypto.params.RSAKeyGenerationParameters;
+import org.bouncycastle.crypto.params.RSAKeyParameters;
+import org.bouncycastle.crypto.signers.BatchSignatureVerifier;
+import org.bouncycastle.crypto.signers.ECDSABatchVerifier;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.RSADigestBatchVerifier;
+import org.bouncycastle.crypto.signers.RSADigestSigner;
+import org.bouncycastle.util.test.SimpleTest;
+
+/**
+ * Check the batch verifiers agree with the individual signers, on good and bad signatures.
+ */
+public class BatchSignatureVerifierTest
+    extends SimpleTest
+{
+    private static final String[] CURVES = { "secp256k1", "secp256r1", "secp384r1", "sect233k1" };
+
+    private SecureRandom random = new SecureRandom();
+
+    public String getName()
+    {
+        return "BatchSignatureVerifier";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        ecdsaTest(1);
+        ecdsaTest(4);
+        rsaTest(1);
+        rsaTest(3);
+        failureTest();
+    }
+
+    private void ecdsaTest(int parallelism)
+    {
+        ECDSABatchVerifier batch = new ECDSABatchVerifier(parallelism);
+
+        // a few keys per curve, each used for several signatures
+        AsymmetricCipherKeyPair[] pairs = new AsymmetricCipherKeyPair[CURVES.length * 2];
+        for (int i = 0; i < pairs.length; ++i)
+        {
+            X9ECParameters x9 = SECNamedCurves.getByName(CURVES[i / 2]);
+            ECDomainParameters params = new ECDomainParameters(x9.getCurve(), x9.getG(), x9.getN(), x9.getH());
+
+            ECKeyPairGenerator kpGen = new ECKeyPairGenerator();
+            kpGen.init(new ECKeyGenerationParameters(params, random));
+            pairs[i] = kpGen.generateKeyPair();
+        }
+
+        int count = 40;
+        boolean[] expected = new boolean[count];
+        ECDSASigner signer = new ECDSASigner();
+
+        for (int i = 0; i < count; ++i)
+        {
+            AsymmetricCipherKeyPair pair = pairs[i % pairs.length];
+            byte[] message = new byte[32];
+            random.nextBytes(message);
+
+            signer.init(true, new ParametersWithRandom(pair.getPrivate(), random));
+            BigInteger[] sig = signer.generateSignature(message);
+
+            BigInteger r = sig[0], s = sig[1];
+            switch (i % 5)
+            {
+            case 1:
+                message[0] ^= 1;
+                break;
+            case 3:
+                s = s.add(BigInteger.ONE);
+                break;
+            case 4:
+                r = BigInteger.ZERO;
+                break;
+            default:
+                break;
+            }
+
+            ECPublicKeyParameters pub = (ECPublicKeyParameters)pair.getPublic();
+
+            signer.init(false, pub);
+            expected[i] = signer.verifySignature(message, r, s);
+
+            batch.add(pub, message, r, s);
+        }
+
+        checkResults("ECDSA", batch, expected);
+    }
+
+    private void rsaTest(int parallelism)
+    {
+        RSADigestBatchVerifier batch = new RSADigestBatchVerifier(parallelism);
+
+        AsymmetricCipherKeyPair[] pairs = new AsymmetricCipherKeyPair[2];
+        for (int i = 0; i < pairs.length; ++i)
+        {
+            RSAKeyPairGenerator kpGen = new RSAKeyPairGenerator();
+            kpGen.init(new RSAKeyGenerationParameters(BigInteger.valueOf(0x10001), random, 1024, 25));
+            pairs[i] = kpGen.generateKeyPair();
+        }
+
+        int count = 30;
+        boolean[] expected = new boolean[count];
+
+        for (int i = 0; i < count; ++i)
+        {
+            AsymmetricCipherKeyPair pair = pairs[i % pairs.length];
+            byte[] message = new byte[20];
+            random.nextBytes(message);
+
+            RSADigestSigner signer = new RSADigestSigner(new SHA1Digest());
+            signer.init(true, pair.getPrivate());
+            signer.update(message, 0, message.length);
+
+            byte[] sig;
+            try
+            {
+                sig = signer.generateSignature();
+            }
+            catch (Exception e)
+            {
+                fail("RSA signature generation failed", e);
+                return;
+            }
+
+            if (i % 3 == 1)
+            {
+                sig[sig.length - 1] ^= 1;
+            }
+
+            RSAKeyParameters pub = (RSAKeyParameters)pair.getPublic();
+
+            signer.init(false, pub);
+            signer.update(message, 0, message.length);
+            expected[i] = signer.verifySignature(sig);
+
+            SHA1Digest digest = new SHA1Digest();
+            byte[] hash = new byte[digest.getDigestSize()];
+            digest.update(message, 0, message.length);
+            digest.doFinal(hash, 0);
+
+            batch.add(pub, X509ObjectIdentifiers.id_SHA1, hash, sig);
+        }
+
+        checkResults("RSA", batch, expected);
+    }
+
+    private void failureTest()
+    {
+        // an item whose verification fails on a worker thread
+        BatchSignatureVerifier batch = new BatchSignatureVerifier(4)
+        {
+            {
+                for (int i = 0; i < 40; ++i)
+                {
+                    addItem(new Integer(i));
+                }
+            }
+
+            protected void verify(Object[] batch, int off, int len, boolean[] results)
+            {
+                for (int i = off; i < off + len; ++i)
+                {
+                    if (((Integer)batch[i]).intValue() == 25)
+                    {
+                        throw new OutOfMemoryError("test");
+                    }
+                    results[i] = true;
+                }
+            }
+        };
+
+        try
+        {
+            batch.verify();
+            fail("worker failure not reported");
+        }
+        catch (OutOfMemoryError e)
+        {
+            // expected
+        }
+    }
+
+    private void checkResults(String label, BatchSignatureVerifier batch, boolean[] expected)
+    {
+        boolean[] results = batch.verify();
+
+        if (results.length != expected.length)
+        {
+            fail(label + " batch result count wrong");
+        }
+
+        int good = 0;
+        for (int i = 0; i < expected.length; ++i)
+        {
+            if (results[i] != expected[i])
+            {
+                fail(label + " batch result " + i + " wrong");
+            }
+            if (expected[i])
+            {
+                ++good;
+            }
+        }
+
+        if (good == 0 || good == expected.length)
+        {
+            fail(label + " batch should have mixed results");
+        }
+
+        batch.reset();
+        if (batch.size() != 0 || batch.verify().length != 0)
+        {
+            fail(label + " batch reset failed");
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        runTest(new BatchSignatureVerifierTest());
+    }
+}
@@ -0,0 +1,279 @@
+package org.bouncycastle.crypto.test;
+
+import java.security.SecureRandom;
+
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.Mac;
+import org.bouncycastle.crypto.MaxBytesExceededException;
+import org.bouncycastle.crypto.StreamCipher;
+import org.bouncycastle.crypto.engines.ChaCha7539Engine;
+import org.bouncycastle.crypto.macs.Poly1305;
+import org.bouncycastle.crypto.modes.AEADCipher;
+import org.bouncycastle.crypto.modes.ChaCha20Poly1305;
+import org.bouncycastle.crypto.params.AEADParameters;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Strings;
+import org.bouncycastle.util.encoders.Hex;
+import org.bouncycastle.util.test.SimpleTest;
+
+/**
+ * ChaCha20-Poly1305 tests, using the test vectors from RFC 7539.
+ */
+public class ChaCha20Poly1305Test
+    extends SimpleTest
+{
+    private static final byte[] SUNSCREEN = Strings.toByteArray("Ladies and Gentlemen of the class of '99: "
+        + "If I could offer you only one tip for the future, sunscreen would be it.");
+
+    public String getName()
+    {
+        return "ChaCha20Poly1305";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        testChaCha7539();
+        testCounterLimit();
+        testPoly1305();
+        testAEAD();
+        testChunked();
+        testTampered();
+    }
+
+    // RFC 7539 2.4.2
+    private void testChaCha7539()
+    {
+        byte[] key = Hex.decode("000102030405060708090a0b0c0d0e0f101112131415161718191a1b1c1d1e1f");
+        byte[] nonce = Hex.decode("000000000000004a00000000");
+        byte[] expected = Hex.decode(
+              "6e2e359a2568f98041ba0728dd0d6981e97e7aec1d4360c20a27afccfd9fae0b"
+            + "f91b65c5524733ab8f593dabcd62b3571639d624e65152ab8f530c359f0861d8"
+            + "07ca0dbf500d6a6156a38e088a22b65e52bc514d16ccf806818ce91ab7793736"
+            + "5af90bbf74a35be6b40b8eedf2785e42874d");
+
+        StreamCipher chacha = new ChaCha7539Engine();
+        chacha.init(true, new ParametersWithIV(new KeyParameter(key), nonce));
+
+        // the RFC example starts with a block counter of 1
+        byte[] block = new byte[64];
+        chacha.processBytes(block, 0, block.length, block, 0);
+
+        byte[] out = new byte[SUNSCREEN.length];
+        chacha.processBytes(SUNSCREEN, 0, SUNSCREEN.length, out, 0);
+
+        if (!areEqual(expected, out))
+        {
+            fail("ChaCha7539 failed", Hex.toHexString(expected), Hex.toHexString(out));
+        }
+    }
+
+    private void testCounterLimit()
+    {
+        ChaCha7539Engine chacha = new ChaCha7539Engine();
+        chacha.init(true, new ParametersWithIV(new KeyParameter(new byte[32]), new byte[12]));
+
+        // block 2^32 - 1 is the last one allowed
+        byte[] block = new byte[64];
+        chacha.seekTo(((1L << 32) - 1) * 64);
+        chacha.processBytes(block, 0, block.length, block, 0);
+
+        if (chacha.getPosition() != (1L << 32) * 64)
+        {
+            fail("wrong position at end of key stream: " + chacha.getPosition());
+        }
+
+        try
+        {
+            chacha.returnByte((byte)0);
+            fail("no exception past end of key stream");
+        }
+        catch (MaxBytesExceededException e)
+        {
+            // expected
+        }
+
+        chacha.seekTo(0);
+        chacha.processBytes(block, 0, block.length, block, 0);
+    }
+
+    // RFC 7539 2.5.2
+    private void testPoly1305()
+    {
+        byte[] key = Hex.decode("85d6be7857556d337f4452fe42d506a80103808afb0db2fd4abff6af4149f51b");
+        byte[] msg = Strings.toByteArray("Cryptographic Forum Research Group");
+        byte[] expected = Hex.decode("a8061dc1305136c6c22b8baf0c0127a9");
+
+        Mac mac = new Poly1305();
+        mac.init(new KeyParameter(key));
+        mac.update(msg, 0, msg.length);
+
+        byte[] out = new byte[mac.getMacSize()];
+        mac.doFinal(out, 0);
+
+        if (!areEqual(expected, out))
+        {
+            fail("Poly1305 failed", Hex.toHexString(expected), Hex.toHexString(out));
+        }
+    }
+
+    // RFC 7539 2.8.2
+    private void testAEAD()
+        throws InvalidCipherTextException
+    {
+        byte[] key = Hex.decode("808182838485868788898a8b8c8d8e8f909192939495969798999a9b9c9d9e9f");
+        byte[] nonce = Hex.decode("070000004041424344454647");
+        byte[] aad = Hex.decode("50515253c0c1c2c3c4c5c6c7");
+        byte[] expected = Hex.decode(
+              "d31a8d34648e60db7b86afbc53ef7ec2a4aded51296e08fea9e2b5a736ee62d6"
+            + "3dbea45e8ca9671282fafb69da92728b1a71de0a9e060b2905d6a5b67ecd3b36"
+            + "92ddbd7f2d778b8c9803aee328091b58fab324e4fad675945585808b4831d7bc"
+            + "3ff4def08e4b7a9de576d26586cec64b6116"
+            + "1ae10b594f09e26a7e902ecbd0600691");
+
+        AEADCipher cipher = new ChaCha20Poly1305();
+        cipher.init(true, new AEADParameters(new KeyParameter(key), 128, nonce, aad));
+
+        byte[] enc = new byte[cipher.getOutputSize(SUNSCREEN.length)];
+        int len = cipher.processBytes(SUNSCREEN, 0, SUNSCREEN.length, enc, 0);
+        len += cipher.doFinal(enc, len);
+
+        if (len != enc.length || !areEqual(expected, enc))
+        {
+            fail("AEAD encryption failed", Hex.toHexString(expected), Hex.toHexString(enc));
+        }
+        if (!areEqual(Arrays.copyOfRange(expected, SUNSCREEN.length, expected.length), cipher.getMac()))
+        {
+            fail("getMac() failed after encryption");
+        }
+
+        // AAD supplied separately, key reused
+        cipher.init(false, new ParametersWithIV(null, nonce));
+        cipher.processAADBytes(aad, 0, aad.length);
+
+        byte[] dec = new byte[cipher.getOutputSize(enc.length)];
+        len = cipher.processBytes(enc, 0, enc.length, dec, 0);
+        len += cipher.doFinal(dec, len);
+
+        if (len != SUNSCREEN.length || !areEqual(SUNSCREEN, dec))
+        {
+            fail("AEAD decryption failed");
+        }
+    }
+
+    private void testChunked()
+        throws InvalidCipherTextException
+    {
+        SecureRandom random = new SecureRandom();
+
+        byte[] key = new byte[32];
+        byte[] nonce = new byte[12];
+
+        for (int i = 0; i < 50; ++i)
+        {
+            random.nextBytes(key);
+            random.nextBytes(nonce);
+
+            byte[] aad = new byte[random.nextInt(40)];
+            random.nextBytes(aad);
+            byte[] msg = new byte[random.nextInt(1000)];
+            random.nextBytes(msg);
+
+            AEADParameters parameters = new AEADParameters(new KeyParameter(key), 128, nonce, aad);
+
+            AEADCipher cipher = new ChaCha20Poly1305();
+            cipher.init(true, parameters);
+            byte[] enc = new byte[cipher.getOutputSize(msg.length)];
+            int len = cipher.processBytes(msg, 0, msg.length, enc, 0);
+            cipher.doFinal(enc, len);
+
+            // encrypt again in place, in chunks
+            byte[] buf = new byte[enc.length];
+            System.arraycopy(msg, 0, buf, 0, msg.length);
+            cipher.init(true, parameters);
+            len = processInChunks(cipher, random, buf, msg.length);
+            cipher.doFinal(buf, len);
+
+            if (!areEqual(enc, buf))
+            {
+                fail("chunked encryption failed");
+            }
+
+            // decrypt in place, in chunks
+            cipher.init(false, parameters);
+            len = processInChunks(cipher, random, buf, buf.length);
+            len += cipher.doFinal(buf, len);
+
+            if (len != msg.length || !areEqual(msg, Arrays.copyOfRange(buf, 0, len)))
+            {
+                fail("chunked decryption failed");
+            }
+        }
+    }
+
+    private int processInChunks(AEADCipher cipher, SecureRandom random, byte[] buf, int length)
+    {
+        int inPos = 0, outPos = 0;
+        while (inPos < length)
+        {
+            int chunk = Math.min(length - inPos, random.nextInt(100));
+            outPos += cipher.processBytes(buf, inPos, chunk, buf, outPos);
+            inPos += chunk;
+        }
+        return outPos;
+    }
+
+    private void testTampered()
+    {
+        byte[] key = new byte[32];
+        byte[] nonce = new byte[12];
+
+        AEADCipher cipher = new ChaCha20Poly1305();
+        cipher.init(true, new ParametersWithIV(new KeyParameter(key), nonce));
+
+        byte[] enc = new byte[cipher.getOutputSize(SUNSCREEN.length)];
+        try
+        {
+            int len = cipher.processBytes(SUNSCREEN, 0, SUNSCREEN.length, enc, 0);
+            cipher.doFinal(enc, len);
+        }
+        catch (InvalidCipherTextException e)
+        {
+            fail("unexpected exception: " + e);
+        }
+
+        enc[5] ^= 1;
+
+        cipher.init(false, new ParametersWithIV(new KeyParameter(key), nonce));
+        byte[] dec = new byte[cipher.getOutputSize(enc.length)];
+        try
+        {
+            int len = cipher.processBytes(enc, 0, enc.length, dec, 0);
+            cipher.doFinal(dec, len);
+            fail("tampered ciphertext accepted");
+        }
+        catch (InvalidCipherTextException e)
+        {
+            // expected
+        }
+
+        try
+        {
+            cipher.processAADByte((byte)0);
+            cipher.processBytes(enc, 0, 1, dec, 0);
+            cipher.processAADByte((byte)0);
+            fail("AAD accepted after data");
+        }
+        catch (IllegalStateException e)
+        {
+            // expected
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        runTest(new ChaCha20Poly1305Test());
+    }
+}
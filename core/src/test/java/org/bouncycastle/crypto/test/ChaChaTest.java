@@ -156,6 +156,8 @@ public void performTest()
         chachaTest2(new ParametersWithIV(new KeyParameter(Hex.decode("0558ABFE51A4F74A9DF04396E93C8FE23588DB2E81D4277ACD2073C6196CBF12")), Hex.decode("167DE44BB21980E7")),
                   set6v1_0, set6v1_65472, set6v1_65536);
         reinitBug();
+        skipTest(new ParametersWithIV(new KeyParameter(Hex.decode("0053A6F94C9FF24598EB3E91E4378ADD3083D6297CCF2275C81B6EC11467BA0D")), Hex.decode("0D74DB42A91077DE")),
+                  set6v0_65472, set6v0_65536);
     }
 
     private void chachaTest1(int rounds, CipherParameters params, String v0, String v192, String v256, String v448)
@@ -240,6 +242,68 @@ private void chachaTest2(CipherParameters params, String v0, String v65472, Stri
         }
     }
 
+    private void skipTest(CipherParameters params, String v65472, String v65536)
+    {
+        ChaChaEngine chacha = new ChaChaEngine();
+        byte[]       buf = new byte[128];
+
+        chacha.init(true, params);
+
+        if (chacha.seekTo(65472) != 65472 || chacha.getPosition() != 65472)
+        {
+            fail("seekTo() failed");
+        }
+
+        chacha.processBytes(new byte[128], 0, 128, buf, 0);
+
+        if (!areEqual(buf, Hex.decode(v65472 + v65536)))
+        {
+            mismatch("seek/v65472", v65472 + v65536, buf);
+        }
+
+        // bulk processing in odd sized pieces must match the byte at a time key stream
+        byte[] data = new byte[1000];
+        for (int i = 0; i != data.length; i++)
+        {
+            data[i] = (byte)i;
+        }
+
+        byte[] expected = new byte[data.length];
+        chacha.init(true, params);
+        for (int i = 0; i != data.length; i++)
+        {
+            expected[i] = chacha.returnByte(data[i]);
+        }
+
+        byte[] out = new byte[data.length];
+        chacha.reset();
+        for (int pos = 0, step = 1; pos < data.length; pos += step, step += 29)
+        {
+            int len = Math.min(step, data.length - pos);
+            chacha.processBytes(data, pos, len, out, pos);
+        }
+
+        if (!areEqual(expected, out))
+        {
+            fail("bulk processing mismatch");
+        }
+
+        if (chacha.getPosition() != data.length)
+        {
+            fail("getPosition() failed");
+        }
+
+        chacha.skip(-701);
+        chacha.processBytes(data, 299, 200, out, 0);
+        for (int i = 0; i != 200; i++)
+        {
+            if (out[i] != expected[299 + i])
+            {
+                fail("skip() failed");
+            }
+        }
+    }
+
     private void mismatch(String name, String expected, byte[] found)
     {
         fail("mismatch on " + name, expected, new String(Hex.encode(found)));
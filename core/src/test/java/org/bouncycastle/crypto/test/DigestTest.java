@@ -105,6 +105,46 @@ public void performTest()
         {
             fail("failing memo copy vector test", results[results.length - 1], new String(Hex.encode(resBuf)));
         }
+
+        chunkedUpdateTest();
+    }
+
+    /**
+     * Hash a buffer a byte at a time, then in chunks of varying size and alignment so that bulk
+     * block processing starts both on and off block boundaries, and check the results agree.
+     */
+    private void chunkedUpdateTest()
+    {
+        byte[] data = new byte[1031];
+        for (int i = 0; i != data.length; i++)
+        {
+            data[i] = (byte)(i * 7 + 3);
+        }
+
+        byte[] expected = new byte[digest.getDigestSize()];
+        for (int i = 0; i != data.length; i++)
+        {
+            digest.update(data[i]);
+        }
+        digest.doFinal(expected, 0);
+
+        byte[] resBuf = new byte[digest.getDigestSize()];
+        int[] chunks = { 1, 3, 8, 63, 64, 65, 127, 128, 129, 300 };
+        for (int c = 0; c != chunks.length; c++)
+        {
+            // a short update first, so the bulk updates are not block aligned
+            digest.update(data, 0, c);
+            for (int off = c; off < data.length; off += chunks[c])
+            {
+                digest.update(data, off, Math.min(chunks[c], data.length - off));
+            }
+            digest.doFinal(resBuf, 0);
+
+            if (!areEqual(expected, resBuf))
+            {
+                fail("chunked update test failed for chunk size " + chunks[c]);
+            }
+        }
     }
 
     private byte[] toByteArray(String input)
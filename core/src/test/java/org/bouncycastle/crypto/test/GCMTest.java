@@ -8,11 +8,18 @@
 import org.bouncycastle.crypto.engines.DESEngine;
 import org.bouncycastle.crypto.modes.GCMBlockCipher;
 import org.bouncycastle.crypto.modes.gcm.BasicGCMMultiplier;
+import org.bouncycastle.crypto.modes.gcm.ConstantTimeGCMExponentiator;
+import org.bouncycastle.crypto.modes.gcm.ConstantTimeGCMMultiplier;
+import org.bouncycastle.crypto.modes.gcm.GCMExponentiator;
 import org.bouncycastle.crypto.modes.gcm.GCMMultiplier;
+import org.bouncycastle.crypto.modes.gcm.Tables1kLongGCMExponentiator;
 import org.bouncycastle.crypto.modes.gcm.Tables64kGCMMultiplier;
+import org.bouncycastle.crypto.modes.gcm.Tables64kLongGCMMultiplier;
 import org.bouncycastle.crypto.modes.gcm.Tables8kGCMMultiplier;
+import org.bouncycastle.crypto.modes.gcm.Tables8kLongGCMMultiplier;
 import org.bouncycastle.crypto.params.AEADParameters;
 import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.util.Arrays;
 import org.bouncycastle.util.encoders.Hex;
 import org.bouncycastle.util.test.SimpleTest;
 
@@ -367,6 +374,9 @@ private void runTestCase(String[] testVector, int macLength)
         runTestCase(new BasicGCMMultiplier(), new BasicGCMMultiplier(), testName, K, IV, A, P, C, T);
         runTestCase(new Tables8kGCMMultiplier(), new Tables8kGCMMultiplier(), testName, K, IV, A, P, C, T);
         runTestCase(new Tables64kGCMMultiplier(), new Tables64kGCMMultiplier(), testName, K, IV, A, P, C, T);
+        runTestCase(new Tables8kLongGCMMultiplier(), new Tables8kLongGCMMultiplier(), testName, K, IV, A, P, C, T);
+        runTestCase(new Tables64kLongGCMMultiplier(), new Tables64kLongGCMMultiplier(), testName, K, IV, A, P, C, T);
+        runTestCase(new ConstantTimeGCMMultiplier(), new ConstantTimeGCMMultiplier(), testName, K, IV, A, P, C, T);
     }
     
     private void runTestCase(
@@ -499,11 +509,20 @@ private void randomTests()
             randomTest(srng, new BasicGCMMultiplier()); 
             randomTest(srng, new Tables8kGCMMultiplier()); 
             randomTest(srng, new Tables64kGCMMultiplier()); 
+            randomTest(srng, new Tables8kLongGCMMultiplier());
+            randomTest(srng, new Tables64kLongGCMMultiplier(), new Tables1kLongGCMExponentiator());
+            randomTest(srng, new ConstantTimeGCMMultiplier(), new ConstantTimeGCMExponentiator());
         }
     }
 
     private void randomTest(SecureRandom srng, GCMMultiplier m)
         throws InvalidCipherTextException
+    {
+        randomTest(srng, m, null);
+    }
+
+    private void randomTest(SecureRandom srng, GCMMultiplier m, GCMExponentiator e)
+        throws InvalidCipherTextException
     {
         int kLength = 16 + 8 * (Math.abs(srng.nextInt()) % 3);
         byte[] K = new byte[kLength];
@@ -525,7 +544,7 @@ private void randomTest(SecureRandom srng, GCMMultiplier m)
         byte[] IV = new byte[ivLength];
         srng.nextBytes(IV);
 
-        GCMBlockCipher cipher = new GCMBlockCipher(new AESFastEngine(), m);
+        GCMBlockCipher cipher = new GCMBlockCipher(new AESFastEngine(), m, e);
         AEADParameters parameters = new AEADParameters(new KeyParameter(K), 16 * 8, IV, A);
         cipher.init(true, parameters);
         byte[] C = new byte[cipher.getOutputSize(P.length)];
@@ -584,6 +603,31 @@ private void randomTest(SecureRandom srng, GCMMultiplier m)
             fail("decryption produced different mac from encryption");
         }
 
+        //
+        // chunked processing, in place, to exercise the buffered and direct paths
+        //
+        cipher.init(true, parameters);
+        byte[] chunked = new byte[C.length];
+        System.arraycopy(P, 0, chunked, 0, P.length);
+        cipher.processAADBytes(SA, 0, SA.length);
+        len = processInChunks(srng, cipher, chunked, P.length);
+        len += cipher.doFinal(chunked, len);
+
+        if (!areEqual(C, chunked))
+        {
+            fail("chunked encryption produced different output in randomised test");
+        }
+
+        cipher.init(false, parameters);
+        cipher.processAADBytes(SA, 0, SA.length);
+        len = processInChunks(srng, cipher, chunked, C.length);
+        len += cipher.doFinal(chunked, len);
+
+        if (len != P.length || !areEqual(P, Arrays.copyOfRange(chunked, 0, len)))
+        {
+            fail("incorrect chunked decrypt in randomised test");
+        }
+
         //
         // key  reuse test
         //
@@ -609,6 +653,19 @@ private void randomTest(SecureRandom srng, GCMMultiplier m)
         }
     }
 
+    private int processInChunks(SecureRandom srng, GCMBlockCipher cipher, byte[] buf, int length)
+    {
+        // output never runs ahead of input when processing in place, as nothing is buffered at the start
+        int inPos = 0, outPos = 0;
+        while (inPos < length)
+        {
+            int chunk = Math.min(length - inPos, nextInt(srng, 100));
+            outPos += cipher.processBytes(buf, inPos, chunk, buf, outPos);
+            inPos += chunk;
+        }
+        return outPos;
+    }
+
     private void outputSizeTests()
     {
         byte[] K = new byte[16];
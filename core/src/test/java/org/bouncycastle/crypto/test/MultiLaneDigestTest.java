@@ -0,0 +1,110 @@
+package org.bouncycastle.crypto.test;
+
+import java.security.SecureRandom;
+
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.crypto.digests.MultiLaneDigest;
+import org.bouncycastle.crypto.digests.SHA1Digest;
+import org.bouncycastle.crypto.digests.SHA1MultiLaneDigest;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.digests.SHA256MultiLaneDigest;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.encoders.Hex;
+import org.bouncycastle.util.test.SimpleTest;
+
+/**
+ * Check the multi-lane digests against the standard implementations, over messages of mixed
+ * lengths around the padding boundaries.
+ */
+public class MultiLaneDigestTest
+    extends SimpleTest
+{
+    private SecureRandom random = new SecureRandom();
+
+    public String getName()
+    {
+        return "MultiLaneDigest";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        // "abc" and the empty string, FIPS 180-2 test vectors
+        byte[][] messages = new byte[][]{ new byte[0], "abc".getBytes() };
+
+        byte[][] sha256 = new SHA256MultiLaneDigest().hashAll(messages);
+        if (!Arrays.areEqual(sha256[0], Hex.decode("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855")))
+        {
+            fail("SHA-256 empty");
+        }
+        if (!Arrays.areEqual(sha256[1], Hex.decode("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad")))
+        {
+            fail("SHA-256 abc");
+        }
+
+        byte[][] sha1 = new SHA1MultiLaneDigest().hashAll(messages);
+        if (!Arrays.areEqual(sha1[0], Hex.decode("da39a3ee5e6b4b0d3255bfef95601890afd80709")))
+        {
+            fail("SHA-1 empty");
+        }
+        if (!Arrays.areEqual(sha1[1], Hex.decode("a9993e364706816aba3e25717850c26c9cd0d89d")))
+        {
+            fail("SHA-1 abc");
+        }
+
+        int[] laneCounts = new int[]{ 1, 3, 8 };
+        for (int i = 0; i < laneCounts.length; ++i)
+        {
+            compareTest(new SHA256MultiLaneDigest(laneCounts[i]), new SHA256Digest());
+            compareTest(new SHA1MultiLaneDigest(laneCounts[i]), new SHA1Digest());
+        }
+
+        if (new SHA256MultiLaneDigest().hashAll(new byte[0][]).length != 0)
+        {
+            fail("empty batch");
+        }
+    }
+
+    private void compareTest(MultiLaneDigest multi, Digest digest)
+    {
+        // every length over the first few blocks, then random lengths, in a shuffled order
+        byte[][] messages = new byte[250][];
+        for (int i = 0; i < messages.length; ++i)
+        {
+            int len = i < 200 ? i : random.nextInt(2000);
+            messages[i] = new byte[len];
+            random.nextBytes(messages[i]);
+        }
+        for (int i = messages.length - 1; i > 0; --i)
+        {
+            int j = random.nextInt(i + 1);
+            byte[] t = messages[i];
+            messages[i] = messages[j];
+            messages[j] = t;
+        }
+
+        byte[][] results = multi.hashAll(messages);
+
+        if (results.length != messages.length)
+        {
+            fail("wrong result count");
+        }
+
+        for (int i = 0; i < messages.length; ++i)
+        {
+            byte[] expected = new byte[digest.getDigestSize()];
+            digest.update(messages[i], 0, messages[i].length);
+            digest.doFinal(expected, 0);
+
+            if (!Arrays.areEqual(expected, results[i]))
+            {
+                fail(multi.getAlgorithmName() + " with " + multi.getLanes() + " lanes failed on length " + messages[i].length);
+            }
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        runTest(new MultiLaneDigestTest());
+    }
+}
@@ -0,0 +1,169 @@
+package org.bouncycastle.crypto.test;
+
+import java.security.SecureRandom;
+
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.crypto.digests.NonMemoableDigest;
+import org.bouncycastle.crypto.digests.ParallelDigest;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.util.Pack;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.test.SimpleTest;
+
+/**
+ * Check the tree hash against a direct calculation of its definition, for different chunk sizes,
+ * thread counts and update patterns.
+ */
+public class ParallelDigestTest
+    extends SimpleTest
+{
+    private SecureRandom random = new SecureRandom();
+
+    public String getName()
+    {
+        return "ParallelDigest";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        int[] lengths = { 0, 1, 63, 64, 65, 255, 256, 257, 1000, 4096, 10000 };
+
+        for (int i = 0; i != lengths.length; i++)
+        {
+            byte[] input = new byte[lengths[i]];
+            random.nextBytes(input);
+
+            for (int chunkSize = 64; chunkSize <= 1024; chunkSize *= 4)
+            {
+                byte[] expected = treeHash(input, chunkSize);
+
+                for (int parallelism = 1; parallelism <= 4; parallelism++)
+                {
+                    ParallelDigest digest = new ParallelDigest(new SHA256Digest(), chunkSize, parallelism);
+
+                    checkOneShot(digest, input, expected);
+                    checkByteAtATime(digest, input, expected);
+                    checkRandomPieces(digest, input, expected);
+                }
+            }
+        }
+
+        // the digest passed in is only copied, whatever it holds
+        SHA256Digest partial = new SHA256Digest();
+        partial.update((byte)'a');
+        byte[] input = new byte[1000];
+        random.nextBytes(input);
+
+        checkOneShot(new ParallelDigest(partial, 64, 2), input, treeHash(input, 64));
+
+        SHA256Digest direct = new SHA256Digest();
+        direct.update((byte)'a');
+        byte[] expected = new byte[direct.getDigestSize()];
+        byte[] result = new byte[partial.getDigestSize()];
+        direct.doFinal(expected, 0);
+        partial.doFinal(result, 0);
+        if (!Arrays.areEqual(expected, result))
+        {
+            fail("digest passed in was changed");
+        }
+
+        try
+        {
+            new ParallelDigest(new NonMemoableDigest(new SHA256Digest()), 1024, 2);
+            fail("no exception on non-Memoable digest");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    private void checkOneShot(ParallelDigest digest, byte[] input, byte[] expected)
+    {
+        byte[] result = new byte[digest.getDigestSize()];
+
+        digest.update(input, 0, input.length);
+        digest.doFinal(result, 0);
+
+        check(digest, "one shot", input, expected, result);
+    }
+
+    private void checkByteAtATime(ParallelDigest digest, byte[] input, byte[] expected)
+    {
+        byte[] result = new byte[digest.getDigestSize()];
+
+        for (int i = 0; i != input.length; i++)
+        {
+            digest.update(input[i]);
+        }
+        digest.doFinal(result, 0);
+
+        check(digest, "byte at a time", input, expected, result);
+    }
+
+    private void checkRandomPieces(ParallelDigest digest, byte[] input, byte[] expected)
+    {
+        byte[] result = new byte[digest.getDigestSize()];
+
+        // pieces are passed in from a scratch array that is overwritten after each update
+        byte[] scratch = new byte[input.length];
+        int off = 0;
+        while (off < input.length)
+        {
+            int len = Math.min(random.nextInt(3 * digest.getChunkSize()), input.length - off);
+
+            System.arraycopy(input, off, scratch, 0, len);
+            digest.update(scratch, 0, len);
+            Arrays.fill(scratch, (byte)0);
+
+            off += len;
+        }
+        digest.doFinal(result, 0);
+
+        check(digest, "random pieces", input, expected, result);
+    }
+
+    private void check(ParallelDigest digest, String label, byte[] input, byte[] expected, byte[] result)
+    {
+        if (!Arrays.areEqual(expected, result))
+        {
+            fail(label + " failed for " + input.length + " bytes with chunk size " + digest.getChunkSize());
+        }
+    }
+
+    private static byte[] treeHash(byte[] input, int chunkSize)
+    {
+        Digest root = new SHA256Digest();
+        Digest leaf = new SHA256Digest();
+        byte[] leafHash = new byte[leaf.getDigestSize()];
+
+        root.update((byte)0x01);
+
+        int off = 0;
+        do
+        {
+            int len = Math.min(chunkSize, input.length - off);
+
+            leaf.update((byte)0x00);
+            leaf.update(input, off, len);
+            leaf.doFinal(leafHash, 0);
+            root.update(leafHash, 0, leafHash.length);
+
+            off += len;
+        }
+        while (off < input.length);
+
+        root.update(Pack.longToBigEndian(input.length), 0, 8);
+        root.update(Pack.intToBigEndian(chunkSize), 0, 4);
+
+        byte[] result = new byte[root.getDigestSize()];
+        root.doFinal(result, 0);
+        return result;
+    }
+
+    public static void main(String[] args)
+    {
+        runTest(new ParallelDigestTest());
+    }
+}
@@ -50,6 +50,7 @@
         new RSATest(),
         new RSABlindedTest(),
         new RSADigestSignerTest(),
+        new BatchSignatureVerifierTest(),
         new PSSBlindTest(),
         new ISO9796Test(),
         new ISO9797Alg3MacTest(),
@@ -59,11 +60,15 @@
         new SHA1DigestTest(),
         new SHA224DigestTest(),
         new SHA256DigestTest(),
+        new MultiLaneDigestTest(),
+        new ParallelDigestTest(),
         new SHA384DigestTest(),
         new SHA512DigestTest(),
         new SHA512t224DigestTest(),
         new SHA512t256DigestTest(),
         new SHA3DigestTest(),
+        new SHAKEDigestTest(),
+        new BLAKE2DigestTest(),
         new RIPEMD128DigestTest(),
         new RIPEMD160DigestTest(),
         new RIPEMD256DigestTest(),
@@ -100,6 +105,7 @@
         new Salsa20Test(),
         new XSalsa20Test(),
         new ChaChaTest(),
+        new ChaCha20Poly1305Test(),
         new CMacTest(),
         new EAXTest(),
         new GCMTest(),
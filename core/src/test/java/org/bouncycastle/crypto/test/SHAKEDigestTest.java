@@ -0,0 +1,143 @@
+package org.bouncycastle.crypto.test;
+
+import org.bouncycastle.crypto.digests.SHAKEDigest;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.encoders.Hex;
+import org.bouncycastle.util.test.SimpleTest;
+
+/**
+ * SHAKE Digest Test
+ */
+public class SHAKEDigestTest
+    extends SimpleTest
+{
+    final static byte[][] messages = {
+        new byte[0],
+        Hex.decode("616263"),
+        repeat((byte)0xa3, 200)
+    };
+
+    final static String[] digests128 = {
+        "7f9c2ba4e88f827d616045507605853ed73b8093f6efbc88eb1a6eacfa66ef26",
+        "5881092dd818bf5cf8a3ddb793fbcba74097d5c526a6d35f97b83351940f2cc8",
+        "131ab8d2b594946b9c81333f9bb6e0ce75c3b93104fa3469d3917457385da037"
+    };
+
+    final static String[] digests256 = {
+        "46b9dd2b0ba88d13233b3feb743eeb243fcd52ea62b81b82b50c27646ed5762fd75dc4ddd8c0f200cb05019d67b592f6fc821c49479ab48640292eacb3b7c4be",
+        "483366601360a8771c6863080cc4114d8db44530f8f1e1ee4f94ea37e78b5739d5a15bef186a5386c75744c0527e1faa9f8726e462a12a4feb06bd8801e751e4",
+        "cd8a920ed141aa0407a22d59288652e9d9f1a7ee0c1e7c1ca699424da84a904d2d700caae7396ece96604440577da4f3aa22aeb8857f961c4cd8e06f0ae6610b"
+    };
+
+    // the last 32 bytes of 500 bytes of output, for the bytes 0 to 255 repeated twice
+    final static String long128 = "8a730b8b88d4b5984ad0b0625be723c7784e76a2efef02b0299b952ae29adc05";
+    final static String long256 = "0e12350b8df86452214a1bc4566f40fd46133b3647ecfff537fa9ac08fb06b0a";
+
+    private static byte[] repeat(byte b, int count)
+    {
+        byte[] bytes = new byte[count];
+        Arrays.fill(bytes, b);
+        return bytes;
+    }
+
+    public String getName()
+    {
+        return "SHAKE";
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        testDigest(new SHAKEDigest(128), digests128, long128);
+        testDigest(new SHAKEDigest(256), digests256, long256);
+
+        try
+        {
+            new SHAKEDigest(192);
+
+            fail("no exception on bad bit length");
+        }
+        catch (IllegalArgumentException e)
+        {
+            // expected
+        }
+    }
+
+    private void testDigest(SHAKEDigest digest, String[] expected, String longExpected)
+    {
+        for (int i = 0; i != expected.length; i++)
+        {
+            byte[] out = new byte[digest.getDigestSize()];
+
+            digest.update(messages[i], 0, messages[i].length);
+            digest.doFinal(out, 0);
+
+            if (!Arrays.areEqual(Hex.decode(expected[i]), out))
+            {
+                fail(digest.getAlgorithmName() + " vector " + i + " failed got " + new String(Hex.encode(out)));
+            }
+        }
+
+        byte[] input = new byte[512];
+        for (int i = 0; i != input.length; i++)
+        {
+            input[i] = (byte)i;
+        }
+
+        // one shot
+        byte[] full = new byte[500];
+        digest.update(input, 0, input.length);
+        digest.doFinal(full, 0, full.length);
+
+        if (!Arrays.areEqual(Hex.decode(longExpected), Arrays.copyOfRange(full, full.length - 32, full.length)))
+        {
+            fail(digest.getAlgorithmName() + " long output failed");
+        }
+
+        // odd sized input chunks, then output squeezed incrementally in odd sized pieces
+        for (int off = 0; off < input.length; off += 37)
+        {
+            digest.update(input, off, Math.min(37, input.length - off));
+        }
+
+        SHAKEDigest copy = new SHAKEDigest(digest);
+
+        byte[] pieces = new byte[full.length];
+        int pieceLen = 1;
+        for (int off = 0; off < pieces.length; off += pieceLen, pieceLen += 6)
+        {
+            digest.doOutput(pieces, off, Math.min(pieceLen, pieces.length - off));
+        }
+        digest.reset();
+
+        if (!Arrays.areEqual(full, pieces))
+        {
+            fail(digest.getAlgorithmName() + " incremental output failed");
+        }
+
+        byte[] copyOut = new byte[full.length];
+        copy.doFinal(copyOut, 0, copyOut.length);
+
+        if (!Arrays.areEqual(full, copyOut))
+        {
+            fail(digest.getAlgorithmName() + " copy failed");
+        }
+
+        try
+        {
+            digest.doOutput(pieces, 0, 1);
+            digest.update((byte)0);
+
+            fail("no exception on absorb after squeeze");
+        }
+        catch (IllegalStateException e)
+        {
+            digest.reset();
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        runTest(new SHAKEDigestTest());
+    }
+}
@@ -17,6 +17,11 @@ public static Test suite()
         TestSuite suite = new TestSuite("TLS tests");
 
         suite.addTest(BasicTlsTest.suite());
+        suite.addTestSuite(TlsProtocolNonBlockingTest.class);
+        suite.addTestSuite(TlsSessionCacheTest.class);
+        suite.addTestSuite(SessionTicketManagerTest.class);
+        suite.addTestSuite(TlsRecordCipherTest.class);
+        suite.addTestSuite(ByteQueueTest.class);
 
         return suite;
     }
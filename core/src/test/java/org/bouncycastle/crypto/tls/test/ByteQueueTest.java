@@ -0,0 +1,121 @@
+package org.bouncycastle.crypto.tls.test;
+
+import java.security.SecureRandom;
+
+import junit.framework.TestCase;
+import org.bouncycastle.crypto.tls.BufferPool;
+import org.bouncycastle.crypto.tls.ByteQueue;
+import org.bouncycastle.util.Arrays;
+
+public class ByteQueueTest
+    extends TestCase
+{
+    private SecureRandom random = new SecureRandom();
+
+    public void testWrapAround()
+    {
+        ByteQueue queue = new ByteQueue(new BufferPool(0), 64);
+
+        byte[] data = new byte[1000];
+        random.nextBytes(data);
+
+        // keep the queue part full, so that the data wraps around the end of the buffer
+        queue.addData(data, 0, 40);
+        int added = 40, removed = 0;
+        while (added < data.length)
+        {
+            int len = Math.min(data.length - added, 17);
+            queue.addData(data, added, len);
+            added += len;
+
+            byte[] peeked = new byte[5];
+            queue.read(peeked, 0, 5, 3);
+            assertTrue(Arrays.areEqual(Arrays.copyOfRange(data, removed + 3, removed + 8), peeked));
+
+            byte[] buf = queue.removeData(len, 0);
+            assertTrue(Arrays.areEqual(Arrays.copyOfRange(data, removed, removed + len), buf));
+            removed += len;
+
+            assertEquals(64, queue.capacity());
+        }
+
+        assertEquals(40, queue.size());
+    }
+
+    public void testGrowth()
+    {
+        ByteQueue queue = new ByteQueue(new BufferPool(0), 16);
+
+        byte[] data = new byte[5000];
+        random.nextBytes(data);
+
+        queue.addData(data, 0, 10);
+        queue.removeData(6);
+        for (int pos = 10; pos < data.length; pos += 100)
+        {
+            queue.addData(data, pos, Math.min(100, data.length - pos));
+        }
+
+        assertEquals(data.length - 6, queue.size());
+        assertEquals(8192, queue.capacity());
+
+        byte[] buf = new byte[queue.size()];
+        queue.removeData(buf, 0, buf.length, 0);
+        assertTrue(Arrays.areEqual(Arrays.copyOfRange(data, 6, data.length), buf));
+    }
+
+    public void testIdleRelease()
+    {
+        BufferPool pool = new BufferPool(4096);
+        ByteQueue q1 = new ByteQueue(pool), q2 = new ByteQueue(pool);
+
+        assertEquals(0, q1.capacity());
+
+        q1.addData(new byte[100], 0, 100);
+        assertEquals(1024, q1.capacity());
+        assertEquals(0, pool.getPooledBytes());
+
+        // an emptied queue gives its buffer back, for another queue to use
+        q1.removeData(100);
+        assertEquals(0, q1.capacity());
+        assertEquals(1024, pool.getPooledBytes());
+
+        q2.addData(new byte[10], 0, 10);
+        assertEquals(0, pool.getPooledBytes());
+
+        // a partial removal keeps the buffer
+        q2.removeData(5);
+        assertEquals(1024, q2.capacity());
+        q2.removeData(5);
+        assertEquals(1024, pool.getPooledBytes());
+
+        pool.clear();
+        assertEquals(0, pool.getPooledBytes());
+    }
+
+    public void testPoolBound()
+    {
+        BufferPool pool = new BufferPool(2048);
+
+        ByteQueue[] queues = new ByteQueue[3];
+        for (int i = 0; i < queues.length; ++i)
+        {
+            queues[i] = new ByteQueue(pool);
+            queues[i].addData(new byte[1], 0, 1);
+        }
+        for (int i = 0; i < queues.length; ++i)
+        {
+            queues[i].removeData(1);
+        }
+
+        // only two of the three buffers fit
+        assertEquals(2048, pool.getPooledBytes());
+
+        // buffers too large to pool are not kept
+        BufferPool largePool = new BufferPool(1 << 20);
+        ByteQueue large = new ByteQueue(largePool);
+        large.addData(new byte[100000], 0, 100000);
+        large.removeData(100000);
+        assertEquals(0, largePool.getPooledBytes());
+    }
+}
@@ -0,0 +1,324 @@
+package org.bouncycastle.crypto.tls.test;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.Hashtable;
+
+import junit.framework.TestCase;
+import org.bouncycastle.crypto.tls.CipherSuite;
+import org.bouncycastle.crypto.tls.CompressionMethod;
+import org.bouncycastle.crypto.tls.ExtensionType;
+import org.bouncycastle.crypto.tls.NewSessionTicket;
+import org.bouncycastle.crypto.tls.SecurityParameters;
+import org.bouncycastle.crypto.tls.SessionParameters;
+import org.bouncycastle.crypto.tls.SessionTicketManager;
+import org.bouncycastle.crypto.tls.TlsClientProtocol;
+import org.bouncycastle.crypto.tls.TlsExtensionsUtils;
+import org.bouncycastle.crypto.tls.TlsProtocol;
+import org.bouncycastle.crypto.tls.TlsServerProtocol;
+import org.bouncycastle.crypto.tls.TlsSession;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.Integers;
+
+public class SessionTicketManagerTest
+    extends TestCase
+{
+    private static final Integer EXT_SessionTicket = Integers.valueOf(ExtensionType.session_ticket);
+
+    private SecureRandom random = new SecureRandom();
+
+    public void testRoundTrip()
+        throws IOException
+    {
+        SessionTicketManager manager = new SessionTicketManager(random);
+
+        Hashtable serverExtensions = new Hashtable();
+        TlsExtensionsUtils.addTruncatedHMacExtension(serverExtensions);
+
+        SessionParameters params = createParameters(serverExtensions);
+        NewSessionTicket ticket = manager.createTicket(params);
+
+        assertEquals(SessionTicketManager.DEFAULT_LIFETIME / 1000, ticket.getTicketLifetimeHint());
+
+        SessionParameters decrypted = manager.decryptTicket(ticket.getTicket());
+        assertNotNull(decrypted);
+        assertEquals(params.getCipherSuite(), decrypted.getCipherSuite());
+        assertEquals(params.getCompressionAlgorithm(), decrypted.getCompressionAlgorithm());
+        assertTrue(Arrays.areEqual(params.getMasterSecret(), decrypted.getMasterSecret()));
+        assertNull(decrypted.getPeerCertificate());
+        assertTrue(TlsExtensionsUtils.hasTruncatedHMacExtension(decrypted.readServerExtensions()));
+
+        // each ticket uses a fresh nonce
+        assertFalse(Arrays.areEqual(ticket.getTicket(), manager.createTicket(params).getTicket()));
+    }
+
+    public void testTampering()
+        throws IOException
+    {
+        SessionTicketManager manager = new SessionTicketManager(random);
+
+        byte[] ticket = manager.createTicket(createParameters(null)).getTicket();
+
+        for (int i = 0; i < ticket.length; ++i)
+        {
+            byte[] tampered = Arrays.clone(ticket);
+            tampered[i] ^= 0x01;
+            assertNull("tampered byte " + i, manager.decryptTicket(tampered));
+        }
+
+        assertNull(manager.decryptTicket(Arrays.copyOf(ticket, ticket.length - 1)));
+        assertNull(manager.decryptTicket(new byte[0]));
+        assertNotNull(manager.decryptTicket(ticket));
+    }
+
+    public void testKeyRotation()
+        throws IOException
+    {
+        SessionTicketManager manager = new SessionTicketManager(random);
+
+        byte[] ticket = manager.createTicket(createParameters(null)).getTicket();
+
+        manager.rotateKey();
+        manager.rotateKey();
+        assertNotNull(manager.decryptTicket(ticket));
+
+        manager.rotateKey();
+        assertNull(manager.decryptTicket(ticket));
+
+        // another server with its own random key cannot read the ticket
+        byte[] current = manager.createTicket(createParameters(null)).getTicket();
+        assertNull(new SessionTicketManager(random).decryptTicket(current));
+    }
+
+    public void testSharedKeys()
+        throws IOException
+    {
+        byte[] keyName = new byte[16], key = new byte[32];
+        random.nextBytes(keyName);
+        random.nextBytes(key);
+
+        SessionTicketManager m1 = new SessionTicketManager(random, 60000L, keyName, key);
+        SessionTicketManager m2 = new SessionTicketManager(random, 60000L, keyName, key);
+
+        byte[] ticket = m1.createTicket(createParameters(null)).getTicket();
+        assertNotNull(m2.decryptTicket(ticket));
+    }
+
+    public void testLifetime()
+        throws IOException
+    {
+        TestClockManager manager = new TestClockManager(random, 10000L);
+
+        manager.now = 1000000L;
+        byte[] ticket = manager.createTicket(createParameters(null)).getTicket();
+
+        manager.now += 9999;
+        assertNotNull(manager.decryptTicket(ticket));
+
+        manager.now += 1;
+        assertNull(manager.decryptTicket(ticket));
+
+        // tickets from the future are not accepted either
+        manager.now = 0;
+        assertNull(manager.decryptTicket(ticket));
+    }
+
+    public void testResumption()
+        throws IOException
+    {
+        byte[] keyName = new byte[16], key = new byte[16];
+        random.nextBytes(keyName);
+        random.nextBytes(key);
+
+        // the two connections are served by different "servers" sharing only the ticket key
+        TicketClient client1 = new TicketClient(null, null);
+        connect(client1, new SessionTicketManager(random, 60000L, keyName, key));
+
+        assertNotNull(client1.newSessionTicket);
+        assertTrue(client1.newSessionTicket.getTicket().length > 0);
+        assertNull(client1.resumableSession);
+
+        byte[] sessionID = new byte[32];
+        random.nextBytes(sessionID);
+        TestSession session = new TestSession(sessionID, client1.sessionParameters);
+
+        TicketClient client2 = new TicketClient(session, client1.newSessionTicket.getTicket());
+        connect(client2, new SessionTicketManager(random, 60000L, keyName, key));
+
+        // the server echoed our session ID, so the session was resumed
+        assertSame(session, client2.resumableSession);
+        assertNull(client2.newSessionTicket);
+
+        // an unknown ticket falls back to a full handshake, and a new ticket
+        TicketClient client3 = new TicketClient(session, client1.newSessionTicket.getTicket());
+        connect(client3, new SessionTicketManager(random));
+
+        assertNull(client3.resumableSession);
+        assertNotNull(client3.newSessionTicket);
+    }
+
+    private void connect(TicketClient client, final SessionTicketManager manager)
+        throws IOException
+    {
+        TlsClientProtocol clientProtocol = new TlsClientProtocol(random);
+        TlsServerProtocol serverProtocol = new TlsServerProtocol(random);
+
+        clientProtocol.connect(client);
+        serverProtocol.accept(new TlsProtocolTest.MyTlsServer()
+        {
+            public SessionTicketManager getSessionTicketManager()
+            {
+                return manager;
+            }
+        });
+
+        boolean hadData = true;
+        while (hadData)
+        {
+            hadData = pumpData(clientProtocol, serverProtocol);
+            hadData |= pumpData(serverProtocol, clientProtocol);
+        }
+
+        byte[] data = new byte[100];
+        random.nextBytes(data);
+        serverProtocol.offerOutput(data, 0, data.length);
+        pumpData(serverProtocol, clientProtocol);
+
+        byte[] received = new byte[data.length];
+        assertEquals(data.length, clientProtocol.readInput(received, 0, received.length));
+        assertTrue(Arrays.areEqual(data, received));
+
+        clientProtocol.close();
+        pumpData(clientProtocol, serverProtocol);
+    }
+
+    private static boolean pumpData(TlsProtocol from, TlsProtocol to)
+        throws IOException
+    {
+        int count = from.getAvailableOutputBytes();
+        if (count == 0)
+        {
+            return false;
+        }
+
+        byte[] buffer = new byte[count];
+        from.readOutput(buffer, 0, count);
+        to.offerInput(buffer);
+        return true;
+    }
+
+    private SessionParameters createParameters(Hashtable serverExtensions)
+        throws IOException
+    {
+        byte[] masterSecret = new byte[48];
+        random.nextBytes(masterSecret);
+
+        return new SessionParameters.Builder()
+            .setCipherSuite(CipherSuite.TLS_RSA_WITH_AES_128_CBC_SHA)
+            .setCompressionAlgorithm(CompressionMethod._null)
+            .setMasterSecret(masterSecret)
+            .setServerExtensions(serverExtensions)
+            .build();
+    }
+
+    /**
+     * A client which offers the SessionTicket extension, presenting a ticket from an earlier
+     * connection if it has one, and records the outcome of the handshake.
+     */
+    private static class TicketClient
+        extends TlsProtocolTest.MyTlsClient
+    {
+        private final TlsSession sessionToResume;
+        private final byte[] ticket;
+
+        NewSessionTicket newSessionTicket = null;
+        SessionParameters sessionParameters = null;
+        TlsSession resumableSession = null;
+
+        TicketClient(TlsSession sessionToResume, byte[] ticket)
+        {
+            this.sessionToResume = sessionToResume;
+            this.ticket = ticket;
+        }
+
+        public TlsSession getSessionToResume()
+        {
+            return sessionToResume;
+        }
+
+        public Hashtable getClientExtensions()
+            throws IOException
+        {
+            Hashtable clientExtensions = TlsExtensionsUtils.ensureExtensionsInitialised(super.getClientExtensions());
+            clientExtensions.put(EXT_SessionTicket, ticket == null ? new byte[0] : ticket);
+            return clientExtensions;
+        }
+
+        public void notifyNewSessionTicket(NewSessionTicket newSessionTicket)
+            throws IOException
+        {
+            this.newSessionTicket = newSessionTicket;
+        }
+
+        public void notifyHandshakeComplete()
+            throws IOException
+        {
+            SecurityParameters securityParameters = context.getSecurityParameters();
+
+            this.sessionParameters = new SessionParameters.Builder()
+                .setCipherSuite(securityParameters.getCipherSuite())
+                .setCompressionAlgorithm(securityParameters.getCompressionAlgorithm())
+                .setMasterSecret(securityParameters.getMasterSecret())
+                .build();
+            this.resumableSession = context.getResumableSession();
+        }
+    }
+
+    private static class TestSession
+        implements TlsSession
+    {
+        private final byte[] sessionID;
+        private final SessionParameters sessionParameters;
+
+        TestSession(byte[] sessionID, SessionParameters sessionParameters)
+        {
+            this.sessionID = sessionID;
+            this.sessionParameters = sessionParameters;
+        }
+
+        public SessionParameters exportSessionParameters()
+        {
+            return sessionParameters.copy();
+        }
+
+        public byte[] getSessionID()
+        {
+            return sessionID;
+        }
+
+        public void invalidate()
+        {
+        }
+
+        public boolean isResumable()
+        {
+            return true;
+        }
+    }
+
+    private static class TestClockManager
+        extends SessionTicketManager
+    {
+        long now = 0;
+
+        TestClockManager(SecureRandom random, long lifetime)
+        {
+            super(random, lifetime);
+        }
+
+        protected long currentTimeMillis()
+        {
+            return now;
+        }
+    }
+}
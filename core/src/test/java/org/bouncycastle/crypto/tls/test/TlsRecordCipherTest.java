@@ -0,0 +1,140 @@
+package org.bouncycastle.crypto.tls.test;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+
+import junit.framework.TestCase;
+import org.bouncycastle.crypto.tls.CertificateRequest;
+import org.bouncycastle.crypto.tls.CipherSuite;
+import org.bouncycastle.crypto.tls.ProtocolVersion;
+import org.bouncycastle.crypto.tls.TlsClientProtocol;
+import org.bouncycastle.crypto.tls.TlsProtocol;
+import org.bouncycastle.crypto.tls.TlsServerProtocol;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * Exchange records of awkward sizes over each kind of record cipher, checking the buffers reused
+ * by the record layer give the same data back.
+ */
+public class TlsRecordCipherTest
+    extends TestCase
+{
+    private static final int[] DATA_SIZES = { 1, 15, 16, 17, 1000, 16383, 16384, 16385, 40000 };
+
+    private SecureRandom secureRandom = new SecureRandom();
+
+    public void testNullCipher()
+        throws IOException
+    {
+        testCipherSuite(ProtocolVersion.TLSv12, CipherSuite.TLS_RSA_WITH_NULL_SHA256);
+    }
+
+    public void testBlockCipherImplicitIV()
+        throws IOException
+    {
+        testCipherSuite(ProtocolVersion.TLSv10, CipherSuite.TLS_RSA_WITH_AES_128_CBC_SHA);
+    }
+
+    public void testBlockCipherExplicitIV()
+        throws IOException
+    {
+        testCipherSuite(ProtocolVersion.TLSv11, CipherSuite.TLS_RSA_WITH_AES_128_CBC_SHA);
+        testCipherSuite(ProtocolVersion.TLSv12, CipherSuite.TLS_RSA_WITH_AES_256_CBC_SHA256);
+        testCipherSuite(ProtocolVersion.TLSv12, CipherSuite.TLS_RSA_WITH_3DES_EDE_CBC_SHA);
+    }
+
+    public void testAEADCipher()
+        throws IOException
+    {
+        testCipherSuite(ProtocolVersion.TLSv12, CipherSuite.TLS_RSA_WITH_AES_128_GCM_SHA256);
+        testCipherSuite(ProtocolVersion.TLSv12, CipherSuite.TLS_RSA_WITH_AES_128_CCM_8);
+    }
+
+    public void testStreamCipher()
+        throws IOException
+    {
+        testCipherSuite(ProtocolVersion.TLSv12, CipherSuite.TLS_RSA_WITH_RC4_128_SHA);
+    }
+
+    private void testCipherSuite(final ProtocolVersion version, final int cipherSuite)
+        throws IOException
+    {
+        TlsClientProtocol clientProtocol = new TlsClientProtocol(secureRandom);
+        TlsServerProtocol serverProtocol = new TlsServerProtocol(secureRandom);
+
+        clientProtocol.connect(new TlsProtocolTest.MyTlsClient()
+        {
+            public ProtocolVersion getClientVersion()
+            {
+                return version;
+            }
+
+            public int[] getCipherSuites()
+            {
+                return new int[]{ cipherSuite };
+            }
+        });
+        serverProtocol.accept(new TlsProtocolTest.MyTlsServer()
+        {
+            protected ProtocolVersion getMaximumVersion()
+            {
+                return version;
+            }
+
+            protected int[] getCipherSuites()
+            {
+                return new int[]{ cipherSuite };
+            }
+
+            public CertificateRequest getCertificateRequest()
+            {
+                return null;
+            }
+        });
+
+        boolean hadData = true;
+        while (hadData)
+        {
+            hadData = pumpData(clientProtocol, serverProtocol);
+            hadData |= pumpData(serverProtocol, clientProtocol);
+        }
+
+        for (int i = 0; i < DATA_SIZES.length; ++i)
+        {
+            byte[] data = new byte[DATA_SIZES[i]];
+            secureRandom.nextBytes(data);
+            writeAndRead(clientProtocol, serverProtocol, data);
+            writeAndRead(serverProtocol, clientProtocol, data);
+        }
+
+        clientProtocol.close();
+        pumpData(clientProtocol, serverProtocol);
+    }
+
+    private static void writeAndRead(TlsProtocol writer, TlsProtocol reader, byte[] data)
+        throws IOException
+    {
+        writer.offerOutput(data, 0, data.length);
+        pumpData(writer, reader);
+
+        assertEquals(data.length, reader.getAvailableInputBytes());
+        byte[] readData = new byte[data.length];
+        reader.readInput(readData, 0, readData.length);
+        assertTrue(Arrays.areEqual(data, readData));
+    }
+
+    private static boolean pumpData(TlsProtocol from, TlsProtocol to)
+        throws IOException
+    {
+        int count = from.getAvailableOutputBytes();
+        if (count == 0)
+        {
+            return false;
+        }
+
+        byte[] buffer = new byte[count];
+        from.readOutput(buffer, 0, count);
+        to.offerInput(buffer);
+        return true;
+    }
+}
@@ -0,0 +1,259 @@
+package org.bouncycastle.crypto.tls.test;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+
+import junit.framework.TestCase;
+import org.bouncycastle.crypto.tls.DefaultTlsSessionCache;
+import org.bouncycastle.crypto.tls.SessionParameters;
+import org.bouncycastle.crypto.tls.TlsClientProtocol;
+import org.bouncycastle.crypto.tls.TlsProtocol;
+import org.bouncycastle.crypto.tls.TlsServerProtocol;
+import org.bouncycastle.crypto.tls.TlsSession;
+import org.bouncycastle.crypto.tls.TlsSessionCache;
+import org.bouncycastle.util.Arrays;
+
+public class TlsSessionCacheTest
+    extends TestCase
+{
+    public void testLeastRecentlyUsedEviction()
+    {
+        DefaultTlsSessionCache cache = new DefaultTlsSessionCache(1, 1000L);
+
+        TestSession s1 = new TestSession(1), s2 = new TestSession(2);
+
+        cache.put(s1);
+        assertSame(s1, cache.get(s1.getSessionID()));
+
+        cache.put(s2);
+        assertEquals(1, cache.size());
+        assertNull(cache.get(s1.getSessionID()));
+        assertSame(s2, cache.get(s2.getSessionID()));
+
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    public void testAccessOrder()
+    {
+        // small enough for a single stripe, so the order is exact
+        DefaultTlsSessionCache cache = new DefaultTlsSessionCache(3, 1000L);
+
+        TestSession[] sessions = new TestSession[4];
+        for (int i = 0; i < sessions.length; ++i)
+        {
+            sessions[i] = new TestSession(i);
+        }
+
+        cache.put(sessions[0]);
+        cache.put(sessions[1]);
+        cache.put(sessions[2]);
+
+        // using session 0 makes session 1 the least recently used
+        assertNotNull(cache.get(sessions[0].getSessionID()));
+        cache.put(sessions[3]);
+
+        assertNotNull(cache.get(sessions[0].getSessionID()));
+        assertNull(cache.get(sessions[1].getSessionID()));
+        assertNotNull(cache.get(sessions[2].getSessionID()));
+        assertNotNull(cache.get(sessions[3].getSessionID()));
+    }
+
+    public void testSizeBound()
+    {
+        DefaultTlsSessionCache cache = new DefaultTlsSessionCache(1000, 1000L);
+
+        for (int i = 0; i < 5000; ++i)
+        {
+            cache.put(new TestSession(i));
+        }
+
+        assertEquals(1000, cache.size());
+        assertEquals(4000, cache.getEvictionCount());
+    }
+
+    public void testLifetime()
+    {
+        TestClockCache cache = new TestClockCache(10, 1000L);
+
+        TestSession s1 = new TestSession(1), s2 = new TestSession(2);
+
+        cache.put(s1);
+        cache.now = 500;
+        cache.put(s2);
+
+        cache.now = 999;
+        assertSame(s1, cache.get(s1.getSessionID()));
+
+        cache.now = 1000;
+        assertNull(cache.get(s1.getSessionID()));
+        assertSame(s2, cache.get(s2.getSessionID()));
+
+        cache.now = 1500;
+        assertEquals(1, cache.removeExpired());
+        assertEquals(0, cache.size());
+        assertEquals(2, cache.getEvictionCount());
+    }
+
+    public void testInvalidatedSession()
+    {
+        DefaultTlsSessionCache cache = new DefaultTlsSessionCache();
+
+        TestSession s1 = new TestSession(1);
+        cache.put(s1);
+        s1.invalidate();
+
+        assertNull(cache.get(s1.getSessionID()));
+        assertEquals(0, cache.size());
+
+        // non-resumable sessions are never added
+        cache.put(s1);
+        assertEquals(0, cache.size());
+
+        TestSession s2 = new TestSession(2);
+        cache.put(s2);
+        cache.remove(s2.getSessionID());
+        assertNull(cache.get(s2.getSessionID()));
+    }
+
+    public void testResumption()
+        throws IOException
+    {
+        SecureRandom secureRandom = new SecureRandom();
+        DefaultTlsSessionCache cache = new DefaultTlsSessionCache();
+
+        TlsSession session = connect(secureRandom, cache, null);
+        assertNotNull(session);
+        assertTrue(session.isResumable());
+        assertEquals(1, cache.size());
+        assertEquals(0, cache.getHitCount());
+
+        TlsSession resumed = connect(secureRandom, cache, session);
+        assertTrue(Arrays.areEqual(session.getSessionID(), resumed.getSessionID()));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.size());
+
+        // once removed from the cache, a full handshake establishes a new session
+        cache.remove(session.getSessionID());
+
+        TlsSession renewed = connect(secureRandom, cache, session);
+        assertFalse(Arrays.areEqual(session.getSessionID(), renewed.getSessionID()));
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    private static TlsSession connect(SecureRandom secureRandom, final TlsSessionCache cache, final TlsSession toResume)
+        throws IOException
+    {
+        TlsClientProtocol clientProtocol = new TlsClientProtocol(secureRandom);
+        TlsServerProtocol serverProtocol = new TlsServerProtocol(secureRandom);
+
+        final TlsSession[] established = new TlsSession[1];
+
+        clientProtocol.connect(new TlsProtocolTest.MyTlsClient()
+        {
+            public TlsSession getSessionToResume()
+            {
+                return toResume;
+            }
+
+            public void notifyHandshakeComplete()
+                throws IOException
+            {
+                established[0] = context.getResumableSession();
+            }
+        });
+        serverProtocol.accept(new TlsProtocolTest.MyTlsServer()
+        {
+            public TlsSessionCache getSessionCache()
+            {
+                return cache;
+            }
+        });
+
+        boolean hadData = true;
+        while (hadData)
+        {
+            hadData = pumpData(clientProtocol, serverProtocol);
+            hadData |= pumpData(serverProtocol, clientProtocol);
+        }
+
+        byte[] data = new byte[100];
+        secureRandom.nextBytes(data);
+        clientProtocol.offerOutput(data, 0, data.length);
+        pumpData(clientProtocol, serverProtocol);
+
+        byte[] received = new byte[data.length];
+        assertEquals(data.length, serverProtocol.readInput(received, 0, received.length));
+        assertTrue(Arrays.areEqual(data, received));
+
+        clientProtocol.close();
+        pumpData(clientProtocol, serverProtocol);
+
+        return established[0];
+    }
+
+    private static boolean pumpData(TlsProtocol from, TlsProtocol to)
+        throws IOException
+    {
+        int count = from.getAvailableOutputBytes();
+        if (count == 0)
+        {
+            return false;
+        }
+
+        byte[] buffer = new byte[count];
+        from.readOutput(buffer, 0, count);
+        to.offerInput(buffer);
+        return true;
+    }
+
+    private static class TestClockCache
+        extends DefaultTlsSessionCache
+    {
+        long now = 0;
+
+        TestClockCache(int maxSize, long lifetime)
+        {
+            super(maxSize, lifetime);
+        }
+
+        protected long currentTimeMillis()
+        {
+            return now;
+        }
+    }
+
+    private static class TestSession
+        implements TlsSession
+    {
+        private final byte[] sessionID;
+        private boolean resumable = true;
+
+        TestSession(int id)
+        {
+            this.sessionID = new byte[]{ (byte)(id >> 8), (byte)id, 1, 2, 3 };
+        }
+
+        public SessionParameters exportSessionParameters()
+        {
+            return null;
+        }
+
+        public byte[] getSessionID()
+        {
+            return sessionID;
+        }
+
+        public void invalidate()
+        {
+            resumable = false;
+        }
+
+        public boolean isResumable()
+        {
+            return resumable;
+        }
+    }
+}
@@ -17,6 +17,7 @@ public static Test suite()
         TestSuite suite = new TestSuite("EC Math tests");
 
         suite.addTest(ECPointTest.suite());
+        suite.addTest(CustomCurveTest.suite());
 
         return suite;
     }
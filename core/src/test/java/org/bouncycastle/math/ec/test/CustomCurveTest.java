@@ -0,0 +1,115 @@
+package org.bouncycastle.math.ec.test;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import org.bouncycastle.asn1.sec.SECNamedCurves;
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECFieldElement;
+import org.bouncycastle.math.ec.ECPoint;
+
+/**
+ * Compare the curves in {@link org.bouncycastle.math.ec.custom.sec} against the generic
+ * BigInteger based implementation of the same curve.
+ */
+public class CustomCurveTest extends TestCase
+{
+    private static final String[] CURVES = { "secp256k1", "secp256r1", "secp384r1", "secp521r1" };
+
+    private SecureRandom random = new SecureRandom();
+
+    private ECCurve.Fp createGenericCurve(ECCurve.Fp curve)
+    {
+        return new ECCurve.Fp(curve.getQ(), curve.getA().toBigInteger(), curve.getB().toBigInteger());
+    }
+
+    private BigInteger randomFieldValue(BigInteger q)
+    {
+        return new BigInteger(q.bitLength(), random).mod(q);
+    }
+
+    private void assertSameValue(String msg, ECFieldElement expected, ECFieldElement actual)
+    {
+        assertEquals(msg, expected.toBigInteger(), actual.toBigInteger());
+    }
+
+    public void testFieldArithmetic()
+    {
+        for (int c = 0; c < CURVES.length; ++c)
+        {
+            ECCurve.Fp custom = (ECCurve.Fp)SECNamedCurves.getByName(CURVES[c]).getCurve();
+            ECCurve.Fp generic = createGenericCurve(custom);
+            BigInteger q = custom.getQ();
+
+            BigInteger[] special = new BigInteger[]{ BigInteger.ZERO, BigInteger.ONE,
+                q.subtract(BigInteger.ONE), q.shiftRight(1), BigInteger.ONE.shiftLeft(q.bitLength() - 1) };
+
+            for (int i = 0; i < 1000; ++i)
+            {
+                BigInteger a = i < special.length ? special[i] : randomFieldValue(q);
+                BigInteger b = i < special.length ? special[special.length - 1 - i] : randomFieldValue(q);
+
+                ECFieldElement ca = custom.fromBigInteger(a), cb = custom.fromBigInteger(b);
+                ECFieldElement ga = generic.fromBigInteger(a), gb = generic.fromBigInteger(b);
+
+                assertSameValue(CURVES[c] + " add", ga.add(gb), ca.add(cb));
+                assertSameValue(CURVES[c] + " addOne", ga.addOne(), ca.addOne());
+                assertSameValue(CURVES[c] + " subtract", ga.subtract(gb), ca.subtract(cb));
+                assertSameValue(CURVES[c] + " multiply", ga.multiply(gb), ca.multiply(cb));
+                assertSameValue(CURVES[c] + " square", ga.square(), ca.square());
+                assertSameValue(CURVES[c] + " negate", ga.negate(), ca.negate());
+
+                if (a.signum() != 0)
+                {
+                    assertSameValue(CURVES[c] + " invert", ga.invert(), ca.invert());
+                }
+
+                ECFieldElement root = ca.square().sqrt();
+                assertNotNull(CURVES[c] + " sqrt", root);
+                assertEquals(CURVES[c] + " sqrt", ca.square(), root.square());
+            }
+        }
+    }
+
+    public void testPointMultiply()
+    {
+        for (int c = 0; c < CURVES.length; ++c)
+        {
+            X9ECParameters x9 = SECNamedCurves.getByName(CURVES[c]);
+            ECCurve.Fp custom = (ECCurve.Fp)x9.getCurve();
+            ECCurve.Fp generic = createGenericCurve(custom);
+
+            assertEquals(CURVES[c] + " curve equality", generic, custom);
+            assertEquals(CURVES[c] + " curve equality", custom, generic);
+            assertEquals(CURVES[c] + " curve hashCode", generic.hashCode(), custom.hashCode());
+
+            ECPoint G = x9.getG();
+            ECPoint genericG = generic.importPoint(G);
+
+            assertTrue(CURVES[c] + " order", G.multiply(x9.getN()).isInfinity());
+
+            for (int i = 0; i < 10; ++i)
+            {
+                BigInteger k = new BigInteger(x9.getN().bitLength(), random);
+
+                ECPoint p = G.multiply(k).normalize();
+                ECPoint q = genericG.multiply(k).normalize();
+
+                assertEquals(CURVES[c] + " x", q.getAffineXCoord().toBigInteger(), p.getAffineXCoord().toBigInteger());
+                assertEquals(CURVES[c] + " y", q.getAffineYCoord().toBigInteger(), p.getAffineYCoord().toBigInteger());
+                assertEquals(CURVES[c] + " point equality", q, p);
+                assertEquals(CURVES[c] + " decoding", p, custom.decodePoint(p.getEncoded(true)));
+            }
+        }
+    }
+
+    public static Test suite()
+    {
+        return new TestSuite(CustomCurveTest.class);
+    }
+}
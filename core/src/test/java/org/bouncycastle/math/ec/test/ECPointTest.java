@@ -10,8 +10,11 @@
 
 import org.bouncycastle.asn1.sec.SECNamedCurves;
 import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.math.ec.ECAlgorithms;
 import org.bouncycastle.math.ec.ECCurve;
+import org.bouncycastle.math.ec.ECMultiplier;
 import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
 
 /**
  * Test class for {@link org.bouncycastle.math.ec.ECPoint ECPoint}. All
@@ -443,6 +446,66 @@ public void testAddSubtractMultiplyTwiceEncoding()
         }
     }
 
+    /**
+     * Checks the fixed-point comb multiplier against the reference implementation, for the
+     * generators of the standard elliptic curves as given in <code>SECNamedCurves</code>. The
+     * second round uses the comb table cached with the generator by the first.
+     */
+    public void testFixedPointComb()
+    {
+        ECMultiplier comb = new FixedPointCombMultiplier();
+
+        Enumeration curveEnum = SECNamedCurves.getNames();
+        while (curveEnum.hasMoreElements())
+        {
+            String name = (String) curveEnum.nextElement();
+            X9ECParameters x9ECParameters = SECNamedCurves.getByName(name);
+
+            BigInteger n = x9ECParameters.getN();
+            ECPoint g = x9ECParameters.getG();
+
+            for (int i = 0; i < 2; ++i)
+            {
+                BigInteger k = new BigInteger(n.bitLength(), secRand);
+                assertPointsEqual("FixedPointCombMultiplier is incorrect", multiply(g, k), comb.multiply(g, k));
+            }
+
+            assertPointsEqual("FixedPointCombMultiplier is incorrect", g, comb.multiply(g, BigInteger.ONE));
+            assertPointsEqual("FixedPointCombMultiplier is incorrect", g.negate(), comb.multiply(g, n.subtract(BigInteger.ONE)));
+
+            // a scalar longer than the table covers
+            BigInteger large = new BigInteger(g.getCurve().getFieldSize() + 10, secRand).setBit(g.getCurve().getFieldSize() + 9);
+            assertPointsEqual("FixedPointCombMultiplier is incorrect", multiply(g, large), comb.multiply(g, large));
+        }
+    }
+
+    public void testSumOfTwoMultiplies()
+    {
+        Enumeration curveEnum = SECNamedCurves.getNames();
+        while (curveEnum.hasMoreElements())
+        {
+            String name = (String) curveEnum.nextElement();
+            X9ECParameters x9ECParameters = SECNamedCurves.getByName(name);
+
+            BigInteger n = x9ECParameters.getN();
+            ECPoint g = x9ECParameters.getG();
+            ECPoint q = multiply(g, new BigInteger(n.bitLength(), secRand));
+
+            for (int i = 0; i < 2; ++i)
+            {
+                BigInteger a = new BigInteger(n.bitLength(), secRand);
+                BigInteger b = new BigInteger(n.bitLength(), secRand);
+                assertPointsEqual("sumOfTwoMultiplies is incorrect", multiply(g, a).add(multiply(q, b)),
+                    ECAlgorithms.sumOfTwoMultiplies(g, a, q, b));
+            }
+
+            assertPointsEqual("sumOfTwoMultiplies is incorrect", q,
+                ECAlgorithms.sumOfTwoMultiplies(g, BigInteger.ZERO, q, BigInteger.ONE));
+            assertPointsEqual("sumOfTwoMultiplies is incorrect", g.getCurve().getInfinity(),
+                ECAlgorithms.sumOfTwoMultiplies(g, BigInteger.ONE, g, n.subtract(BigInteger.ONE)));
+        }
+    }
+
     private void assertPointsEqual(String message, ECPoint a, ECPoint b)
     {
         assertEquals(message, a, b);
@@ -0,0 +1,254 @@
+package org.bouncycastle.operator.bc;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1Primitive;
+import org.bouncycastle.asn1.ASN1Sequence;
+import org.bouncycastle.asn1.oiw.OIWObjectIdentifiers;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.asn1.teletrust.TeleTrusTObjectIdentifiers;
+import org.bouncycastle.asn1.x509.AlgorithmIdentifier;
+import org.bouncycastle.asn1.x9.X9ObjectIdentifiers;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.crypto.Digest;
+import org.bouncycastle.crypto.params.AsymmetricKeyParameter;
+import org.bouncycastle.crypto.params.ECPublicKeyParameters;
+import org.bouncycastle.crypto.params.RSAKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSABatchVerifier;
+import org.bouncycastle.crypto.signers.RSADigestBatchVerifier;
+import org.bouncycastle.crypto.util.PublicKeyFactory;
+import org.bouncycastle.operator.DigestAlgorithmIdentifierFinder;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.util.Arrays;
+
+/**
+ * The batch counterpart of the ContentVerifierProvider builders in this package: collects many
+ * (key, content, signature) tuples and verifies them together using the batch verifiers in
+ * {@link org.bouncycastle.crypto.signers}. EC-DSA and RSA (PKCS#1 v1.5) signatures are supported.
+ */
+public class BcBatchContentVerifier
+{
+    private static final BigInteger ZERO = BigInteger.valueOf(0);
+
+    private static final Set rsaAlgs = new HashSet();
+    private static final Set ecdsaAlgs = new HashSet();
+
+    static
+    {
+        rsaAlgs.add(PKCSObjectIdentifiers.md2WithRSAEncryption);
+        rsaAlgs.add(PKCSObjectIdentifiers.md4WithRSAEncryption);
+        rsaAlgs.add(PKCSObjectIdentifiers.md5WithRSAEncryption);
+        rsaAlgs.add(PKCSObjectIdentifiers.sha1WithRSAEncryption);
+        rsaAlgs.add(PKCSObjectIdentifiers.sha224WithRSAEncryption);
+        rsaAlgs.add(PKCSObjectIdentifiers.sha256WithRSAEncryption);
+        rsaAlgs.add(PKCSObjectIdentifiers.sha384WithRSAEncryption);
+        rsaAlgs.add(PKCSObjectIdentifiers.sha512WithRSAEncryption);
+        rsaAlgs.add(OIWObjectIdentifiers.sha1WithRSA);
+        rsaAlgs.add(TeleTrusTObjectIdentifiers.rsaSignatureWithripemd128);
+        rsaAlgs.add(TeleTrusTObjectIdentifiers.rsaSignatureWithripemd160);
+        rsaAlgs.add(TeleTrusTObjectIdentifiers.rsaSignatureWithripemd256);
+
+        ecdsaAlgs.add(X9ObjectIdentifiers.ecdsa_with_SHA1);
+        ecdsaAlgs.add(X9ObjectIdentifiers.ecdsa_with_SHA224);
+        ecdsaAlgs.add(X9ObjectIdentifiers.ecdsa_with_SHA256);
+        ecdsaAlgs.add(X9ObjectIdentifiers.ecdsa_with_SHA384);
+        ecdsaAlgs.add(X9ObjectIdentifiers.ecdsa_with_SHA512);
+    }
+
+    protected BcDigestProvider digestProvider;
+
+    private final DigestAlgorithmIdentifierFinder digestAlgorithmFinder;
+    private final ECDSABatchVerifier ecdsaBatch;
+    private final RSADigestBatchVerifier rsaBatch;
+
+    // for each item, its index in the EC-DSA batch, or the complement of its index in the RSA batch
+    private int[] batchIndex = new int[16];
+    private int count = 0;
+
+    /**
+     * Create a verifier which checks its batches on the calling thread.
+     *
+     * @param digestAlgorithmFinder finder for the digest used by each signature algorithm.
+     */
+    public BcBatchContentVerifier(DigestAlgorithmIdentifierFinder digestAlgorithmFinder)
+    {
+        this(digestAlgorithmFinder, 1);
+    }
+
+    /**
+     * Create a verifier which checks its batches using up to parallelism threads.
+     *
+     * @param digestAlgorithmFinder finder for the digest used by each signature algorithm.
+     * @param parallelism the maximum number of threads to use.
+     */
+    public BcBatchContentVerifier(DigestAlgorithmIdentifierFinder digestAlgorithmFinder, int parallelism)
+    {
+        this.digestProvider = BcDefaultDigestProvider.INSTANCE;
+        this.digestAlgorithmFinder = digestAlgorithmFinder;
+        this.ecdsaBatch = new ECDSABatchVerifier(parallelism);
+        this.rsaBatch = new RSADigestBatchVerifier(parallelism);
+    }
+
+    /**
+     * Add a signature to the batch, using the public key in the passed in certificate.
+     *
+     * @param certHolder the certificate holding the public key to verify with.
+     * @param sigAlgId the signature algorithm used.
+     * @param content the content that was signed.
+     * @param signature the signature on the content.
+     * @throws OperatorCreationException if the key or algorithm is not supported.
+     */
+    public void add(X509CertificateHolder certHolder, AlgorithmIdentifier sigAlgId, byte[] content, byte[] signature)
+        throws OperatorCreationException
+    {
+        AsymmetricKeyParameter publicKey;
+        try
+        {
+            publicKey = PublicKeyFactory.createKey(certHolder.getSubjectPublicKeyInfo());
+        }
+        catch (IOException e)
+        {
+            throw new OperatorCreationException("exception on setup: " + e, e);
+        }
+
+        add(publicKey, sigAlgId, content, signature);
+    }
+
+    /**
+     * Add a signature to the batch.
+     *
+     * @param publicKey the public key to verify with.
+     * @param sigAlgId the signature algorithm used.
+     * @param content the content that was signed.
+     * @param signature the signature on the content.
+     * @throws OperatorCreationException if the key or algorithm is not supported, or they don't
+     * go together.
+     */
+    public void add(AsymmetricKeyParameter publicKey, AlgorithmIdentifier sigAlgId, byte[] content, byte[] signature)
+        throws OperatorCreationException
+    {
+        boolean isECDSA;
+        if (publicKey instanceof ECPublicKeyParameters)
+        {
+            isECDSA = true;
+        }
+        else if (publicKey instanceof RSAKeyParameters)
+        {
+            isECDSA = false;
+        }
+        else
+        {
+            throw new OperatorCreationException("no batch verifier for key type: " + publicKey.getClass().getName());
+        }
+
+        if (!(isECDSA ? ecdsaAlgs : rsaAlgs).contains(sigAlgId.getAlgorithm()))
+        {
+            throw new OperatorCreationException("no batch verifier for signature algorithm " + sigAlgId.getAlgorithm()
+                + " with key type: " + publicKey.getClass().getName());
+        }
+
+        AlgorithmIdentifier digAlg = digestAlgorithmFinder.find(sigAlgId);
+        if (digAlg == null || digAlg.getAlgorithm() == null)
+        {
+            throw new OperatorCreationException("cannot find digest for signature algorithm: " + sigAlgId.getAlgorithm());
+        }
+
+        Digest dig = digestProvider.get(digAlg);
+        byte[] hash = new byte[dig.getDigestSize()];
+        dig.update(content, 0, content.length);
+        dig.doFinal(hash, 0);
+
+        if (isECDSA)
+        {
+            BigInteger[] rs = derDecode(signature);
+
+            record(ecdsaBatch.size());
+            ecdsaBatch.add((ECPublicKeyParameters)publicKey, hash, rs[0], rs[1]);
+        }
+        else
+        {
+            record(~rsaBatch.size());
+            rsaBatch.add((RSAKeyParameters)publicKey, digAlg.getAlgorithm(), hash, signature);
+        }
+    }
+
+    /**
+     * Return the number of signatures currently in the batch.
+     *
+     * @return the batch size.
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Remove all the signatures from the batch.
+     */
+    public void reset()
+    {
+        ecdsaBatch.reset();
+        rsaBatch.reset();
+        count = 0;
+    }
+
+    /**
+     * Verify all the signatures in the batch.
+     *
+     * @return an array holding, for each signature in the order it was added, true if the
+     * signature verifies, false otherwise.
+     */
+    public boolean[] verify()
+    {
+        boolean[] ecResults = ecdsaBatch.verify();
+        boolean[] rsaResults = rsaBatch.verify();
+
+        boolean[] results = new boolean[count];
+        for (int i = 0; i < count; ++i)
+        {
+            int index = batchIndex[i];
+            results[i] = index >= 0 ? ecResults[index] : rsaResults[~index];
+        }
+        return results;
+    }
+
+    private void record(int index)
+    {
+        if (count == batchIndex.length)
+        {
+            batchIndex = Arrays.copyOf(batchIndex, count * 2);
+        }
+
+        batchIndex[count] = index;
+        ++count;
+    }
+
+    /**
+     * Decode an EC-DSA signature, returning an invalid (r, s) of zeroes if the encoding is
+     * broken so the item simply fails to verify.
+     */
+    private static BigInteger[] derDecode(byte[] encoding)
+    {
+        try
+        {
+            ASN1Sequence s = ASN1Sequence.getInstance(ASN1Primitive.fromByteArray(encoding));
+            if (s.size() == 2)
+            {
+                return new BigInteger[]{
+                    ASN1Integer.getInstance(s.getObjectAt(0)).getValue(),
+                    ASN1Integer.getInstance(s.getObjectAt(1)).getValue()
+                };
+            }
+        }
+        catch (Exception e)
+        {
+            // fall through
+        }
+
+        return new BigInteger[]{ ZERO, ZERO };
+    }
+}
@@ -24,6 +24,8 @@
 import org.bouncycastle.asn1.DERBitString;
 import org.bouncycastle.asn1.DERSequence;
 import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.asn1.pkcs.RSASSAPSSparams;
+import org.bouncycastle.asn1.sec.SECNamedCurves;
 import org.bouncycastle.asn1.x500.X500Name;
 import org.bouncycastle.asn1.x500.X500NameBuilder;
 import org.bouncycastle.asn1.x500.style.RFC4519Style;
@@ -39,6 +41,8 @@
 import org.bouncycastle.asn1.x509.KeyPurposeId;
 import org.bouncycastle.asn1.x509.KeyUsage;
 import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.asn1.x9.X9ObjectIdentifiers;
 import org.bouncycastle.cert.CertException;
 import org.bouncycastle.cert.X509CRLEntryHolder;
 import org.bouncycastle.cert.X509CRLHolder;
@@ -52,15 +56,21 @@
 import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
 import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
 import org.bouncycastle.crypto.AsymmetricCipherKeyPairGenerator;
+import org.bouncycastle.crypto.digests.SHA256Digest;
 import org.bouncycastle.crypto.generators.DSAKeyPairGenerator;
 import org.bouncycastle.crypto.generators.DSAParametersGenerator;
+import org.bouncycastle.crypto.generators.ECKeyPairGenerator;
 import org.bouncycastle.crypto.generators.RSAKeyPairGenerator;
 import org.bouncycastle.crypto.params.AsymmetricKeyParameter;
 import org.bouncycastle.crypto.params.DSAKeyGenerationParameters;
 import org.bouncycastle.crypto.params.DSAParameters;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECKeyGenerationParameters;
 import org.bouncycastle.crypto.params.RSAKeyGenerationParameters;
 import org.bouncycastle.crypto.params.RSAKeyParameters;
 import org.bouncycastle.crypto.params.RSAPrivateCrtKeyParameters;
+import org.bouncycastle.crypto.signers.DSADigestSigner;
+import org.bouncycastle.crypto.signers.ECDSASigner;
 import org.bouncycastle.crypto.util.SubjectPublicKeyInfoFactory;
 import org.bouncycastle.jce.provider.test.PEMData;
 import org.bouncycastle.operator.ContentSigner;
@@ -68,6 +78,7 @@
 import org.bouncycastle.operator.DefaultDigestAlgorithmIdentifierFinder;
 import org.bouncycastle.operator.DefaultSignatureAlgorithmIdentifierFinder;
 import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.bc.BcBatchContentVerifier;
 import org.bouncycastle.operator.bc.BcDSAContentSignerBuilder;
 import org.bouncycastle.operator.bc.BcDSAContentVerifierProviderBuilder;
 import org.bouncycastle.operator.bc.BcRSAContentSignerBuilder;
@@ -1262,6 +1273,108 @@ public void testForgedSignature()
         assertFalse(hldr.isSignatureValid(new BcRSAContentVerifierProviderBuilder(digAlgFinder).build(hldr)));
     }
 
+    public void testBatchVerification()
+        throws Exception
+    {
+        SecureRandom random = new SecureRandom();
+        BcBatchContentVerifier batch = new BcBatchContentVerifier(digAlgFinder);
+
+        //
+        // RSA signed certificates, the last one with a damaged signature
+        //
+        AsymmetricCipherKeyPairGenerator kpg = new RSAKeyPairGenerator();
+        kpg.init(new RSAKeyGenerationParameters(BigInteger.valueOf(0x1001), random, 1024, 25));
+
+        AsymmetricCipherKeyPair rsaPair = kpg.generateKeyPair();
+
+        AlgorithmIdentifier sigAlg = sigAlgFinder.find("SHA256WithRSAEncryption");
+        ContentSigner sigGen = new BcRSAContentSignerBuilder(sigAlg, digAlgFinder.find(sigAlg)).build(rsaPair.getPrivate());
+
+        for (int i = 0; i != 3; i++)
+        {
+            X509CertificateHolder certH = new BcX509v3CertificateBuilder(createStdBuilder().build(), BigInteger.valueOf(i), new Date(System.currentTimeMillis() - 50000), new Date(System.currentTimeMillis() + 50000), createStdBuilder().build(), rsaPair.getPublic()).build(sigGen);
+
+            byte[] sig = certH.getSignature();
+            if (i == 2)
+            {
+                sig[sig.length - 1] ^= 1;
+            }
+
+            batch.add(certH, certH.getSignatureAlgorithm(), certH.toASN1Structure().getTBSCertificate().getEncoded(), sig);
+        }
+
+        //
+        // EC-DSA signed content, the last two with altered content and a broken encoding
+        //
+        X9ECParameters x9 = SECNamedCurves.getByName("secp256r1");
+        ECKeyPairGenerator ecKpg = new ECKeyPairGenerator();
+        ecKpg.init(new ECKeyGenerationParameters(new ECDomainParameters(x9.getCurve(), x9.getG(), x9.getN()), random));
+
+        AsymmetricCipherKeyPair ecPair = ecKpg.generateKeyPair();
+        AlgorithmIdentifier ecSigAlg = new AlgorithmIdentifier(X9ObjectIdentifiers.ecdsa_with_SHA256);
+
+        for (int i = 0; i != 4; i++)
+        {
+            byte[] content = new byte[100];
+            random.nextBytes(content);
+
+            DSADigestSigner signer = new DSADigestSigner(new ECDSASigner(), new SHA256Digest());
+            signer.init(true, ecPair.getPrivate());
+            signer.update(content, 0, content.length);
+
+            byte[] sig = signer.generateSignature();
+            if (i == 2)
+            {
+                content[0] ^= 1;
+            }
+            else if (i == 3)
+            {
+                sig = new byte[] { 0x30, 0x01, 0x00 };
+            }
+
+            batch.add(ecPair.getPublic(), ecSigAlg, content, sig);
+        }
+
+        boolean[] results = batch.verify();
+
+        assertEquals(7, batch.size());
+        assertEquals(7, results.length);
+        assertTrue(results[0]);
+        assertTrue(results[1]);
+        assertFalse(results[2]);
+        assertTrue(results[3]);
+        assertTrue(results[4]);
+        assertFalse(results[5]);
+        assertFalse(results[6]);
+
+        //
+        // algorithms without a batch verifier, or not matching the key, are rejected
+        //
+        try
+        {
+            batch.add(rsaPair.getPublic(), new AlgorithmIdentifier(PKCSObjectIdentifiers.id_RSASSA_PSS, new RSASSAPSSparams()), new byte[10], new byte[128]);
+            fail("no exception for RSASSA-PSS");
+        }
+        catch (OperatorCreationException e)
+        {
+            // expected
+        }
+
+        try
+        {
+            batch.add(rsaPair.getPublic(), ecSigAlg, new byte[10], new byte[128]);
+            fail("no exception for RSA key with EC-DSA algorithm");
+        }
+        catch (OperatorCreationException e)
+        {
+            // expected
+        }
+        assertEquals(7, batch.size());
+
+        batch.reset();
+        assertEquals(0, batch.verify().length);
+    }
+
     private void pemTest()
         throws Exception
     {
@@ -0,0 +1,177 @@
+package org.bouncycastle.jcajce.provider.digest;
+
+import org.bouncycastle.crypto.CipherKeyGenerator;
+import org.bouncycastle.crypto.digests.BLAKE2bDigest;
+import org.bouncycastle.crypto.macs.BLAKE2bMac;
+import org.bouncycastle.jcajce.provider.config.ConfigurableProvider;
+import org.bouncycastle.jcajce.provider.symmetric.util.BaseKeyGenerator;
+import org.bouncycastle.jcajce.provider.symmetric.util.BaseMac;
+
+public class BLAKE2b
+{
+    private BLAKE2b()
+    {
+
+    }
+
+    static public class DigestBLAKE2b
+        extends BCMessageDigest
+        implements Cloneable
+    {
+        public DigestBLAKE2b(int size)
+        {
+            super(new BLAKE2bDigest(size));
+        }
+
+        public Object clone()
+            throws CloneNotSupportedException
+        {
+            BCMessageDigest d = (BCMessageDigest)super.clone();
+            d.digest = new BLAKE2bDigest((BLAKE2bDigest)digest);
+
+            return d;
+        }
+    }
+
+    static public class Digest160
+        extends DigestBLAKE2b
+    {
+        public Digest160()
+        {
+            super(160);
+        }
+    }
+
+    static public class Digest256
+        extends DigestBLAKE2b
+    {
+        public Digest256()
+        {
+            super(256);
+        }
+    }
+
+    static public class Digest384
+        extends DigestBLAKE2b
+    {
+        public Digest384()
+        {
+            super(384);
+        }
+    }
+
+    static public class Digest512
+        extends DigestBLAKE2b
+    {
+        public Digest512()
+        {
+            super(512);
+        }
+    }
+
+    /**
+     * BLAKE2b keyed hash MAC
+     */
+    public static class Mac160
+        extends BaseMac
+    {
+        public Mac160()
+        {
+            super(new BLAKE2bMac(160));
+        }
+    }
+
+    public static class Mac256
+        extends BaseMac
+    {
+        public Mac256()
+        {
+            super(new BLAKE2bMac(256));
+        }
+    }
+
+    public static class Mac384
+        extends BaseMac
+    {
+        public Mac384()
+        {
+            super(new BLAKE2bMac(384));
+        }
+    }
+
+    public static class Mac512
+        extends BaseMac
+    {
+        public Mac512()
+        {
+            super(new BLAKE2bMac(512));
+        }
+    }
+
+    public static class KeyGenerator160
+        extends BaseKeyGenerator
+    {
+        public KeyGenerator160()
+        {
+            super("BLAKE2b-MAC-160", 512, new CipherKeyGenerator());
+        }
+    }
+
+    public static class KeyGenerator256
+        extends BaseKeyGenerator
+    {
+        public KeyGenerator256()
+        {
+            super("BLAKE2b-MAC-256", 512, new CipherKeyGenerator());
+        }
+    }
+
+    public static class KeyGenerator384
+        extends BaseKeyGenerator
+    {
+        public KeyGenerator384()
+        {
+            super("BLAKE2b-MAC-384", 512, new CipherKeyGenerator());
+        }
+    }
+
+    public static class KeyGenerator512
+        extends BaseKeyGenerator
+    {
+        public KeyGenerator512()
+        {
+            super("BLAKE2b-MAC-512", 512, new CipherKeyGenerator());
+        }
+    }
+
+    public static class Mappings
+        extends DigestAlgorithmProvider
+    {
+        private static final String PREFIX = BLAKE2b.class.getName();
+
+        public Mappings()
+        {
+        }
+
+        public void configure(ConfigurableProvider provider)
+        {
+            provider.addAlgorithm("MessageDigest.BLAKE2b-160", PREFIX + "$Digest160");
+            provider.addAlgorithm("MessageDigest.BLAKE2b-256", PREFIX + "$Digest256");
+            provider.addAlgorithm("MessageDigest.BLAKE2b-384", PREFIX + "$Digest384");
+            provider.addAlgorithm("MessageDigest.BLAKE2b-512", PREFIX + "$Digest512");
+
+            addBLAKE2MacAlgorithm(provider, 160);
+            addBLAKE2MacAlgorithm(provider, 256);
+            addBLAKE2MacAlgorithm(provider, 384);
+            addBLAKE2MacAlgorithm(provider, 512);
+        }
+
+        private void addBLAKE2MacAlgorithm(ConfigurableProvider provider, int outputSize)
+        {
+            String mainName = "BLAKE2b-MAC-" + outputSize;
+
+            provider.addAlgorithm("Mac." + mainName, PREFIX + "$Mac" + outputSize);
+            provider.addAlgorithm("KeyGenerator." + mainName, PREFIX + "$KeyGenerator" + outputSize);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.bouncycastle.jcajce.provider.digest;
+
+import org.bouncycastle.crypto.CipherKeyGenerator;
+import org.bouncycastle.crypto.digests.BLAKE2sDigest;
+import org.bouncycastle.crypto.macs.BLAKE2sMac;
+import org.bouncycastle.jcajce.provider.config.ConfigurableProvider;
+import org.bouncycastle.jcajce.provider.symmetric.util.BaseKeyGenerator;
+import org.bouncycastle.jcajce.provider.symmetric.util.BaseMac;
+
+public class BLAKE2s
+{
+    private BLAKE2s()
+    {
+
+    }
+
+    static public class DigestBLAKE2s
+        extends BCMessageDigest
+        implements Cloneable
+    {
+        public DigestBLAKE2s(int size)
+        {
+            super(new BLAKE2sDigest(size));
+        }
+
+        public Object clone()
+            throws CloneNotSupportedException
+        {
+            BCMessageDigest d = (BCMessageDigest)super.clone();
+            d.digest = new BLAKE2sDigest((BLAKE2sDigest)digest);
+
+            return d;
+        }
+    }
+
+    static public class Digest128
+        extends DigestBLAKE2s
+    {
+        public Digest128()
+        {
+            super(128);
+        }
+    }
+
+    static public class Digest160
+        extends DigestBLAKE2s
+    {
+        public Digest160()
+        {
+            super(160);
+        }
+    }
+
+    static public class Digest224
+        extends DigestBLAKE2s
+    {
+        public Digest224()
+        {
+            super(224);
+        }
+    }
+
+    static public class Digest256
+        extends DigestBLAKE2s
+    {
+        public Digest256()
+        {
+            super(256);
+        }
+    }
+
+    /**
+     * BLAKE2s keyed hash MAC
+     */
+    public static class Mac128
+        extends BaseMac
+    {
+        public Mac128()
+        {
+            super(new BLAKE2sMac(128));
+        }
+    }
+
+    public static class Mac160
+        extends BaseMac
+    {
+        public Mac160()
+        {
+            super(new BLAKE2sMac(160));
+        }
+    }
+
+    public static class Mac224
+        extends BaseMac
+    {
+        public Mac224()
+        {
+            super(new BLAKE2sMac(224));
+        }
+    }
+
+    public static class Mac256
+        extends BaseMac
+    {
+        public Mac256()
+        {
+            super(new BLAKE2sMac(256));
+        }
+    }
+
+    public static class KeyGenerator128
+        extends BaseKeyGenerator
+    {
+        public KeyGenerator128()
+        {
+            super("BLAKE2s-MAC-128", 256, new CipherKeyGenerator());
+        }
+    }
+
+    public static class KeyGenerator160
+        extends BaseKeyGenerator
+    {
+        public KeyGenerator160()
+        {
+            super("BLAKE2s-MAC-160", 256, new CipherKeyGenerator());
+        }
+    }
+
+    public static class KeyGenerator224
+        extends BaseKeyGenerator
+    {
+        public KeyGenerator224()
+        {
+            super("BLAKE2s-MAC-224", 256, new CipherKeyGenerator());
+        }
+    }
+
+    public static class KeyGenerator256
+        extends BaseKeyGenerator
+    {
+        public KeyGenerator256()
+        {
+            super("BLAKE2s-MAC-256", 256, new CipherKeyGenerator());
+        }
+    }
+
+    public static class Mappings
+        extends DigestAlgorithmProvider
+    {
+        private static final String PREFIX = BLAKE2s.class.getName();
+
+        public Mappings()
+        {
+        }
+
+        public void configure(ConfigurableProvider provider)
+        {
+            provider.addAlgorithm("MessageDigest.BLAKE2s-128", PREFIX + "$Digest128");
+            provider.addAlgorithm("MessageDigest.BLAKE2s-160", PREFIX + "$Digest160");
+            provider.addAlgorithm("MessageDigest.BLAKE2s-224", PREFIX + "$Digest224");
+            provider.addAlgorithm("MessageDigest.BLAKE2s-256", PREFIX + "$Digest256");
+
+            addBLAKE2MacAlgorithm(provider, 128);
+            addBLAKE2MacAlgorithm(provider, 160);
+            addBLAKE2MacAlgorithm(provider, 224);
+            addBLAKE2MacAlgorithm(provider, 256);
+        }
+
+        private void addBLAKE2MacAlgorithm(ConfigurableProvider provider, int outputSize)
+        {
+            String mainName = "BLAKE2s-MAC-" + outputSize;
+
+            provider.addAlgorithm("Mac." + mainName, PREFIX + "$Mac" + outputSize);
+            provider.addAlgorithm("KeyGenerator." + mainName, PREFIX + "$KeyGenerator" + outputSize);
+        }
+    }
+}
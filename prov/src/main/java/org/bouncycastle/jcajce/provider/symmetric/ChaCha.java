@@ -1,10 +1,14 @@
 package org.bouncycastle.jcajce.provider.symmetric;
 
 import org.bouncycastle.crypto.CipherKeyGenerator;
+import org.bouncycastle.crypto.engines.ChaCha7539Engine;
 import org.bouncycastle.crypto.engines.ChaChaEngine;
+import org.bouncycastle.crypto.modes.ChaCha20Poly1305;
 import org.bouncycastle.jcajce.provider.config.ConfigurableProvider;
+import org.bouncycastle.jcajce.provider.symmetric.util.BaseAEADCipher;
 import org.bouncycastle.jcajce.provider.symmetric.util.BaseKeyGenerator;
 import org.bouncycastle.jcajce.provider.symmetric.util.BaseStreamCipher;
+import org.bouncycastle.jcajce.provider.symmetric.util.IvAlgorithmParameters;
 import org.bouncycastle.jcajce.provider.util.AlgorithmProvider;
 
 public final class ChaCha
@@ -22,6 +26,33 @@ public Base()
         }
     }
 
+    public static class Base7539
+        extends BaseStreamCipher
+    {
+        public Base7539()
+        {
+            super(new ChaCha7539Engine(), 12);
+        }
+    }
+
+    public static class BaseCC20P1305
+        extends BaseAEADCipher
+    {
+        public BaseCC20P1305()
+        {
+            super(new ChaCha20Poly1305(), 12);
+        }
+    }
+
+    public static class AlgParamsCC20P1305
+        extends IvAlgorithmParameters
+    {
+        protected String engineToString()
+        {
+            return "ChaCha20-Poly1305 Nonce";
+        }
+    }
+
     public static class KeyGen
         extends BaseKeyGenerator
     {
@@ -31,6 +62,15 @@ public KeyGen()
         }
     }
 
+    public static class KeyGen7539
+        extends BaseKeyGenerator
+    {
+        public KeyGen7539()
+        {
+            super("ChaCha7539", 256, new CipherKeyGenerator());
+        }
+    }
+
     public static class Mappings
         extends AlgorithmProvider
     {
@@ -46,6 +86,14 @@ public void configure(ConfigurableProvider provider)
             provider.addAlgorithm("Cipher.CHACHA", PREFIX + "$Base");
             provider.addAlgorithm("KeyGenerator.CHACHA", PREFIX + "$KeyGen");
 
+            provider.addAlgorithm("Cipher.CHACHA7539", PREFIX + "$Base7539");
+            provider.addAlgorithm("KeyGenerator.CHACHA7539", PREFIX + "$KeyGen7539");
+
+            provider.addAlgorithm("Cipher.CHACHA20-POLY1305", PREFIX + "$BaseCC20P1305");
+            provider.addAlgorithm("Alg.Alias.KeyGenerator.CHACHA20-POLY1305", "CHACHA7539");
+            provider.addAlgorithm("AlgorithmParameters.CHACHA20-POLY1305", PREFIX + "$AlgParamsCC20P1305");
+            provider.addAlgorithm("Alg.Alias.AlgorithmParameters.CHACHA20POLY1305", "CHACHA20-POLY1305");
+
         }
     }
 }
@@ -0,0 +1,332 @@
+package org.bouncycastle.jcajce.provider.symmetric.util;
+
+import java.nio.ByteBuffer;
+import java.security.AlgorithmParameters;
+import java.security.InvalidAlgorithmParameterException;
+import java.security.InvalidKeyException;
+import java.security.InvalidParameterException;
+import java.security.Key;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.security.spec.AlgorithmParameterSpec;
+
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.NoSuchPaddingException;
+import javax.crypto.SecretKey;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.IvParameterSpec;
+
+import org.bouncycastle.crypto.DataLengthException;
+import org.bouncycastle.crypto.InvalidCipherTextException;
+import org.bouncycastle.crypto.OutputLengthException;
+import org.bouncycastle.crypto.modes.AEADCipher;
+import org.bouncycastle.crypto.params.KeyParameter;
+import org.bouncycastle.crypto.params.ParametersWithIV;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+
+/**
+ * Base class for AEAD ciphers which are not built on a block cipher, such as ChaCha20-Poly1305.
+ * The nonce is passed using an IvParameterSpec and will be randomly generated on encryption if
+ * none is given.
+ */
+public class BaseAEADCipher
+    extends BaseWrapCipher
+{
+    private AEADCipher cipher;
+    private ParametersWithIV ivParam;
+
+    private int ivLength;
+
+    protected BaseAEADCipher(
+        AEADCipher engine,
+        int ivLength)
+    {
+        this.cipher = engine;
+        this.ivLength = ivLength;
+    }
+
+    protected int engineGetBlockSize()
+    {
+        return 0;
+    }
+
+    protected byte[] engineGetIV()
+    {
+        return (ivParam != null) ? ivParam.getIV() : null;
+    }
+
+    protected int engineGetKeySize(
+        Key key)
+    {
+        return key.getEncoded().length * 8;
+    }
+
+    protected int engineGetOutputSize(
+        int inputLen)
+    {
+        return cipher.getOutputSize(inputLen);
+    }
+
+    protected AlgorithmParameters engineGetParameters()
+    {
+        if (engineParams == null && ivParam != null)
+        {
+            try
+            {
+                engineParams = AlgorithmParameters.getInstance(cipher.getAlgorithmName(), BouncyCastleProvider.PROVIDER_NAME);
+                engineParams.init(new IvParameterSpec(ivParam.getIV()));
+            }
+            catch (Exception e)
+            {
+                throw new RuntimeException(e.toString());
+            }
+        }
+
+        return engineParams;
+    }
+
+    protected void engineSetMode(
+        String mode)
+        throws NoSuchAlgorithmException
+    {
+        if (!mode.equalsIgnoreCase("NONE") && !mode.equalsIgnoreCase("ECB"))
+        {
+            throw new NoSuchAlgorithmException("can't support mode " + mode);
+        }
+    }
+
+    protected void engineSetPadding(
+        String padding)
+        throws NoSuchPaddingException
+    {
+        if (!padding.equalsIgnoreCase("NoPadding"))
+        {
+            throw new NoSuchPaddingException("Padding " + padding + " unknown.");
+        }
+    }
+
+    protected void engineInit(
+        int opmode,
+        Key key,
+        AlgorithmParameterSpec params,
+        SecureRandom random)
+        throws InvalidKeyException, InvalidAlgorithmParameterException
+    {
+        this.engineParams = null;
+
+        if (!(key instanceof SecretKey))
+        {
+            throw new InvalidKeyException("Key for algorithm " + key.getAlgorithm() + " not suitable for symmetric enryption.");
+        }
+
+        boolean forEncryption;
+        switch (opmode)
+        {
+        case Cipher.ENCRYPT_MODE:
+        case Cipher.WRAP_MODE:
+            forEncryption = true;
+            break;
+        case Cipher.DECRYPT_MODE:
+        case Cipher.UNWRAP_MODE:
+            forEncryption = false;
+            break;
+        default:
+            throw new InvalidParameterException("unknown opmode " + opmode + " passed");
+        }
+
+        KeyParameter keyParam = new KeyParameter(key.getEncoded());
+
+        if (params instanceof IvParameterSpec)
+        {
+            byte[] iv = ((IvParameterSpec)params).getIV();
+            if (iv.length != ivLength)
+            {
+                throw new InvalidAlgorithmParameterException("IV must be " + ivLength + " bytes long.");
+            }
+            ivParam = new ParametersWithIV(keyParam, iv);
+        }
+        else if (params == null)
+        {
+            if (!forEncryption)
+            {
+                throw new InvalidAlgorithmParameterException("no IV set when one expected");
+            }
+
+            SecureRandom ivRandom = (random != null) ? random : new SecureRandom();
+            byte[] iv = new byte[ivLength];
+
+            ivRandom.nextBytes(iv);
+            ivParam = new ParametersWithIV(keyParam, iv);
+        }
+        else
+        {
+            throw new InvalidAlgorithmParameterException("unknown parameter type.");
+        }
+
+        try
+        {
+            cipher.init(forEncryption, ivParam);
+        }
+        catch (Exception e)
+        {
+            throw new InvalidKeyException(e.getMessage());
+        }
+    }
+
+    protected void engineInit(
+        int opmode,
+        Key key,
+        AlgorithmParameters params,
+        SecureRandom random)
+        throws InvalidKeyException, InvalidAlgorithmParameterException
+    {
+        AlgorithmParameterSpec paramSpec = null;
+
+        if (params != null)
+        {
+            try
+            {
+                paramSpec = params.getParameterSpec(IvParameterSpec.class);
+            }
+            catch (Exception e)
+            {
+                throw new InvalidAlgorithmParameterException("can't handle parameter " + params.toString());
+            }
+        }
+
+        engineInit(opmode, key, paramSpec, random);
+        engineParams = params;
+    }
+
+    protected void engineInit(
+        int opmode,
+        Key key,
+        SecureRandom random)
+        throws InvalidKeyException
+    {
+        try
+        {
+            engineInit(opmode, key, (AlgorithmParameterSpec)null, random);
+        }
+        catch (InvalidAlgorithmParameterException e)
+        {
+            throw new InvalidKeyException(e.getMessage());
+        }
+    }
+
+    protected void engineUpdateAAD(byte[] input, int offset, int length)
+    {
+        cipher.processAADBytes(input, offset, length);
+    }
+
+    protected void engineUpdateAAD(ByteBuffer bytebuffer)
+    {
+        int offset = bytebuffer.arrayOffset() + bytebuffer.position();
+        int length = bytebuffer.limit() - bytebuffer.position();
+        engineUpdateAAD(bytebuffer.array(), offset, length);
+    }
+
+    protected byte[] engineUpdate(
+        byte[] input,
+        int inputOffset,
+        int inputLen)
+    {
+        byte[] out = new byte[cipher.getUpdateOutputSize(inputLen)];
+
+        int len = cipher.processBytes(input, inputOffset, inputLen, out, 0);
+
+        if (len == out.length)
+        {
+            return out;
+        }
+
+        byte[] tmp = new byte[len];
+
+        System.arraycopy(out, 0, tmp, 0, len);
+
+        return tmp;
+    }
+
+    protected int engineUpdate(
+        byte[] input,
+        int inputOffset,
+        int inputLen,
+        byte[] output,
+        int outputOffset)
+        throws ShortBufferException
+    {
+        try
+        {
+            return cipher.processBytes(input, inputOffset, inputLen, output, outputOffset);
+        }
+        catch (DataLengthException e)
+        {
+            throw new ShortBufferException(e.getMessage());
+        }
+    }
+
+    protected byte[] engineDoFinal(
+        byte[] input,
+        int inputOffset,
+        int inputLen)
+        throws IllegalBlockSizeException, BadPaddingException
+    {
+        byte[] tmp = new byte[engineGetOutputSize(inputLen)];
+
+        int len;
+        try
+        {
+            len = engineDoFinal(input, inputOffset, inputLen, tmp, 0);
+        }
+        catch (ShortBufferException e)
+        {
+            throw new IllegalBlockSizeException(e.getMessage());
+        }
+
+        if (len == tmp.length)
+        {
+            return tmp;
+        }
+
+        byte[] out = new byte[len];
+
+        System.arraycopy(tmp, 0, out, 0, len);
+
+        return out;
+    }
+
+    protected int engineDoFinal(
+        byte[] input,
+        int inputOffset,
+        int inputLen,
+        byte[] output,
+        int outputOffset)
+        throws IllegalBlockSizeException, BadPaddingException, ShortBufferException
+    {
+        try
+        {
+            int len = 0;
+
+            if (inputLen != 0)
+            {
+                len = cipher.processBytes(input, inputOffset, inputLen, output, outputOffset);
+            }
+
+            return (len + cipher.doFinal(output, outputOffset + len));
+        }
+        catch (OutputLengthException e)
+        {
+            throw new ShortBufferException(e.getMessage());
+        }
+        catch (DataLengthException e)
+        {
+            throw new IllegalBlockSizeException(e.getMessage());
+        }
+        catch (InvalidCipherTextException e)
+        {
+            throw new BadPaddingException(e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.bouncycastle.jce.provider.test;
 
+import java.security.AlgorithmParameters;
 import java.security.InvalidAlgorithmParameterException;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
@@ -16,6 +17,7 @@
 
 import org.bouncycastle.jcajce.spec.RepeatedSecretKeySpec;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.util.Strings;
 import org.bouncycastle.util.encoders.Hex;
 import org.bouncycastle.util.test.SimpleTest;
 
@@ -31,6 +33,17 @@ public class AEADTest extends SimpleTest
     // C2 with only 64bit MAC (default for EAX)
     private byte[] C2_short = Hex.decode("19DD5C4C9331049D0BDA");
 
+    // ChaCha20-Poly1305 test vector from RFC 7539 2.8.2
+    private byte[] K3 = Hex.decode("808182838485868788898a8b8c8d8e8f909192939495969798999a9b9c9d9e9f");
+    private byte[] N3 = Hex.decode("070000004041424344454647");
+    private byte[] A3 = Hex.decode("50515253c0c1c2c3c4c5c6c7");
+    private byte[] P3 = Strings.toByteArray("Ladies and Gentlemen of the class of '99: "
+        + "If I could offer you only one tip for the future, sunscreen would be it.");
+    private byte[] C3 = Hex.decode(
+          "d31a8d34648e60db7b86afbc53ef7ec2a4aded51296e08fea9e2b5a736ee62d63dbea45e8ca9671282fafb69da92728b"
+        + "1a71de0a9e060b2905d6a5b67ecd3b3692ddbd7f2d778b8c9803aee328091b58fab324e4fad675945585808b4831d7bc"
+        + "3ff4def08e4b7a9de576d26586cec64b61161ae10b594f09e26a7e902ecbd0600691");
+
     public String getName()
     {
         return "AEAD";
@@ -45,6 +58,7 @@ public void performTest() throws Exception
             checkCipherWithAD(K2, N2, A2, P2, C2_short);
             testGCMParameterSpec(K2, N2, A2, P2, C2);
             testGCMParameterSpecWithRepeatKey(K2, N2, A2, P2, C2);
+            checkChaCha20Poly1305(K3, N3, A3, P3, C3);
         }
         catch (Exception e)
         {
@@ -84,6 +98,71 @@ private void checkCipherWithAD(byte[] K,
         }
     }
 
+    private void checkChaCha20Poly1305(byte[] K,
+                                       byte[] N,
+                                       byte[] A,
+                                       byte[] P,
+                                       byte[] C) throws Exception
+    {
+        Cipher cipher = Cipher.getInstance("ChaCha20-Poly1305", "BC");
+        SecretKeySpec key = new SecretKeySpec(K, "ChaCha20-Poly1305");
+        IvParameterSpec iv = new IvParameterSpec(N);
+
+        cipher.init(Cipher.ENCRYPT_MODE, key, iv);
+        cipher.updateAAD(A);
+        byte[] c = cipher.doFinal(P);
+
+        if (!areEqual(C, c))
+        {
+            fail("ChaCha20-Poly1305 encrypt failed.");
+        }
+
+        cipher.init(Cipher.DECRYPT_MODE, key, iv);
+        cipher.updateAAD(A);
+        byte[] p = cipher.doFinal(C);
+
+        if (!areEqual(P, p))
+        {
+            fail("ChaCha20-Poly1305 decrypt failed.");
+        }
+
+        C[0] ^= 1;
+        cipher.init(Cipher.DECRYPT_MODE, key, iv);
+        cipher.updateAAD(A);
+        try
+        {
+            cipher.doFinal(C);
+            fail("ChaCha20-Poly1305 tampered ciphertext accepted.");
+        }
+        catch (BadPaddingException e)
+        {
+            // expected
+        }
+        finally
+        {
+            C[0] ^= 1;
+        }
+
+        cipher.init(Cipher.ENCRYPT_MODE, key);
+        cipher.updateAAD(A);
+        c = cipher.doFinal(P);
+
+        AlgorithmParameters params = cipher.getParameters();
+        if (params == null)
+        {
+            fail("ChaCha20-Poly1305 parameters not available for generated nonce.");
+        }
+
+        cipher.init(Cipher.DECRYPT_MODE, key, params);
+        cipher.updateAAD(A);
+        p = cipher.doFinal(c);
+
+        if (!areEqual(P, p))
+        {
+            fail("ChaCha20-Poly1305 decrypt with generated nonce failed.");
+        }
+    }
+
     private void testGCMParameterSpec(byte[] K,
                                       byte[] N,
                                       byte[] A,
@@ -0,0 +1,123 @@
+package org.bouncycastle.jce.provider.test;
+
+import java.security.MessageDigest;
+import java.security.Security;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.util.Arrays;
+import org.bouncycastle.util.encoders.Hex;
+import org.bouncycastle.util.test.SimpleTest;
+
+public class BLAKE2Test
+    extends SimpleTest
+{
+    final static String provider = "BC";
+
+    static private byte[] abc = Hex.decode("616263");
+
+    static private String[][] abcVectors =
+    {
+        { "BLAKE2b-512", "ba80a53f981c4d0d6a2797b69f12f6e94c212f14685ac4b74b12bb6fdbffa2d17d87c5392aab792dc252d5de4533cc9518d38aa8dbf1925ab92386edd4009923" },
+        { "BLAKE2b-256", "bddd813c634239723171ef3fee98579b94964e3bb1cb3e427262c8c068d52319" },
+        { "BLAKE2b-160", "384264f676f39536840523f284921cdc68b6846b" },
+        { "BLAKE2s-256", "508c5e8c327c14e2e1a72ba34eeb452f37458b209ed63a294d999b4c86675982" },
+        { "BLAKE2s-160", "5ae3b99be29b01834c3b508521ede60438f8de17" },
+        { "BLAKE2s-128", "aa4938119b1dc7b87cbad0ffd200d0ae" },
+    };
+
+    // keyed, key 00 01 02 ... and message 00 01 02 ... fe
+    static private String[][] macVectors =
+    {
+        { "BLAKE2b-MAC-512", "142709d62e28fcccd0af97fad0f8465b971e82201dc51070faa0372aa43e92484be1c1e73ba10906d5d1853db6a4106e0a7bf9800d373d6dee2d46d62ef2a461" },
+        { "BLAKE2s-MAC-256", "3fb735061abc519dfe979e54c1ee5bfad0a9d858b3315bad34bde999efd724dd" },
+    };
+
+    public String getName()
+    {
+        return "BLAKE2";
+    }
+
+    void digestTest(String algorithm, String expected)
+        throws Exception
+    {
+        MessageDigest digest = MessageDigest.getInstance(algorithm, provider);
+
+        byte[] result = digest.digest(abc);
+
+        if (!MessageDigest.isEqual(result, Hex.decode(expected)))
+        {
+            fail("result not equal for " + algorithm);
+        }
+
+        // clone test
+        digest.update(abc, 0, 1);
+        MessageDigest d = (MessageDigest)digest.clone();
+        digest.update(abc, 1, 2);
+
+        if (!MessageDigest.isEqual(result, digest.digest()))
+        {
+            fail("clone source not equal for " + algorithm);
+        }
+
+        d.update(abc, 1, 2);
+
+        if (!MessageDigest.isEqual(result, d.digest()))
+        {
+            fail("clone not equal for " + algorithm);
+        }
+    }
+
+    void macTest(String algorithm, String expected)
+        throws Exception
+    {
+        Mac mac = Mac.getInstance(algorithm, provider);
+
+        byte[] message = new byte[255];
+        for (int i = 0; i != message.length; i++)
+        {
+            message[i] = (byte)i;
+        }
+        byte[] key = Arrays.copyOfRange(message, 0, mac.getMacLength());
+
+        mac.init(new SecretKeySpec(key, algorithm));
+
+        if (!MessageDigest.isEqual(Hex.decode(expected), mac.doFinal(message)))
+        {
+            fail("MAC not equal for " + algorithm);
+        }
+
+        KeyGenerator kGen = KeyGenerator.getInstance(algorithm, provider);
+        SecretKey k = kGen.generateKey();
+
+        if (k.getEncoded().length != mac.getMacLength())
+        {
+            fail("generated key wrong length for " + algorithm);
+        }
+    }
+
+    public void performTest()
+        throws Exception
+    {
+        for (int i = 0; i != abcVectors.length; i++)
+        {
+            digestTest(abcVectors[i][0], abcVectors[i][1]);
+        }
+
+        for (int i = 0; i != macVectors.length; i++)
+        {
+            macTest(macVectors[i][0], macVectors[i][1]);
+        }
+    }
+
+    public static void main(String[] args)
+    {
+        Security.addProvider(new BouncyCastleProvider());
+
+        runTest(new BLAKE2Test());
+    }
+}
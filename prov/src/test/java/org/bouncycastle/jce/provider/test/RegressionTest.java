@@ -76,6 +76,7 @@
         new Poly1305Test(),
         new SipHashTest(),
         new SHA3Test(),
+        new BLAKE2Test(),
         new SkeinTest()
     };
 